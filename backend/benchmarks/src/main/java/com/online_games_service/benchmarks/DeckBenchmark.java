@@ -0,0 +1,61 @@
+package com.online_games_service.benchmarks;
+
+import com.online_games_service.common.model.Card;
+import com.online_games_service.makao.model.MakaoDeck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuffling and drawing a Makao deck. Player counts above four use two decks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    @Param({"2", "8"})
+    public int players;
+
+    private MakaoDeck deck;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        deck = new MakaoDeck(players);
+    }
+
+    @Benchmark
+    public MakaoDeck shuffle() {
+        deck.shuffle();
+        return deck;
+    }
+
+    @Benchmark
+    public void drawAll(Blackhole blackhole) {
+        MakaoDeck fresh = new MakaoDeck(players);
+        Card card;
+        while ((card = fresh.draw()) != null) {
+            blackhole.consume(card);
+        }
+    }
+
+    @Benchmark
+    public MakaoDeck create() {
+        return new MakaoDeck(players);
+    }
+}
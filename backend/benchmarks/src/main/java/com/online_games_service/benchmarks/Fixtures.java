@@ -0,0 +1,108 @@
+package com.online_games_service.benchmarks;
+
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import com.online_games_service.common.model.Card;
+import com.online_games_service.ludo.model.LudoGame;
+import com.online_games_service.ludo.model.LudoPawn;
+import com.online_games_service.ludo.model.LudoPlayer;
+import com.online_games_service.makao.model.MakaoGame;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Game graphs and collaborators shared by the benchmark states.
+ */
+final class Fixtures {
+
+    static final String ROOM_ID = "room-1";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Mock that does not record invocations, so long runs neither slow down nor leak memory.
+     */
+    static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    /**
+     * Looks up a private method of a service so its hot path can be measured without widening
+     * its visibility.
+     */
+    static MethodHandle privateMethod(Class<?> owner, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            return lookup.findVirtual(owner, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    /**
+     * A freshly dealt game with the given humans and bots up to {@code maxPlayers}. The first
+     * human is on turn and holds a Five of Hearts that can be played on the Eight of Hearts on top.
+     */
+    static MakaoGame makaoGame(int humans, int maxPlayers) {
+        Map<String, String> players = new LinkedHashMap<>();
+        Map<String, String> avatars = new LinkedHashMap<>();
+        for (int i = 1; i <= humans; i++) {
+            players.put("p" + i, "Player " + i);
+            avatars.put("p" + i, "avatar_" + i + ".png");
+        }
+        MakaoGame game = new MakaoGame(ROOM_ID, players, avatars, "p1", maxPlayers);
+
+        List<String> order = new ArrayList<>(game.getPlayersOrderIds());
+        order.remove("p1");
+        order.add(0, "p1");
+        game.setPlayersOrderIds(order);
+        game.setActivePlayerId("p1");
+        game.getDiscardDeck().addCard(new Card(CardSuit.HEARTS, CardRank.EIGHT));
+        game.addCardToHand("p1", new Card(CardSuit.HEARTS, CardRank.FIVE));
+        for (int i = 0; i < 6; i++) {
+            game.addMoveLog("Player " + (i % humans + 1) + " played a card");
+        }
+        return game;
+    }
+
+    /**
+     * A mid-game Ludo board: every player has pawns spread over the track, in base and at home.
+     */
+    static LudoGame ludoGame() {
+        LudoGame game = new LudoGame(ROOM_ID, List.of("p1", "p2"), "p1",
+                Map.of("p1", "Player 1", "p2", "Player 2"), 4);
+        int offset = 0;
+        for (LudoPlayer player : game.getPlayers()) {
+            List<LudoPawn> pawns = player.getPawns();
+            int start = player.getColor().getStartPosition();
+            placeOnTrack(pawns.get(0), start, 5 + offset);
+            placeOnTrack(pawns.get(1), start, 21 + offset);
+            pawns.get(2).setInBase(false);
+            pawns.get(2).setInHome(true);
+            pawns.get(2).setStepsMoved(44);
+            offset += 3;
+        }
+        game.setActivePlayerId("p1");
+        game.setLastDiceRoll(4);
+        game.setDiceRolled(true);
+        game.setTurnStartTime(System.currentTimeMillis());
+        game.getPlacement().put("bot-1", 1);
+        return game;
+    }
+
+    private static void placeOnTrack(LudoPawn pawn, int start, int steps) {
+        pawn.setInBase(false);
+        pawn.setStepsMoved(steps);
+        pawn.setPosition((start + steps) % 44);
+    }
+}
@@ -0,0 +1,199 @@
+package com.online_games_service.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_games_service.social.model.GameInvite;
+import com.online_games_service.social.repository.GameInviteRedisRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Looking up the invites one user sent in a keyspace of {@code invites} pending invites, ten per
+ * sender: the former KEYS scan over every invite followed by a GET each, and the
+ * {@link GameInviteRedisRepository} sender index read with SMEMBERS and one MGET.
+ * <p>
+ * Redis is an in-memory map, so the scores show the work of visiting and decoding the keyspace
+ * rather than network latency. The number of Redis commands each lookup sends is printed once per
+ * trial; on a real server every one of them is a round trip, and KEYS blocks it for the whole scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameInviteLookupBenchmark {
+
+    private static final String INVITE_KEY_PREFIX = "game:invite:";
+    private static final int INVITES_PER_SENDER = 10;
+
+    @Param({"100000"})
+    public int invites;
+
+    private final Map<String, Object> values = new HashMap<>();
+    private final Map<String, Set<Object>> sets = new HashMap<>();
+    private final AtomicLong commands = new AtomicLong();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private GameInviteRedisRepository repository;
+    private String senderId;
+
+    @Setup
+    public void setUp() {
+        values.clear();
+        sets.clear();
+        redisTemplate = inMemoryRedis();
+        repository = new GameInviteRedisRepository(redisTemplate, objectMapper);
+
+        int senders = invites / INVITES_PER_SENDER;
+        for (int i = 0; i < invites; i++) {
+            repository.save(GameInvite.create("sender-" + (i % senders), "Sender", "target-" + i,
+                    "lobby-" + (i % senders), "Lobby", "MAKAO", "ABC123"));
+        }
+        senderId = "sender-" + (senders / 2);
+
+        commands.set(0);
+        int found = keysScan().size();
+        long scanCommands = commands.getAndSet(0);
+        repository.findBySenderId(senderId);
+        System.out.printf("%n%d invites: %d found, keys-scan %d commands, sender-index %d commands%n",
+                invites, found, scanCommands, commands.get());
+    }
+
+    @Benchmark
+    public List<GameInvite> keysScan() {
+        Set<String> keys = redisTemplate.keys(INVITE_KEY_PREFIX + "*");
+        List<GameInvite> result = new ArrayList<>();
+        for (String key : keys) {
+            Object value = redisTemplate.opsForValue().get(key);
+            if (value == null) {
+                continue;
+            }
+            try {
+                GameInvite invite = objectMapper.readValue(value.toString(), GameInvite.class);
+                if (senderId.equals(invite.getSenderId())) {
+                    result.add(invite);
+                }
+            } catch (JsonProcessingException e) {
+                // skipped, as the scan did
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<GameInvite> senderIndex() {
+        return repository.findBySenderId(senderId);
+    }
+
+    /**
+     * Template backed by {@link #values} and {@link #sets}, counting the commands it receives.
+     * Pipelined callbacks run against the template itself.
+     */
+    @SuppressWarnings("unchecked")
+    private RedisTemplate<String, Object> inMemoryRedis() {
+        RedisTemplate<String, Object> template = Fixtures.stub(RedisTemplate.class);
+        ValueOperations<String, Object> valueOps = Fixtures.stub(ValueOperations.class);
+        SetOperations<String, Object> setOps = Fixtures.stub(SetOperations.class);
+        when(template.opsForValue()).thenReturn(valueOps);
+        when(template.opsForSet()).thenReturn(setOps);
+
+        when(template.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(template);
+            return List.of();
+        });
+        when(template.keys(anyString())).thenAnswer(invocation -> {
+            commands.incrementAndGet();
+            String prefix = invocation.getArgument(0, String.class).replace("*", "");
+            Set<String> keys = new HashSet<>();
+            for (String key : values.keySet()) {
+                if (key.startsWith(prefix)) {
+                    keys.add(key);
+                }
+            }
+            return keys;
+        });
+        when(template.expire(anyString(), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            commands.incrementAndGet();
+            return true;
+        });
+        when(template.delete(anyString())).thenAnswer(invocation -> {
+            commands.incrementAndGet();
+            String key = invocation.getArgument(0);
+            return values.remove(key) != null | sets.remove(key) != null;
+        });
+
+        when(valueOps.get(any())).thenAnswer(invocation -> {
+            commands.incrementAndGet();
+            return values.get(invocation.getArgument(0, String.class));
+        });
+        when(valueOps.multiGet(any())).thenAnswer(invocation -> {
+            commands.incrementAndGet();
+            List<Object> result = new ArrayList<>();
+            for (String key : invocation.<List<String>>getArgument(0)) {
+                result.add(values.get(key));
+            }
+            return result;
+        });
+        doAnswer(invocation -> {
+            commands.incrementAndGet();
+            values.put(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(valueOps).set(anyString(), any(), anyLong(), any(TimeUnit.class));
+
+        when(setOps.add(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            commands.incrementAndGet();
+            Set<Object> set = sets.computeIfAbsent(invocation.getArgument(0), key -> new HashSet<>());
+            long added = 0;
+            for (int i = 1; i < invocation.getArguments().length; i++) {
+                added += set.add(invocation.getArgument(i)) ? 1 : 0;
+            }
+            return added;
+        });
+        when(setOps.remove(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            commands.incrementAndGet();
+            Set<Object> set = sets.getOrDefault(invocation.getArgument(0, String.class), Set.of());
+            long removed = 0;
+            for (int i = 1; i < invocation.getArguments().length; i++) {
+                removed += set.remove(invocation.getArgument(i)) ? 1 : 0;
+            }
+            return removed;
+        });
+        when(setOps.members(anyString())).thenAnswer(invocation -> {
+            commands.incrementAndGet();
+            Set<Object> set = sets.get(invocation.getArgument(0, String.class));
+            return set == null ? Set.of() : new HashSet<>(set);
+        });
+        return template;
+    }
+}
@@ -0,0 +1,80 @@
+package com.online_games_service.benchmarks;
+
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.TimingWheelScheduler;
+import com.online_games_service.ludo.model.LudoGame;
+import com.online_games_service.ludo.model.LudoPawn;
+import com.online_games_service.ludo.model.LudoPlayer;
+import com.online_games_service.ludo.repository.mongo.LudoGameResultRepository;
+import com.online_games_service.ludo.repository.redis.LudoGameRedisRepository;
+import com.online_games_service.ludo.service.LudoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move validation of {@link LudoService} on a mid-game board with four players: the per-pawn
+ * check and the "can this player move at all" check run for every die roll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LudoMoveValidationBenchmark {
+
+    private static final MethodHandle CAN_PAWN_MOVE = Fixtures.privateMethod(LudoService.class,
+            "canPawnMoveSimple", boolean.class, LudoGame.class, LudoPlayer.class, LudoPawn.class, int.class);
+    private static final MethodHandle CAN_PLAYER_MOVE = Fixtures.privateMethod(LudoService.class,
+            "canPlayerMove", boolean.class, LudoGame.class, String.class, int.class);
+
+    private LudoService service;
+    private LudoGame game;
+    private LudoPlayer player;
+
+    @Setup
+    public void setUp() {
+        service = new LudoService(Fixtures.stub(LudoGameRedisRepository.class),
+                Fixtures.stub(LudoGameResultRepository.class),
+                Fixtures.stub(RabbitTemplate.class),
+                Fixtures.stub(SimpMessagingTemplate.class),
+                Fixtures.stub(StringRedisTemplate.class),
+                Fixtures.stub(RoomActorExecutor.class),
+                Fixtures.stub(TimingWheelScheduler.class),
+                Fixtures.stub(RedisTimerQueue.class));
+        game = Fixtures.ludoGame();
+        player = game.getPlayerById("p1");
+    }
+
+    @Benchmark
+    public void canPawnMove_allRolls(Blackhole blackhole) throws Throwable {
+        for (LudoPawn pawn : player.getPawns()) {
+            for (int roll = 1; roll <= 6; roll++) {
+                blackhole.consume((boolean) CAN_PAWN_MOVE.invokeExact(service, game, player, pawn, roll));
+            }
+        }
+    }
+
+    @Benchmark
+    public void canPlayerMove_allRolls(Blackhole blackhole) throws Throwable {
+        for (int roll = 1; roll <= 6; roll++) {
+            blackhole.consume((boolean) CAN_PLAYER_MOVE.invokeExact(service, game, "p1", roll));
+        }
+    }
+}
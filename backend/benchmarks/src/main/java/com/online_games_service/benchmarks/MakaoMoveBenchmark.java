@@ -0,0 +1,110 @@
+package com.online_games_service.benchmarks;
+
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.RoomLeases;
+import com.online_games_service.common.concurrent.TimingWheelScheduler;
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import com.online_games_service.makao.dto.PlayCardRequest;
+import com.online_games_service.makao.model.MakaoGame;
+import com.online_games_service.makao.repository.cache.MakaoGameStateCache;
+import com.online_games_service.makao.repository.mongo.MakaoGameResultRepository;
+import com.online_games_service.makao.repository.redis.MakaoGameRedisRepository;
+import com.online_games_service.makao.service.GameStateBroadcaster;
+import com.online_games_service.makao.service.MakaoGameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * One human move through {@link MakaoGameService#playCard}: room lookup, the hop onto the
+ * room actor, validation, effects, turn change, timer scheduling and the per-player
+ * broadcast. Redis, RabbitMQ and STOMP are stubs, so the numbers are the service's own cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MakaoMoveBenchmark {
+
+    @Param({"2", "4"})
+    public int humans;
+
+    private RoomActorExecutor roomExecutor;
+    private TimingWheelScheduler roomTimers;
+    private MakaoGameStateCache gameStateCache;
+    private MakaoGameService service;
+    private PlayCardRequest request;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUpService() {
+        RedisTemplate<String, Object> redisTemplate = Fixtures.stub(RedisTemplate.class);
+        ValueOperations<String, Object> valueOps = Fixtures.stub(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.get(anyString())).thenReturn(Fixtures.ROOM_ID);
+
+        SimpMessagingTemplate messagingTemplate = Fixtures.stub(SimpMessagingTemplate.class);
+        roomExecutor = new RoomActorExecutor("bench-makao-room");
+        roomTimers = new TimingWheelScheduler("bench-makao-timers", 100);
+        RoomLeases roomLeases = Fixtures.stub(RoomLeases.class);
+        when(roomLeases.getLeaseMs()).thenReturn(Long.MAX_VALUE / 2);
+        when(roomLeases.acquire(anyString())).thenReturn(RoomLeases.LeaseState.ACQUIRED);
+        gameStateCache = new MakaoGameStateCache(Fixtures.stub(MakaoGameRedisRepository.class), roomLeases,
+                roomExecutor, MakaoGameStateCache.DurabilityMode.TURN, 1000, 600);
+
+        service = new MakaoGameService(gameStateCache,
+                Fixtures.stub(MakaoGameResultRepository.class),
+                redisTemplate,
+                Fixtures.stub(RabbitTemplate.class),
+                new TopicExchange("game.events"),
+                messagingTemplate,
+                roomExecutor,
+                roomTimers,
+                Fixtures.stub(RedisTimerQueue.class),
+                new GameStateBroadcaster(messagingTemplate));
+
+        request = new PlayCardRequest();
+        request.setCardSuit(CardSuit.HEARTS);
+        request.setCardRank(CardRank.FIVE);
+    }
+
+    @Setup(Level.Invocation)
+    public void dealGame() {
+        gameStateCache.save(Fixtures.makaoGame(humans, Math.max(humans, 4)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        roomTimers.close();
+        roomExecutor.close();
+    }
+
+    @Benchmark
+    public MakaoGame playCard() {
+        return service.playCard(request, "p1");
+    }
+}
@@ -0,0 +1,102 @@
+package com.online_games_service.benchmarks;
+
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.TimingWheelScheduler;
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import com.online_games_service.common.model.Card;
+import com.online_games_service.makao.model.MakaoDeck;
+import com.online_games_service.makao.model.MakaoGame;
+import com.online_games_service.makao.repository.cache.MakaoGameStateCache;
+import com.online_games_service.makao.repository.mongo.MakaoGameResultRepository;
+import com.online_games_service.makao.service.GameStateBroadcaster;
+import com.online_games_service.makao.service.MakaoGameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Card rules of {@link MakaoGameService} on a realistic hand: whether a card may be played on
+ * the top card, and collecting every playable card of a hand. A full-deck check covers the
+ * case of a player holding many cards after penalties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MakaoRulesBenchmark {
+
+    private static final MethodHandle IS_PLAYABLE = Fixtures.privateMethod(MakaoGameService.class,
+            "isPlayable", boolean.class, MakaoGame.class, Card.class);
+    private static final MethodHandle GATHER_PLAYABLE = Fixtures.privateMethod(MakaoGameService.class,
+            "gatherPlayableCards", List.class, MakaoGame.class, String.class);
+
+    private MakaoGameService service;
+    private MakaoGame game;
+    private MakaoGame demandGame;
+    private List<Card> fullDeck;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SimpMessagingTemplate messagingTemplate = Fixtures.stub(SimpMessagingTemplate.class);
+        service = new MakaoGameService(Fixtures.stub(MakaoGameStateCache.class),
+                Fixtures.stub(MakaoGameResultRepository.class),
+                Fixtures.stub(RedisTemplate.class),
+                Fixtures.stub(RabbitTemplate.class),
+                new TopicExchange("game.events"),
+                messagingTemplate,
+                Fixtures.stub(RoomActorExecutor.class),
+                Fixtures.stub(TimingWheelScheduler.class),
+                Fixtures.stub(RedisTimerQueue.class),
+                new GameStateBroadcaster(messagingTemplate));
+
+        game = Fixtures.makaoGame(2, 4);
+        for (int i = 0; i < 6; i++) {
+            game.addCardToHand("p1", game.getDrawDeck().draw());
+        }
+
+        demandGame = Fixtures.makaoGame(2, 4);
+        demandGame.getDiscardDeck().addCard(new Card(CardSuit.SPADES, CardRank.JACK));
+        demandGame.setDemandedRank(CardRank.SEVEN);
+        demandGame.setSpecialEffectActive(true);
+
+        fullDeck = new MakaoDeck(1).getCards();
+    }
+
+    @Benchmark
+    public void isPlayable_fullDeck(Blackhole blackhole) throws Throwable {
+        for (Card card : fullDeck) {
+            blackhole.consume((boolean) IS_PLAYABLE.invokeExact(service, game, card));
+        }
+    }
+
+    @Benchmark
+    public Object gatherPlayableCards() throws Throwable {
+        return (List<Card>) GATHER_PLAYABLE.invokeExact(service, game, "p1");
+    }
+
+    @Benchmark
+    public Object gatherPlayableCards_demandActive() throws Throwable {
+        return (List<Card>) GATHER_PLAYABLE.invokeExact(service, demandGame, "p1");
+    }
+}
@@ -0,0 +1,95 @@
+package com.online_games_service.benchmarks;
+
+import com.online_games_service.menu.service.chat.ProfanityFilterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ProfanityFilterService#filter} on typical chat lines: clean, with one masked word,
+ * a long message close to the chat length limit, and a 500-character message of near misses.
+ * The {@code regex} engine is the single leetspeak alternation the filter used before its
+ * Aho-Corasick matcher, kept here as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfanityFilterBenchmark {
+
+    @Param({"clean", "profane", "long", "near-misses"})
+    public String message;
+
+    @Param({"automaton", "regex"})
+    public String engine;
+
+    private final ProfanityFilterService filter = new ProfanityFilterService();
+    private final Pattern regex = legacyPattern();
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = switch (message) {
+            case "clean" -> "gg everyone, want to play another round of makao?";
+            case "profane" -> "that was a sh1t move, but well played anyway";
+            case "long" -> "I was holding three queens and a jack the whole game and still could not "
+                    + "get rid of them because somebody kept playing fours on me, next round I am "
+                    + "going to demand sevens every single time and see how you like that, damn";
+            case "near-misses" -> "classic passes, shitake, dicky, asses, cockatoo, bassist; "
+                    .repeat(9).substring(0, 500);
+            default -> throw new IllegalArgumentException(message);
+        };
+    }
+
+    @Benchmark
+    public ProfanityFilterService.FilterResult filter() {
+        return "regex".equals(engine) ? regexFilter(text) : filter.filter(text);
+    }
+
+    private ProfanityFilterService.FilterResult regexFilter(String input) {
+        Matcher matcher = regex.matcher(input);
+        StringBuilder result = new StringBuilder();
+        boolean wasFiltered = false;
+        while (matcher.find()) {
+            wasFiltered = true;
+            matcher.appendReplacement(result, "*".repeat(matcher.group().length()));
+        }
+        matcher.appendTail(result);
+        return new ProfanityFilterService.FilterResult(result.toString(), wasFiltered);
+    }
+
+    private static Pattern legacyPattern() {
+        List<String> words = List.of(
+                "fuck", "shit", "ass", "bitch", "bastard", "damn", "crap", "piss",
+                "dick", "cock", "pussy", "cunt", "whore", "slut", "fag", "faggot",
+                "nigger", "nigga", "retard", "idiot", "moron", "stupid",
+                "kurwa", "chuj", "pizda", "skurwysyn", "dupa", "cholera", "kurwo");
+        String alternation = words.stream()
+                .map(word -> word
+                        .replace("a", "[a@4]")
+                        .replace("e", "[e3]")
+                        .replace("i", "[i1!]")
+                        .replace("o", "[o0]")
+                        .replace("s", "[s$5]")
+                        .replace("t", "[t7]")
+                        .replace("l", "[l1]"))
+                .collect(Collectors.joining("|"));
+        return Pattern.compile("\\b(" + alternation + ")\\b", Pattern.CASE_INSENSITIVE);
+    }
+}
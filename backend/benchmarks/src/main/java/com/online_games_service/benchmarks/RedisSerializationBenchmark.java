@@ -0,0 +1,88 @@
+package com.online_games_service.benchmarks;
+
+import com.online_games_service.common.codec.CompactRedisSerializer;
+import com.online_games_service.common.config.BaseRedisConfig;
+import com.online_games_service.ludo.model.LudoGame;
+import com.online_games_service.ludo.repository.redis.LudoGameCodec;
+import com.online_games_service.makao.model.MakaoGame;
+import com.online_games_service.makao.repository.redis.MakaoGameCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value serializer round-trips of in-progress games, as configured by
+ * {@link BaseRedisConfig}: the JSON serializer alone and the compact codecs in front of it.
+ * The encoded size of each variant is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializationBenchmark {
+
+    @Param({"json", "compact"})
+    public String format;
+
+    private RedisSerializer<Object> serializer;
+    private MakaoGame makaoGame;
+    private LudoGame ludoGame;
+    private byte[] makaoBytes;
+    private byte[] ludoBytes;
+
+    @Setup
+    public void setUp() {
+        GenericJackson2JsonRedisSerializer json = BaseRedisConfig.jsonSerializer();
+        serializer = "compact".equals(format)
+                ? new CompactRedisSerializer(json, List.of(new MakaoGameCodec(), new LudoGameCodec()))
+                : json;
+
+        makaoGame = Fixtures.makaoGame(2, 4);
+        makaoGame.setTurnStartTime(System.currentTimeMillis());
+        ludoGame = Fixtures.ludoGame();
+
+        makaoBytes = serializer.serialize(makaoGame);
+        ludoBytes = serializer.serialize(ludoGame);
+        System.out.printf("%n%s: MakaoGame %d B, LudoGame %d B%n", format, makaoBytes.length, ludoBytes.length);
+    }
+
+    @Benchmark
+    public byte[] makao_serialize() {
+        return serializer.serialize(makaoGame);
+    }
+
+    @Benchmark
+    public Object makao_deserialize() {
+        return serializer.deserialize(makaoBytes);
+    }
+
+    @Benchmark
+    public Object makao_roundTrip() {
+        return serializer.deserialize(serializer.serialize(makaoGame));
+    }
+
+    @Benchmark
+    public byte[] ludo_serialize() {
+        return serializer.serialize(ludoGame);
+    }
+
+    @Benchmark
+    public Object ludo_deserialize() {
+        return serializer.deserialize(ludoBytes);
+    }
+}
@@ -0,0 +1,88 @@
+package com.online_games_service.benchmarks;
+
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.TimingWheelScheduler;
+import com.online_games_service.makao.model.MakaoGame;
+import com.online_games_service.makao.repository.cache.MakaoGameStateCache;
+import com.online_games_service.makao.repository.mongo.MakaoGameResultRepository;
+import com.online_games_service.makao.service.GameStateBroadcaster;
+import com.online_games_service.makao.service.MakaoGameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the per-player frames of one Makao move, as done by
+ * {@code MakaoGameService.broadcastPlayerStates}. {@code snapshot} sends every player the full
+ * state, as on the first message of a game; {@code move} sends deltas after a turn change.
+ * The messaging template is a stub, so broker and socket costs are excluded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateBroadcastBenchmark {
+
+    private static final MethodHandle BROADCAST = Fixtures.privateMethod(MakaoGameService.class,
+            "broadcastPlayerStates", void.class, MakaoGame.class);
+
+    @Param({"2", "8"})
+    public int humans;
+
+    @Param({"snapshot", "move"})
+    public String kind;
+
+    private GameStateBroadcaster broadcaster;
+    private MakaoGameService service;
+    private MakaoGame game;
+    private long moves;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SimpMessagingTemplate messagingTemplate = Fixtures.stub(SimpMessagingTemplate.class);
+        broadcaster = new GameStateBroadcaster(messagingTemplate);
+        service = new MakaoGameService(Fixtures.stub(MakaoGameStateCache.class),
+                Fixtures.stub(MakaoGameResultRepository.class),
+                Fixtures.stub(RedisTemplate.class),
+                Fixtures.stub(RabbitTemplate.class),
+                new TopicExchange("game.events"),
+                messagingTemplate,
+                Fixtures.stub(RoomActorExecutor.class),
+                Fixtures.stub(TimingWheelScheduler.class),
+                Fixtures.stub(RedisTimerQueue.class),
+                broadcaster);
+        game = Fixtures.makaoGame(humans, Math.max(humans, 4));
+        game.setTurnStartTime(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public void broadcastPlayerStates() throws Throwable {
+        if ("snapshot".equals(kind)) {
+            broadcaster.forgetRoom(Fixtures.ROOM_ID);
+        } else {
+            moves++;
+            game.setActivePlayerId((moves & 1) == 0 ? "p1" : "p2");
+            game.addMoveLog("Player " + (moves & 1) + " played a card");
+        }
+        BROADCAST.invokeExact(service, game);
+    }
+}
@@ -0,0 +1,172 @@
+package com.online_games_service.common.codec;
+
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import com.online_games_service.common.model.Card;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads values written by {@link CompactOutput}. Collections come back as mutable
+ * {@link ArrayList}/{@link HashMap} instances, or null if null was written.
+ */
+public final class CompactInput {
+
+    private static final CardSuit[] SUITS = CardSuit.values();
+    private static final CardRank[] RANKS = CardRank.values();
+
+    private final byte[] buffer;
+    private int position;
+
+    public CompactInput(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    public int readByte() {
+        if (position >= buffer.length) {
+            throw new IllegalStateException("Unexpected end of compact value at byte " + position);
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint at byte " + position);
+    }
+
+    public int readSignedVarInt() {
+        int raw = readVarInt();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varlong at byte " + position);
+    }
+
+    public Long readNullableLong() {
+        return readBoolean() ? readVarLong() : null;
+    }
+
+    public Integer readNullableInt() {
+        return readBoolean() ? readSignedVarInt() : null;
+    }
+
+    public String readString() {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (position + length > buffer.length) {
+            throw new IllegalStateException("String length " + length + " exceeds compact value at byte " + position);
+        }
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        int ordinal = readVarInt() - 1;
+        if (ordinal < 0) {
+            return null;
+        }
+        if (ordinal >= values.length) {
+            throw new IllegalStateException("Unknown ordinal " + ordinal + " for " + values.getClass().getComponentType().getSimpleName());
+        }
+        return values[ordinal];
+    }
+
+    public Card readCard() {
+        return decodeCard(readByte());
+    }
+
+    public List<Card> readCards() {
+        int count = readVarInt() - 1;
+        if (count < 0) {
+            return null;
+        }
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(decodeCard(readByte()));
+        }
+        return cards;
+    }
+
+    public List<String> readStrings() {
+        int count = readVarInt() - 1;
+        if (count < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    public Map<String, String> readStringMap() {
+        int count = readVarInt() - 1;
+        if (count < 0) {
+            return null;
+        }
+        Map<String, String> values = new HashMap<>(Math.max(4, count * 2));
+        for (int i = 0; i < count; i++) {
+            values.put(readString(), readString());
+        }
+        return values;
+    }
+
+    public Map<String, Integer> readIntMap() {
+        int count = readVarInt() - 1;
+        if (count < 0) {
+            return null;
+        }
+        Map<String, Integer> values = new HashMap<>(Math.max(4, count * 2));
+        for (int i = 0; i < count; i++) {
+            values.put(readString(), readNullableInt());
+        }
+        return values;
+    }
+
+    public boolean hasRemaining() {
+        return position < buffer.length;
+    }
+
+    static Card decodeCard(int encoded) {
+        if (encoded == CompactOutput.NULL_CARD) {
+            return null;
+        }
+        int suit = encoded >>> 4;
+        int rank = encoded & 0xF;
+        if ((suit >= SUITS.length && suit != CompactOutput.NULL_NIBBLE)
+                || (rank >= RANKS.length && rank != CompactOutput.NULL_NIBBLE)) {
+            throw new IllegalStateException("Invalid card byte " + encoded);
+        }
+        return new Card(
+                suit == CompactOutput.NULL_NIBBLE ? null : SUITS[suit],
+                rank == CompactOutput.NULL_NIBBLE ? null : RANKS[rank]);
+    }
+}
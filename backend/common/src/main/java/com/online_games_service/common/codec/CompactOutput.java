@@ -0,0 +1,181 @@
+package com.online_games_service.common.codec;
+
+import com.online_games_service.common.model.Card;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Growable byte buffer with the primitives used by {@link GameStateCodec} implementations.
+ * <p>
+ * Integers are written as varints, strings as length-prefixed UTF-8, and a card as a single
+ * byte (suit in the high nibble, rank in the low nibble). Nullable values are prefixed or
+ * offset so that null costs one byte.
+ */
+public final class CompactOutput {
+
+    static final int NULL_NIBBLE = 0xF;
+    static final int NULL_CARD = 0xEE;
+
+    private byte[] buffer;
+    private int size;
+
+    public CompactOutput() {
+        this(256);
+    }
+
+    public CompactOutput(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Unsigned LEB128; negative values take five bytes, use {@link #writeSignedVarInt} for those.
+     */
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeNullableLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value);
+        }
+    }
+
+    public void writeNullableInt(Integer value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeSignedVarInt(value);
+        }
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Writes {@code ordinal + 1}, or 0 for null.
+     */
+    public void writeEnum(Enum<?> value) {
+        writeVarInt(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    public void writeCard(Card card) {
+        writeByte(encodeCard(card));
+    }
+
+    /**
+     * Writes the size (+1, 0 for null) followed by one byte per card.
+     */
+    public void writeCards(List<Card> cards) {
+        if (cards == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(cards.size() + 1);
+        ensureCapacity(cards.size());
+        for (Card card : cards) {
+            buffer[size++] = (byte) encodeCard(card);
+        }
+    }
+
+    public void writeStrings(Collection<String> values) {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(values.size() + 1);
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    public void writeStringMap(Map<String, String> values) {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(values.size() + 1);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            writeString(entry.getKey());
+            writeString(entry.getValue());
+        }
+    }
+
+    public void writeIntMap(Map<String, Integer> values) {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(values.size() + 1);
+        for (Map.Entry<String, Integer> entry : values.entrySet()) {
+            writeString(entry.getKey());
+            writeNullableInt(entry.getValue());
+        }
+    }
+
+    public void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    static int encodeCard(Card card) {
+        if (card == null) {
+            return NULL_CARD;
+        }
+        int suit = card.getSuit() != null ? card.getSuit().ordinal() : NULL_NIBBLE;
+        int rank = card.getRank() != null ? card.getRank().ordinal() : NULL_NIBBLE;
+        return (suit << 4) | rank;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
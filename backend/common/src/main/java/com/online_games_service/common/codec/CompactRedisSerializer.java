@@ -0,0 +1,104 @@
+package com.online_games_service.common.codec;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Redis value serializer that stores registered game entities in their compact binary form
+ * and everything else through a fallback (JSON) serializer.
+ * <p>
+ * Compact values start with {@link #MAGIC}, which can never begin a JSON document, followed by
+ * the codec id and schema version. Reads check the first byte, so keys written as JSON by an
+ * older release keep loading and are rewritten in the compact form on their next save.
+ * With compact writes disabled, compact values are still readable, which allows a rollback.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /** First byte of every compact value; not valid as the first byte of UTF-8 text */
+    public static final int MAGIC = 0xC1;
+
+    private static final int HEADER_SIZE = 3;
+
+    private final RedisSerializer<Object> fallback;
+    private final boolean writeCompact;
+    private final Map<Class<?>, GameStateCodec<?>> codecsByType = new HashMap<>();
+    private final GameStateCodec<?>[] codecsById = new GameStateCodec<?>[256];
+
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, Collection<? extends GameStateCodec<?>> codecs) {
+        this(fallback, codecs, true);
+    }
+
+    /**
+     * @param writeCompact when false, every value is written with the fallback serializer
+     */
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, Collection<? extends GameStateCodec<?>> codecs,
+                                  boolean writeCompact) {
+        this.fallback = fallback;
+        this.writeCompact = writeCompact;
+        for (GameStateCodec<?> codec : codecs) {
+            int id = codec.codecId() & 0xFF;
+            if (codecsById[id] != null) {
+                throw new IllegalArgumentException("Duplicate game state codec id " + id + ": "
+                        + codecsById[id].getClass().getName() + " and " + codec.getClass().getName());
+            }
+            if (codec.schemaVersion() < 0 || codec.schemaVersion() > 0xFF) {
+                throw new IllegalArgumentException("Schema version of " + codec.getClass().getName() + " must fit in one byte");
+            }
+            codecsById[id] = codec;
+            codecsByType.put(codec.type(), codec);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(Object value) throws SerializationException {
+        GameStateCodec<Object> codec = value != null && writeCompact
+                ? (GameStateCodec<Object>) codecsByType.get(value.getClass())
+                : null;
+        if (codec == null) {
+            return fallback.serialize(value);
+        }
+        try {
+            CompactOutput out = new CompactOutput(1024);
+            out.writeByte(MAGIC);
+            out.writeByte(codec.codecId());
+            out.writeByte(codec.schemaVersion());
+            codec.write(value, out);
+            return out.toByteArray();
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not encode " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (!isCompact(bytes)) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE) {
+            throw new SerializationException("Truncated compact value header");
+        }
+        GameStateCodec<?> codec = codecsById[bytes[1] & 0xFF];
+        if (codec == null) {
+            throw new SerializationException("No game state codec registered with id " + (bytes[1] & 0xFF));
+        }
+        int version = bytes[2] & 0xFF;
+        if (version > codec.schemaVersion()) {
+            throw new SerializationException("Value was written with schema version " + version + " of "
+                    + codec.type().getSimpleName() + ", newer than supported version " + codec.schemaVersion());
+        }
+        try {
+            return codec.read(version, new CompactInput(bytes, HEADER_SIZE));
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not decode " + codec.type().getSimpleName(), e);
+        }
+    }
+
+    public static boolean isCompact(byte[] bytes) {
+        return bytes != null && bytes.length > 0 && (bytes[0] & 0xFF) == MAGIC;
+    }
+}
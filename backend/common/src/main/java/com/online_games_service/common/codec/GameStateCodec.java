@@ -0,0 +1,37 @@
+package com.online_games_service.common.codec;
+
+/**
+ * Compact binary encoding for one game entity type stored in Redis.
+ * <p>
+ * Implementations are picked up by {@link CompactRedisSerializer}, which writes a short
+ * header (magic byte, codec id, schema version) in front of the encoded body. When the
+ * field layout changes, bump {@link #schemaVersion()} and keep reading the older versions,
+ * because games written by the previous release may still be live. Enum values are stored
+ * by ordinal, so reordering an enum also needs a new schema version.
+ *
+ * @param <T> the entity type
+ */
+public interface GameStateCodec<T> {
+
+    /**
+     * Identifies the codec in stored values. Must be unique within a service and never reused.
+     */
+    byte codecId();
+
+    /**
+     * Version written with every new value.
+     */
+    int schemaVersion();
+
+    /**
+     * The exact class handled by this codec; subclasses are not matched.
+     */
+    Class<T> type();
+
+    void write(T value, CompactOutput out);
+
+    /**
+     * @param schemaVersion version the value was written with
+     */
+    T read(int schemaVersion, CompactInput in);
+}
@@ -0,0 +1,275 @@
+package com.online_games_service.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable timers shared by all replicas of a service.
+ * <p>
+ * Deadlines live in a Redis sorted set (score = due time in Redis clock milliseconds) with
+ * the payload in a companion hash. Every replica polls the set; a Lua script claims due
+ * timers atomically by pushing their score forward by a lease, so each timer is handed to
+ * one replica at a time. The timer is removed only after its handler completes. If the
+ * replica dies or the handler fails, the lease runs out and another replica fires it again.
+ * Delivery is therefore at-least-once and handlers must be idempotent.
+ * <p>
+ * A timer can name an owner key, such as a {@link RoomLeases} key. While that key holds another
+ * replica's id, only that replica claims the timer, so it runs where the room's live state is.
+ * Once the owner's lease expires, any replica claims it. Due timers of other live owners are
+ * paged past, so they never hold back the timers this replica may claim.
+ * <p>
+ * The claim script reads owner keys it finds in the owner hash, which cannot be declared up
+ * front. The queue therefore needs a standalone Redis (as the services use), or owner keys that
+ * hash to the same cluster slot as the queue keys.
+ */
+@Slf4j
+public class RedisTimerQueue implements AutoCloseable {
+
+    private static final RedisScript<Long> SCHEDULE_SCRIPT = new DefaultRedisScript<>("""
+            local now = redis.call('TIME')
+            local due = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000) + tonumber(ARGV[2])
+            redis.call('HSET', KEYS[2], ARGV[1], ARGV[3])
+            if ARGV[4] ~= '' then
+                redis.call('HSET', KEYS[3], ARGV[1], ARGV[4])
+            else
+                redis.call('HDEL', KEYS[3], ARGV[1])
+            end
+            redis.call('ZADD', KEYS[1], due, ARGV[1])
+            return due
+            """, Long.class);
+
+    // With a payload, only removes the timer if it still carries that payload
+    private static final RedisScript<Long> CANCEL_SCRIPT = new DefaultRedisScript<>("""
+            if ARGV[2] ~= nil and (redis.call('HGET', KEYS[2], ARGV[1]) or '') ~= ARGV[2] then
+                return 0
+            end
+            redis.call('HDEL', KEYS[2], ARGV[1])
+            redis.call('HDEL', KEYS[3], ARGV[1])
+            return redis.call('ZREM', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    // Claimed timers move past now and leave the due range, so the next page starts after the
+    // timers skipped for other owners. Owner keys are read from the hash, not passed in KEYS.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local now = redis.call('TIME')
+            local nowMs = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000)
+            local leaseUntil = nowMs + tonumber(ARGV[1])
+            local batch = tonumber(ARGV[2])
+            local claimed = {}
+            local skipped = 0
+            while #claimed < batch * 3 do
+                local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', nowMs, 'LIMIT', skipped, batch * 4)
+                if #ids == 0 then
+                    break
+                end
+                for _, id in ipairs(ids) do
+                    local ownerKey = redis.call('HGET', KEYS[3], id)
+                    local owner = ownerKey and redis.call('GET', ownerKey)
+                    if not owner or owner == ARGV[3] then
+                        redis.call('ZADD', KEYS[1], leaseUntil, id)
+                        claimed[#claimed + 1] = id
+                        claimed[#claimed + 1] = redis.call('HGET', KEYS[2], id) or ''
+                        claimed[#claimed + 1] = tostring(leaseUntil)
+                        if #claimed >= batch * 3 then
+                            break
+                        end
+                    else
+                        skipped = skipped + 1
+                    end
+                end
+            end
+            return claimed
+            """, List.class);
+
+    // Only removes the timer if it was not re-scheduled while the handler ran
+    private static final RedisScript<Long> ACK_SCRIPT = new DefaultRedisScript<>("""
+            local score = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            if not score or tonumber(score) ~= tonumber(ARGV[2]) then
+                return 0
+            end
+            if (redis.call('HGET', KEYS[2], ARGV[1]) or '') ~= ARGV[3] then
+                return 0
+            end
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            redis.call('HDEL', KEYS[2], ARGV[1])
+            redis.call('HDEL', KEYS[3], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String name;
+    private final String replicaId;
+    private final List<String> keys;
+    private final long pollIntervalMs;
+    private final long leaseMs;
+    private final int batchSize;
+    private ScheduledExecutorService poller;
+    private TimerHandler handler;
+
+    /**
+     * @param namespace prefix of the Redis keys, e.g. {@code makao:turn-timers}
+     * @param leaseMs   how long a claimed timer stays with one replica before it can be fired again
+     */
+    public RedisTimerQueue(StringRedisTemplate redisTemplate, String namespace,
+                           long pollIntervalMs, long leaseMs, int batchSize) {
+        this(redisTemplate, namespace, pollIntervalMs, leaseMs, batchSize, UUID.randomUUID().toString());
+    }
+
+    /**
+     * @param replicaId the id this replica writes to owner keys, so it claims the timers routed to it
+     */
+    public RedisTimerQueue(StringRedisTemplate redisTemplate, String namespace,
+                           long pollIntervalMs, long leaseMs, int batchSize, String replicaId) {
+        this.redisTemplate = redisTemplate;
+        this.name = namespace;
+        this.replicaId = replicaId;
+        this.keys = List.of(namespace + ":due", namespace + ":payload", namespace + ":owner");
+        this.pollIntervalMs = Math.max(10, pollIntervalMs);
+        this.leaseMs = Math.max(1000, leaseMs);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Starts polling for due timers. Each claimed timer is passed to the handler, and
+     * it is acknowledged when the returned stage completes normally.
+     */
+    public synchronized void start(TimerHandler handler) {
+        if (poller != null) {
+            throw new IllegalStateException("Timer queue " + name + " is already started");
+        }
+        this.handler = handler;
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name + "-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Redis timer queue {} started (pollIntervalMs={}, leaseMs={})", name, pollIntervalMs, leaseMs);
+    }
+
+    /**
+     * Schedules the timer, replacing its previous deadline and payload if it already exists.
+     */
+    public void schedule(String timerId, String payload, long delay, TimeUnit unit) {
+        schedule(timerId, payload, delay, unit, null);
+    }
+
+    /**
+     * Schedules the timer for the replica named in {@code ownerKey}, replacing its previous
+     * deadline and payload if it already exists.
+     *
+     * @param ownerKey key holding the id of the replica that should fire the timer; when it is
+     *                 missing or null, any replica may
+     */
+    public void schedule(String timerId, String payload, long delay, TimeUnit unit, String ownerKey) {
+        redisTemplate.execute(SCHEDULE_SCRIPT, keys,
+                timerId, Long.toString(Math.max(0, unit.toMillis(delay))), payload != null ? payload : "",
+                ownerKey != null ? ownerKey : "");
+    }
+
+    /**
+     * @return true if a timer was removed
+     */
+    public boolean cancel(String timerId) {
+        Long removed = redisTemplate.execute(CANCEL_SCRIPT, keys, timerId);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * Removes the timer only if it still carries the given payload, so a timer that was
+     * re-scheduled meanwhile is kept.
+     *
+     * @return true if a timer was removed
+     */
+    public boolean cancel(String timerId, String payload) {
+        Long removed = redisTemplate.execute(CANCEL_SCRIPT, keys, timerId, payload != null ? payload : "");
+        return removed != null && removed > 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (poller != null) {
+            poller.shutdown();
+            poller = null;
+        }
+    }
+
+    void poll() {
+        try {
+            int claimed;
+            do {
+                claimed = claimBatch();
+            } while (claimed >= batchSize);
+        } catch (Exception e) {
+            log.error("Failed to poll timer queue {}", name, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int claimBatch() {
+        List<Object> claimed = redisTemplate.execute(CLAIM_SCRIPT, keys,
+                Long.toString(leaseMs), Integer.toString(batchSize), replicaId);
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        for (int i = 0; i + 2 < claimed.size(); i += 3) {
+            String timerId = String.valueOf(claimed.get(i));
+            String payload = String.valueOf(claimed.get(i + 1));
+            String lease = String.valueOf(claimed.get(i + 2));
+            dispatch(timerId, payload, lease);
+        }
+        return claimed.size() / 3;
+    }
+
+    private void dispatch(String timerId, String payload, String lease) {
+        CompletionStage<?> result;
+        try {
+            result = handler.fire(timerId, payload);
+        } catch (Exception e) {
+            log.error("Timer {} in {} failed; it will be retried after its lease", timerId, name, e);
+            return;
+        }
+        if (result == null) {
+            acknowledge(timerId, payload, lease);
+            return;
+        }
+        result.whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.error("Timer {} in {} failed; it will be retried after its lease", timerId, name, error);
+            } else {
+                acknowledge(timerId, payload, lease);
+            }
+        });
+    }
+
+    private void acknowledge(String timerId, String payload, String lease) {
+        try {
+            redisTemplate.execute(ACK_SCRIPT, keys, timerId, lease, payload);
+        } catch (Exception e) {
+            log.warn("Could not acknowledge timer {} in {}; it may fire again", timerId, name, e);
+        }
+    }
+
+    /**
+     * Receives due timers. Implementations must tolerate the same timer being delivered
+     * more than once.
+     */
+    @FunctionalInterface
+    public interface TimerHandler {
+        /**
+         * @return a stage that completes when the timer has been handled, or null if it
+         *         was handled synchronously
+         */
+        CompletionStage<?> fire(String timerId, String payload);
+    }
+}
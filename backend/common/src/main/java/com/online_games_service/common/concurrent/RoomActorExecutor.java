@@ -0,0 +1,208 @@
+package com.online_games_service.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs commands for a room one at a time, in submission order, on a shared worker pool.
+ * <p>
+ * Every room gets its own mailbox. A mailbox is scheduled on the pool only while it has
+ * pending commands, so thousands of mostly idle rooms cost nothing, and different rooms
+ * proceed in parallel without any global lock. Commands submitted from inside a room's
+ * own command run inline, so service methods can call each other freely.
+ */
+@Slf4j
+public class RoomActorExecutor implements AutoCloseable {
+
+    private static final int DEFAULT_BATCH_SIZE = 32;
+    private static final ThreadLocal<String> CURRENT_ROOM = new ThreadLocal<>();
+
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final ConcurrentHashMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an executor backed by virtual threads.
+     */
+    public RoomActorExecutor(String name) {
+        this(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory()), DEFAULT_BATCH_SIZE);
+    }
+
+    public RoomActorExecutor(ExecutorService workers, int batchSize) {
+        this.workers = workers;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Queues a command for the room and returns immediately.
+     */
+    public CompletableFuture<Void> execute(String roomId, Runnable command) {
+        return submit(roomId, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Queues a command for the room. The returned future completes with its result.
+     */
+    public <T> CompletableFuture<T> submit(String roomId, Callable<T> command) {
+        if (roomId == null) {
+            throw new IllegalArgumentException("roomId is required");
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(command.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+
+        Mailbox[] toSchedule = new Mailbox[1];
+        mailboxes.compute(roomId, (key, mailbox) -> {
+            Mailbox target = mailbox != null ? mailbox : new Mailbox(key);
+            target.queue.add(task);
+            if (target.pending.getAndIncrement() == 0) {
+                toSchedule[0] = target;
+            }
+            return target;
+        });
+        if (toSchedule[0] != null) {
+            workers.execute(toSchedule[0]);
+        }
+        return result;
+    }
+
+    /**
+     * Runs a command on the room's actor and waits for its result.
+     * Runtime exceptions thrown by the command are rethrown unchanged.
+     */
+    public <T> T call(String roomId, Callable<T> command) {
+        if (isInRoom(roomId)) {
+            try {
+                return command.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+        try {
+            return submit(roomId, command).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room " + roomId, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * Runs a command on the room's actor and waits for it to finish.
+     */
+    public void run(String roomId, Runnable command) {
+        call(roomId, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns a task that queues the command on the room's actor when run.
+     * Useful for handing room work to timers and other executors.
+     */
+    public Runnable wrap(String roomId, Runnable command) {
+        return () -> execute(roomId, command);
+    }
+
+    /**
+     * Returns true if the current thread is executing a command for the given room.
+     */
+    public boolean isInRoom(String roomId) {
+        return roomId != null && roomId.equals(CURRENT_ROOM.get());
+    }
+
+    /**
+     * Number of rooms that currently have queued or running commands.
+     */
+    public int activeRooms() {
+        return mailboxes.size();
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class Mailbox implements Runnable {
+        private final String roomId;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Mailbox(String roomId) {
+            this.roomId = roomId;
+        }
+
+        @Override
+        public void run() {
+            String previousRoom = CURRENT_ROOM.get();
+            CURRENT_ROOM.set(roomId);
+            try {
+                int processed = 0;
+                while (true) {
+                    Runnable task = queue.poll();
+                    if (task != null) {
+                        try {
+                            task.run();
+                        } catch (Throwable e) {
+                            log.error("Unhandled error in command for room {}", roomId, e);
+                        }
+                    }
+                    if (pending.decrementAndGet() == 0) {
+                        mailboxes.computeIfPresent(roomId, (key, current) ->
+                                current == this && current.pending.get() == 0 ? null : current);
+                        return;
+                    }
+                    if (++processed >= batchSize) {
+                        // Yield the worker so one busy room cannot starve the others
+                        workers.execute(this);
+                        return;
+                    }
+                }
+            } finally {
+                if (previousRoom != null) {
+                    CURRENT_ROOM.set(previousRoom);
+                } else {
+                    CURRENT_ROOM.remove();
+                }
+            }
+        }
+    }
+}
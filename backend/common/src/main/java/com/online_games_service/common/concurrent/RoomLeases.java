@@ -0,0 +1,135 @@
+package com.online_games_service.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Redis leases that make one replica the owner of a room.
+ * <p>
+ * A replica that keeps a room's live state in memory holds the room's lease, a
+ * {@code {prefix}{roomId}} key with its replica id, and renews it while the room stays live.
+ * Other replicas see the owner and leave the room's in-memory state to it; {@link RedisTimerQueue}
+ * routes the room's timers to it the same way. A lease that is not renewed, for example because
+ * the replica died, expires and the room can be taken over.
+ */
+@Slf4j
+public class RoomLeases {
+
+    /**
+     * Result of acquiring or renewing a lease.
+     */
+    public enum LeaseState {
+        /** Another replica holds the lease. */
+        OWNED_ELSEWHERE,
+        /** The lease was free and now belongs to this replica. */
+        ACQUIRED,
+        /** This replica already held the lease and extended it. */
+        RENEWED
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local result = {}
+            for i, key in ipairs(KEYS) do
+                local owner = redis.call('GET', key)
+                if not owner or owner == ARGV[1] then
+                    redis.call('SET', key, ARGV[1], 'PX', tonumber(ARGV[2]))
+                    result[i] = owner and 2 or 1
+                else
+                    result[i] = 0
+                end
+            end
+            return result
+            """, List.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local released = 0
+            for _, key in ipairs(KEYS) do
+                if redis.call('GET', key) == ARGV[1] then
+                    redis.call('DEL', key)
+                    released = released + 1
+                end
+            end
+            return released
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final long leaseMs;
+    private final String replicaId = UUID.randomUUID().toString();
+
+    /**
+     * @param keyPrefix prefix of the lease keys, e.g. {@code makao:room-owner:}
+     * @param leaseMs   how long a lease lasts without being renewed
+     */
+    public RoomLeases(StringRedisTemplate redisTemplate, String keyPrefix, long leaseMs) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.leaseMs = Math.max(1000, leaseMs);
+    }
+
+    public String getReplicaId() {
+        return replicaId;
+    }
+
+    public long getLeaseMs() {
+        return leaseMs;
+    }
+
+    /**
+     * The key holding the id of the replica that owns the room.
+     */
+    public String keyOf(String roomId) {
+        return keyPrefix + roomId;
+    }
+
+    /**
+     * Acquires the room's lease for this replica, or renews it if this replica already holds it.
+     */
+    public LeaseState acquire(String roomId) {
+        return acquireAll(List.of(roomId)).getOrDefault(roomId, LeaseState.OWNED_ELSEWHERE);
+    }
+
+    /**
+     * Acquires or renews the leases of all given rooms with one script call.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, LeaseState> acquireAll(Collection<String> roomIds) {
+        Map<String, LeaseState> states = new LinkedHashMap<>();
+        if (roomIds.isEmpty()) {
+            return states;
+        }
+        List<String> rooms = new ArrayList<>(roomIds);
+        List<Object> results = redisTemplate.execute(ACQUIRE_SCRIPT, rooms.stream().map(this::keyOf).toList(),
+                replicaId, Long.toString(leaseMs));
+        for (int i = 0; i < rooms.size(); i++) {
+            long result = results != null && i < results.size() ? ((Number) results.get(i)).longValue() : 0;
+            states.put(rooms.get(i), result == 2 ? LeaseState.RENEWED
+                    : result == 1 ? LeaseState.ACQUIRED : LeaseState.OWNED_ELSEWHERE);
+        }
+        return states;
+    }
+
+    /**
+     * Gives up the leases this replica holds among the given rooms.
+     */
+    public void releaseAll(Collection<String> roomIds) {
+        if (roomIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, roomIds.stream().map(this::keyOf).toList(), replicaId);
+        } catch (Exception e) {
+            log.warn("Could not release {} room leases; they expire in {} ms", roomIds.size(), leaseMs, e);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.online_games_service.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical timing wheel for large numbers of short-lived room timers
+ * (turn timeouts, bot moves).
+ * <p>
+ * Scheduling and cancelling are O(1): callers only enqueue the request, and a single
+ * ticker thread owns the wheels, so no locks or heap re-balancing are involved.
+ * The wheel has {@value #LEVELS} levels of {@value #WHEEL_SIZE} slots each; timers
+ * further away sit in a coarse slot and are cascaded down as their deadline approaches.
+ * Expired tasks are handed to a worker pool and never run on the ticker thread.
+ * <p>
+ * Timers can be keyed (for example by room): scheduling a key replaces the previous
+ * timer for that key, and {@link #cancel(String)} removes it without keeping a handle.
+ * <p>
+ * {@link #stats()} counts scheduled, fired and cancelled timers and how late they fired.
+ * When a stats interval is given, the ticker also logs them periodically while the wheel is in use.
+ */
+@Slf4j
+public class TimingWheelScheduler implements AutoCloseable {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final String name;
+    private final long tickNanos;
+    private final Executor workers;
+    private final ExecutorService ownedWorkers;
+    private final Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+    private final Queue<Timer> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Timer> cancellations = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, Timer> keyedTimers = new ConcurrentHashMap<>();
+    private final Thread ticker;
+    private final long startNanos;
+    private final long statsLogNanos;
+    private long nextStatsLogNanos;
+    private long lastLoggedScheduled;
+    private volatile boolean running = true;
+    private long currentTick;
+
+    private final LongAdder scheduledCount = new LongAdder();
+    private final LongAdder firedCount = new LongAdder();
+    private final LongAdder cancelledCount = new LongAdder();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final LongAdder totalLatenessNanos = new LongAdder();
+    private final AtomicLong maxLatenessNanos = new AtomicLong();
+
+    /**
+     * Creates a scheduler that runs expired tasks on virtual threads.
+     */
+    public TimingWheelScheduler(String name, long tickMillis) {
+        this(name, tickMillis, null);
+    }
+
+    /**
+     * @param workers executor for expired tasks; when null, a virtual-thread executor
+     *                is created and shut down together with the scheduler
+     */
+    public TimingWheelScheduler(String name, long tickMillis, Executor workers) {
+        this(name, tickMillis, workers, 0);
+    }
+
+    /**
+     * @param workers         executor for expired tasks; when null, a virtual-thread executor
+     *                        is created and shut down together with the scheduler
+     * @param statsLogSeconds how often the ticker logs {@link #stats()}; 0 disables the periodic summary
+     */
+    public TimingWheelScheduler(String name, long tickMillis, Executor workers, long statsLogSeconds) {
+        this.name = name;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        if (workers != null) {
+            this.workers = workers;
+            this.ownedWorkers = null;
+        } else {
+            this.ownedWorkers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+            this.workers = ownedWorkers;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheels[level][slot] = new Bucket();
+            }
+        }
+        this.startNanos = System.nanoTime();
+        this.statsLogNanos = TimeUnit.SECONDS.toNanos(Math.max(0, statsLogSeconds));
+        this.nextStatsLogNanos = startNanos + statsLogNanos;
+        this.ticker = Thread.ofPlatform().name(name + "-ticker").daemon(true).unstarted(this::runTicker);
+        this.ticker.start();
+    }
+
+    /**
+     * Schedules a one-off task.
+     */
+    public Timeout schedule(long delay, TimeUnit unit, Runnable task) {
+        return schedule(null, delay, unit, task);
+    }
+
+    /**
+     * Schedules a task under the given key, replacing any timer already scheduled for it.
+     */
+    public Timeout schedule(String key, long delay, TimeUnit unit, Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task is required");
+        }
+        if (!running) {
+            throw new IllegalStateException("Scheduler " + name + " is shut down");
+        }
+        long deadlineNanos = System.nanoTime() + Math.max(0, unit.toNanos(delay));
+        Timer timer = new Timer(key, task, deadlineNanos);
+
+        scheduledCount.increment();
+        pendingCount.incrementAndGet();
+        if (key != null) {
+            Timer previous = keyedTimers.put(key, timer);
+            if (previous != null) {
+                previous.cancel();
+            }
+        }
+        additions.add(timer);
+        return timer;
+    }
+
+    /**
+     * Cancels the timer scheduled under the key, if any.
+     *
+     * @return true if a pending timer was cancelled
+     */
+    public boolean cancel(String key) {
+        if (key == null) {
+            return false;
+        }
+        Timer timer = keyedTimers.get(key);
+        return timer != null && timer.cancel();
+    }
+
+    /**
+     * Returns true if a timer is still pending under the key.
+     */
+    public boolean isScheduled(String key) {
+        Timer timer = key != null ? keyedTimers.get(key) : null;
+        return timer != null && timer.state.get() == STATE_PENDING;
+    }
+
+    public Stats stats() {
+        long fired = firedCount.sum();
+        return new Stats(
+                scheduledCount.sum(),
+                fired,
+                cancelledCount.sum(),
+                pendingCount.get(),
+                fired == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatenessNanos.sum() / fired),
+                TimeUnit.NANOSECONDS.toMillis(maxLatenessNanos.get()));
+    }
+
+    /**
+     * Stops the ticker. Timers that have not fired yet are dropped.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(ticker);
+        try {
+            ticker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ownedWorkers != null) {
+            ownedWorkers.shutdown();
+        }
+        log.info("Timing wheel {} stopped: {}", name, stats());
+    }
+
+    // --- Ticker thread only below this point ---
+
+    private void runTicker() {
+        while (running) {
+            long nextTickNanos = startNanos + (currentTick + 1) * tickNanos;
+            long sleepNanos = nextTickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                continue;
+            }
+            try {
+                advance();
+            } catch (Throwable e) {
+                log.error("Timing wheel {} failed to advance", name, e);
+            }
+            if (statsLogNanos > 0 && System.nanoTime() - nextStatsLogNanos >= 0) {
+                nextStatsLogNanos += statsLogNanos;
+                logStats();
+            }
+        }
+    }
+
+    private void logStats() {
+        Stats stats = stats();
+        // Nothing scheduled since the last summary
+        if (stats.scheduled() == lastLoggedScheduled && stats.pending() == 0) {
+            return;
+        }
+        lastLoggedScheduled = stats.scheduled();
+        log.info("Timing wheel {}: {}", name, stats);
+    }
+
+    private void advance() {
+        currentTick++;
+        drainCancellations();
+        drainAdditions();
+
+        // Cascade coarser levels whose slot boundary was reached, so due timers move down a level
+        long tick = currentTick;
+        for (int level = 1; level < LEVELS && (tick & WHEEL_MASK) == 0; level++) {
+            tick >>>= WHEEL_BITS;
+            Bucket bucket = wheels[level][(int) (tick & WHEEL_MASK)];
+            Timer timer = bucket.drain();
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.next = null;
+                if (timer.state.get() == STATE_PENDING) {
+                    place(timer);
+                }
+                timer = next;
+            }
+        }
+
+        Timer timer = wheels[0][(int) (currentTick & WHEEL_MASK)].drain();
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.next = null;
+            fire(timer);
+            timer = next;
+        }
+    }
+
+    private void drainAdditions() {
+        Timer timer;
+        while ((timer = additions.poll()) != null) {
+            if (timer.state.get() == STATE_PENDING) {
+                timer.deadlineTick = Math.max(currentTick, ceilTicks(timer.deadlineNanos - startNanos));
+                place(timer);
+            }
+        }
+    }
+
+    private void drainCancellations() {
+        Timer timer;
+        while ((timer = cancellations.poll()) != null) {
+            if (timer.bucket != null) {
+                timer.bucket.remove(timer);
+            }
+        }
+    }
+
+    private void place(Timer timer) {
+        long delta = timer.deadlineTick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (WHEEL_BITS * (level + 1))) {
+                int slot = (int) ((timer.deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+                wheels[level][slot].add(timer);
+                return;
+            }
+        }
+        // Beyond the top level: park in the furthest top-level slot and re-place on cascade
+        int topShift = WHEEL_BITS * (LEVELS - 1);
+        int slot = (int) (((currentTick >>> topShift) + WHEEL_MASK) & WHEEL_MASK);
+        wheels[LEVELS - 1][slot].add(timer);
+    }
+
+    private void fire(Timer timer) {
+        if (!timer.state.compareAndSet(STATE_PENDING, STATE_EXPIRED)) {
+            return;
+        }
+        if (timer.key != null) {
+            keyedTimers.remove(timer.key, timer);
+        }
+        pendingCount.decrementAndGet();
+        firedCount.increment();
+        long lateness = Math.max(0, System.nanoTime() - timer.deadlineNanos);
+        totalLatenessNanos.add(lateness);
+        maxLatenessNanos.accumulateAndGet(lateness, Math::max);
+
+        try {
+            workers.execute(() -> {
+                try {
+                    timer.task.run();
+                } catch (Throwable e) {
+                    log.error("Timer task failed in {} (key={})", name, timer.key, e);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Could not dispatch timer task in {} (key={})", name, timer.key, e);
+        }
+    }
+
+    private long ceilTicks(long nanos) {
+        return (nanos + tickNanos - 1) / tickNanos;
+    }
+
+    /**
+     * Handle for a scheduled task.
+     */
+    public interface Timeout {
+        /**
+         * Cancels the task if it has not fired yet.
+         *
+         * @return true if this call cancelled the task
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+
+    /**
+     * Point-in-time counters. Lateness is measured from the deadline to the moment
+     * the task is handed to the worker pool.
+     */
+    public record Stats(long scheduled, long fired, long cancelled, long pending,
+                        long averageLatenessMs, long maxLatenessMs) {
+    }
+
+    private final class Timer implements Timeout {
+        private final String key;
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+
+        // Owned by the ticker thread
+        private long deadlineTick;
+        private Bucket bucket;
+        private Timer prev;
+        private Timer next;
+
+        private Timer(String key, Runnable task, long deadlineNanos) {
+            this.key = key;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+                return false;
+            }
+            if (key != null) {
+                keyedTimers.remove(key, this);
+            }
+            pendingCount.decrementAndGet();
+            cancelledCount.increment();
+            cancellations.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == STATE_EXPIRED;
+        }
+    }
+
+    /**
+     * Doubly linked list of timers, touched only by the ticker thread.
+     */
+    private static final class Bucket {
+        private Timer head;
+        private Timer tail;
+
+        private void add(Timer timer) {
+            timer.bucket = this;
+            timer.prev = tail;
+            timer.next = null;
+            if (tail == null) {
+                head = timer;
+            } else {
+                tail.next = timer;
+            }
+            tail = timer;
+        }
+
+        private void remove(Timer timer) {
+            if (timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                head = timer.next;
+            }
+            if (timer.next != null) {
+                timer.next.prev = timer.prev;
+            } else {
+                tail = timer.prev;
+            }
+            timer.prev = null;
+            timer.next = null;
+            timer.bucket = null;
+        }
+
+        /**
+         * Detaches and returns the whole chain; callers walk it through {@code next}.
+         */
+        private Timer drain() {
+            Timer first = head;
+            for (Timer timer = first; timer != null; timer = timer.next) {
+                timer.bucket = null;
+                timer.prev = null;
+            }
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+}
@@ -5,6 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.online_games_service.common.codec.CompactRedisSerializer;
+import com.online_games_service.common.codec.GameStateCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -14,17 +18,38 @@ import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSeriali
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.util.Collections;
+import java.util.stream.Collectors;
 
 @Configuration
 public class BaseRedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       ObjectProvider<GameStateCodec<?>> gameStateCodecs,
+                                                       @Value("${game.redis.compact-codec.enabled:true}") boolean compactCodecEnabled) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
+        // Game entities with a registered codec are stored in binary; everything else stays JSON
+        CompactRedisSerializer serializer = new CompactRedisSerializer(
+                jsonSerializer(),
+                gameStateCodecs.orderedStream().collect(Collectors.toList()),
+                compactCodecEnabled);
+
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(serializer);
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(serializer);
+
+        return template;
+    }
+
+    /**
+     * The JSON serializer used for values without a compact codec.
+     */
+    public static GenericJackson2JsonRedisSerializer jsonSerializer() {
         ObjectMapper objectMapper = new ObjectMapper();
-        
+
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
@@ -34,18 +59,11 @@ public class BaseRedisConfig {
             JsonTypeInfo.As.PROPERTY
         );
 
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(serializer);
-        template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(serializer);
-
-        return template;
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
     }
 
     @Bean
     public RedisCustomConversions redisCustomConversions() {
         return new RedisCustomConversions(Collections.emptyList());
     }
-}
\ No newline at end of file
+}
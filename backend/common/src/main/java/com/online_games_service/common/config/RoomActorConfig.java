@@ -0,0 +1,16 @@
+package com.online_games_service.common.config;
+
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RoomActorConfig {
+
+    @Bean(destroyMethod = "close")
+    public RoomActorExecutor roomActorExecutor(
+            @Value("${spring.application.name:game}") String applicationName) {
+        return new RoomActorExecutor(applicationName + "-room");
+    }
+}
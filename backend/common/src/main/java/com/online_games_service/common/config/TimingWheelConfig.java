@@ -0,0 +1,19 @@
+package com.online_games_service.common.config;
+
+import com.online_games_service.common.concurrent.TimingWheelScheduler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TimingWheelConfig {
+
+    @Bean(destroyMethod = "close")
+    public TimingWheelScheduler roomTimerScheduler(
+            @Value("${spring.application.name:game}") String applicationName,
+            @Value("${game.timers.tick-ms:10}") long tickMillis,
+            // 0 disables the periodic timer summary in the log
+            @Value("${game.timers.stats-log-seconds:60}") long statsLogSeconds) {
+        return new TimingWheelScheduler(applicationName + "-timer", tickMillis, null, statsLogSeconds);
+    }
+}
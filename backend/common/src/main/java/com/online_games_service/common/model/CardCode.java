@@ -0,0 +1,101 @@
+package com.online_games_service.common.model;
+
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+
+/**
+ * Primitive encoding of a card as {@code suit * 13 + rank} (0-51), plus the 64-bit masks
+ * used by {@link CardSet}. Copies from a second deck share the code of the first, so a mask
+ * records which cards are present, not how many copies.
+ */
+public final class CardCode {
+
+    public static final int COUNT = 52;
+    public static final int NONE = -1;
+
+    private static final CardSuit[] SUITS = CardSuit.values();
+    private static final CardRank[] RANKS = CardRank.values();
+    private static final int RANK_COUNT = RANKS.length;
+
+    /** Mask with the bit of every valid code set */
+    public static final long ALL = (1L << COUNT) - 1;
+
+    private static final long[] SUIT_MASKS = new long[SUITS.length];
+    private static final long[] RANK_MASKS = new long[RANK_COUNT];
+
+    static {
+        for (int code = 0; code < COUNT; code++) {
+            SUIT_MASKS[code / RANK_COUNT] |= 1L << code;
+            RANK_MASKS[code % RANK_COUNT] |= 1L << code;
+        }
+    }
+
+    private CardCode() {
+    }
+
+    public static int of(CardSuit suit, CardRank rank) {
+        if (suit == null || rank == null) {
+            return NONE;
+        }
+        return suit.ordinal() * RANK_COUNT + rank.ordinal();
+    }
+
+    /**
+     * @return the code, or {@link #NONE} for a null card or one without suit or rank
+     */
+    public static int of(Card card) {
+        return card == null ? NONE : of(card.getSuit(), card.getRank());
+    }
+
+    public static CardSuit suit(int code) {
+        return SUITS[code / RANK_COUNT];
+    }
+
+    public static CardRank rank(int code) {
+        return RANKS[code % RANK_COUNT];
+    }
+
+    /**
+     * Creates a new {@link Card}; cards are mutable, so instances are not shared.
+     */
+    public static Card toCard(int code) {
+        return new Card(suit(code), rank(code));
+    }
+
+    /**
+     * @return the single-bit mask of the card, or 0 for {@link #NONE}
+     */
+    public static long bit(int code) {
+        return code < 0 ? 0L : 1L << code;
+    }
+
+    public static long bit(Card card) {
+        return bit(of(card));
+    }
+
+    public static long bit(CardSuit suit, CardRank rank) {
+        return bit(of(suit, rank));
+    }
+
+    /**
+     * @return all 13 cards of the suit, or 0 for null
+     */
+    public static long suitMask(CardSuit suit) {
+        return suit == null ? 0L : SUIT_MASKS[suit.ordinal()];
+    }
+
+    /**
+     * @return the four cards of the rank, or 0 for null
+     */
+    public static long rankMask(CardRank rank) {
+        return rank == null ? 0L : RANK_MASKS[rank.ordinal()];
+    }
+
+    public static long rankMask(CardRank... ranks) {
+        long mask = 0L;
+        for (CardRank rank : ranks) {
+            mask |= rankMask(rank);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,46 @@
+package com.online_games_service.common.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Helpers that work on card lists through {@link CardCode} masks.
+ * <p>
+ * A rule such as "cards of this suit or rank" is a single mask, so checking a hand against it
+ * is a bit test per card instead of comparing each card with every allowed one.
+ */
+public final class CardSet {
+
+    private CardSet() {
+    }
+
+    /**
+     * Mask of the distinct cards in the collection. Null and incomplete cards are ignored.
+     */
+    public static long mask(Collection<Card> cards) {
+        long mask = 0L;
+        if (cards != null) {
+            for (Card card : cards) {
+                mask |= CardCode.bit(card);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the cards of the list whose code is in the mask, preserving list order and copies.
+     */
+    public static List<Card> filter(List<Card> cards, long mask) {
+        List<Card> result = new ArrayList<>();
+        if (cards == null) {
+            return result;
+        }
+        for (Card card : cards) {
+            if ((CardCode.bit(card) & mask) != 0) {
+                result.add(card);
+            }
+        }
+        return result;
+    }
+}
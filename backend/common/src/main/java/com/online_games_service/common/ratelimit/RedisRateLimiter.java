@@ -0,0 +1,151 @@
+package com.online_games_service.common.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiter shared by all replicas of a service.
+ * <p>
+ * Each subject (user, IP, ...) gets {@code burst} actions per {@code period}, refilled evenly.
+ * The bucket is stored as a single Redis key holding its theoretical arrival time (GCRA), and
+ * every check is one Lua call that reads and updates it atomically using the Redis clock, so
+ * concurrent requests can never exceed the limit.
+ * <p>
+ * A rejected subject is also remembered locally until it may act again, so repeated attempts
+ * in that time are rejected without calling Redis. This only ever rejects what Redis would
+ * reject too. If Redis is unavailable the limiter lets requests through.
+ */
+@Slf4j
+public class RedisRateLimiter {
+
+    // Returns {allowed, retry after ms, remaining}; a cost of 0 only reads the bucket
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local now = redis.call('TIME')
+            local nowMs = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000)
+            local interval = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local cost = tonumber(ARGV[3])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or nowMs)
+            if tat < nowMs then
+                tat = nowMs
+            end
+            local newTat = tat + interval * cost
+            local allowAt = newTat - interval * burst
+            if allowAt > nowMs then
+                return {0, allowAt - nowMs, 0}
+            end
+            if cost > 0 then
+                redis.call('SET', KEYS[1], newTat, 'PX', newTat - nowMs)
+            end
+            return {1, 0, math.floor((nowMs - allowAt) / interval)}
+            """, List.class);
+
+    private static final int MAX_LOCAL_BLOCKS = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final String namespace;
+    private final int burst;
+    private final long intervalMs;
+    // subject -> System.nanoTime() until which it is known to be rejected
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    /**
+     * @param namespace prefix of the Redis keys, e.g. {@code chat:rate-bucket}
+     * @param burst     actions allowed at once and per period
+     */
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, String namespace, int burst, Duration period) {
+        this.redisTemplate = redisTemplate;
+        this.namespace = namespace;
+        this.burst = Math.max(1, burst);
+        this.intervalMs = Math.max(1, (period.toMillis() + this.burst - 1) / this.burst);
+    }
+
+    /**
+     * Takes one token for the subject if it has one.
+     */
+    public Decision tryAcquire(String subject) {
+        Long until = blockedUntil.get(subject);
+        if (until != null) {
+            long waitNanos = until - System.nanoTime();
+            if (waitNanos > 0) {
+                return Decision.rejected(Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+            }
+            blockedUntil.remove(subject, until);
+        }
+
+        Decision decision = execute(subject, 1);
+        if (!decision.allowed()) {
+            rememberBlocked(subject, decision.retryAfterMs());
+        }
+        return decision;
+    }
+
+    /**
+     * The subject's bucket without taking a token.
+     */
+    public Decision peek(String subject) {
+        return execute(subject, 0);
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Decision execute(String subject, int cost) {
+        List<Object> result;
+        try {
+            result = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(namespace + ":" + subject),
+                    Long.toString(intervalMs), Integer.toString(burst), Integer.toString(cost));
+        } catch (RuntimeException e) {
+            log.warn("Rate limiter {} unavailable, allowing {}: {}", namespace, subject, e.getMessage());
+            return Decision.allowed(burst);
+        }
+        if (result == null || result.size() < 3) {
+            return Decision.allowed(burst);
+        }
+        boolean allowed = toLong(result.get(0)) == 1;
+        return allowed
+                ? Decision.allowed((int) Math.min(burst, toLong(result.get(2))))
+                : Decision.rejected(toLong(result.get(1)));
+    }
+
+    private void rememberBlocked(String subject, long retryAfterMs) {
+        if (blockedUntil.size() >= MAX_LOCAL_BLOCKS) {
+            long now = System.nanoTime();
+            blockedUntil.values().removeIf(until -> until - now <= 0);
+            if (blockedUntil.size() >= MAX_LOCAL_BLOCKS) {
+                return;
+            }
+        }
+        blockedUntil.put(subject, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMs));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    /**
+     * @param retryAfterMs when a rejected subject may try again
+     * @param remaining    tokens left after an allowed action
+     */
+    public record Decision(boolean allowed, long retryAfterMs, int remaining) {
+
+        static Decision allowed(int remaining) {
+            return new Decision(true, 0, remaining);
+        }
+
+        static Decision rejected(long retryAfterMs) {
+            return new Decision(false, retryAfterMs, 0);
+        }
+    }
+}
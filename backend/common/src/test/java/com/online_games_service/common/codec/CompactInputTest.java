@@ -0,0 +1,57 @@
+package com.online_games_service.common.codec;
+
+import com.online_games_service.common.enums.CardSuit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+public class CompactInputTest {
+
+    @Test
+    public void startsReadingAtTheGivenOffset() {
+        CompactInput in = new CompactInput(new byte[]{9, 9, 42}, 2);
+
+        Assert.assertEquals(in.readByte(), 42);
+        Assert.assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    public void rejectsReadsPastTheEnd() {
+        Assert.expectThrows(IllegalStateException.class, () -> new CompactInput(new byte[0], 0).readByte());
+        // A varint whose continuation bit promises another byte
+        Assert.expectThrows(IllegalStateException.class, () -> new CompactInput(new byte[]{(byte) 0x80}, 0).readVarInt());
+    }
+
+    @Test
+    public void rejectsVarintsThatNeverEnd() {
+        byte[] endless = new byte[12];
+        Arrays.fill(endless, (byte) 0xFF);
+
+        Assert.expectThrows(IllegalStateException.class, () -> new CompactInput(endless, 0).readVarInt());
+        Assert.expectThrows(IllegalStateException.class, () -> new CompactInput(endless, 0).readVarLong());
+    }
+
+    @Test
+    public void rejectsStringLongerThanTheValue() {
+        // Length prefix 10 + 1, followed by only two bytes
+        CompactInput in = new CompactInput(new byte[]{11, 'a', 'b'}, 0);
+
+        Assert.expectThrows(IllegalStateException.class, in::readString);
+    }
+
+    @Test
+    public void rejectsUnknownEnumOrdinal() {
+        CompactInput in = new CompactInput(new byte[]{(byte) (CardSuit.values().length + 1)}, 0);
+
+        Assert.expectThrows(IllegalStateException.class, () -> in.readEnum(CardSuit.values()));
+    }
+
+    @Test
+    public void rejectsCardBytesOutsideTheEnums() {
+        Assert.expectThrows(IllegalStateException.class, () -> CompactInput.decodeCard(0xE0));
+        Assert.expectThrows(IllegalStateException.class, () -> CompactInput.decodeCard(0x0E));
+        Assert.assertNull(CompactInput.decodeCard(CompactOutput.NULL_CARD));
+        Assert.assertNull(CompactInput.decodeCard(0xFF).getSuit());
+    }
+}
@@ -0,0 +1,150 @@
+package com.online_games_service.common.codec;
+
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import com.online_games_service.common.model.Card;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CompactOutputTest {
+
+    @Test
+    public void primitivesRoundTrip() {
+        CompactOutput out = new CompactOutput(1);
+        out.writeBoolean(true);
+        out.writeBoolean(false);
+        out.writeVarInt(0);
+        out.writeVarInt(300);
+        out.writeVarInt(Integer.MAX_VALUE);
+        out.writeVarInt(-1);
+        out.writeSignedVarInt(-64);
+        out.writeSignedVarInt(Integer.MIN_VALUE);
+        out.writeVarLong(Long.MAX_VALUE);
+        out.writeVarLong(-1L);
+        out.writeNullableLong(1_700_000_000_000L);
+        out.writeNullableLong(null);
+        out.writeNullableInt(-3);
+        out.writeNullableInt(null);
+
+        CompactInput in = new CompactInput(out.toByteArray(), 0);
+        Assert.assertTrue(in.readBoolean());
+        Assert.assertFalse(in.readBoolean());
+        Assert.assertEquals(in.readVarInt(), 0);
+        Assert.assertEquals(in.readVarInt(), 300);
+        Assert.assertEquals(in.readVarInt(), Integer.MAX_VALUE);
+        Assert.assertEquals(in.readVarInt(), -1);
+        Assert.assertEquals(in.readSignedVarInt(), -64);
+        Assert.assertEquals(in.readSignedVarInt(), Integer.MIN_VALUE);
+        Assert.assertEquals(in.readVarLong(), Long.MAX_VALUE);
+        Assert.assertEquals(in.readVarLong(), -1L);
+        Assert.assertEquals(in.readNullableLong(), Long.valueOf(1_700_000_000_000L));
+        Assert.assertNull(in.readNullableLong());
+        Assert.assertEquals(in.readNullableInt(), Integer.valueOf(-3));
+        Assert.assertNull(in.readNullableInt());
+        Assert.assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    public void smallValuesTakeOneByte() {
+        CompactOutput out = new CompactOutput();
+        out.writeVarInt(127);
+        out.writeSignedVarInt(-1);
+        out.writeString(null);
+        out.writeEnum(null);
+        out.writeCards(null);
+
+        Assert.assertEquals(out.size(), 5);
+    }
+
+    @Test
+    public void stringsAndEnumsRoundTripIncludingNull() {
+        CompactOutput out = new CompactOutput();
+        out.writeString("zażółć");
+        out.writeString("");
+        out.writeString(null);
+        out.writeEnum(CardSuit.SPADES);
+        out.writeEnum(null);
+
+        CompactInput in = new CompactInput(out.toByteArray(), 0);
+        Assert.assertEquals(in.readString(), "zażółć");
+        Assert.assertEquals(in.readString(), "");
+        Assert.assertNull(in.readString());
+        Assert.assertEquals(in.readEnum(CardSuit.values()), CardSuit.SPADES);
+        Assert.assertNull(in.readEnum(CardSuit.values()));
+    }
+
+    @Test
+    public void cardsTakeOneByteEachAndKeepMissingParts() {
+        List<Card> cards = Arrays.asList(
+                new Card(CardSuit.HEARTS, CardRank.ACE),
+                null,
+                new Card(null, CardRank.TWO),
+                new Card(CardSuit.CLUBS, null));
+        CompactOutput out = new CompactOutput();
+        out.writeCard(new Card(CardSuit.DIAMONDS, CardRank.KING));
+        out.writeCard(null);
+        out.writeCards(cards);
+        out.writeCards(new ArrayList<>());
+
+        Assert.assertEquals(out.size(), 2 + 1 + cards.size() + 1);
+        CompactInput in = new CompactInput(out.toByteArray(), 0);
+        Assert.assertEquals(in.readCard(), new Card(CardSuit.DIAMONDS, CardRank.KING));
+        Assert.assertNull(in.readCard());
+        Assert.assertEquals(in.readCards(), cards);
+        Assert.assertEquals(in.readCards(), List.of());
+    }
+
+    @Test
+    public void collectionsRoundTripAsMutableCopies() {
+        Map<String, String> names = new LinkedHashMap<>();
+        names.put("p1", "Alice");
+        names.put("p2", null);
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        scores.put("p1", 2);
+        scores.put("p2", null);
+
+        CompactOutput out = new CompactOutput();
+        out.writeStrings(List.of("a", "b"));
+        out.writeStrings(null);
+        out.writeStringMap(names);
+        out.writeStringMap(null);
+        out.writeIntMap(scores);
+        out.writeIntMap(null);
+
+        CompactInput in = new CompactInput(out.toByteArray(), 0);
+        List<String> strings = in.readStrings();
+        Assert.assertEquals(strings, List.of("a", "b"));
+        strings.add("c");
+        Assert.assertNull(in.readStrings());
+        Map<String, String> readNames = in.readStringMap();
+        Assert.assertEquals(readNames, names);
+        Assert.assertTrue(readNames instanceof HashMap);
+        Assert.assertNull(in.readStringMap());
+        Assert.assertEquals(in.readIntMap(), scores);
+        Assert.assertNull(in.readIntMap());
+        Assert.assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    public void growsPastItsInitialCapacity() {
+        CompactOutput out = new CompactOutput(16);
+        byte[] payload = new byte[1000];
+        Arrays.fill(payload, (byte) 7);
+
+        out.writeBytes(payload);
+        out.writeString("x".repeat(500));
+
+        Assert.assertEquals(out.size(), 1000 + 2 + 500);
+        byte[] bytes = out.toByteArray();
+        Assert.assertEquals(bytes.length, out.size());
+        CompactInput in = new CompactInput(bytes, 1000);
+        Assert.assertEquals(in.readString(), "x".repeat(500));
+    }
+}
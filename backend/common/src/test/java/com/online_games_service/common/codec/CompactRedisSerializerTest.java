@@ -0,0 +1,122 @@
+package com.online_games_service.common.codec;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class CompactRedisSerializerTest {
+
+    private RedisSerializer<Object> fallback;
+    private CompactRedisSerializer serializer;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        fallback = mock(RedisSerializer.class);
+        serializer = new CompactRedisSerializer(fallback, List.of(new PointCodec((byte) 7, 2)));
+    }
+
+    @Test
+    public void registeredTypesRoundTripInCompactForm() {
+        byte[] bytes = serializer.serialize(new Point("a", 5));
+
+        Assert.assertTrue(CompactRedisSerializer.isCompact(bytes));
+        Assert.assertEquals(bytes[1], 7);
+        Assert.assertEquals(bytes[2], 2);
+        Assert.assertEquals(serializer.deserialize(bytes), new Point("a", 5));
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    public void otherValuesGoThroughTheFallback() {
+        byte[] json = "\"text\"".getBytes(StandardCharsets.UTF_8);
+        when(fallback.serialize("text")).thenReturn(json);
+        when(fallback.deserialize(json)).thenReturn("text");
+
+        Assert.assertSame(serializer.serialize("text"), json);
+        Assert.assertEquals(serializer.deserialize(json), "text");
+        serializer.serialize(null);
+        serializer.deserialize(null);
+        verify(fallback).serialize(null);
+        verify(fallback).deserialize(null);
+    }
+
+    @Test
+    public void compactWritesCanBeDisabledWhileCompactValuesStayReadable() {
+        byte[] compact = serializer.serialize(new Point("a", 5));
+        CompactRedisSerializer jsonOnly = new CompactRedisSerializer(fallback, List.of(new PointCodec((byte) 7, 2)), false);
+
+        jsonOnly.serialize(new Point("b", 1));
+
+        verify(fallback).serialize(new Point("b", 1));
+        Assert.assertEquals(jsonOnly.deserialize(compact), new Point("a", 5));
+    }
+
+    @Test
+    public void olderSchemaVersionsAreStillRead() {
+        byte[] old = new CompactRedisSerializer(fallback, List.of(new PointCodec((byte) 7, 1))).serialize(new Point("a", 5));
+
+        // Version 1 did not store y
+        Assert.assertEquals(serializer.deserialize(old), new Point("a", 0));
+    }
+
+    @Test
+    public void rejectsValuesItCannotDecode() {
+        byte[] newer = new CompactRedisSerializer(fallback, List.of(new PointCodec((byte) 7, 3))).serialize(new Point("a", 5));
+        int magic = CompactRedisSerializer.MAGIC;
+
+        Assert.expectThrows(SerializationException.class, () -> serializer.deserialize(newer));
+        Assert.expectThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{(byte) magic, 7}));
+        Assert.expectThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{(byte) magic, 8, 1}));
+        // Header only, so the body read runs off the end
+        Assert.expectThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{(byte) magic, 7, 2}));
+    }
+
+    @Test
+    public void wrapsEncodingFailures() {
+        Assert.expectThrows(SerializationException.class, () -> serializer.serialize(new Point(null, -1)));
+    }
+
+    @Test
+    public void rejectsAmbiguousCodecs() {
+        Assert.expectThrows(IllegalArgumentException.class, () -> new CompactRedisSerializer(fallback,
+                List.of(new PointCodec((byte) 7, 1), new PointCodec((byte) 7, 2))));
+        Assert.expectThrows(IllegalArgumentException.class, () -> new CompactRedisSerializer(fallback,
+                List.of(new PointCodec((byte) 7, 256))));
+    }
+
+    private record Point(String x, int y) {
+    }
+
+    private record PointCodec(byte codecId, int schemaVersion) implements GameStateCodec<Point> {
+
+        @Override
+        public Class<Point> type() {
+            return Point.class;
+        }
+
+        @Override
+        public void write(Point value, CompactOutput out) {
+            if (value.y() < 0) {
+                throw new IllegalArgumentException("negative y");
+            }
+            out.writeString(value.x());
+            if (schemaVersion >= 2) {
+                out.writeVarInt(value.y());
+            }
+        }
+
+        @Override
+        public Point read(int schemaVersion, CompactInput in) {
+            String x = in.readString();
+            return new Point(x, schemaVersion >= 2 ? in.readVarInt() : 0);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.online_games_service.common.concurrent;
+
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RedisTimerQueueTest {
+
+    private static final List<String> KEYS = List.of("test:timers:due", "test:timers:payload", "test:timers:owner");
+
+    private StringRedisTemplate redisTemplate;
+    private RedisTimerQueue queue;
+
+    @BeforeMethod
+    public void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        queue = new RedisTimerQueue(redisTemplate, "test:timers", 10, 30_000, 2, "replica-1");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        queue.close();
+    }
+
+    @Test
+    public void schedulesWithDelayInMillisAndOptionalOwnerKey() {
+        queue.schedule("room-1", "turn|3", 5, TimeUnit.SECONDS);
+        queue.schedule("room-2", null, -1, TimeUnit.SECONDS, "rooms:owner:room-2");
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("room-1"), eq("5000"), eq("turn|3"), eq(""));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("room-2"), eq("0"), eq(""),
+                eq("rooms:owner:room-2"));
+    }
+
+    @Test
+    public void cancelReportsWhetherATimerWasRemoved() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), eq("room-1"))).thenReturn(1L);
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), eq("room-1"), eq("turn|3"))).thenReturn(0L);
+
+        Assert.assertTrue(queue.cancel("room-1"));
+        Assert.assertFalse(queue.cancel("room-1", "turn|3"));
+        Assert.assertFalse(queue.cancel("room-2"));
+    }
+
+    @Test
+    public void firesClaimedTimersAndAcknowledgesThemWithTheirLease() {
+        claims(List.of("room-1", "turn|3", "1000", "room-2", "bot|b1", "1000"), List.of());
+        List<String> fired = new java.util.ArrayList<>();
+        startWithoutPolling((timerId, payload) -> {
+            fired.add(timerId + "=" + payload);
+            return null;
+        });
+
+        queue.poll();
+
+        Assert.assertEquals(fired, List.of("room-1=turn|3", "room-2=bot|b1"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("room-1"), eq("1000"), eq("turn|3"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("room-2"), eq("1000"), eq("bot|b1"));
+        // A full batch is followed by another claim, which came back empty
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(KEYS), eq("30000"), eq("2"), eq("replica-1"));
+    }
+
+    @Test
+    public void acknowledgesAsyncTimerOnlyAfterItsStageCompletes() {
+        claims(List.of("room-1", "turn|3", "1000"));
+        CompletableFuture<Void> handled = new CompletableFuture<>();
+        startWithoutPolling((timerId, payload) -> handled);
+
+        queue.poll();
+        verify(redisTemplate, never()).execute(any(RedisScript.class), eq(KEYS), eq("room-1"), eq("1000"), eq("turn|3"));
+
+        handled.complete(null);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("room-1"), eq("1000"), eq("turn|3"));
+    }
+
+    @Test
+    public void leavesFailedTimersForRetryAfterTheirLease() {
+        claims(List.of("room-1", "turn|3", "1000", "room-2", "turn|4", "1000"), List.of());
+        startWithoutPolling((timerId, payload) -> {
+            if (timerId.equals("room-1")) {
+                throw new IllegalStateException("handler failed");
+            }
+            return CompletableFuture.failedFuture(new IllegalStateException("async handler failed"));
+        });
+
+        queue.poll();
+
+        verify(redisTemplate, never()).execute(any(RedisScript.class), eq(KEYS), anyString(), eq("1000"), anyString());
+    }
+
+    @Test
+    public void survivesRedisFailuresWhilePollingAndAcknowledging() {
+        claims(List.of("room-1", "turn|3", "1000"));
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), eq("room-1"), eq("1000"), eq("turn|3")))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        startWithoutPolling((timerId, payload) -> null);
+
+        queue.poll();
+
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), eq("30000"), eq("2"), eq("replica-1")))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        queue.poll();
+    }
+
+    @Test
+    public void pollsOnItsOwnThreadOnceStarted() {
+        claims(List.of("room-1", "turn|3", "1000"), List.of());
+        CompletableFuture<String> fired = new CompletableFuture<>();
+
+        queue.start((timerId, payload) -> {
+            fired.complete(timerId);
+            return null;
+        });
+
+        Assert.assertEquals(fired.orTimeout(5, TimeUnit.SECONDS).join(), "room-1");
+        Assert.expectThrows(IllegalStateException.class, () -> queue.start((timerId, payload) -> null));
+    }
+
+    @Test
+    public void generatesAReplicaIdWhenNoneIsGiven() {
+        RedisTimerQueue anonymous = new RedisTimerQueue(redisTemplate, "test:timers", 10, 30_000, 2);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenReturn(List.of());
+
+        anonymous.start((timerId, payload) -> null);
+        anonymous.close();
+        anonymous.close();
+    }
+
+    @SafeVarargs
+    private void claims(List<Object> first, List<Object>... next) {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), eq("30000"), eq("2"), eq("replica-1")))
+                .thenReturn(first, (Object[]) next);
+    }
+
+    private void startWithoutPolling(RedisTimerQueue.TimerHandler handler) {
+        // A poll interval far beyond the test, so only the explicit poll() calls run
+        queue = new RedisTimerQueue(redisTemplate, "test:timers", 60_000, 30_000, 2, "replica-1");
+        queue.start(handler);
+    }
+}
@@ -0,0 +1,198 @@
+package com.online_games_service.common.concurrent;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RoomActorExecutorTest {
+
+    private ExecutorService workers;
+    private RoomActorExecutor rooms;
+
+    @BeforeMethod
+    public void setUp() {
+        workers = Executors.newFixedThreadPool(4);
+        // Small batches so the yield path is exercised
+        rooms = new RoomActorExecutor(workers, 2);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        rooms.close();
+    }
+
+    @Test
+    public void runsCommandsOfARoomOneAtATimeInOrder() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            futures.add(rooms.execute("room-1", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(n);
+                running.decrementAndGet();
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(maxRunning.get(), 1);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(order.get(i).intValue(), i);
+        }
+    }
+
+    @Test
+    public void differentRoomsRunInParallel() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Runnable waitForOther = () -> {
+            bothStarted.countDown();
+            try {
+                Assert.assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        CompletableFuture<Void> first = rooms.execute("room-1", waitForOther);
+        CompletableFuture<Void> second = rooms.execute("room-2", waitForOther);
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void callReturnsResultAndRunsInlineFromInsideTheRoom() {
+        String result = rooms.call("room-1", () -> {
+            Assert.assertTrue(rooms.isInRoom("room-1"));
+            Assert.assertFalse(rooms.isInRoom("room-2"));
+            // Would deadlock if it were queued behind the running command
+            return rooms.call("room-1", () -> "nested");
+        });
+
+        Assert.assertEquals(result, "nested");
+        Assert.assertFalse(rooms.isInRoom("room-1"));
+        Assert.assertFalse(rooms.isInRoom(null));
+    }
+
+    @Test
+    public void callRethrowsRuntimeExceptionsUnchangedAndWrapsCheckedOnes() {
+        IllegalStateException failure = new IllegalStateException("bad move");
+
+        IllegalStateException thrown = Assert.expectThrows(IllegalStateException.class,
+                () -> rooms.run("room-1", () -> { throw failure; }));
+        Assert.assertSame(thrown, failure);
+
+        CompletionException wrapped = Assert.expectThrows(CompletionException.class,
+                () -> rooms.call("room-1", () -> { throw new IOException("io"); }));
+        Assert.assertTrue(wrapped.getCause() instanceof IOException);
+
+        CompletionException inline = Assert.expectThrows(CompletionException.class,
+                () -> rooms.run("room-1", () -> rooms.call("room-1", () -> { throw new IOException("io"); })));
+        Assert.assertTrue(inline.getCause() instanceof IOException);
+    }
+
+    @Test
+    public void failedCommandCompletesItsFutureAndDoesNotStopTheRoom() throws Exception {
+        CompletableFuture<Void> failed = rooms.execute("room-1", () -> { throw new IllegalStateException("boom"); });
+        CompletableFuture<String> next = rooms.submit("room-1", () -> "still running");
+
+        ExecutionException error = Assert.expectThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(error.getCause() instanceof IllegalStateException);
+        Assert.assertEquals(next.get(5, TimeUnit.SECONDS), "still running");
+    }
+
+    @Test
+    public void wrapQueuesTheCommandWhenRun() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        boolean[] inRoom = new boolean[1];
+
+        Runnable task = rooms.wrap("room-1", () -> {
+            inRoom[0] = rooms.isInRoom("room-1");
+            ran.countDown();
+        });
+        Assert.assertEquals(ran.getCount(), 1);
+        task.run();
+
+        Assert.assertTrue(ran.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(inRoom[0]);
+    }
+
+    @Test
+    public void idleRoomsAreForgotten() throws Exception {
+        rooms.submit("room-1", () -> 1).get(5, TimeUnit.SECONDS);
+        rooms.submit("room-2", () -> 2).get(5, TimeUnit.SECONDS);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (rooms.activeRooms() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(rooms.activeRooms(), 0);
+    }
+
+    @Test
+    public void namedExecutorRunsOnItsOwnThreads() {
+        try (RoomActorExecutor named = new RoomActorExecutor("named")) {
+            Assert.assertEquals(named.call("room-1", () -> 42).intValue(), 42);
+        }
+    }
+
+    @Test
+    public void rejectsMissingRoomId() {
+        Assert.expectThrows(IllegalArgumentException.class, () -> rooms.execute(null, () -> { }));
+    }
+
+    @Test
+    public void interruptedCallerGetsIllegalStateException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        rooms.execute("room-1", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Thread.currentThread().interrupt();
+        try {
+            Assert.expectThrows(IllegalStateException.class, () -> rooms.run("room-1", () -> { }));
+            Assert.assertTrue(Thread.interrupted());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void closeStopsWorkersThatDoNotFinishInTime() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        RoomActorExecutor stuck = new RoomActorExecutor(pool, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        stuck.execute("room-1", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        stuck.close();
+
+        Assert.assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+    }
+}
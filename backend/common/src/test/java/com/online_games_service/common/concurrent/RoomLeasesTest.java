@@ -0,0 +1,79 @@
+package com.online_games_service.common.concurrent;
+
+import com.online_games_service.common.concurrent.RoomLeases.LeaseState;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RoomLeasesTest {
+
+    private StringRedisTemplate redisTemplate;
+    private RoomLeases leases;
+
+    @BeforeMethod
+    public void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        leases = new RoomLeases(redisTemplate, "test:room-owner:", 10_000);
+    }
+
+    @Test
+    public void mapsScriptResultsToLeaseStatesInRoomOrder() {
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of("test:room-owner:r1", "test:room-owner:r2", "test:room-owner:r3")),
+                eq(leases.getReplicaId()), eq("10000")))
+                .thenReturn(List.of(1L, 2L, 0L));
+
+        Map<String, LeaseState> states = leases.acquireAll(List.of("r1", "r2", "r3"));
+
+        Assert.assertEquals(List.copyOf(states.keySet()), List.of("r1", "r2", "r3"));
+        Assert.assertEquals(states.get("r1"), LeaseState.ACQUIRED);
+        Assert.assertEquals(states.get("r2"), LeaseState.RENEWED);
+        Assert.assertEquals(states.get("r3"), LeaseState.OWNED_ELSEWHERE);
+    }
+
+    @Test
+    public void treatsMissingScriptResultsAsOwnedElsewhere() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(null);
+
+        Assert.assertEquals(leases.acquire("r1"), LeaseState.OWNED_ELSEWHERE);
+    }
+
+    @Test
+    public void doesNotCallRedisForNoRooms() {
+        Assert.assertTrue(leases.acquireAll(List.of()).isEmpty());
+        leases.releaseAll(List.of());
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    public void releasesOnlyWithItsOwnReplicaIdAndToleratesRedisFailures() {
+        leases.releaseAll(List.of("r1", "r2"));
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("test:room-owner:r1", "test:room-owner:r2")), eq(leases.getReplicaId()));
+
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        leases.releaseAll(List.of("r1"));
+    }
+
+    @Test
+    public void keepsALeaseOfAtLeastOneSecond() {
+        RoomLeases shortLeases = new RoomLeases(redisTemplate, "test:room-owner:", 10);
+
+        Assert.assertEquals(shortLeases.getLeaseMs(), 1000);
+        Assert.assertEquals(shortLeases.keyOf("r1"), "test:room-owner:r1");
+        Assert.assertNotEquals(shortLeases.getReplicaId(), leases.getReplicaId());
+    }
+}
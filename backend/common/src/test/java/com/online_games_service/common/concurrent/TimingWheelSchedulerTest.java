@@ -0,0 +1,182 @@
+package com.online_games_service.common.concurrent;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimingWheelSchedulerTest {
+
+    // 64 slots of 1 ms per level: level 0 spans 64 ms, level 1 about 4 s, level 2 about 4.5 min
+    private static final long TICK_MS = 1;
+
+    private ExecutorService workers;
+    private TimingWheelScheduler scheduler;
+
+    @BeforeMethod
+    public void setUp() {
+        workers = Executors.newCachedThreadPool();
+        scheduler = new TimingWheelScheduler("test-wheel", TICK_MS, workers);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        scheduler.close();
+        workers.shutdownNow();
+    }
+
+    @Test
+    public void firesTasksOnEveryLevelInDeadlineOrder() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+
+        scheduler.schedule(4_200, TimeUnit.MILLISECONDS, () -> { fired.add("level2"); done.countDown(); });
+        scheduler.schedule(300, TimeUnit.MILLISECONDS, () -> { fired.add("level1"); done.countDown(); });
+        scheduler.schedule(5, TimeUnit.MILLISECONDS, () -> { fired.add("level0"); done.countDown(); });
+
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(fired, List.of("level0", "level1", "level2"));
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 4_200);
+
+        TimingWheelScheduler.Stats stats = scheduler.stats();
+        Assert.assertEquals(stats.scheduled(), 3);
+        Assert.assertEquals(stats.fired(), 3);
+        Assert.assertEquals(stats.pending(), 0);
+    }
+
+    @Test
+    public void cascadedTaskDoesNotFireEarly() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        long[] firedAfterMs = new long[1];
+        long start = System.nanoTime();
+
+        scheduler.schedule(150, TimeUnit.MILLISECONDS, () -> {
+            firedAfterMs[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            done.countDown();
+        });
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(firedAfterMs[0] >= 150, "fired after " + firedAfterMs[0] + " ms");
+    }
+
+    @Test
+    public void cancelledTaskNeverFires() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        TimingWheelScheduler.Timeout handle = scheduler.schedule(50, TimeUnit.MILLISECONDS, runs::incrementAndGet);
+        scheduler.schedule("room-1", 50, TimeUnit.MILLISECONDS, runs::incrementAndGet);
+
+        Assert.assertTrue(handle.cancel());
+        Assert.assertTrue(scheduler.cancel("room-1"));
+        Assert.assertFalse(handle.cancel());
+        Assert.assertFalse(scheduler.isScheduled("room-1"));
+
+        Thread.sleep(200);
+        Assert.assertEquals(runs.get(), 0);
+        Assert.assertTrue(handle.isCancelled());
+        Assert.assertFalse(handle.isExpired());
+
+        TimingWheelScheduler.Stats stats = scheduler.stats();
+        Assert.assertEquals(stats.cancelled(), 2);
+        Assert.assertEquals(stats.fired(), 0);
+        Assert.assertEquals(stats.pending(), 0);
+    }
+
+    @Test
+    public void cancelAfterFiringHasNoEffect() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        TimingWheelScheduler.Timeout handle = scheduler.schedule(1, TimeUnit.MILLISECONDS, done::countDown);
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(handle.cancel());
+        Assert.assertTrue(handle.isExpired());
+        Assert.assertEquals(scheduler.stats().cancelled(), 0);
+    }
+
+    @Test
+    public void schedulingKeyReplacesPreviousTimer() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        TimingWheelScheduler.Timeout first = scheduler.schedule("room-1", 20, TimeUnit.MILLISECONDS, () -> fired.add("first"));
+        scheduler.schedule("room-1", 40, TimeUnit.MILLISECONDS, () -> { fired.add("second"); done.countDown(); });
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        Assert.assertEquals(fired, List.of("second"));
+        Assert.assertTrue(first.isCancelled());
+        Assert.assertFalse(scheduler.isScheduled("room-1"));
+    }
+
+    @Test
+    public void taskBeyondTopLevelStaysParkedUntilCancelled() throws InterruptedException {
+        AtomicInteger farRuns = new AtomicInteger();
+        CountDownLatch near = new CountDownLatch(1);
+
+        // 64^4 ticks of 1 ms is about 4.6 hours, so a day lies past the top level
+        scheduler.schedule("far", 1, TimeUnit.DAYS, farRuns::incrementAndGet);
+        scheduler.schedule(100, TimeUnit.MILLISECONDS, near::countDown);
+
+        Assert.assertTrue(near.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        Assert.assertEquals(farRuns.get(), 0);
+        Assert.assertTrue(scheduler.isScheduled("far"));
+        Assert.assertEquals(scheduler.stats().pending(), 1);
+
+        Assert.assertTrue(scheduler.cancel("far"));
+        Assert.assertEquals(scheduler.stats().pending(), 0);
+    }
+
+    @Test
+    public void taskFailureDoesNotStopTheWheel() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+
+        scheduler.schedule(1, TimeUnit.MILLISECONDS, () -> { throw new IllegalStateException("boom"); });
+        scheduler.schedule(20, TimeUnit.MILLISECONDS, done::countDown);
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(scheduler.stats().fired(), 2);
+    }
+
+    @Test
+    public void closedSchedulerDropsPendingTasksAndRejectsNewOnes() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        scheduler.schedule(30, TimeUnit.MILLISECONDS, runs::incrementAndGet);
+
+        scheduler.close();
+        scheduler.close();
+        Thread.sleep(100);
+
+        Assert.assertEquals(runs.get(), 0);
+        Assert.assertThrows(IllegalStateException.class,
+                () -> scheduler.schedule(1, TimeUnit.MILLISECONDS, runs::incrementAndGet));
+        Assert.assertEquals(scheduler.stats().fired(), 0);
+    }
+
+    @Test
+    public void ownedWorkersAreShutDownWithTheScheduler() throws InterruptedException {
+        TimingWheelScheduler owning = new TimingWheelScheduler("test-owned", TICK_MS);
+        CountDownLatch done = new CountDownLatch(1);
+        owning.schedule(1, TimeUnit.MILLISECONDS, done::countDown);
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        owning.close();
+
+        Assert.assertThrows(IllegalStateException.class,
+                () -> owning.schedule(1, TimeUnit.MILLISECONDS, () -> { }));
+    }
+
+    @Test
+    public void rejectsMissingTask() {
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> scheduler.schedule(1, TimeUnit.MILLISECONDS, null));
+    }
+}
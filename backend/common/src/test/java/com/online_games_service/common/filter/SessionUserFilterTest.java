@@ -0,0 +1,96 @@
+package com.online_games_service.common.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class SessionUserFilterTest {
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private ValueOperations<String, Object> valueOperations;
+    private SessionUserFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        filter = new SessionUserFilter(redisTemplate);
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+        chain = mock(FilterChain.class);
+    }
+
+    @Test
+    public void setsUserAttributesFromSessionMap() throws Exception {
+        request.setCookies(new Cookie("other", "x"), new Cookie("ogs_session", "s1"));
+        when(valueOperations.get("auth:session:s1")).thenReturn(Map.of("id", 42, "username", "alice"));
+
+        filter.doFilter(request, response, chain);
+
+        Assert.assertEquals(request.getAttribute("userId"), "42");
+        Assert.assertEquals(request.getAttribute("username"), "alice");
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    public void readsFieldsOfSessionObjects() throws Exception {
+        request.setCookies(new Cookie("ogs_session", "s1"));
+        when(valueOperations.get("auth:session:s1")).thenReturn(new SessionUser("7", null));
+
+        filter.doFilter(request, response, chain);
+
+        Assert.assertEquals(request.getAttribute("userId"), "7");
+        Assert.assertNull(request.getAttribute("username"));
+    }
+
+    @Test
+    public void leavesRequestAnonymousWithoutUsableSession() throws Exception {
+        filter.doFilter(request, response, chain);
+
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        expired.setCookies(new Cookie("ogs_session", "gone"));
+        filter.doFilter(expired, response, chain);
+
+        MockHttpServletRequest unreadable = new MockHttpServletRequest();
+        unreadable.setCookies(new Cookie("ogs_session", "odd"));
+        when(valueOperations.get("auth:session:odd")).thenReturn("not a session");
+        filter.doFilter(unreadable, response, chain);
+
+        for (MockHttpServletRequest anonymous : new MockHttpServletRequest[]{request, expired, unreadable}) {
+            Assert.assertNull(anonymous.getAttribute("userId"));
+            Assert.assertNull(anonymous.getAttribute("username"));
+        }
+        verify(chain, times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    public void continuesTheChainWhenRedisFails() throws Exception {
+        request.setCookies(new Cookie("ogs_session", "s1"));
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        filter.doFilter(request, response, chain);
+
+        Assert.assertNull(request.getAttribute("userId"));
+        verify(chain).doFilter(request, response);
+    }
+
+    public record SessionUser(String id, String username) {
+    }
+}
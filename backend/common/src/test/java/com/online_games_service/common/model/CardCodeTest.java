@@ -0,0 +1,50 @@
+package com.online_games_service.common.model;
+
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CardCodeTest {
+
+    @Test
+    public void everyCardHasItsOwnCodeThatMapsBack() {
+        long seen = 0L;
+        for (CardSuit suit : CardSuit.values()) {
+            for (CardRank rank : CardRank.values()) {
+                int code = CardCode.of(suit, rank);
+
+                Assert.assertTrue(code >= 0 && code < CardCode.COUNT, "code " + code);
+                Assert.assertEquals(CardCode.suit(code), suit);
+                Assert.assertEquals(CardCode.rank(code), rank);
+                Assert.assertEquals(CardCode.toCard(code), new Card(suit, rank));
+                Assert.assertEquals(seen & CardCode.bit(code), 0L, "duplicate code " + code);
+                seen |= CardCode.bit(code);
+            }
+        }
+        Assert.assertEquals(seen, CardCode.ALL);
+    }
+
+    @Test
+    public void incompleteCardsHaveNoCode() {
+        Assert.assertEquals(CardCode.of(null), CardCode.NONE);
+        Assert.assertEquals(CardCode.of(new Card(null, CardRank.ACE)), CardCode.NONE);
+        Assert.assertEquals(CardCode.of(new Card(CardSuit.HEARTS, null)), CardCode.NONE);
+        Assert.assertEquals(CardCode.bit(CardCode.NONE), 0L);
+        Assert.assertEquals(CardCode.bit((Card) null), 0L);
+    }
+
+    @Test
+    public void suitAndRankMasksSelectTheirCards() {
+        long hearts = CardCode.suitMask(CardSuit.HEARTS);
+        long aces = CardCode.rankMask(CardRank.ACE);
+
+        Assert.assertEquals(Long.bitCount(hearts), CardRank.values().length);
+        Assert.assertEquals(Long.bitCount(aces), CardSuit.values().length);
+        Assert.assertEquals(hearts & aces, CardCode.bit(CardSuit.HEARTS, CardRank.ACE));
+        Assert.assertEquals(CardCode.rankMask(CardRank.TWO, CardRank.THREE),
+                CardCode.rankMask(CardRank.TWO) | CardCode.rankMask(CardRank.THREE));
+        Assert.assertEquals(CardCode.suitMask(null), 0L);
+        Assert.assertEquals(CardCode.rankMask((CardRank) null), 0L);
+    }
+}
@@ -0,0 +1,40 @@
+package com.online_games_service.common.model;
+
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CardSetTest {
+
+    private static final Card ACE_OF_SPADES = new Card(CardSuit.SPADES, CardRank.ACE);
+    private static final Card TWO_OF_HEARTS = new Card(CardSuit.HEARTS, CardRank.TWO);
+    private static final Card KING_OF_CLUBS = new Card(CardSuit.CLUBS, CardRank.KING);
+
+    @Test
+    public void maskHoldsEachDistinctCardOnce() {
+        long mask = CardSet.mask(List.of(ACE_OF_SPADES, TWO_OF_HEARTS, ACE_OF_SPADES));
+
+        Assert.assertEquals(mask, CardCode.bit(ACE_OF_SPADES) | CardCode.bit(TWO_OF_HEARTS));
+    }
+
+    @Test
+    public void maskIgnoresIncompleteCards() {
+        Assert.assertEquals(CardSet.mask(Arrays.asList(null, new Card(CardSuit.HEARTS, null))), 0L);
+        Assert.assertEquals(CardSet.mask(null), 0L);
+    }
+
+    @Test
+    public void filterKeepsListOrderAndDuplicates() {
+        List<Card> cards = List.of(KING_OF_CLUBS, ACE_OF_SPADES, TWO_OF_HEARTS, ACE_OF_SPADES);
+
+        List<Card> filtered = CardSet.filter(cards,
+                CardCode.rankMask(CardRank.ACE) | CardCode.suitMask(CardSuit.CLUBS));
+
+        Assert.assertEquals(filtered, List.of(KING_OF_CLUBS, ACE_OF_SPADES, ACE_OF_SPADES));
+        Assert.assertTrue(CardSet.filter(null, CardCode.ALL).isEmpty());
+    }
+}
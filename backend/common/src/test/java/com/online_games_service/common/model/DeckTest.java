@@ -0,0 +1,88 @@
+package com.online_games_service.common.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+public class DeckTest {
+
+    private static final Card ACE_OF_SPADES = new Card(CardSuit.SPADES, CardRank.ACE);
+    private static final Card TWO_OF_HEARTS = new Card(CardSuit.HEARTS, CardRank.TWO);
+
+    @Test
+    public void newDeckHoldsEveryCardOfEachBaseDeck() {
+        Deck single = new Deck();
+        Deck twoDecks = new Deck(2);
+
+        Assert.assertEquals(single.size(), 52);
+        Assert.assertEquals(new HashSet<>(single.getCards()).size(), 52);
+        Assert.assertEquals(twoDecks.size(), 104);
+        Assert.assertEquals(new Deck(0).size(), 52);
+    }
+
+    @Test
+    public void drawTakesFromTheTopUntilEmpty() {
+        Deck deck = new Deck(List.of(ACE_OF_SPADES, TWO_OF_HEARTS));
+
+        Assert.assertEquals(deck.draw(), TWO_OF_HEARTS);
+        Assert.assertEquals(deck.draw(), ACE_OF_SPADES);
+        Assert.assertNull(deck.draw());
+        Assert.assertTrue(deck.isEmpty());
+    }
+
+    @Test
+    public void ignoresNullCards() {
+        Deck deck = new Deck((List<Card>) null);
+
+        deck.addCard(null);
+        deck.addCards(null);
+        deck.addCards(Arrays.asList(ACE_OF_SPADES, null));
+
+        Assert.assertEquals(deck.getCards(), List.of(ACE_OF_SPADES));
+        Assert.assertFalse(deck.removeCard(null));
+    }
+
+    @Test
+    public void removesOneCopyOfACard() {
+        Deck deck = new Deck(List.of(ACE_OF_SPADES, ACE_OF_SPADES));
+        deck.addCard(TWO_OF_HEARTS);
+
+        Assert.assertTrue(deck.removeCard(ACE_OF_SPADES));
+        Assert.assertEquals(deck.getCards(), List.of(ACE_OF_SPADES, TWO_OF_HEARTS));
+        deck.shuffle();
+        Assert.assertEquals(deck.size(), 2);
+
+        deck.clear();
+        Assert.assertFalse(deck.removeCard(ACE_OF_SPADES));
+    }
+
+    @Test
+    public void resetRefillsOnlyDecksBuiltFromBaseDecks() {
+        Deck full = new Deck(1);
+        full.draw();
+        Deck custom = new Deck(List.of(ACE_OF_SPADES));
+
+        full.reset();
+        custom.reset();
+
+        Assert.assertEquals(full.size(), 52);
+        Assert.assertTrue(custom.isEmpty());
+    }
+
+    @Test
+    public void cardsAreReadOnlyAndSurviveJson() throws Exception {
+        Deck deck = new Deck(List.of(ACE_OF_SPADES, TWO_OF_HEARTS));
+        Assert.expectThrows(UnsupportedOperationException.class, () -> deck.getCards().add(ACE_OF_SPADES));
+
+        ObjectMapper mapper = new ObjectMapper();
+        Deck copy = mapper.readValue(mapper.writeValueAsString(deck), Deck.class);
+
+        Assert.assertEquals(copy.getCards(), deck.getCards());
+    }
+}
@@ -0,0 +1,107 @@
+package com.online_games_service.common.ratelimit;
+
+import com.online_games_service.common.ratelimit.RedisRateLimiter.Decision;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RedisRateLimiterTest {
+
+    private static final List<String> KEY = List.of("test:bucket:u1");
+
+    private StringRedisTemplate redisTemplate;
+    private RedisRateLimiter limiter;
+
+    @BeforeMethod
+    public void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        // 5 actions per 10 s, so one token every 2 s
+        limiter = new RedisRateLimiter(redisTemplate, "test:bucket", 5, Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void allowedActionReportsRemainingTokens() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEY), eq("2000"), eq("5"), eq("1")))
+                .thenReturn(List.of(1L, 0L, 3L));
+
+        Decision decision = limiter.tryAcquire("u1");
+
+        Assert.assertTrue(decision.allowed());
+        Assert.assertEquals(decision.remaining(), 3);
+        Assert.assertEquals(limiter.getBurst(), 5);
+    }
+
+    @Test
+    public void rejectedSubjectIsRejectedLocallyUntilItMayRetry() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEY), eq("2000"), eq("5"), eq("1")))
+                .thenReturn(List.of(0L, 60_000L, 0L));
+
+        Decision first = limiter.tryAcquire("u1");
+        Decision second = limiter.tryAcquire("u1");
+
+        Assert.assertFalse(first.allowed());
+        Assert.assertEquals(first.retryAfterMs(), 60_000L);
+        Assert.assertFalse(second.allowed());
+        Assert.assertTrue(second.retryAfterMs() > 0 && second.retryAfterMs() <= 60_000L);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(KEY), any(), any(), any());
+    }
+
+    @Test
+    public void asksRedisAgainOnceTheLocalBlockExpired() throws InterruptedException {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEY), eq("2000"), eq("5"), eq("1")))
+                .thenReturn(List.of(0L, 1L, 0L), List.of(1L, 0L, 0L));
+
+        Assert.assertFalse(limiter.tryAcquire("u1").allowed());
+        Thread.sleep(5);
+
+        Assert.assertTrue(limiter.tryAcquire("u1").allowed());
+    }
+
+    @Test
+    public void peekDoesNotTakeAToken() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEY), eq("2000"), eq("5"), eq("0")))
+                .thenReturn(List.of("1", "0", "9"));
+
+        Decision decision = limiter.peek("u1");
+
+        Assert.assertTrue(decision.allowed());
+        // Never reports more than a full bucket
+        Assert.assertEquals(decision.remaining(), 5);
+    }
+
+    @Test
+    public void allowsRequestsWhenRedisIsUnavailable() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEY), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        Assert.assertEquals(limiter.tryAcquire("u1"), new Decision(true, 0, 5));
+    }
+
+    @Test
+    public void allowsRequestsWhenTheScriptReturnsNoResult() {
+        Assert.assertTrue(limiter.tryAcquire("u1").allowed());
+
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEY), any(), any(), any())).thenReturn(List.of(0L));
+        Assert.assertTrue(limiter.tryAcquire("u1").allowed());
+    }
+
+    @Test
+    public void keepsAtLeastOneTokenAndOneMillisecondInterval() {
+        RedisRateLimiter tiny = new RedisRateLimiter(redisTemplate, "test:bucket", 0, Duration.ZERO);
+
+        tiny.tryAcquire("u1");
+
+        Assert.assertEquals(tiny.getBurst(), 1);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEY), eq("1"), eq("1"), eq("1"));
+    }
+}
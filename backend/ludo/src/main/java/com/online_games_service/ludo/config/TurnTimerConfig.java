@@ -0,0 +1,20 @@
+package com.online_games_service.ludo.config;
+
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+public class TurnTimerConfig {
+
+    @Bean(destroyMethod = "close")
+    public RedisTimerQueue turnTimerQueue(
+            StringRedisTemplate redisTemplate,
+            @Value("${ludo.turn-timers.poll-interval-ms:250}") long pollIntervalMs,
+            @Value("${ludo.turn-timers.lease-ms:30000}") long leaseMs,
+            @Value("${ludo.turn-timers.batch-size:100}") int batchSize) {
+        return new RedisTimerQueue(redisTemplate, "ludo:turn-timers", pollIntervalMs, leaseMs, batchSize);
+    }
+}
@@ -0,0 +1,152 @@
+package com.online_games_service.ludo.repository.redis;
+
+import com.online_games_service.common.codec.CompactInput;
+import com.online_games_service.common.codec.CompactOutput;
+import com.online_games_service.common.codec.GameStateCodec;
+import com.online_games_service.common.enums.RoomStatus;
+import com.online_games_service.ludo.enums.PlayerColor;
+import com.online_games_service.ludo.model.LudoGame;
+import com.online_games_service.ludo.model.LudoPawn;
+import com.online_games_service.ludo.model.LudoPlayer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of {@link LudoGame} in Redis. Pawns are written as a handful of varints
+ * instead of a typed JSON object each.
+ */
+@Component
+public class LudoGameCodec implements GameStateCodec<LudoGame> {
+
+    static final byte CODEC_ID = 2;
+    static final int SCHEMA_VERSION = 1;
+
+    private static final RoomStatus[] STATUSES = RoomStatus.values();
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+
+    private static final int PAWN_IN_BASE = 1;
+    private static final int PAWN_IN_HOME = 2;
+
+    @Override
+    public byte codecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    public int schemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    public Class<LudoGame> type() {
+        return LudoGame.class;
+    }
+
+    @Override
+    public void write(LudoGame game, CompactOutput out) {
+        out.writeString(game.getRoomId());
+        out.writeString(game.getGameId());
+        out.writeEnum(game.getStatus());
+        out.writeString(game.getHostUserId());
+        out.writeVarInt(game.getMaxPlayers());
+
+        List<LudoPlayer> players = game.getPlayers() != null ? game.getPlayers() : List.of();
+        out.writeVarInt(players.size());
+        for (LudoPlayer player : players) {
+            writePlayer(player, out);
+        }
+
+        out.writeStringMap(game.getPlayersUsernames());
+        out.writeEnum(game.getCurrentPlayerColor());
+        out.writeString(game.getActivePlayerId());
+        out.writeSignedVarInt(game.getLastDiceRoll());
+        out.writeBoolean(game.isDiceRolled());
+        out.writeBoolean(game.isWaitingForMove());
+        out.writeSignedVarInt(game.getRollsLeft());
+
+        out.writeString(game.getWinnerId());
+        out.writeIntMap(game.getPlacement());
+        out.writeVarInt(game.getBotCounter());
+        out.writeNullableLong(game.getTurnStartTime());
+        out.writeStringMap(game.getPlayersAvatars());
+    }
+
+    @Override
+    public LudoGame read(int schemaVersion, CompactInput in) {
+        LudoGame game = new LudoGame();
+        game.setRoomId(in.readString());
+        game.setGameId(in.readString());
+        game.setStatus(in.readEnum(STATUSES));
+        game.setHostUserId(in.readString());
+        game.setMaxPlayers(in.readVarInt());
+
+        int playerCount = in.readVarInt();
+        List<LudoPlayer> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            players.add(readPlayer(in));
+        }
+        game.setPlayers(players);
+
+        game.setPlayersUsernames(in.readStringMap());
+        game.setCurrentPlayerColor(in.readEnum(COLORS));
+        game.setActivePlayerId(in.readString());
+        game.setLastDiceRoll(in.readSignedVarInt());
+        game.setDiceRolled(in.readBoolean());
+        game.setWaitingForMove(in.readBoolean());
+        game.setRollsLeft(in.readSignedVarInt());
+
+        game.setWinnerId(in.readString());
+        Map<String, Integer> placement = in.readIntMap();
+        game.setPlacement(placement != null ? placement : new HashMap<>());
+        game.setBotCounter(in.readVarInt());
+        game.setTurnStartTime(in.readNullableLong());
+        Map<String, String> avatars = in.readStringMap();
+        game.setPlayersAvatars(avatars != null ? avatars : new HashMap<>());
+        return game;
+    }
+
+    private static void writePlayer(LudoPlayer player, CompactOutput out) {
+        out.writeString(player.getUserId());
+        out.writeEnum(player.getColor());
+        out.writeBoolean(player.isBot());
+        List<LudoPawn> pawns = player.getPawns();
+        out.writeVarInt(pawns == null ? 0 : pawns.size() + 1);
+        if (pawns == null) {
+            return;
+        }
+        for (LudoPawn pawn : pawns) {
+            out.writeSignedVarInt(pawn.getId());
+            out.writeSignedVarInt(pawn.getPosition());
+            out.writeEnum(pawn.getColor());
+            out.writeSignedVarInt(pawn.getStepsMoved());
+            out.writeByte((pawn.isInBase() ? PAWN_IN_BASE : 0) | (pawn.isInHome() ? PAWN_IN_HOME : 0));
+        }
+    }
+
+    private static LudoPlayer readPlayer(CompactInput in) {
+        LudoPlayer player = new LudoPlayer();
+        player.setUserId(in.readString());
+        player.setColor(in.readEnum(COLORS));
+        player.setBot(in.readBoolean());
+        int pawnCount = in.readVarInt() - 1;
+        if (pawnCount < 0) {
+            return player;
+        }
+        List<LudoPawn> pawns = new ArrayList<>(pawnCount);
+        for (int i = 0; i < pawnCount; i++) {
+            int id = in.readSignedVarInt();
+            int position = in.readSignedVarInt();
+            PlayerColor color = in.readEnum(COLORS);
+            int stepsMoved = in.readSignedVarInt();
+            int flags = in.readByte();
+            pawns.add(new LudoPawn(id, position, color, stepsMoved,
+                    (flags & PAWN_IN_BASE) != 0, (flags & PAWN_IN_HOME) != 0));
+        }
+        player.setPawns(pawns);
+        return player;
+    }
+}
@@ -1,5 +1,8 @@
 package com.online_games_service.ludo.service;
 
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.TimingWheelScheduler;
 import com.online_games_service.common.enums.RoomStatus;
 import com.online_games_service.common.messaging.GameFinishMessage;
 import com.online_games_service.common.messaging.GameResultMessage;
@@ -15,7 +18,7 @@ import com.online_games_service.ludo.model.LudoPawn;
 import com.online_games_service.ludo.model.LudoPlayer;
 import com.online_games_service.ludo.repository.mongo.LudoGameResultRepository;
 import com.online_games_service.ludo.repository.redis.LudoGameRedisRepository;
-import jakarta.annotation.PreDestroy;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -26,7 +29,9 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -38,12 +43,12 @@ public class LudoService {
     private final RabbitTemplate rabbitTemplate;
     private final SimpMessagingTemplate messagingTemplate;
     private final StringRedisTemplate stringRedisTemplate;
+    private final RoomActorExecutor roomExecutor;
+    private final TimingWheelScheduler roomTimers;
+    private final RedisTimerQueue turnTimers;
 
     private final ThreadLocalRandom random = ThreadLocalRandom.current();
 
-    private final ScheduledExecutorService turnTimeoutScheduler = Executors.newScheduledThreadPool(4);
-    private final Map<String, ScheduledFuture<?>> turnTimeouts = new ConcurrentHashMap<>();
-
     @Value("${ludo.amqp.exchange:game.events}")
     private String exchangeName;
 
@@ -61,6 +66,10 @@ public class LudoService {
 
     private static final int BOARD_SIZE = 44;
     private static final String USER_GAME_KEY_PREFIX = "ludo:user-game:";
+    private static final String TURN_TIMER_SEPARATOR = "|";
+    private static final String BOT_TIMER_PREFIX = "ludo:bot:";
+    // How long after a bot step was due its durable timer runs it, if this replica did not
+    private static final long BOT_BACKSTOP_GRACE_MS = 5000;
 
     // --- API FUNCTIONS ---
 
@@ -70,6 +79,10 @@ public class LudoService {
             return;
         }
 
+        roomExecutor.run(roomId, () -> initializeGame(roomId, playerIds, hostUserId, usernames, avatars, maxPlayers));
+    }
+
+    private void initializeGame(String roomId, List<String> playerIds, String hostUserId, Map<String, String> usernames, Map<String, String> avatars, int maxPlayers) {
         // Use the new constructor with maxPlayers for bot filling
         LudoGame game = new LudoGame(roomId, playerIds, hostUserId, usernames, maxPlayers);
 
@@ -120,39 +133,45 @@ public class LudoService {
     }
 
     public void rollDice(String userId) {
-        LudoGame game = getGameByUserId(userId);
+        String roomId = getRoomIdByUserId(userId);
+        roomExecutor.run(roomId, () -> {
+            LudoGame game = getGameByRoomId(roomId);
 
-        validateTurn(game, userId);
+            validateTurn(game, userId);
 
-        if (game.isDiceRolled() && game.isWaitingForMove()) {
-            throw new GameLogicException("You must move before rolling again!");
-        }
-        if (game.getRollsLeft() <= 0) {
-            throw new IllegalStateException("No rolls left!");
-        }
+            if (game.isDiceRolled() && game.isWaitingForMove()) {
+                throw new GameLogicException("You must move before rolling again!");
+            }
+            if (game.getRollsLeft() <= 0) {
+                throw new IllegalStateException("No rolls left!");
+            }
 
-        performRollLogic(game, userId);
+            performRollLogic(game, userId);
+        });
     }
 
     public void movePawn(String userId, int pawnIndex) {
-        LudoGame game = getGameByUserId(userId);
+        String roomId = getRoomIdByUserId(userId);
+        roomExecutor.run(roomId, () -> {
+            LudoGame game = getGameByRoomId(roomId);
 
-        validateTurn(game, userId);
-        if (!game.isDiceRolled()) throw new IllegalStateException("Roll dice first!");
+            validateTurn(game, userId);
+            if (!game.isDiceRolled()) throw new IllegalStateException("Roll dice first!");
 
-        LudoPlayer player = game.getPlayerById(userId);
-        if (player == null) throw new IllegalArgumentException("Player not found in game");
+            LudoPlayer player = game.getPlayerById(userId);
+            if (player == null) throw new IllegalArgumentException("Player not found in game");
 
-        if (pawnIndex < 0 || pawnIndex >= player.getPawns().size()) {
-            throw new InvalidMoveException("Invalid pawn index");
-        }
+            if (pawnIndex < 0 || pawnIndex >= player.getPawns().size()) {
+                throw new InvalidMoveException("Invalid pawn index");
+            }
 
-        LudoPawn pawn = player.getPawns().get(pawnIndex);
-        int roll = game.getLastDiceRoll();
+            LudoPawn pawn = player.getPawns().get(pawnIndex);
+            int roll = game.getLastDiceRoll();
 
-        String capturedId = performMoveLogic(game, player, pawn, roll);
+            String capturedId = performMoveLogic(game, player, pawn, roll);
 
-        handlePostMove(game, player, roll, capturedId);
+            handlePostMove(game, player, roll, capturedId);
+        });
     }
 
     /**
@@ -160,13 +179,22 @@ public class LudoService {
      * The player will be replaced by a bot.
      */
     public void handlePlayerLeave(String userId) {
-        LudoGame game;
+        String roomId;
         try {
-            game = getGameByUserId(userId);
+            roomId = getRoomIdByUserId(userId);
         } catch (IllegalArgumentException e) {
             log.info("Player {} tried to leave but is not in any game", userId);
             return;
         }
+        roomExecutor.run(roomId, () -> replaceLeavingPlayer(userId, roomId));
+    }
+
+    private void replaceLeavingPlayer(String userId, String roomId) {
+        LudoGame game = gameRepository.findById(roomId).orElse(null);
+        if (game == null) {
+            log.info("Player {} tried to leave but game {} no longer exists", userId, roomId);
+            return;
+        }
 
         if (game.getStatus() != RoomStatus.PLAYING) {
             log.info("Player {} tried to leave game {} but it's not in PLAYING status", userId, game.getRoomId());
@@ -179,9 +207,8 @@ public class LudoService {
             return;
         }
 
-        log.info("Player {} voluntarily leaving game {}", userId, game.getRoomId());
+        log.info("Player {} voluntarily leaving game {}", userId, roomId);
 
-        String roomId = game.getRoomId();
         String oldId = player.getUserId();
 
         // Remove user-game mapping
@@ -239,17 +266,25 @@ public class LudoService {
      * Request the current game state to be sent via WebSocket for a user.
      */
     public void requestStateForUser(String userId) {
-        LudoGame game = getGameByUserId(userId);
-        saveAndBroadcast(game, null);
+        String roomId = getRoomIdByUserId(userId);
+        roomExecutor.run(roomId, () -> saveAndBroadcast(getGameByRoomId(roomId), null));
     }
 
     // --- LOOKUP & MAPPING METHODS (DODANE) ---
 
     private LudoGame getGameByUserId(String userId) {
+        return getGameByRoomId(getRoomIdByUserId(userId));
+    }
+
+    private String getRoomIdByUserId(String userId) {
         String roomId = stringRedisTemplate.opsForValue().get(USER_GAME_KEY_PREFIX + userId);
         if (roomId == null) {
             throw new IllegalArgumentException("User " + userId + " is not currently in any Ludo game");
         }
+        return roomId;
+    }
+
+    private LudoGame getGameByRoomId(String roomId) {
         return gameRepository.findById(roomId)
                 .orElseThrow(() -> new IllegalArgumentException("Game not found for room: " + roomId));
     }
@@ -389,11 +424,9 @@ public class LudoService {
             game.setActivePlayerId(nextPlayer.getUserId());
             updateRollsCountForPlayer(game, nextPlayer);
 
-            // Cancel any existing timeout
-            cancelTurnTimeout(game.getRoomId());
-
             if (isBot(nextPlayer.getUserId())) {
-                // Clear turn start time for bots (they don't have timers)
+                // Clear turn start time and timer for bots (they don't have timers)
+                cancelTurnTimeout(game.getRoomId());
                 game.setTurnStartTime(null);
                 saveAndBroadcast(game, null);
                 handleBotTurn(game, nextPlayer.getUserId());
@@ -401,7 +434,7 @@ public class LudoService {
                 // Set turn start time BEFORE broadcasting so clients get accurate timer
                 game.setTurnStartTime(System.currentTimeMillis());
                 saveAndBroadcast(game, null);
-                // Schedule the timeout (turnStartTime already set)
+                // Schedule the timeout (turnStartTime already set); replaces the previous turn's timer
                 scheduleTimeoutOnly(game);
             }
         }
@@ -414,7 +447,50 @@ public class LudoService {
     }
 
     private void handleBotTurn(LudoGame gameParam, String botId) {
-        turnTimeoutScheduler.schedule(() -> processBotStep(gameParam.getRoomId(), botId), 1500, TimeUnit.MILLISECONDS);
+        String roomId = gameParam.getRoomId();
+        scheduleBotStep(roomId, botId, 1500, () -> processBotStep(roomId, botId));
+    }
+
+    /**
+     * Runs a bot step from the in-process timing wheel, backed by a durable timer due a little
+     * later. The durable timer is removed once the step ran and otherwise resumes the bot's turn,
+     * so a restart during a bot's turn does not leave the game waiting.
+     */
+    private void scheduleBotStep(String roomId, String botId, long delayMs, Runnable step) {
+        String timerId = BOT_TIMER_PREFIX + roomId;
+        String backstop = botId + TURN_TIMER_SEPARATOR + System.currentTimeMillis();
+        turnTimers.schedule(timerId, backstop, delayMs + BOT_BACKSTOP_GRACE_MS, TimeUnit.MILLISECONDS);
+        roomTimers.schedule(timerId, delayMs, TimeUnit.MILLISECONDS, roomExecutor.wrap(roomId, () -> {
+            step.run();
+            // Keeps the backstop if the step already scheduled the next one
+            turnTimers.cancel(timerId, backstop);
+        }));
+    }
+
+    /**
+     * Resumes a bot's turn whose in-process step never ran, for example because the replica
+     * that scheduled it restarted.
+     */
+    private CompletionStage<Void> onBotTimerDue(String roomId, String payload) {
+        int separator = payload.lastIndexOf(TURN_TIMER_SEPARATOR);
+        if (separator <= 0) {
+            log.warn("Ignoring malformed bot timer for room {}: {}", roomId, payload);
+            return null;
+        }
+        String botId = payload.substring(0, separator);
+        return roomExecutor.execute(roomId, () -> {
+            LudoGame game = gameRepository.findById(roomId).orElse(null);
+            if (game == null || game.getStatus() != RoomStatus.PLAYING || !botId.equals(game.getActivePlayerId())) {
+                return;
+            }
+            log.info("Resuming overdue turn of bot {} in room {}", botId, roomId);
+            roomTimers.cancel(BOT_TIMER_PREFIX + roomId);
+            if (game.isWaitingForMove() && game.isDiceRolled()) {
+                executeBotMove(roomId, botId, game.getLastDiceRoll());
+            } else {
+                processBotStep(roomId, botId);
+            }
+        });
     }
 
     private void processBotStep(String roomId, String botId) {
@@ -448,7 +524,7 @@ public class LudoService {
                     game.setWaitingForMove(false);
                     saveAndBroadcast(game, null);
 
-                    turnTimeoutScheduler.schedule(() -> processBotStep(roomId, botId), 1000, TimeUnit.MILLISECONDS);
+                    scheduleBotStep(roomId, botId, 1000, () -> processBotStep(roomId, botId));
                     return;
                 } else {
                     passTurnToNextPlayer(game);
@@ -459,7 +535,7 @@ public class LudoService {
             saveAndBroadcast(game, null);
 
             if (canMove) {
-                turnTimeoutScheduler.schedule(() -> executeBotMove(roomId, botId, roll), 1000, TimeUnit.MILLISECONDS);
+                scheduleBotStep(roomId, botId, 1000, () -> executeBotMove(roomId, botId, roll));
             }
 
         } catch (Exception e) {
@@ -493,7 +569,7 @@ public class LudoService {
                     game.setRollsLeft(1);
                     saveAndBroadcast(game, capturedId);
 
-                    turnTimeoutScheduler.schedule(() -> processBotStep(roomId, botId), 1000, TimeUnit.MILLISECONDS);
+                    scheduleBotStep(roomId, botId, 1000, () -> processBotStep(roomId, botId));
                 } else {
                     if (capturedId != null) {
                         saveAndBroadcast(game, capturedId);
@@ -570,10 +646,10 @@ public class LudoService {
      */
     private void scheduleTurnTimeout(LudoGame game) {
         if (game.getStatus() != RoomStatus.PLAYING) return;
-        cancelTurnTimeout(game.getRoomId());
 
         if (isBot(game.getActivePlayerId())) {
             // Clear turn start time for bots
+            cancelTurnTimeout(game.getRoomId());
             game.setTurnStartTime(null);
             return;
         }
@@ -581,11 +657,7 @@ public class LudoService {
         // Set turn start time for accurate client-side timer calculation
         game.setTurnStartTime(System.currentTimeMillis());
 
-        ScheduledFuture<?> future = turnTimeoutScheduler.schedule(() -> {
-            handleTurnTimeout(game.getRoomId(), game.getActivePlayerId());
-        }, turnTimeoutSeconds, TimeUnit.SECONDS);
-
-        turnTimeouts.put(game.getRoomId(), future);
+        scheduleTimeoutOnly(game);
     }
 
     /**
@@ -596,77 +668,105 @@ public class LudoService {
         if (game.getStatus() != RoomStatus.PLAYING) return;
         if (isBot(game.getActivePlayerId())) return;
 
-        ScheduledFuture<?> future = turnTimeoutScheduler.schedule(() -> {
-            handleTurnTimeout(game.getRoomId(), game.getActivePlayerId());
-        }, turnTimeoutSeconds, TimeUnit.SECONDS);
+        // The turn start time identifies the turn, so stale or repeated deliveries are ignored
+        turnTimers.schedule(game.getRoomId(), game.getActivePlayerId() + TURN_TIMER_SEPARATOR + game.getTurnStartTime(),
+                turnTimeoutSeconds, TimeUnit.SECONDS);
+    }
 
-        turnTimeouts.put(game.getRoomId(), future);
+    /**
+     * Starts firing turn and bot timers stored in Redis. Any replica may pick up a timer,
+     * including timers scheduled before a restart.
+     */
+    @PostConstruct
+    public void startTurnTimers() {
+        turnTimers.start(this::onRoomTimerDue);
     }
 
-    private void handleTurnTimeout(String roomId, String timedOutPlayerId) {
-        // Remove the triggered timer so a new one can be scheduled without being cancelled
-        turnTimeouts.remove(roomId);
-        try {
-            LudoGame game = gameRepository.findById(roomId).orElse(null);
-            if (game == null || game.getStatus() != RoomStatus.PLAYING) return;
-            if (!game.getActivePlayerId().equals(timedOutPlayerId)) return;
+    private CompletionStage<Void> onRoomTimerDue(String timerId, String payload) {
+        if (timerId.startsWith(BOT_TIMER_PREFIX)) {
+            return onBotTimerDue(timerId.substring(BOT_TIMER_PREFIX.length()), payload);
+        }
+        return onTurnTimerDue(timerId, payload);
+    }
 
-            log.info("Timeout for player {} in room {}", timedOutPlayerId, roomId);
+    /**
+     * Fires a turn timer claimed from Redis. A failure completes the returned stage
+     * exceptionally, so the timer fires again after its lease.
+     */
+    private CompletionStage<Void> onTurnTimerDue(String roomId, String payload) {
+        int separator = payload.lastIndexOf(TURN_TIMER_SEPARATOR);
+        if (separator <= 0) {
+            log.warn("Ignoring malformed turn timer for room {}: {}", roomId, payload);
+            return null;
+        }
+        String playerId = payload.substring(0, separator);
+        String turnStart = payload.substring(separator + 1);
+        Long turnStartTime = "null".equals(turnStart) ? null : Long.valueOf(turnStart);
+        return roomExecutor.execute(roomId, () -> handleTurnTimeout(roomId, playerId, turnStartTime));
+    }
 
-            LudoPlayer player = game.getPlayerById(timedOutPlayerId);
-            if (player != null) {
-                String oldId = player.getUserId();
+    private void handleTurnTimeout(String roomId, String timedOutPlayerId) {
+        handleTurnTimeout(roomId, timedOutPlayerId, null);
+    }
 
-                // Remove user-game mapping
-                removeUserGameMapping(oldId);
+    private void handleTurnTimeout(String roomId, String timedOutPlayerId, Long expectedTurnStartTime) {
+        LudoGame game = gameRepository.findById(roomId).orElse(null);
+        if (game == null || game.getStatus() != RoomStatus.PLAYING) return;
+        if (!game.getActivePlayerId().equals(timedOutPlayerId)) return;
+        if (expectedTurnStartTime != null && !expectedTurnStartTime.equals(game.getTurnStartTime())) return;
 
-                // Notify Menu service that player timed out
-                publishPlayerLeave(roomId, oldId, PlayerLeaveMessage.LeaveReason.TIMEOUT);
+        log.info("Timeout for player {} in room {}", timedOutPlayerId, roomId);
 
-                int nextBotNum = game.getBotCounter() + 1;
-                game.setBotCounter(nextBotNum);
+        LudoPlayer player = game.getPlayerById(timedOutPlayerId);
+        if (player != null) {
+            String oldId = player.getUserId();
 
-                String botId = "bot-" + nextBotNum;
+            // Remove user-game mapping
+            removeUserGameMapping(oldId);
 
-                player.setUserId(botId);
-                player.setBot(true);
+            // Notify Menu service that player timed out
+            publishPlayerLeave(roomId, oldId, PlayerLeaveMessage.LeaveReason.TIMEOUT);
 
-                Map<String, String> usernames = game.getPlayersUsernames();
-                usernames.remove(oldId);
-                usernames.put(botId, "Bot " + nextBotNum);
-                game.setPlayersUsernames(usernames);
+            int nextBotNum = game.getBotCounter() + 1;
+            game.setBotCounter(nextBotNum);
 
-                // Update avatars - remove old player's avatar and set bot avatar
-                Map<String, String> avatars = game.getPlayersAvatars() != null
-                        ? new HashMap<>(game.getPlayersAvatars())
-                        : new HashMap<>();
-                avatars.remove(oldId);
-                avatars.put(botId, "bot_avatar.svg");
-                game.setPlayersAvatars(avatars);
+            String botId = "bot-" + nextBotNum;
 
-                game.setActivePlayerId(botId);
+            player.setUserId(botId);
+            player.setBot(true);
 
-                // Notify the timed-out player before checking for humans
-                notifyPlayerTimeout(oldId, roomId, botId);
+            Map<String, String> usernames = game.getPlayersUsernames();
+            usernames.remove(oldId);
+            usernames.put(botId, "Bot " + nextBotNum);
+            game.setPlayersUsernames(usernames);
 
-                if (checkAndAbortIfNoHumans(game)) {
-                    return;
-                }
+            // Update avatars - remove old player's avatar and set bot avatar
+            Map<String, String> avatars = game.getPlayersAvatars() != null
+                    ? new HashMap<>(game.getPlayersAvatars())
+                    : new HashMap<>();
+            avatars.remove(oldId);
+            avatars.put(botId, "bot_avatar.svg");
+            game.setPlayersAvatars(avatars);
 
-                game.setDiceRolled(false);
-                game.setWaitingForMove(false);
-                game.setLastDiceRoll(0);
-                updateRollsCountForPlayer(game, player);
+            game.setActivePlayerId(botId);
 
-                saveAndBroadcast(game, null);
+            // Notify the timed-out player before checking for humans
+            notifyPlayerTimeout(oldId, roomId, botId);
 
-                handleBotTurn(game, botId);
-            } else {
-                passTurnToNextPlayer(game);
+            if (checkAndAbortIfNoHumans(game)) {
+                return;
             }
 
-        } catch (Exception e) {
-            log.error("Error handling timeout", e);
+            game.setDiceRolled(false);
+            game.setWaitingForMove(false);
+            game.setLastDiceRoll(0);
+            updateRollsCountForPlayer(game, player);
+
+            saveAndBroadcast(game, null);
+
+            handleBotTurn(game, botId);
+        } else {
+            passTurnToNextPlayer(game);
         }
     }
 
@@ -873,29 +973,6 @@ public class LudoService {
     }
 
     private void cancelTurnTimeout(String roomId) {
-        ScheduledFuture<?> future = turnTimeouts.remove(roomId);
-        if (future != null) future.cancel(false);
-    }
-
-    @PreDestroy
-    public void shutdown() {
-        if (turnTimeoutScheduler != null && !turnTimeoutScheduler.isShutdown()) {
-            for (ScheduledFuture<?> future : turnTimeouts.values()) {
-                if (future != null && !future.isDone()) {
-                    future.cancel(false);
-                }
-            }
-            turnTimeouts.clear();
-
-            turnTimeoutScheduler.shutdown();
-            try {
-                if (!turnTimeoutScheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    turnTimeoutScheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                turnTimeoutScheduler.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
+        turnTimers.cancel(roomId);
     }
 }
\ No newline at end of file
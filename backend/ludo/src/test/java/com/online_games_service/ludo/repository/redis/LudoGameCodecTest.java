@@ -0,0 +1,65 @@
+package com.online_games_service.ludo.repository.redis;
+
+import com.online_games_service.common.codec.CompactRedisSerializer;
+import com.online_games_service.common.config.BaseRedisConfig;
+import com.online_games_service.ludo.model.LudoGame;
+import com.online_games_service.ludo.model.LudoPawn;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class LudoGameCodecTest {
+
+    private final GenericJackson2JsonRedisSerializer json = BaseRedisConfig.jsonSerializer();
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(json, List.of(new LudoGameCodec()));
+
+    @Test
+    public void roundTrip_preservesGame() {
+        LudoGame game = game();
+        LudoPawn pawn = game.getPlayers().get(0).getPawns().get(2);
+        pawn.setInBase(false);
+        pawn.setPosition(17);
+        pawn.setStepsMoved(17);
+        game.setLastDiceRoll(6);
+        game.setDiceRolled(true);
+        game.setTurnStartTime(1_700_000_000_000L);
+        game.getPlacement().put("p1", 1);
+
+        byte[] bytes = serializer.serialize(game);
+        Assert.assertTrue(CompactRedisSerializer.isCompact(bytes));
+
+        LudoGame decoded = (LudoGame) serializer.deserialize(bytes);
+        Assert.assertEquals(decoded, game);
+        Assert.assertEquals(decoded.getPlayersUsernames(), game.getPlayersUsernames());
+    }
+
+    @Test
+    public void deserialize_readsExistingJsonValues() {
+        LudoGame game = game();
+
+        LudoGame decoded = (LudoGame) serializer.deserialize(json.serialize(game));
+
+        Assert.assertEquals(decoded.getPlayers(), game.getPlayers());
+        Assert.assertEquals(decoded.getActivePlayerId(), game.getActivePlayerId());
+    }
+
+    @Test
+    public void compactEncoding_isSmallerThanJson() {
+        LudoGame game = game();
+
+        byte[] compact = serializer.serialize(game);
+        byte[] legacy = json.serialize(game);
+
+        Assert.assertTrue(compact.length * 5 < legacy.length,
+                "compact=" + compact.length + " bytes, json=" + legacy.length + " bytes");
+    }
+
+    private LudoGame game() {
+        LudoGame game = new LudoGame("room-1", List.of("p1", "p2"), "p1", Map.of("p1", "Alice", "p2", "Bob"), 4);
+        game.setPlayersAvatars(new java.util.HashMap<>(Map.of("p1", "avatar_1.png")));
+        return game;
+    }
+}
@@ -1,5 +1,8 @@
 package com.online_games_service.ludo.service;
 
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.TimingWheelScheduler;
 import com.online_games_service.common.enums.RoomStatus;
 import com.online_games_service.common.messaging.GameResultMessage;
 import com.online_games_service.ludo.enums.PlayerColor;
@@ -27,8 +30,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -42,9 +45,11 @@ public class LudoServiceTest {
     @Mock private SimpMessagingTemplate messagingTemplate;
     @Mock private StringRedisTemplate stringRedisTemplate;
     @Mock private ValueOperations<String, String> stringValueOperations;
-    @Mock private ScheduledExecutorService scheduler;
+    @Mock private TimingWheelScheduler scheduler;
+    @Mock private RedisTimerQueue turnTimers;
 
     private LudoService ludoService;
+    private RoomActorExecutor roomExecutor;
     private AutoCloseable mocks;
     private final String USER_GAME_PREFIX = "ludo:user-game:";
 
@@ -54,12 +59,8 @@ public class LudoServiceTest {
 
         when(stringRedisTemplate.opsForValue()).thenReturn(stringValueOperations);
 
-        ludoService = new LudoService(gameRepository, gameResultRepository, rabbitTemplate, messagingTemplate, stringRedisTemplate);
-
-        ReflectionTestUtils.setField(ludoService, "turnTimeoutScheduler", scheduler);
-
-        doAnswer(invocation -> mock(ScheduledFuture.class))
-            .when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        roomExecutor = new RoomActorExecutor("test-room");
+        ludoService = new LudoService(gameRepository, gameResultRepository, rabbitTemplate, messagingTemplate, stringRedisTemplate, roomExecutor, scheduler, turnTimers);
 
         ReflectionTestUtils.setField(ludoService, "exchangeName", "game.events");
         ReflectionTestUtils.setField(ludoService, "finishRoutingKey", "ludo.finish");
@@ -70,28 +71,16 @@ public class LudoServiceTest {
     @AfterMethod
     public void tearDown() throws Exception {
         if (mocks != null) mocks.close();
+        if (roomExecutor != null) roomExecutor.close();
     }
 
     @Test
-    public void shutdown_shouldCancelTasksAndShutdownScheduler() {
-        // Given
-        String userId = "p1";
-        String roomId = "r1";
-
-        LudoGame game = createGame(roomId, userId, "p2");
-
-        when(stringValueOperations.get(USER_GAME_PREFIX + userId)).thenReturn(roomId);
-        when(gameRepository.findById(roomId)).thenReturn(Optional.of(game));
-        when(gameRepository.save(any())).thenReturn(game);
-
-        ludoService.rollDice(userId);
-
+    public void cancelTurnTimeout_shouldCancelRoomTimer() {
         // When
-        ludoService.shutdown();
+        ReflectionTestUtils.invokeMethod(ludoService, "cancelTurnTimeout", "r1");
 
         // Then
-        verify(scheduler, atLeastOnce()).shutdown();
-        verify(scheduler, atLeastOnce()).shutdownNow();
+        verify(turnTimers).cancel("r1");
     }
 
     @Test
@@ -116,7 +105,7 @@ public class LudoServiceTest {
         // Verify that state is sent to each human player's personal topic
         verify(messagingTemplate).convertAndSend(eq("/topic/ludo/p1"), any(Object.class));
         verify(messagingTemplate).convertAndSend(eq("/topic/ludo/p2"), any(Object.class));
-        verify(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        verify(turnTimers).schedule(eq(roomId), startsWith("p1|"), anyLong(), eq(TimeUnit.SECONDS));
     }
 
     @Test
@@ -327,6 +316,44 @@ public class LudoServiceTest {
         Assert.assertThrows(InvalidMoveException.class, () -> ludoService.movePawn(userId, 99));
     }
 
+    @Test
+    public void turnTimer_shouldReplacePlayerOnRoomActor() throws Exception {
+        // Given
+        LudoGame game = createGame("r1", "p1", "p2");
+        game.setStatus(RoomStatus.PLAYING);
+        game.setTurnStartTime(1000L);
+        when(gameRepository.findById("r1")).thenReturn(Optional.of(game));
+        when(gameRepository.save(any(LudoGame.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        ReflectionTestUtils.invokeMethod(ludoService, "scheduleTimeoutOnly", game);
+        verify(turnTimers).schedule("r1", "p1|1000", 0L, TimeUnit.SECONDS);
+
+        // When - the timer is claimed from Redis
+        CompletionStage<?> fired = ReflectionTestUtils.invokeMethod(ludoService, "onTurnTimerDue", "r1", "p1|1000");
+        fired.toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        // Then
+        Assert.assertTrue(game.getPlayers().get(0).isBot());
+        verify(stringRedisTemplate).delete(USER_GAME_PREFIX + "p1");
+    }
+
+    @Test
+    public void turnTimer_shouldIgnoreTimerFromPreviousTurn() throws Exception {
+        // Given
+        LudoGame game = createGame("r1", "p1", "p2");
+        game.setStatus(RoomStatus.PLAYING);
+        game.setTurnStartTime(2000L);
+        when(gameRepository.findById("r1")).thenReturn(Optional.of(game));
+
+        // When - a stale or duplicate delivery arrives
+        CompletionStage<?> fired = ReflectionTestUtils.invokeMethod(ludoService, "onTurnTimerDue", "r1", "p1|1000");
+        fired.toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        // Then
+        Assert.assertFalse(game.getPlayers().get(0).isBot());
+        verify(gameRepository, never()).save(any());
+    }
+
     @Test
     public void handleTurnTimeout_shouldReplaceWithBot() {
         // Given
@@ -345,7 +372,7 @@ public class LudoServiceTest {
         verify(stringRedisTemplate).delete(USER_GAME_PREFIX + "p1");
 
         verify(messagingTemplate, atLeastOnce()).convertAndSend(anyString(), any(Object.class));
-        verify(scheduler, atLeastOnce()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        verify(scheduler, atLeastOnce()).schedule(anyString(), anyLong(), any(TimeUnit.class), any(Runnable.class));
     }
 
     @Test
@@ -536,19 +563,54 @@ public class LudoServiceTest {
     }
 
     @Test
-    public void handleTurnTimeout_shouldLogExceptionOnDatabaseError() {
+    public void turnTimer_shouldFailOnDatabaseErrorSoTheTimerIsRetried() {
         // Given
         LudoGame game = createGame("r1", "p1", "p2");
         when(gameRepository.findById("r1")).thenReturn(Optional.of(game));
         doThrow(new RuntimeException("DB Error")).when(gameRepository).save(any());
 
         // When
-        ReflectionTestUtils.invokeMethod(ludoService, "handleTurnTimeout", "r1", "p1");
+        CompletionStage<?> fired = ReflectionTestUtils.invokeMethod(ludoService, "onRoomTimerDue", "r1", "p1|null");
 
-        // Then
+        // Then - the queue keeps the timer and fires it again after its lease
+        Assert.assertThrows(ExecutionException.class, () -> fired.toCompletableFuture().get(5, TimeUnit.SECONDS));
         verify(gameRepository).save(any());
     }
 
+    @Test
+    public void botStep_shouldBeBackedByDurableTimer() {
+        // Given
+        LudoGame game = createGame("r1", "bot-1", "p2");
+        when(gameRepository.findById("r1")).thenReturn(Optional.of(game));
+
+        // When
+        ReflectionTestUtils.invokeMethod(ludoService, "handleBotTurn", game, "bot-1");
+
+        // Then
+        verify(turnTimers).schedule(eq("ludo:bot:r1"), startsWith("bot-1|"), eq(1500L + 5000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void botTimer_shouldResumeBotTurnAfterRestart() throws Exception {
+        // Given - the bot rolled, then the replica restarted before it moved
+        LudoGame game = createGame("r1", "bot-1", "p2");
+        game.getPlayers().get(0).setBot(true);
+        game.getPlayers().get(0).getPawns().get(0).setInBase(false);
+        game.getPlayers().get(0).getPawns().get(0).setPosition(5);
+        game.setDiceRolled(true);
+        game.setWaitingForMove(true);
+        game.setLastDiceRoll(3);
+        when(gameRepository.findById("r1")).thenReturn(Optional.of(game));
+
+        // When
+        CompletionStage<?> fired = ReflectionTestUtils.invokeMethod(ludoService, "onRoomTimerDue", "ludo:bot:r1", "bot-1|1000");
+        fired.toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        // Then
+        Assert.assertEquals(game.getPlayers().get(0).getPawns().get(0).getPosition(), 8);
+        Assert.assertEquals(game.getActivePlayerId(), "p2");
+    }
+
     @Test
     public void movePawn_shouldThrowIfTargetFieldOccupiedBySelf() {
         // Given
@@ -648,7 +710,10 @@ public class LudoServiceTest {
 
         // Then
         verify(gameRepository, atLeastOnce()).save(any(LudoGame.class));
-        verify(scheduler, atLeastOnce()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        // Depending on the roll, either the bot's next step or the human's turn timer is scheduled
+        boolean botStepScheduled = !mockingDetails(scheduler).getInvocations().isEmpty();
+        boolean turnTimerScheduled = !mockingDetails(turnTimers).getInvocations().isEmpty();
+        Assert.assertTrue(botStepScheduled || turnTimerScheduled);
     }
 
     @Test
@@ -736,7 +801,7 @@ public class LudoServiceTest {
 
         // Then
         verify(gameRepository).deleteById(roomId);
-        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        verify(scheduler, never()).schedule(anyString(), anyLong(), any(TimeUnit.class), any(Runnable.class));
     }
 
     @Test
@@ -944,7 +1009,7 @@ public class LudoServiceTest {
 
         // Then
         // Bot turn should be scheduled
-        verify(scheduler, atLeastOnce()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        verify(scheduler, atLeastOnce()).schedule(anyString(), anyLong(), any(TimeUnit.class), any(Runnable.class));
     }
 
     @Test
@@ -0,0 +1,11 @@
+package com.online_games_service.makao.config;
+
+import com.online_games_service.common.config.RoomActorConfig;
+import com.online_games_service.common.config.TimingWheelConfig;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import({RoomActorConfig.class, TimingWheelConfig.class})
+public class RoomExecutorConfig {
+}
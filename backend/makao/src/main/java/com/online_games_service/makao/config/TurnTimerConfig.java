@@ -0,0 +1,33 @@
+package com.online_games_service.makao.config;
+
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import com.online_games_service.common.concurrent.RoomLeases;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+public class TurnTimerConfig {
+
+    /**
+     * Leases naming the replica whose state cache holds each live game.
+     */
+    @Bean
+    public RoomLeases roomLeases(
+            StringRedisTemplate redisTemplate,
+            @Value("${makao.state-cache.ownership-lease-ms:15000}") long leaseMs) {
+        return new RoomLeases(redisTemplate, "makao:room-owner:", leaseMs);
+    }
+
+    @Bean(destroyMethod = "close")
+    public RedisTimerQueue turnTimerQueue(
+            StringRedisTemplate redisTemplate,
+            RoomLeases roomLeases,
+            @Value("${makao.turn-timers.poll-interval-ms:250}") long pollIntervalMs,
+            @Value("${makao.turn-timers.lease-ms:30000}") long leaseMs,
+            @Value("${makao.turn-timers.batch-size:100}") int batchSize) {
+        return new RedisTimerQueue(redisTemplate, "makao:turn-timers", pollIntervalMs, leaseMs, batchSize,
+                roomLeases.getReplicaId());
+    }
+}
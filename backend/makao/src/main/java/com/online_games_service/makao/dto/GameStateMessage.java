@@ -49,4 +49,6 @@ public class GameStateMessage {
     private Map<String, String> playersUsernames;
     // Player avatars - playerId -> avatarId (e.g., "avatar_1.png" or "bot_avatar.png")
     private Map<String, String> playersAvatars;
+    // Per-player sequence number; following deltas continue from it
+    private long seq;
 }
@@ -0,0 +1,411 @@
+package com.online_games_service.makao.repository.cache;
+
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.RoomLeases;
+import com.online_games_service.common.enums.RoomStatus;
+import com.online_games_service.makao.model.MakaoGame;
+import com.online_games_service.makao.repository.redis.MakaoGameRedisRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node-local, authoritative cache of live Makao games.
+ * <p>
+ * Games are loaded from Redis once and then served from memory. Writes are
+ * coalesced in a write-behind stage according to the configured {@link DurabilityMode},
+ * so a single move no longer costs a full JSON round-trip per intermediate save.
+ * Redis stays the source of truth for recovery after a restart. Background flushes run
+ * on the room's actor so a game is never serialized while it is being mutated.
+ * <p>
+ * Deleted rooms are remembered for {@link #TOMBSTONE_TTL_MS}, so a late save of a finished
+ * game, such as a bot move already in flight, cannot bring it back and have it flushed to Redis.
+ * <p>
+ * Only one replica keeps a game in memory: the one holding the room's {@link RoomLeases lease},
+ * which the sweeper renews. Only that replica may change the game. Another replica can read the
+ * game from Redis, but its saves are rejected, since the owner's next flush would overwrite them
+ * and they would overwrite the owner's unflushed changes. A copy whose lease is lost is flushed
+ * before it is dropped, and a replica that had to take the lease over reloads the game from Redis.
+ * <p>
+ * Writes are conditional on the game's Redis version being the one the copy was based on, so a
+ * replica that lost the lease without noticing cannot overwrite what the new owner wrote; its copy
+ * is dropped instead.
+ */
+@Component
+@Slf4j
+public class MakaoGameStateCache {
+
+    /**
+     * How eagerly cached games are written back to Redis.
+     */
+    public enum DurabilityMode {
+        /** Every save is written to Redis immediately. */
+        WRITE_THROUGH,
+        /** Saves are written when the turn changes; intermediate saves are flushed by the interval sweeper. */
+        TURN,
+        /** Saves are only written by the interval sweeper. */
+        INTERVAL
+    }
+
+    /** How long saves of a deleted room are ignored unless the room is loaded from Redis again. */
+    static final long TOMBSTONE_TTL_MS = 30_000;
+
+    private final MakaoGameRedisRepository repository;
+    private final RoomLeases roomLeases;
+    private final RoomActorExecutor roomExecutor;
+    private final DurabilityMode durabilityMode;
+    private final long flushIntervalMs;
+    private final long idleEvictionMs;
+    private final Map<String, CachedGame> liveGames = new ConcurrentHashMap<>();
+    // roomId -> time it was deleted
+    private final Map<String, Long> tombstones = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flushScheduler;
+
+    public MakaoGameStateCache(MakaoGameRedisRepository repository,
+                               RoomLeases roomLeases,
+                               RoomActorExecutor roomExecutor,
+                               @Value("${makao.state-cache.durability:TURN}") DurabilityMode durabilityMode,
+                               @Value("${makao.state-cache.flush-interval-ms:1000}") long flushIntervalMs,
+                               @Value("${makao.state-cache.idle-eviction-seconds:600}") long idleEvictionSeconds) {
+        this.repository = repository;
+        this.roomLeases = roomLeases;
+        this.roomExecutor = roomExecutor;
+        this.durabilityMode = durabilityMode != null ? durabilityMode : DurabilityMode.TURN;
+        this.flushIntervalMs = Math.max(50, flushIntervalMs);
+        this.idleEvictionMs = TimeUnit.SECONDS.toMillis(Math.max(1, idleEvictionSeconds));
+    }
+
+    @PostConstruct
+    public void start() {
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "makao-state-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::sweep, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Makao state cache started (durability={}, flushIntervalMs={})", durabilityMode, flushIntervalMs);
+    }
+
+    public DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
+
+    /**
+     * The key naming the replica that owns the room, for routing the room's timers to it.
+     */
+    public String ownerKey(String roomId) {
+        return roomLeases.keyOf(roomId);
+    }
+
+    /**
+     * Returns the live game for the room, loading it from Redis on a cache miss.
+     * When another replica owns the room, its Redis copy is returned without being cached.
+     */
+    public Optional<MakaoGame> findById(String roomId) {
+        if (roomId == null) {
+            return Optional.empty();
+        }
+        CachedGame cached = liveGames.get(roomId);
+        if (cached != null && cached.isOwned()) {
+            cached.touch();
+            return Optional.of(cached.game);
+        }
+
+        long leaseStart = System.currentTimeMillis();
+        RoomLeases.LeaseState lease = roomLeases.acquire(roomId);
+        if (lease == RoomLeases.LeaseState.OWNED_ELSEWHERE) {
+            dropCopy(roomId, cached, "another replica owns it");
+            // Read-only: saves of it are rejected
+            return repository.findById(roomId);
+        }
+        if (cached != null) {
+            if (lease == RoomLeases.LeaseState.RENEWED) {
+                cached.ownedUntil = leaseStart + roomLeases.getLeaseMs();
+                cached.touch();
+                return Optional.of(cached.game);
+            }
+            // The lease lapsed, so another replica may have changed the game since
+            dropCopy(roomId, cached, "its lease lapsed");
+        }
+
+        // Read before the game, so a write in between makes the version stale rather than the game
+        long version = repository.getVersion(roomId);
+        Optional<MakaoGame> loaded = repository.findById(roomId);
+        if (loaded.isEmpty()) {
+            roomLeases.releaseAll(List.of(roomId));
+            return Optional.empty();
+        }
+        // A game stored again after the delete is a new one for the room
+        tombstones.remove(roomId);
+        CachedGame fresh = new CachedGame(loaded.get());
+        fresh.version = version;
+        fresh.flushedTurn = turnKey(fresh.game);
+        fresh.ownedUntil = leaseStart + roomLeases.getLeaseMs();
+        CachedGame winner = liveGames.putIfAbsent(roomId, fresh);
+        return Optional.of(winner != null ? winner.game : fresh.game);
+    }
+
+    /**
+     * Records the latest state of the game. Depending on the durability mode the write
+     * reaches Redis immediately, at the next turn boundary, or with the next interval flush.
+     * Saves of a recently deleted room are ignored.
+     *
+     * @throws IllegalStateException if another replica owns the room
+     */
+    public MakaoGame save(MakaoGame game) {
+        if (game == null || game.getRoomId() == null) {
+            return game;
+        }
+        String roomId = game.getRoomId();
+        if (isTombstoned(roomId)) {
+            log.debug("Ignoring save of deleted Makao game {}", roomId);
+            return game;
+        }
+
+        long leaseEnd = requireOwnership(roomId);
+        // A game this replica has not cached yet is based on what Redis holds now
+        long baseVersion = liveGames.containsKey(roomId) ? 0 : repository.getVersion(roomId);
+        CachedGame cached = liveGames.compute(roomId, (id, existing) -> {
+            if (isTombstoned(id)) {
+                return null;
+            }
+            CachedGame next = existing != null && existing.game == game ? existing : new CachedGame(game, existing);
+            if (existing == null) {
+                next.version = baseVersion;
+            }
+            next.ownedUntil = Math.max(next.ownedUntil, leaseEnd);
+            return next;
+        });
+        if (cached == null) {
+            log.debug("Ignoring save of deleted Makao game {}", roomId);
+            return game;
+        }
+        cached.touch();
+        cached.dirty = true;
+
+        if (shouldFlushOnSave(cached)) {
+            flush(cached);
+        }
+        return game;
+    }
+
+    /**
+     * Makes sure this replica owns the room, taking its lease if it is free.
+     * Call before changing a game, so a change that cannot be saved is not broadcast either.
+     *
+     * @return until when the lease is held
+     * @throws IllegalStateException if another replica owns the room
+     */
+    public long requireOwnership(String roomId) {
+        CachedGame current = liveGames.get(roomId);
+        if (current != null && current.isOwned()) {
+            return current.ownedUntil;
+        }
+        long leaseStart = System.currentTimeMillis();
+        if (roomLeases.acquire(roomId) == RoomLeases.LeaseState.OWNED_ELSEWHERE) {
+            dropCopy(roomId, current, "another replica owns it");
+            throw new IllegalStateException("Makao game " + roomId + " is owned by another replica");
+        }
+        return leaseStart + roomLeases.getLeaseMs();
+    }
+
+    /**
+     * Removes the game from memory and from Redis. Pending writes are discarded, and later
+     * saves of the room are ignored for {@link #TOMBSTONE_TTL_MS}.
+     */
+    public void deleteById(String roomId) {
+        if (roomId == null) {
+            return;
+        }
+        // Before the removal, so a concurrent save either lands first and is removed, or sees it
+        tombstones.put(roomId, System.currentTimeMillis());
+        CachedGame removed = liveGames.remove(roomId);
+        if (removed != null) {
+            synchronized (removed) {
+                removed.dirty = false;
+            }
+        }
+        repository.deleteById(roomId);
+        roomLeases.releaseAll(List.of(roomId));
+    }
+
+    /**
+     * Writes all pending changes to Redis.
+     */
+    public void flushAll() {
+        liveGames.values().forEach(this::flush);
+    }
+
+    public int size() {
+        return liveGames.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushScheduler != null && !flushScheduler.isShutdown()) {
+            flushScheduler.shutdown();
+        }
+        flushAll();
+        // Lets other replicas take the rooms over right away instead of waiting for the leases to expire
+        roomLeases.releaseAll(List.copyOf(liveGames.keySet()));
+        log.info("MakaoGameStateCache: Flushed pending games and shut down");
+    }
+
+    private boolean shouldFlushOnSave(CachedGame cached) {
+        switch (durabilityMode) {
+            case WRITE_THROUGH:
+                return true;
+            case TURN:
+                return cached.game.getStatus() != RoomStatus.PLAYING
+                        || !Objects.equals(cached.flushedTurn, turnKey(cached.game));
+            default:
+                return false;
+        }
+    }
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        tombstones.values().removeIf(deletedAt -> now - deletedAt > TOMBSTONE_TTL_MS);
+        renewLeases();
+        for (Map.Entry<String, CachedGame> entry : liveGames.entrySet()) {
+            String roomId = entry.getKey();
+            CachedGame cached = entry.getValue();
+            boolean idle = now - cached.lastAccess > idleEvictionMs;
+            if (!cached.dirty && !idle) {
+                continue;
+            }
+            roomExecutor.execute(roomId, () -> {
+                try {
+                    flush(cached);
+                    if (idle && !cached.dirty && liveGames.remove(roomId, cached)) {
+                        roomLeases.releaseAll(List.of(roomId));
+                        log.debug("Evicted idle Makao game {} from state cache", roomId);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to flush Makao game {} to Redis", roomId, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Extends the leases of all cached games. Games whose lease went to another replica, or
+     * lapsed and had to be taken again, are dropped and reloaded from Redis on their next use.
+     */
+    private void renewLeases() {
+        if (liveGames.isEmpty()) {
+            return;
+        }
+        long leaseStart = System.currentTimeMillis();
+        Map<String, RoomLeases.LeaseState> leases;
+        try {
+            leases = roomLeases.acquireAll(List.copyOf(liveGames.keySet()));
+        } catch (Exception e) {
+            log.error("Failed to renew Makao room leases; cached games are not trusted once they run out", e);
+            return;
+        }
+        leases.forEach((roomId, lease) -> {
+            CachedGame cached = liveGames.get(roomId);
+            if (cached == null) {
+                return;
+            }
+            if (lease == RoomLeases.LeaseState.RENEWED) {
+                cached.ownedUntil = leaseStart + roomLeases.getLeaseMs();
+            } else {
+                String reason = lease == RoomLeases.LeaseState.ACQUIRED ? "its lease lapsed" : "another replica owns it";
+                // On the room's actor, so the copy is not flushed halfway through a move
+                roomExecutor.execute(roomId, () -> dropCopy(roomId, cached, reason));
+            }
+        });
+    }
+
+    /**
+     * Drops a copy this replica can no longer trust. Its pending changes are written first; the
+     * versioned write only lands if no other replica wrote the game since.
+     */
+    private void dropCopy(String roomId, CachedGame cached, String reason) {
+        if (cached == null || !liveGames.remove(roomId, cached)) {
+            return;
+        }
+        try {
+            flush(cached);
+        } catch (Exception e) {
+            log.warn("Discarding unflushed changes to Makao game {} because {} and they could not be written",
+                    roomId, reason, e);
+        }
+        synchronized (cached) {
+            cached.dirty = false;
+        }
+        log.info("Dropped cached Makao game {} because {}", roomId, reason);
+    }
+
+    private void flush(CachedGame cached) {
+        synchronized (cached) {
+            if (!cached.dirty) {
+                return;
+            }
+            String roomId = cached.game.getRoomId();
+            long version = repository.saveIfVersion(cached.game, cached.version);
+            cached.dirty = false;
+            if (version < 0) {
+                // Someone else wrote the game, so this copy is stale; the next use reloads it
+                liveGames.remove(roomId, cached);
+                log.error("Discarded changes to Makao game {}: another replica wrote it since version {}",
+                        roomId, cached.version);
+                return;
+            }
+            cached.version = version;
+            cached.flushedTurn = turnKey(cached.game);
+        }
+    }
+
+    private boolean isTombstoned(String roomId) {
+        Long deletedAt = tombstones.get(roomId);
+        return deletedAt != null && System.currentTimeMillis() - deletedAt <= TOMBSTONE_TTL_MS;
+    }
+
+    private static String turnKey(MakaoGame game) {
+        return game.getStatus() + ":" + game.getActivePlayerId() + ":" + game.getTurnStartTime();
+    }
+
+    private static final class CachedGame {
+        private final MakaoGame game;
+        private volatile boolean dirty;
+        private volatile String flushedTurn;
+        private volatile long lastAccess = System.currentTimeMillis();
+        // Until when this replica's lease on the room is known to be held
+        private volatile long ownedUntil;
+        // Redis version of the game this copy is based on
+        private volatile long version;
+
+        private CachedGame(MakaoGame game) {
+            this.game = game;
+        }
+
+        private CachedGame(MakaoGame game, CachedGame previous) {
+            this.game = game;
+            this.flushedTurn = previous != null ? previous.flushedTurn : null;
+            this.ownedUntil = previous != null ? previous.ownedUntil : 0;
+            this.version = previous != null ? previous.version : 0;
+        }
+
+        private boolean isOwned() {
+            return ownedUntil > System.currentTimeMillis();
+        }
+
+        private void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.online_games_service.makao.repository.redis;
+
+import com.online_games_service.common.codec.CompactInput;
+import com.online_games_service.common.codec.CompactOutput;
+import com.online_games_service.common.codec.GameStateCodec;
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import com.online_games_service.common.enums.RoomStatus;
+import com.online_games_service.common.model.Card;
+import com.online_games_service.makao.model.MakaoDeck;
+import com.online_games_service.makao.model.MakaoGame;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of {@link MakaoGame} in Redis. Cards are stored as one byte each, so a full
+ * two-deck game fits in a few hundred bytes instead of tens of kilobytes of typed JSON.
+ */
+@Component
+public class MakaoGameCodec implements GameStateCodec<MakaoGame> {
+
+    static final byte CODEC_ID = 1;
+    static final int SCHEMA_VERSION = 1;
+
+    private static final RoomStatus[] STATUSES = RoomStatus.values();
+    private static final CardRank[] RANKS = CardRank.values();
+    private static final CardSuit[] SUITS = CardSuit.values();
+
+    @Override
+    public byte codecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    public int schemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    public Class<MakaoGame> type() {
+        return MakaoGame.class;
+    }
+
+    @Override
+    public void write(MakaoGame game, CompactOutput out) {
+        out.writeString(game.getRoomId());
+        out.writeString(game.getGameId());
+        out.writeEnum(game.getStatus());
+        out.writeString(game.getHostUserId());
+        out.writeVarInt(game.getMaxPlayers());
+
+        out.writeStrings(game.getPlayersOrderIds());
+        out.writeString(game.getActivePlayerId());
+        out.writeBoolean(game.isReverseMovement());
+        out.writeBoolean(game.isSpecialEffectActive());
+        out.writeCards(game.getActivePlayerPlayableCards());
+        out.writeCard(game.getDrawnCard());
+
+        out.writeIntMap(game.getPlayersSkipTurns());
+        out.writeStringMap(game.getPlayersUsernames());
+        out.writeStringMap(game.getPlayersAvatars());
+        Map<String, List<Card>> hands = game.getPlayersHands();
+        out.writeVarInt(hands.size());
+        for (Map.Entry<String, List<Card>> hand : hands.entrySet()) {
+            out.writeString(hand.getKey());
+            out.writeCards(hand.getValue());
+        }
+
+        out.writeCards(game.getDrawDeck() != null ? game.getDrawDeck().getCards() : null);
+        out.writeCards(game.getDiscardDeck() != null ? game.getDiscardDeck().getCards() : null);
+
+        out.writeSignedVarInt(game.getPendingDrawCount());
+        out.writeSignedVarInt(game.getPendingSkipTurns());
+        out.writeEnum(game.getDemandedRank());
+        out.writeEnum(game.getDemandedSuit());
+
+        out.writeIntMap(game.getRanking());
+        out.writeIntMap(game.getPlacement());
+        out.writeStrings(game.getLosers());
+        out.writeVarInt(game.getBotCounter());
+
+        out.writeNullableLong(game.getTurnStartTime());
+        out.writeNullableInt(game.getTurnRemainingSeconds());
+        out.writeString(game.getMakaoPlayerId());
+        out.writeString(game.getBotThinkingPlayerId());
+        out.writeString(game.getLastMoveLog());
+        out.writeString(game.getEffectNotification());
+        out.writeStrings(game.getMoveHistory());
+    }
+
+    @Override
+    public MakaoGame read(int schemaVersion, CompactInput in) {
+        MakaoGame game = new MakaoGame();
+        game.setRoomId(in.readString());
+        game.setGameId(in.readString());
+        game.setStatus(in.readEnum(STATUSES));
+        game.setHostUserId(in.readString());
+        game.setMaxPlayers(in.readVarInt());
+
+        game.setPlayersOrderIds(orEmpty(in.readStrings()));
+        game.setActivePlayerId(in.readString());
+        game.setReverseMovement(in.readBoolean());
+        game.setSpecialEffectActive(in.readBoolean());
+        game.setActivePlayerPlayableCards(orEmpty(in.readCards()));
+        game.setDrawnCard(in.readCard());
+
+        game.setPlayersSkipTurns(orEmpty(in.readIntMap()));
+        game.setPlayersUsernames(orEmpty(in.readStringMap()));
+        game.setPlayersAvatars(orEmpty(in.readStringMap()));
+        int handCount = in.readVarInt();
+        Map<String, List<Card>> hands = new HashMap<>(Math.max(4, handCount * 2));
+        for (int i = 0; i < handCount; i++) {
+            String playerId = in.readString();
+            hands.put(playerId, orEmpty(in.readCards()));
+        }
+        game.setPlayersHands(hands);
+
+        List<Card> drawCards = in.readCards();
+        game.setDrawDeck(drawCards != null ? new MakaoDeck(drawCards) : null);
+        List<Card> discardCards = in.readCards();
+        game.setDiscardDeck(discardCards != null ? new MakaoDeck(discardCards) : null);
+
+        game.setPendingDrawCount(in.readSignedVarInt());
+        game.setPendingSkipTurns(in.readSignedVarInt());
+        game.setDemandedRank(in.readEnum(RANKS));
+        game.setDemandedSuit(in.readEnum(SUITS));
+
+        game.setRanking(orEmpty(in.readIntMap()));
+        game.setPlacement(orEmpty(in.readIntMap()));
+        game.setLosers(orEmpty(in.readStrings()));
+        game.setBotCounter(in.readVarInt());
+
+        game.setTurnStartTime(in.readNullableLong());
+        game.setTurnRemainingSeconds(in.readNullableInt());
+        game.setMakaoPlayerId(in.readString());
+        game.setBotThinkingPlayerId(in.readString());
+        game.setLastMoveLog(in.readString());
+        game.setEffectNotification(in.readString());
+        game.setMoveHistory(orEmpty(in.readStrings()));
+        return game;
+    }
+
+    private static <T> List<T> orEmpty(List<T> values) {
+        return values != null ? values : new ArrayList<>();
+    }
+
+    private static <V> Map<String, V> orEmpty(Map<String, V> values) {
+        return values != null ? values : new HashMap<>();
+    }
+}
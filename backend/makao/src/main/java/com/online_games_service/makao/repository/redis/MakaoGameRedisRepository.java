@@ -3,17 +3,29 @@ package com.online_games_service.makao.repository.redis;
 import com.online_games_service.makao.model.MakaoGame;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Stores live Makao games in Redis.
+ * <p>
+ * Every write also bumps the game's version in {@link #VERSION_KEY_PREFIX}{@code {roomId}}, so a
+ * replica that changed a game in memory can write it back with {@link #saveIfVersion} only if
+ * nobody else wrote it since it was read.
+ */
 @Repository
 public class MakaoGameRedisRepository {
 
+    static final String VERSION_KEY_PREFIX = "makao:game-version:";
+
     private final String keyPrefix;
     private static final long TTL_SECONDS = 3600;
 
@@ -30,11 +42,52 @@ public class MakaoGameRedisRepository {
     }
 
     public MakaoGame save(MakaoGame game) {
-        String key = keyPrefix + game.getRoomId();
-        redisTemplate.opsForValue().set(key, game, TTL_SECONDS, TimeUnit.SECONDS);
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.multi();
+                write(ops, game);
+                return ops.exec();
+            }
+        });
         return game;
     }
 
+    /**
+     * Saves the game only if its version is still {@code expectedVersion}.
+     *
+     * @return the new version, or -1 if another write came first and nothing was saved
+     */
+    public long saveIfVersion(MakaoGame game, long expectedVersion) {
+        String versionKey = VERSION_KEY_PREFIX + game.getRoomId();
+        List<Object> result = redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.watch(versionKey);
+                if (toVersion(ops.opsForValue().get(versionKey)) != expectedVersion) {
+                    ops.unwatch();
+                    return null;
+                }
+                ops.multi();
+                write(ops, game);
+                return ops.exec();
+            }
+        });
+        // An empty reply means the watched version changed before EXEC
+        return result == null || result.isEmpty() ? -1 : expectedVersion + 1;
+    }
+
+    /**
+     * The version of the stored game; 0 if it was never written or its version expired.
+     */
+    public long getVersion(String roomId) {
+        return toVersion(redisTemplate.opsForValue().get(VERSION_KEY_PREFIX + roomId));
+    }
+
     public Optional<MakaoGame> findById(String roomId) {
         String key = keyPrefix + roomId;
         Object value = redisTemplate.opsForValue().get(key);
@@ -49,11 +102,23 @@ public class MakaoGameRedisRepository {
         return Boolean.TRUE.equals(redisTemplate.hasKey(key));
     }
 
+    // The version is kept on delete, so a write based on the deleted game still conflicts
     public void deleteById(String roomId) {
         String key = keyPrefix + roomId;
         redisTemplate.delete(key);
     }
 
+    private void write(RedisOperations<String, Object> ops, MakaoGame game) {
+        String versionKey = VERSION_KEY_PREFIX + game.getRoomId();
+        ops.opsForValue().set(keyPrefix + game.getRoomId(), game, TTL_SECONDS, TimeUnit.SECONDS);
+        ops.opsForValue().increment(versionKey);
+        ops.expire(versionKey, TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static long toVersion(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
     public long countGames() {
         long count = 0;
         ScanOptions options = ScanOptions.scanOptions().match(keyPrefix + "*").count(1000).build();
@@ -0,0 +1,282 @@
+package com.online_games_service.makao.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_games_service.common.model.Card;
+import com.online_games_service.makao.dto.GameStateMessage;
+import com.online_games_service.makao.dto.PlayerCardView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends Makao game state to players as a full snapshot followed by deltas.
+ * <p>
+ * The public part of the state is diffed once per move against what the room last received,
+ * and each player additionally gets their hand when it changed. Every message carries a
+ * per-player sequence number so clients can detect a missed update and ask for a snapshot.
+ * <p>
+ * The public part is serialized once per move. Each player's frame is composed from those
+ * shared bytes plus their own hand, so only the private envelope is serialized per player.
+ * Snapshots have the JSON layout of {@link GameStateMessage}; deltas are
+ * {@code {"type":"STATE_DELTA","roomId":...,"seq":n,"changes":{...}}}, where {@code changes}
+ * holds the changed fields keyed by their {@link GameStateMessage} property name.
+ * All calls for a room must come from that room's actor.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameStateBroadcaster {
+
+    private static final String TOPIC_PREFIX = "/topic/makao/";
+    private static final String MY_CARDS = "myCards";
+
+    // Same configuration as the STOMP broker's Jackson converter
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Map<String, RoomStream> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * Sends each listed player the changes since their previous message. Players who have not
+     * received anything for this room yet get a full snapshot instead.
+     *
+     * @param state       current state without player-specific fields
+     * @param playerCards hand of every human player in the room
+     */
+    public void broadcast(GameStateMessage state, Map<String, List<PlayerCardView>> playerCards) {
+        Map<String, Object> fields = publicFields(state);
+        if (state.getRoomId() == null) {
+            // Nothing to key a stream on; fall back to untracked snapshots
+            MoveFrames frames = new MoveFrames(state.getRoomId(), fields, Collections.emptyMap());
+            playerCards.forEach((playerId, cards) ->
+                    sendSnapshot(new RoomStream(), frames, playerId, cards));
+            return;
+        }
+        RoomStream room = rooms.computeIfAbsent(state.getRoomId(), id -> new RoomStream());
+        MoveFrames frames = new MoveFrames(state.getRoomId(), fields, room.diffAndRemember(fields));
+
+        for (Map.Entry<String, List<PlayerCardView>> entry : playerCards.entrySet()) {
+            String playerId = entry.getKey();
+            List<PlayerCardView> cards = entry.getValue();
+            PlayerStream player = room.players.get(playerId);
+            if (player == null) {
+                sendSnapshot(room, frames, playerId, cards);
+                continue;
+            }
+
+            boolean cardsChanged = !Objects.equals(player.lastCards, cards);
+            if (!frames.hasPublicChanges() && !cardsChanged) {
+                continue;
+            }
+            if (cardsChanged) {
+                player.lastCards = cards;
+            }
+            player.seq++;
+            send(playerId, frames.delta(player.seq, cardsChanged ? cards : null));
+        }
+    }
+
+    /**
+     * Sends one player a full snapshot, e.g. after a reconnect or a detected gap.
+     * Other players are brought up to date first so the room's baseline stays consistent.
+     */
+    public void resync(GameStateMessage state, Map<String, List<PlayerCardView>> playerCards, String playerId) {
+        Map<String, List<PlayerCardView>> others = new HashMap<>(playerCards);
+        List<PlayerCardView> cards = others.remove(playerId);
+        broadcast(state, others);
+
+        RoomStream room = state.getRoomId() != null
+                ? rooms.computeIfAbsent(state.getRoomId(), id -> new RoomStream())
+                : new RoomStream();
+        MoveFrames frames = new MoveFrames(state.getRoomId(), publicFields(state), Collections.emptyMap());
+        sendSnapshot(room, frames, playerId, cards != null ? cards : Collections.emptyList());
+    }
+
+    /**
+     * Drops the stream state of a finished or deleted room.
+     */
+    public void forgetRoom(String roomId) {
+        if (roomId != null) {
+            rooms.remove(roomId);
+        }
+    }
+
+    int trackedRooms() {
+        return rooms.size();
+    }
+
+    private void sendSnapshot(RoomStream room, MoveFrames frames, String playerId, List<PlayerCardView> cards) {
+        PlayerStream player = room.players.computeIfAbsent(playerId, id -> new PlayerStream());
+        player.seq++;
+        player.lastCards = cards;
+        send(playerId, frames.snapshot(player.seq, cards));
+    }
+
+    private void send(String playerId, byte[] frame) {
+        // Pre-serialized payload: sent as-is instead of going through the message converters
+        messagingTemplate.send(TOPIC_PREFIX + playerId, MessageBuilder.withPayload(frame)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build());
+    }
+
+    private static Map<String, Object> publicFields(GameStateMessage state) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("activePlayerId", state.getActivePlayerId());
+        fields.put("currentCard", state.getCurrentCard());
+        fields.put("playersCardsAmount", state.getPlayersCardsAmount());
+        fields.put("playersSkipTurns", state.getPlayersSkipTurns());
+        fields.put("specialEffectActive", state.isSpecialEffectActive());
+        fields.put("demandedRank", state.getDemandedRank());
+        fields.put("demandedSuit", state.getDemandedSuit());
+        fields.put("ranking", state.getRanking());
+        fields.put("placement", state.getPlacement());
+        fields.put("losers", state.getLosers());
+        fields.put("status", state.getStatus());
+        fields.put("drawDeckCardsAmount", state.getDrawDeckCardsAmount());
+        fields.put("discardDeckCardsAmount", state.getDiscardDeckCardsAmount());
+        fields.put("lastMoveLog", state.getLastMoveLog());
+        fields.put("effectNotification", state.getEffectNotification());
+        fields.put("moveHistory", state.getMoveHistory());
+        fields.put("turnRemainingSeconds", state.getTurnRemainingSeconds());
+        fields.put("turnStartTime", state.getTurnStartTime());
+        fields.put("makaoPlayerId", state.getMakaoPlayerId());
+        fields.put("botThinkingPlayerId", state.getBotThinkingPlayerId());
+        fields.put("playerOrder", state.getPlayerOrder());
+        fields.put("playersUsernames", state.getPlayersUsernames());
+        fields.put("playersAvatars", state.getPlayersAvatars());
+        return fields;
+    }
+
+    /**
+     * Copies values that may still be mutated by the game after this broadcast.
+     */
+    private static Object retain(Object value) {
+        if (value instanceof List<?> list) {
+            return new ArrayList<>(list);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return new HashMap<>(map);
+        }
+        if (value instanceof Card card) {
+            return new Card(card.getSuit(), card.getRank());
+        }
+        return value;
+    }
+
+    private static byte[] toJson(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize Makao game state", e);
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Shared serialized parts of one move. Each part is encoded at most once, on first use.
+     */
+    private static final class MoveFrames {
+        private final String roomId;
+        private final Map<String, Object> fields;
+        private final Map<String, Object> publicChanges;
+        private byte[] snapshotBody;
+        private byte[] deltaPrefix;
+        private byte[] changesBody;
+
+        private MoveFrames(String roomId, Map<String, Object> fields, Map<String, Object> publicChanges) {
+            this.roomId = roomId;
+            this.fields = fields;
+            this.publicChanges = publicChanges;
+        }
+
+        private boolean hasPublicChanges() {
+            return !publicChanges.isEmpty();
+        }
+
+        /**
+         * {@code {"roomId":..., <public fields>, "myCards":[...], "seq":n}}
+         */
+        private byte[] snapshot(long seq, List<PlayerCardView> cards) {
+            if (snapshotBody == null) {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("roomId", roomId);
+                body.putAll(fields);
+                snapshotBody = toJson(body);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(snapshotBody.length + 256);
+            out.write(snapshotBody, 0, snapshotBody.length - 1);
+            out.writeBytes(ascii(",\"" + MY_CARDS + "\":"));
+            out.writeBytes(toJson(cards));
+            out.writeBytes(ascii(",\"seq\":" + seq + "}"));
+            return out.toByteArray();
+        }
+
+        /**
+         * {@code {"type":"STATE_DELTA","roomId":...,"seq":n,"changes":{<public changes>, "myCards":[...]}}}
+         */
+        private byte[] delta(long seq, List<PlayerCardView> cards) {
+            if (deltaPrefix == null) {
+                deltaPrefix = ("{\"type\":\"STATE_DELTA\",\"roomId\":"
+                        + new String(toJson(roomId), StandardCharsets.UTF_8) + ",\"seq\":").getBytes(StandardCharsets.UTF_8);
+                changesBody = toJson(publicChanges);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(deltaPrefix.length + changesBody.length + 64);
+            out.writeBytes(deltaPrefix);
+            out.writeBytes(ascii(seq + ",\"changes\":"));
+            if (cards == null) {
+                out.writeBytes(changesBody);
+            } else {
+                out.write(changesBody, 0, changesBody.length - 1);
+                if (hasPublicChanges()) {
+                    out.write(',');
+                }
+                out.writeBytes(ascii("\"" + MY_CARDS + "\":"));
+                out.writeBytes(toJson(cards));
+                out.write('}');
+            }
+            out.write('}');
+            return out.toByteArray();
+        }
+    }
+
+    private static final class RoomStream {
+        private final Map<String, Object> lastPublic = new HashMap<>();
+        private final Map<String, PlayerStream> players = new HashMap<>();
+
+        private Map<String, Object> diffAndRemember(Map<String, Object> current) {
+            Map<String, Object> changes = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> field : current.entrySet()) {
+                Object value = field.getValue();
+                if (lastPublic.containsKey(field.getKey()) && Objects.equals(lastPublic.get(field.getKey()), value)) {
+                    continue;
+                }
+                changes.put(field.getKey(), value);
+                lastPublic.put(field.getKey(), retain(value));
+            }
+            return changes;
+        }
+    }
+
+    private static final class PlayerStream {
+        private long seq;
+        private List<PlayerCardView> lastCards;
+    }
+}
@@ -1,8 +1,13 @@
 package com.online_games_service.makao.service;
 
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.TimingWheelScheduler;
 import com.online_games_service.common.enums.CardRank;
 import com.online_games_service.common.enums.CardSuit;
 import com.online_games_service.common.model.Card;
+import com.online_games_service.common.model.CardCode;
+import com.online_games_service.common.model.CardSet;
 import com.online_games_service.common.enums.RoomStatus;
 import com.online_games_service.common.messaging.GameFinishMessage;
 import com.online_games_service.common.messaging.GameResultMessage;
@@ -17,7 +22,8 @@ import com.online_games_service.makao.model.MakaoDeck;
 import com.online_games_service.makao.model.MakaoGame;
 import com.online_games_service.makao.model.MakaoGameResult;
 import com.online_games_service.makao.repository.mongo.MakaoGameResultRepository;
-import com.online_games_service.makao.repository.redis.MakaoGameRedisRepository;
+import com.online_games_service.makao.repository.cache.MakaoGameStateCache;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.TopicExchange;
@@ -33,30 +39,25 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import jakarta.annotation.PreDestroy;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MakaoGameService {
 
-    private final MakaoGameRedisRepository gameRepository;
+    private final MakaoGameStateCache gameStateCache;
     private final MakaoGameResultRepository gameResultRepository;
     private final RedisTemplate<String, Object> redisTemplate;
     private final RabbitTemplate rabbitTemplate;
     private final TopicExchange gameEventsExchange;
     private final SimpMessagingTemplate messagingTemplate;
+    private final RoomActorExecutor roomExecutor;
+    private final TimingWheelScheduler roomTimers;
+    private final RedisTimerQueue turnTimers;
+    private final GameStateBroadcaster stateBroadcaster;
     private final Random random = new Random();
-    private final ScheduledExecutorService turnTimeoutScheduler = Executors.newScheduledThreadPool(2);
-    private final Map<String, ScheduledFuture<?>> turnTimeouts = new ConcurrentHashMap<>();
-    private final Map<String, ScheduledFuture<?>> botMoveSchedules = new ConcurrentHashMap<>();
-    private final Map<String, AtomicBoolean> gameInProgress = new ConcurrentHashMap<>();
 
     @Value("${makao.turn-timeout-seconds:60}")
     private long turnTimeoutSeconds;
@@ -77,6 +78,15 @@ public class MakaoGameService {
     private String leaveRoutingKey;
 
     private static final String KEY_USER_ROOM_BY_ID = "game:user-room:id:";
+    private static final String BOT_TIMER_PREFIX = "makao:bot:";
+    // How long after a bot's move was due its durable timer makes the move, if this replica did not
+    private static final long BOT_BACKSTOP_GRACE_MS = 5000;
+    private static final String TURN_TIMER_SEPARATOR = "|";
+    // 2, 3, 4, Jack, Ace and the combat Kings (Hearts, Spades); see isSpecialEffectCard
+    private static final long SPECIAL_EFFECT_CARDS =
+            CardCode.rankMask(CardRank.TWO, CardRank.THREE, CardRank.FOUR, CardRank.JACK, CardRank.ACE)
+                    | CardCode.bit(CardSuit.HEARTS, CardRank.KING)
+                    | CardCode.bit(CardSuit.SPADES, CardRank.KING);
 
     /**
      * Handles a player leaving the game (disconnection or explicit leave).
@@ -100,123 +110,125 @@ public class MakaoGameService {
             return;
         }
 
-        MakaoGame game = gameRepository.findById(roomId).orElse(null);
-        if (game == null) {
-            log.debug("Game not found for roomId: {}", roomId);
-            return;
-        }
+        roomExecutor.run(roomId, () -> {
+            MakaoGame game = gameStateCache.findById(roomId).orElse(null);
+            if (game == null) {
+                log.debug("Game not found for roomId: {}", roomId);
+                return;
+            }
 
-        if (game.getStatus() != RoomStatus.PLAYING) {
-            log.debug("Game {} is not in PLAYING status, ignoring leave", roomId);
-            return;
-        }
+            if (game.getStatus() != RoomStatus.PLAYING) {
+                log.debug("Game {} is not in PLAYING status, ignoring leave", roomId);
+                return;
+            }
 
-        // Check if player is actually in this game
-        if (!game.getPlayersOrderIds().contains(userId)) {
-            log.debug("Player {} is not in game {}", userId, roomId);
-            return;
-        }
+            // Check if player is actually in this game
+            if (!game.getPlayersOrderIds().contains(userId)) {
+                log.debug("Player {} is not in game {}", userId, roomId);
+                return;
+            }
 
-        log.info("Player {} is leaving game {}, replacing with bot", userId, roomId);
+            log.info("Player {} is leaving game {}, replacing with bot", userId, roomId);
 
-        // Cancel any turn timeout for this player
-        cancelTurnTimeout(roomId);
+            // Cancel any turn timeout for this player
+            cancelTurnTimeout(roomId);
 
-        // Create a new bot to replace the player
-        int nextBot = game.getBotCounter() + 1;
-        String botId = "bot-" + nextBot;
-        game.setBotCounter(nextBot);
+            // Create a new bot to replace the player
+            int nextBot = game.getBotCounter() + 1;
+            String botId = "bot-" + nextBot;
+            game.setBotCounter(nextBot);
 
-        // Transfer player's hand to the bot
-        Map<String, List<Card>> hands = new HashMap<>(game.getPlayersHands());
-        List<Card> playerHand = hands.getOrDefault(userId, new ArrayList<>());
-        hands.remove(userId);
-        hands.put(botId, playerHand);
-        game.setPlayersHands(hands);
+            // Transfer player's hand to the bot
+            Map<String, List<Card>> hands = new HashMap<>(game.getPlayersHands());
+            List<Card> playerHand = hands.getOrDefault(userId, new ArrayList<>());
+            hands.remove(userId);
+            hands.put(botId, playerHand);
+            game.setPlayersHands(hands);
 
-        // Transfer skip turns
-        Map<String, Integer> skipTurns = game.getPlayersSkipTurns() != null
-                ? new HashMap<>(game.getPlayersSkipTurns())
-                : new HashMap<>();
-        int pendingSkips = skipTurns.getOrDefault(userId, 0);
-        skipTurns.remove(userId);
-        skipTurns.put(botId, pendingSkips);
-        game.setPlayersSkipTurns(skipTurns);
+            // Transfer skip turns
+            Map<String, Integer> skipTurns = game.getPlayersSkipTurns() != null
+                    ? new HashMap<>(game.getPlayersSkipTurns())
+                    : new HashMap<>();
+            int pendingSkips = skipTurns.getOrDefault(userId, 0);
+            skipTurns.remove(userId);
+            skipTurns.put(botId, pendingSkips);
+            game.setPlayersSkipTurns(skipTurns);
 
-        // Update usernames
-        Map<String, String> usernames = game.getPlayersUsernames() != null
-                ? new HashMap<>(game.getPlayersUsernames())
-                : new HashMap<>();
-        String oldUsername = usernames.getOrDefault(userId, "Player");
-        usernames.remove(userId);
-        usernames.put(botId, "Bot " + nextBot);
-        game.setPlayersUsernames(usernames);
+            // Update usernames
+            Map<String, String> usernames = game.getPlayersUsernames() != null
+                    ? new HashMap<>(game.getPlayersUsernames())
+                    : new HashMap<>();
+            String oldUsername = usernames.getOrDefault(userId, "Player");
+            usernames.remove(userId);
+            usernames.put(botId, "Bot " + nextBot);
+            game.setPlayersUsernames(usernames);
 
-        // Update avatars - remove old player's avatar and set bot avatar
-        Map<String, String> avatars = game.getPlayersAvatars() != null
-                ? new HashMap<>(game.getPlayersAvatars())
-                : new HashMap<>();
-        avatars.remove(userId);
-        avatars.put(botId, "bot_avatar.png");
-        game.setPlayersAvatars(avatars);
+            // Update avatars - remove old player's avatar and set bot avatar
+            Map<String, String> avatars = game.getPlayersAvatars() != null
+                    ? new HashMap<>(game.getPlayersAvatars())
+                    : new HashMap<>();
+            avatars.remove(userId);
+            avatars.put(botId, "bot_avatar.png");
+            game.setPlayersAvatars(avatars);
 
-        // Update player order
-        List<String> updatedOrder = game.getPlayersOrderIds() != null
-                ? new ArrayList<>(game.getPlayersOrderIds())
-                : new ArrayList<>();
-        int idx = updatedOrder.indexOf(userId);
-        if (idx >= 0) {
-            updatedOrder.set(idx, botId);
-        }
-        game.setPlayersOrderIds(updatedOrder);
+            // Update player order
+            List<String> updatedOrder = game.getPlayersOrderIds() != null
+                    ? new ArrayList<>(game.getPlayersOrderIds())
+                    : new ArrayList<>();
+            int idx = updatedOrder.indexOf(userId);
+            if (idx >= 0) {
+                updatedOrder.set(idx, botId);
+            }
+            game.setPlayersOrderIds(updatedOrder);
 
-        // Add to losers list
-        List<String> losers = game.getLosers() != null
-                ? new ArrayList<>(game.getLosers())
-                : new ArrayList<>();
-        if (!losers.contains(userId)) {
-            losers.add(userId);
-        }
-        game.setLosers(losers);
+            // Add to losers list
+            List<String> losers = game.getLosers() != null
+                    ? new ArrayList<>(game.getLosers())
+                    : new ArrayList<>();
+            if (!losers.contains(userId)) {
+                losers.add(userId);
+            }
+            game.setLosers(losers);
 
-        // Add notification
-        game.addMoveLog(String.format("%s left the game and was replaced by Bot %d", oldUsername, nextBot));
+            // Add notification
+            game.addMoveLog(String.format("%s left the game and was replaced by Bot %d", oldUsername, nextBot));
 
-        // Clear MAKAO status if leaving player had it
-        if (userId.equals(game.getMakaoPlayerId())) {
-            game.setMakaoPlayerId(null);
-        }
+            // Clear MAKAO status if leaving player had it
+            if (userId.equals(game.getMakaoPlayerId())) {
+                game.setMakaoPlayerId(null);
+            }
 
-        // If it was the leaving player's turn, bot takes over
-        boolean wasActivePlayer = userId.equals(game.getActivePlayerId());
-        if (wasActivePlayer) {
-            game.setActivePlayerId(botId);
-            game.setDrawnCard(null);
-            game.setActivePlayerPlayableCards(new ArrayList<>());
+            // If it was the leaving player's turn, bot takes over
+            boolean wasActivePlayer = userId.equals(game.getActivePlayerId());
+            if (wasActivePlayer) {
+                game.setActivePlayerId(botId);
+                game.setDrawnCard(null);
+                game.setActivePlayerPlayableCards(new ArrayList<>());
 
-            List<Card> playable = gatherPlayableCards(game, botId);
-            game.setActivePlayerPlayableCards(playable);
+                List<Card> playable = gatherPlayableCards(game, botId);
+                game.setActivePlayerPlayableCards(playable);
+
+                // Check if bot needs to handle special effect
+                if (game.isSpecialEffectActive() && playable.isEmpty()) {
+                    saveAndBroadcast(game);
+                    applySpecialEffectPenalty(game, botId);
+                    return;
+                }
 
-            // Check if bot needs to handle special effect
-            if (game.isSpecialEffectActive() && playable.isEmpty()) {
+                // Schedule bot move
+                saveAndBroadcast(game);
+                scheduleBotMove(game.getRoomId(), botId, playable);
+            } else {
+                // Not active player - just save and broadcast
                 saveAndBroadcast(game);
-                applySpecialEffectPenalty(game, botId);
-                return;
             }
 
-            // Schedule bot move
-            saveAndBroadcast(game);
-            scheduleBotMove(game.getRoomId(), botId, playable);
-        } else {
-            // Not active player - just save and broadcast
-            saveAndBroadcast(game);
-        }
-
-        // Clean up Redis mapping for the leaving player
-        redisTemplate.delete(KEY_USER_ROOM_BY_ID + userId);
+            // Clean up Redis mapping for the leaving player
+            redisTemplate.delete(KEY_USER_ROOM_BY_ID + userId);
 
-        // Notify Menu service to update GameRoom (remove player, reassign host if needed)
-        publishPlayerLeave(roomId, userId, PlayerLeaveMessage.LeaveReason.VOLUNTARY);
+            // Notify Menu service to update GameRoom (remove player, reassign host if needed)
+            publishPlayerLeave(roomId, userId, PlayerLeaveMessage.LeaveReason.VOLUNTARY);
+        });
     }
 
     public void forceEndGame(EndGameRequest request) {
@@ -224,10 +236,12 @@ public class MakaoGameService {
             throw new IllegalArgumentException("roomId is required to end the game");
         }
 
-        MakaoGame game = gameRepository.findById(request.getRoomId())
-                .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + request.getRoomId()));
+        roomExecutor.run(request.getRoomId(), () -> {
+            MakaoGame game = gameStateCache.findById(request.getRoomId())
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + request.getRoomId()));
 
-        endGame(game);
+            endGame(game);
+        });
     }
 
     /**
@@ -246,76 +260,26 @@ public class MakaoGameService {
             throw new IllegalStateException("Player is not in a game");
         }
 
-        MakaoGame game = gameRepository.findById(roomId).orElse(null);
-        if (game == null) {
-            log.warn("Game not found for roomId {} when player {} requested state", roomId, userId);
-            throw new IllegalStateException("Game not found");
-        }
+        roomExecutor.run(roomId, () -> {
+            MakaoGame game = gameStateCache.findById(roomId).orElse(null);
+            if (game == null) {
+                log.warn("Game not found for roomId {} when player {} requested state", roomId, userId);
+                throw new IllegalStateException("Game not found");
+            }
 
-        log.info("Sending current game state to player {} for room {}", userId, roomId);
-        sendStateToSinglePlayer(game, userId);
+            log.info("Sending current game state to player {} for room {}", userId, roomId);
+            sendStateToSinglePlayer(game, userId);
+        });
     }
 
     /**
      * Send game state to a single player (used for reconnection/state request)
      */
     private void sendStateToSinglePlayer(MakaoGame game, String playerId) {
-        if (game == null || playerId == null || isBot(playerId)) {
+        if (game == null || playerId == null || isBot(playerId) || game.getPlayersHands() == null) {
             return;
         }
-
-        Map<String, List<Card>> hands = game.getPlayersHands();
-        if (hands == null) {
-            return;
-        }
-
-        Map<String, Integer> cardsAmount = new HashMap<>();
-        hands.forEach((pid, cards) -> cardsAmount.put(pid, cards != null ? cards.size() : 0));
-
-        List<Card> activePlayable = game.getActivePlayerPlayableCards() != null
-                ? game.getActivePlayerPlayableCards()
-                : new ArrayList<>();
-
-        Integer turnRemainingSeconds = calculateTurnRemainingSeconds(game);
-
-        List<Card> hand = hands.getOrDefault(playerId, new ArrayList<>());
-        List<PlayerCardView> myCards = new ArrayList<>();
-        boolean isActive = playerId.equals(game.getActivePlayerId());
-
-        for (Card card : hand) {
-            boolean playable = isActive && containsCard(activePlayable, card);
-            myCards.add(new PlayerCardView(card, playable));
-        }
-
-        GameStateMessage message = new GameStateMessage(
-                game.getRoomId(),
-                game.getActivePlayerId(),
-                game.getCurrentCard(),
-                myCards,
-                new HashMap<>(cardsAmount),
-                game.getPlayersSkipTurns() != null ? new HashMap<>(game.getPlayersSkipTurns()) : new HashMap<>(),
-                game.isSpecialEffectActive(),
-                game.getDemandedRank(),
-                game.getDemandedSuit(),
-                game.getRanking() != null ? new HashMap<>(game.getRanking()) : new HashMap<>(),
-                game.getPlacement() != null ? new HashMap<>(game.getPlacement()) : new HashMap<>(),
-                game.getLosers() != null ? new ArrayList<>(game.getLosers()) : new ArrayList<>(),
-                game.getStatus(),
-                game.getDrawDeck() != null ? game.getDrawDeck().size() : 0,
-                game.getDiscardDeck() != null ? game.getDiscardDeck().size() : 0,
-                game.getLastMoveLog(),
-                game.getEffectNotification(),
-                game.getMoveHistory() != null ? new ArrayList<>(game.getMoveHistory()) : new ArrayList<>(),
-                turnRemainingSeconds,
-                game.getTurnStartTime(),
-                game.getMakaoPlayerId(),
-                game.getBotThinkingPlayerId(),
-                game.getPlayersOrderIds() != null ? new ArrayList<>(game.getPlayersOrderIds()) : new ArrayList<>(),
-                game.getPlayersUsernames() != null ? new HashMap<>(game.getPlayersUsernames()) : new HashMap<>(),
-                game.getPlayersAvatars() != null ? new HashMap<>(game.getPlayersAvatars()) : new HashMap<>()
-        );
-
-        messagingTemplate.convertAndSend("/topic/makao/" + playerId, message);
+        stateBroadcaster.resync(buildPublicState(game), buildPlayerCards(game), playerId);
     }
 
     public DrawCardResponse drawCard(String userId) {
@@ -328,45 +292,47 @@ public class MakaoGameService {
             throw new IllegalArgumentException("Room not found for player: " + userId);
         }
 
-        MakaoGame game = gameRepository.findById(roomId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
+        return roomExecutor.call(roomId, () -> {
+            MakaoGame game = gameStateCache.findById(roomId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
 
-        if (!userId.equals(game.getActivePlayerId())) {
-            throw new IllegalStateException("It is not this player's turn");
-        }
+            if (!userId.equals(game.getActivePlayerId())) {
+                throw new IllegalStateException("It is not this player's turn");
+            }
 
-        if (game.getDrawnCard() != null) {
-            throw new IllegalStateException("Player has already drawn a card this turn");
-        }
+            if (game.getDrawnCard() != null) {
+                throw new IllegalStateException("Player has already drawn a card this turn");
+            }
 
-        if (game.isSpecialEffectActive()) {
-            throw new IllegalStateException("Special effect is active; accept the effect instead of drawing");
-        }
+            if (game.isSpecialEffectActive()) {
+                throw new IllegalStateException("Special effect is active; accept the effect instead of drawing");
+            }
 
-        Card drawn = drawWithRecycle(game);
-        if (drawn == null) {
-            throw new IllegalStateException("No cards left to draw");
-        }
+            Card drawn = drawWithRecycle(game);
+            if (drawn == null) {
+                throw new IllegalStateException("No cards left to draw");
+            }
 
-        game.addCardToHand(userId, drawn);
-        game.setDrawnCard(drawn);
+            game.addCardToHand(userId, drawn);
+            game.setDrawnCard(drawn);
 
-        boolean playable = isPlayable(game, drawn);
-        String playerName = getPlayerDisplayName(game, userId);
-        game.addMoveLog(String.format("%s drew a card", playerName));
+            boolean playable = isPlayable(game, drawn);
+            String playerName = getPlayerDisplayName(game, userId);
+            game.addMoveLog(String.format("%s drew a card", playerName));
 
-        if (playable) {
-            game.setActivePlayerPlayableCards(List.of(drawn));
-            scheduleTurnTimeout(game);
-            saveAndBroadcast(game);
-            return new DrawCardResponse(drawn, true);
-        }
+            if (playable) {
+                game.setActivePlayerPlayableCards(List.of(drawn));
+                scheduleTurnTimeout(game);
+                saveAndBroadcast(game);
+                return new DrawCardResponse(drawn, true);
+            }
 
-        game.addMoveLog(String.format("%s skipped after drawing", playerName));
-        game.setActivePlayerPlayableCards(new ArrayList<>());
-        game.setDrawnCard(null);
-        nextTurn(game);
-        return new DrawCardResponse(drawn, false);
+            game.addMoveLog(String.format("%s skipped after drawing", playerName));
+            game.setActivePlayerPlayableCards(new ArrayList<>());
+            game.setDrawnCard(null);
+            nextTurn(game);
+            return new DrawCardResponse(drawn, false);
+        });
     }
 
     public MakaoGame playDrawnCard(PlayCardRequest request, String userId) {
@@ -379,29 +345,31 @@ public class MakaoGameService {
             throw new IllegalArgumentException("Room not found for player: " + userId);
         }
 
-        MakaoGame game = gameRepository.findById(roomId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
+        return roomExecutor.call(roomId, () -> {
+            MakaoGame game = gameStateCache.findById(roomId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
 
-        if (!userId.equals(game.getActivePlayerId())) {
-            throw new IllegalStateException("It is not this player's turn");
-        }
+            if (!userId.equals(game.getActivePlayerId())) {
+                throw new IllegalStateException("It is not this player's turn");
+            }
 
-        Card drawn = game.getDrawnCard();
-        if (drawn == null) {
-            throw new IllegalStateException("No drawn card to play");
-        }
+            Card drawn = game.getDrawnCard();
+            if (drawn == null) {
+                throw new IllegalStateException("No drawn card to play");
+            }
 
-        PlayCardRequest derived = new PlayCardRequest();
-        derived.setCardRank(drawn.getRank());
-        derived.setCardSuit(drawn.getSuit());
-        derived.setRequestRank(request != null ? request.getRequestRank() : null);
-        derived.setRequestSuit(request != null ? request.getRequestSuit() : null);
+            PlayCardRequest derived = new PlayCardRequest();
+            derived.setCardRank(drawn.getRank());
+            derived.setCardSuit(drawn.getSuit());
+            derived.setRequestRank(request != null ? request.getRequestRank() : null);
+            derived.setRequestSuit(request != null ? request.getRequestSuit() : null);
 
-        // Clear drawnCard before delegating to avoid re-use
-        game.setDrawnCard(null);
-        saveAndBroadcast(game);
+            // Clear drawnCard before delegating to avoid re-use
+            game.setDrawnCard(null);
+            saveAndBroadcast(game);
 
-        return playCard(derived, userId);
+            return playCard(derived, userId);
+        });
     }
 
     public MakaoGame skipDrawnCard(String userId) {
@@ -414,22 +382,24 @@ public class MakaoGameService {
             throw new IllegalArgumentException("Room not found for player: " + userId);
         }
 
-        MakaoGame game = gameRepository.findById(roomId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
+        return roomExecutor.call(roomId, () -> {
+            MakaoGame game = gameStateCache.findById(roomId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
 
-        if (!userId.equals(game.getActivePlayerId())) {
-            throw new IllegalStateException("It is not this player's turn");
-        }
+            if (!userId.equals(game.getActivePlayerId())) {
+                throw new IllegalStateException("It is not this player's turn");
+            }
 
-        if (game.getDrawnCard() == null) {
-            throw new IllegalStateException("No drawn card to skip");
-        }
+            if (game.getDrawnCard() == null) {
+                throw new IllegalStateException("No drawn card to skip");
+            }
 
-        game.setDrawnCard(null);
-        game.setActivePlayerPlayableCards(new ArrayList<>());
+            game.setDrawnCard(null);
+            game.setActivePlayerPlayableCards(new ArrayList<>());
 
-        nextTurn(game);
-        return game;
+            nextTurn(game);
+            return game;
+        });
     }
 
     public MakaoGame acceptEffect(String userId) {
@@ -442,25 +412,27 @@ public class MakaoGameService {
             throw new IllegalArgumentException("Room not found for player: " + userId);
         }
 
-        MakaoGame game = gameRepository.findById(roomId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
+        return roomExecutor.call(roomId, () -> {
+            MakaoGame game = gameStateCache.findById(roomId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
 
-        if (!userId.equals(game.getActivePlayerId())) {
-            throw new IllegalStateException("It is not this player's turn");
-        }
+            if (!userId.equals(game.getActivePlayerId())) {
+                throw new IllegalStateException("It is not this player's turn");
+            }
 
-        boolean hasEffect = game.isSpecialEffectActive()
-                || game.getPendingDrawCount() > 0
-                || game.getPendingSkipTurns() > 0;
-        if (!hasEffect) {
-            throw new IllegalStateException("No pending special effect to accept");
-        }
+            boolean hasEffect = game.isSpecialEffectActive()
+                    || game.getPendingDrawCount() > 0
+                    || game.getPendingSkipTurns() > 0;
+            if (!hasEffect) {
+                throw new IllegalStateException("No pending special effect to accept");
+            }
 
-        game.setDrawnCard(null);
-        game.setActivePlayerPlayableCards(new ArrayList<>());
+            game.setDrawnCard(null);
+            game.setActivePlayerPlayableCards(new ArrayList<>());
 
-        applySpecialEffectPenalty(game, userId);
-        return game;
+            applySpecialEffectPenalty(game, userId);
+            return game;
+        });
     }
 
     public MakaoGame playCard(PlayCardRequest request, String userId) {
@@ -473,73 +445,83 @@ public class MakaoGameService {
             throw new IllegalArgumentException("Room not found for player: " + userId);
         }
 
-        MakaoGame game = gameRepository.findById(roomId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
+        return roomExecutor.call(roomId, () -> {
+            MakaoGame game = gameStateCache.findById(roomId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
 
-        if (game.getDiscardDeck() == null || game.getDiscardDeck().isEmpty()) {
-            throw new IllegalStateException("Discard pile is empty; game is not initialized correctly");
-        }
+            if (game.getDiscardDeck() == null || game.getDiscardDeck().isEmpty()) {
+                throw new IllegalStateException("Discard pile is empty; game is not initialized correctly");
+            }
 
-        if (game.getActivePlayerId() == null || !game.getActivePlayerId().equals(userId)) {
-            throw new IllegalStateException("It is not this player's turn");
-        }
+            if (game.getActivePlayerId() == null || !game.getActivePlayerId().equals(userId)) {
+                throw new IllegalStateException("It is not this player's turn");
+            }
 
-        List<Card> hand = game.getPlayersHands().get(userId);
-        if (hand == null) {
-            throw new IllegalArgumentException("Player is not part of this game");
-        }
+            List<Card> hand = game.getPlayersHands().get(userId);
+            if (hand == null) {
+                throw new IllegalArgumentException("Player is not part of this game");
+            }
 
-        Card playedCard = new Card(request.getCardSuit(), request.getCardRank());
+            Card playedCard = new Card(request.getCardSuit(), request.getCardRank());
 
-        if (!hand.contains(playedCard)) {
-            throw new IllegalArgumentException("Player does not have the specified card");
-        }
+            if (!containsCard(hand, playedCard)) {
+                throw new IllegalArgumentException("Player does not have the specified card");
+            }
 
-        if (playedCard.getRank() == CardRank.JACK && request.getRequestRank() == null) {
-            throw new IllegalArgumentException("Jack requires requestRank to be provided");
-        }
-        if (playedCard.getRank() == CardRank.JACK && request.getRequestRank() != null) {
-            // Validate that the demanded rank is a non-functional card (5, 6, 7, 8, 9, 10)
-            if (!isValidDemandRank(request.getRequestRank())) {
-                throw new IllegalArgumentException("Invalid demand rank: " + request.getRequestRank() +
-                    ". Only non-functional ranks (5-10) can be demanded.");
+            if (playedCard.getRank() == CardRank.JACK && request.getRequestRank() == null) {
+                throw new IllegalArgumentException("Jack requires requestRank to be provided");
+            }
+            if (playedCard.getRank() == CardRank.JACK && request.getRequestRank() != null) {
+                // Validate that the demanded rank is a non-functional card (5, 6, 7, 8, 9, 10)
+                if (!isValidDemandRank(request.getRequestRank())) {
+                    throw new IllegalArgumentException("Invalid demand rank: " + request.getRequestRank() +
+                        ". Only non-functional ranks (5-10) can be demanded.");
+                }
+            }
+            if (playedCard.getRank() == CardRank.ACE && request.getRequestSuit() == null) {
+                throw new IllegalArgumentException("Ace requires requestSuit to be provided");
             }
-        }
-        if (playedCard.getRank() == CardRank.ACE && request.getRequestSuit() == null) {
-            throw new IllegalArgumentException("Ace requires requestSuit to be provided");
-        }
 
-        if (!isPlayable(game, playedCard)) {
-            throw new IllegalStateException("This card cannot be played on the current top card");
-        }
+            if (!isPlayable(game, playedCard)) {
+                throw new IllegalStateException("This card cannot be played on the current top card");
+            }
 
-        hand.remove(playedCard);
+            hand.remove(playedCard);
 
-        // Generate move log for the played card
-        String playerName = getPlayerDisplayName(game, userId);
-        String moveLog = formatMoveLog(playerName, playedCard, request);
-        game.addMoveLog(moveLog);
+            // Generate move log for the played card
+            String playerName = getPlayerDisplayName(game, userId);
+            String moveLog = formatMoveLog(playerName, playedCard, request);
+            game.addMoveLog(moveLog);
 
-        // Check for MAKAO status (player has 1 card left)
-        checkAndSetMakaoStatus(game, userId, hand);
+            // Check for MAKAO status (player has 1 card left)
+            checkAndSetMakaoStatus(game, userId, hand);
 
-        if (hand.isEmpty()) {
-            endGame(game);
-            return game;
-        }
+            if (hand.isEmpty()) {
+                endGame(game);
+                return game;
+            }
 
-        if (game.getDiscardDeck() == null) {
-            game.setDiscardDeck(new MakaoDeck(new ArrayList<>()));
-        }
-        game.getDiscardDeck().addCard(playedCard);
+            if (game.getDiscardDeck() == null) {
+                game.setDiscardDeck(new MakaoDeck(new ArrayList<>()));
+            }
+            game.getDiscardDeck().addCard(playedCard);
 
-        setCardEffect(game, playedCard, request);
+            setCardEffect(game, playedCard, request);
 
-        nextTurn(game);
-        return game;
+            nextTurn(game);
+            return game;
+        });
     }
 
     private boolean isPlayable(MakaoGame game, Card card) {
+        return (playableMask(game) & CardCode.bit(card)) != 0;
+    }
+
+    /**
+     * Returns the mask of every card that may be played on the current top card, so a whole
+     * hand can be filtered with one intersection.
+     */
+    private long playableMask(MakaoGame game) {
         Card current = game.getCurrentCard();
         if (current == null) {
             throw new IllegalStateException("Discard pile has no top card");
@@ -549,47 +531,39 @@ public class MakaoGameService {
         if (game.isSpecialEffectActive()) {
             CardRank currentRank = current.getRank();
             if (currentRank == CardRank.TWO || currentRank == CardRank.THREE) {
-                return card.getRank() == CardRank.TWO || card.getRank() == CardRank.THREE;
+                return CardCode.rankMask(CardRank.TWO, CardRank.THREE);
             }
             if (currentRank == CardRank.FOUR) {
-                return card.getRank() == CardRank.FOUR;
+                return CardCode.rankMask(CardRank.FOUR);
             }
         }
 
         // If the previous player demanded a specific rank (Jack effect), respect it
         // unless Jack is played again. Queen cannot bypass demands.
         if (game.getDemandedRank() != null) {
-            return card.getRank() == game.getDemandedRank() || card.getRank() == CardRank.JACK;
+            return CardCode.rankMask(game.getDemandedRank(), CardRank.JACK);
         }
 
         // If the previous player demanded a specific suit (Ace effect), respect it
         // unless Ace is played again. Queen cannot bypass demands.
         if (game.getDemandedSuit() != null) {
-            return card.getSuit() == game.getDemandedSuit() || card.getRank() == CardRank.ACE;
+            return CardCode.suitMask(game.getDemandedSuit()) | CardCode.rankMask(CardRank.ACE);
         }
 
-        // QUEEN LOGIC: "Queen on everything, everything on Queen"
-        // Queen can be played on any non-special card
-        // Any non-special card can be played on Queen
-        boolean cardIsQueen = card.getRank() == CardRank.QUEEN;
-        boolean currentIsQueen = current.getRank() == CardRank.QUEEN;
-
-        // Check if card is a "special" card that has game effects
-        boolean cardIsSpecialEffect = isSpecialEffectCard(card);
-        boolean currentIsSpecialEffect = isSpecialEffectCard(current);
+        // Standard matching: same rank or same suit
+        long playable = CardCode.rankMask(current.getRank()) | CardCode.suitMask(current.getSuit());
 
+        // QUEEN LOGIC: "Queen on everything, everything on Queen"
         // Queen can be played on any non-special-effect card (regardless of rank/suit)
-        if (cardIsQueen && !currentIsSpecialEffect) {
-            return true;
+        if (!isSpecialEffectCard(current)) {
+            playable |= CardCode.rankMask(CardRank.QUEEN);
         }
 
         // Any non-special-effect card can be played on Queen (regardless of rank/suit)
-        if (currentIsQueen && !cardIsSpecialEffect) {
-            return true;
+        if (current.getRank() == CardRank.QUEEN) {
+            playable |= CardCode.ALL & ~SPECIAL_EFFECT_CARDS;
         }
-
-        // Standard matching: same rank or same suit
-        return card.getRank() == current.getRank() || card.getSuit() == current.getSuit();
+        return playable;
     }
 
     /**
@@ -774,64 +748,54 @@ public class MakaoGameService {
     }
 
     private List<Card> gatherPlayableCards(MakaoGame game, String playerId) {
-        List<Card> playable = new ArrayList<>();
         List<Card> hand = game.getPlayersHands().get(playerId);
         if (hand == null || hand.isEmpty()) {
-            return playable;
-        }
-
-        for (Card card : hand) {
-            if (isPlayable(game, card)) {
-                playable.add(card);
-            }
+            return new ArrayList<>();
         }
-        return playable;
+        return CardSet.filter(hand, playableMask(game));
     }
 
     public void initializeGameAfterStart(String roomId) {
         log.info("Initializing game after start for room {}", roomId);
 
-        MakaoGame game = gameRepository.findById(roomId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
+        roomExecutor.run(roomId, () -> {
+            MakaoGame game = gameStateCache.findById(roomId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found for roomId: " + roomId));
 
-        // Set player-to-room mappings so players can request state later
-        log.info("Setting player-to-room mappings for {} players in room {}",
-                game.getPlayersOrderIds() != null ? game.getPlayersOrderIds().size() : 0, roomId);
-        setAllPlayersRoomMappings(game);
+            // Set player-to-room mappings so players can request state later
+            log.info("Setting player-to-room mappings for {} players in room {}",
+                    game.getPlayersOrderIds() != null ? game.getPlayersOrderIds().size() : 0, roomId);
+            setAllPlayersRoomMappings(game);
 
-        String activePlayerId = game.getActivePlayerId();
-        if (activePlayerId == null) {
-            log.warn("No active player set for game {}", roomId);
-            return;
-        }
+            String activePlayerId = game.getActivePlayerId();
+            if (activePlayerId == null) {
+                log.warn("No active player set for game {}", roomId);
+                return;
+            }
 
-        List<Card> playable = gatherPlayableCards(game, activePlayerId);
-        game.setActivePlayerPlayableCards(playable);
-        game.addMoveLog("Game started!");
+            List<Card> playable = gatherPlayableCards(game, activePlayerId);
+            game.setActivePlayerPlayableCards(playable);
+            game.addMoveLog("Game started!");
 
-        log.info("Broadcasting initial game state for room {}", roomId);
+            log.info("Broadcasting initial game state for room {}", roomId);
 
-        if (isBot(activePlayerId)) {
-            // Bot's turn - no timer needed
-            saveAndBroadcast(game);
-            // Schedule bot move with delay instead of immediate execution
-            scheduleBotMove(game.getRoomId(), activePlayerId, playable);
-        } else {
-            // Human player's turn - set timer before saving so it's persisted in Redis
-            scheduleTurnTimeout(game);
-            saveAndBroadcast(game);
-        }
+            if (isBot(activePlayerId)) {
+                // Bot's turn - no timer needed
+                saveAndBroadcast(game);
+                // Schedule bot move with delay instead of immediate execution
+                scheduleBotMove(game.getRoomId(), activePlayerId, playable);
+            } else {
+                // Human player's turn - set timer before saving so it's persisted in Redis
+                scheduleTurnTimeout(game);
+                saveAndBroadcast(game);
+            }
+        });
     }
 
     private void endGame(MakaoGame game) {
         cancelTurnTimeout(game.getRoomId());
         cancelBotMove(game.getRoomId());
 
-        // Clean up gameInProgress map entry for this room
-        if (game.getRoomId() != null) {
-            gameInProgress.remove(game.getRoomId());
-        }
-
         game.setStatus(RoomStatus.FINISHED);
         game.setSpecialEffectActive(false);
         game.setDrawnCard(null);
@@ -897,7 +861,8 @@ public class MakaoGameService {
         saveAndBroadcast(game);
 
         if (game.getRoomId() != null) {
-            gameRepository.deleteById(game.getRoomId());
+            gameStateCache.deleteById(game.getRoomId());
+            stateBroadcaster.forgetRoom(game.getRoomId());
         }
     }
 
@@ -931,77 +896,88 @@ public class MakaoGameService {
         if (game == null) {
             return;
         }
-        gameRepository.save(game);
+        // A change that cannot be saved here must not be broadcast either
+        if (game.getRoomId() != null) {
+            gameStateCache.requireOwnership(game.getRoomId());
+        }
         broadcastPlayerStates(game);
-        
-        // Clear makaoPlayerId after broadcasting so it only shows for one broadcast cycle
+
+        // Clear makaoPlayerId after broadcasting so it only shows for one broadcast cycle.
+        // The cached game is the authoritative copy, so a single save covers both changes.
         if (game.getMakaoPlayerId() != null) {
             game.setMakaoPlayerId(null);
-            gameRepository.save(game);
         }
+        gameStateCache.save(game);
     }
 
     private void broadcastPlayerStates(MakaoGame game) {
         if (game == null || game.getPlayersHands() == null) {
             return;
         }
+        stateBroadcaster.broadcast(buildPublicState(game), buildPlayerCards(game));
+    }
 
-        Map<String, List<Card>> hands = game.getPlayersHands();
+    /**
+     * Builds the part of the state that every player sees. It is built once per move and
+     * shared by all recipients; the game's collections are referenced, not copied, since
+     * the message is serialized before the game changes again.
+     */
+    private GameStateMessage buildPublicState(MakaoGame game) {
         Map<String, Integer> cardsAmount = new HashMap<>();
-        hands.forEach((pid, cards) -> cardsAmount.put(pid, cards != null ? cards.size() : 0));
-
-        List<Card> activePlayable = game.getActivePlayerPlayableCards() != null
-                ? game.getActivePlayerPlayableCards()
-                : new ArrayList<>();
+        game.getPlayersHands().forEach((pid, cards) -> cardsAmount.put(pid, cards != null ? cards.size() : 0));
+
+        GameStateMessage state = new GameStateMessage();
+        state.setRoomId(game.getRoomId());
+        state.setActivePlayerId(game.getActivePlayerId());
+        state.setCurrentCard(game.getCurrentCard());
+        state.setPlayersCardsAmount(cardsAmount);
+        state.setPlayersSkipTurns(game.getPlayersSkipTurns() != null ? game.getPlayersSkipTurns() : new HashMap<>());
+        state.setSpecialEffectActive(game.isSpecialEffectActive());
+        state.setDemandedRank(game.getDemandedRank());
+        state.setDemandedSuit(game.getDemandedSuit());
+        state.setRanking(game.getRanking() != null ? game.getRanking() : new HashMap<>());
+        state.setPlacement(game.getPlacement() != null ? game.getPlacement() : new HashMap<>());
+        state.setLosers(game.getLosers() != null ? game.getLosers() : new ArrayList<>());
+        state.setStatus(game.getStatus());
+        state.setDrawDeckCardsAmount(game.getDrawDeck() != null ? game.getDrawDeck().size() : 0);
+        state.setDiscardDeckCardsAmount(game.getDiscardDeck() != null ? game.getDiscardDeck().size() : 0);
+        state.setLastMoveLog(game.getLastMoveLog());
+        state.setEffectNotification(game.getEffectNotification());
+        state.setMoveHistory(game.getMoveHistory() != null ? game.getMoveHistory() : new ArrayList<>());
+        state.setTurnRemainingSeconds(calculateTurnRemainingSeconds(game));
+        state.setTurnStartTime(game.getTurnStartTime());
+        state.setMakaoPlayerId(game.getMakaoPlayerId());
+        state.setBotThinkingPlayerId(game.getBotThinkingPlayerId());
+        state.setPlayerOrder(game.getPlayersOrderIds() != null ? game.getPlayersOrderIds() : new ArrayList<>());
+        state.setPlayersUsernames(game.getPlayersUsernames() != null ? game.getPlayersUsernames() : new HashMap<>());
+        state.setPlayersAvatars(game.getPlayersAvatars() != null ? game.getPlayersAvatars() : new HashMap<>());
+        return state;
+    }
 
-        // Calculate remaining turn time
-        Integer turnRemainingSeconds = calculateTurnRemainingSeconds(game);
+    /**
+     * Builds the hand of every human player, with cards the active player may play flagged.
+     */
+    private Map<String, List<PlayerCardView>> buildPlayerCards(MakaoGame game) {
+        long activePlayable = CardSet.mask(game.getActivePlayerPlayableCards());
 
-        for (Map.Entry<String, List<Card>> entry : hands.entrySet()) {
+        Map<String, List<PlayerCardView>> playerCards = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Card>> entry : game.getPlayersHands().entrySet()) {
             String playerId = entry.getKey();
             if (isBot(playerId)) {
                 continue;
             }
 
             List<Card> hand = entry.getValue() != null ? entry.getValue() : new ArrayList<>();
-            List<PlayerCardView> myCards = new ArrayList<>();
+            List<PlayerCardView> myCards = new ArrayList<>(hand.size());
             boolean isActive = playerId.equals(game.getActivePlayerId());
 
             for (Card card : hand) {
-                boolean playable = isActive && containsCard(activePlayable, card);
+                boolean playable = isActive && (activePlayable & CardCode.bit(card)) != 0;
                 myCards.add(new PlayerCardView(card, playable));
             }
-
-            GameStateMessage message = new GameStateMessage(
-                    game.getRoomId(),
-                    game.getActivePlayerId(),
-                    game.getCurrentCard(),
-                    myCards,
-                    new HashMap<>(cardsAmount),
-                    game.getPlayersSkipTurns() != null ? new HashMap<>(game.getPlayersSkipTurns()) : new HashMap<>(),
-                    game.isSpecialEffectActive(),
-                    game.getDemandedRank(),
-                    game.getDemandedSuit(),
-                    game.getRanking() != null ? new HashMap<>(game.getRanking()) : new HashMap<>(),
-                    game.getPlacement() != null ? new HashMap<>(game.getPlacement()) : new HashMap<>(),
-                    game.getLosers() != null ? new ArrayList<>(game.getLosers()) : new ArrayList<>(),
-                    game.getStatus(),
-                    game.getDrawDeck() != null ? game.getDrawDeck().size() : 0,
-                    game.getDiscardDeck() != null ? game.getDiscardDeck().size() : 0,
-                    game.getLastMoveLog(),
-                    game.getEffectNotification(),
-                    game.getMoveHistory() != null ? new ArrayList<>(game.getMoveHistory()) : new ArrayList<>(),
-                    turnRemainingSeconds,
-                    game.getTurnStartTime(),
-                    game.getMakaoPlayerId(),
-                    game.getBotThinkingPlayerId(),
-                    game.getPlayersOrderIds() != null ? new ArrayList<>(game.getPlayersOrderIds()) : new ArrayList<>(),
-                    game.getPlayersUsernames() != null ? new HashMap<>(game.getPlayersUsernames()) : new HashMap<>(),
-                    game.getPlayersAvatars() != null ? new HashMap<>(game.getPlayersAvatars()) : new HashMap<>()
-            );
-
-            messagingTemplate.convertAndSend("/topic/makao/" + playerId, message);
+            playerCards.put(playerId, myCards);
         }
+        return playerCards;
     }
 
     /**
@@ -1018,11 +994,12 @@ public class MakaoGameService {
     }
 
     private boolean containsCard(List<Card> cards, Card target) {
-        if (cards == null || target == null) {
+        int code = CardCode.of(target);
+        if (cards == null || code == CardCode.NONE) {
             return false;
         }
         for (Card c : cards) {
-            if (c != null && c.getRank() == target.getRank() && c.getSuit() == target.getSuit()) {
+            if (CardCode.of(c) == code) {
                 return true;
             }
         }
@@ -1262,14 +1239,30 @@ public class MakaoGameService {
         return game.getDrawDeck().draw();
     }
 
+    /**
+     * Starts firing turn and bot timers stored in Redis. A timer is fired by the replica that
+     * owns the room, or by any replica once the owner is gone, including after a restart.
+     */
+    @PostConstruct
+    public void startTurnTimers() {
+        turnTimers.start(this::onRoomTimerDue);
+    }
+
+    private CompletionStage<Void> onRoomTimerDue(String timerId, String payload) {
+        if (timerId.startsWith(BOT_TIMER_PREFIX)) {
+            return onBotTimerDue(timerId.substring(BOT_TIMER_PREFIX.length()), payload);
+        }
+        return onTurnTimerDue(timerId, payload);
+    }
+
     private void scheduleTurnTimeout(MakaoGame game) {
         if (game == null || game.getRoomId() == null) {
             return;
         }
-        cancelTurnTimeout(game.getRoomId());
 
         if (game.getStatus() != RoomStatus.PLAYING) {
             // Clear timer state when not playing
+            cancelTurnTimeout(game.getRoomId());
             game.setTurnStartTime(null);
             game.setTurnRemainingSeconds(null);
             return;
@@ -1278,43 +1271,43 @@ public class MakaoGameService {
         String activePlayer = game.getActivePlayerId();
         if (activePlayer == null || isBot(activePlayer)) {
             // Bots don't have turn timers
+            cancelTurnTimeout(game.getRoomId());
             game.setTurnStartTime(null);
             game.setTurnRemainingSeconds(null);
             return;
         }
 
         // Set turn start time and initial remaining seconds
-        game.setTurnStartTime(System.currentTimeMillis());
+        long turnStartTime = System.currentTimeMillis();
+        game.setTurnStartTime(turnStartTime);
         game.setTurnRemainingSeconds((int) turnTimeoutSeconds);
 
-        ScheduledFuture<?> future = turnTimeoutScheduler.schedule(
-                () -> handleTurnTimeout(game.getRoomId(), activePlayer),
-                turnTimeoutSeconds,
-                TimeUnit.SECONDS);
-        turnTimeouts.put(game.getRoomId(), future);
-    }
-
-    @PreDestroy
-    public void shutdown() {
-        // Cancel all pending bot moves
-        botMoveSchedules.values().forEach(future -> future.cancel(false));
-        botMoveSchedules.clear();
-        gameInProgress.clear();
-
-        if (turnTimeoutScheduler != null && !turnTimeoutScheduler.isShutdown()) {
-            turnTimeoutScheduler.shutdown();
-            log.info("MakaoGameService: Shut down turnTimeoutScheduler");
-        }
+        // Replaces the previous turn's timer for this room
+        turnTimers.schedule(game.getRoomId(), activePlayer + TURN_TIMER_SEPARATOR + turnStartTime,
+                turnTimeoutSeconds, TimeUnit.SECONDS, gameStateCache.ownerKey(game.getRoomId()));
     }
 
     private void cancelTurnTimeout(String roomId) {
         if (roomId == null) {
             return;
         }
-        ScheduledFuture<?> future = turnTimeouts.remove(roomId);
-        if (future != null) {
-            future.cancel(false);
+        turnTimers.cancel(roomId);
+    }
+
+    /**
+     * Fires a turn timer claimed from Redis. The payload identifies the turn, so a
+     * timer delivered twice or after the turn already moved on is ignored. A failure
+     * completes the returned stage exceptionally, so the timer fires again after its lease.
+     */
+    private CompletionStage<Void> onTurnTimerDue(String roomId, String payload) {
+        int separator = payload.lastIndexOf(TURN_TIMER_SEPARATOR);
+        if (separator <= 0) {
+            log.warn("Ignoring malformed turn timer for room {}: {}", roomId, payload);
+            return null;
         }
+        String playerId = payload.substring(0, separator);
+        Long turnStartTime = Long.valueOf(payload.substring(separator + 1));
+        return roomExecutor.execute(roomId, () -> handleTurnTimeout(roomId, playerId, turnStartTime));
     }
 
     /**
@@ -1339,124 +1332,130 @@ public class MakaoGameService {
     }
 
     private void handleTurnTimeout(String roomId, String timedOutPlayer) {
-        // Remove the triggered timer so a new one can be scheduled without being cancelled later in this call stack.
-        turnTimeouts.remove(roomId);
-        try {
-            MakaoGame game = gameRepository.findById(roomId).orElse(null);
-            if (game == null) {
-                return;
-            }
+        handleTurnTimeout(roomId, timedOutPlayer, null);
+    }
 
-            if (game.getStatus() != RoomStatus.PLAYING) {
-                return;
-            }
+    private void handleTurnTimeout(String roomId, String timedOutPlayer, Long expectedTurnStartTime) {
+        MakaoGame game = gameStateCache.findById(roomId).orElse(null);
+        if (game == null) {
+            return;
+        }
 
-            if (!timedOutPlayer.equals(game.getActivePlayerId())) {
-                return;
-            }
+        if (game.getStatus() != RoomStatus.PLAYING) {
+            return;
+        }
 
-            // Get old username before replacement for notification
-            Map<String, String> usernames = game.getPlayersUsernames() != null
-                    ? game.getPlayersUsernames()
-                    : new HashMap<>();
-            String oldUsername = usernames.getOrDefault(timedOutPlayer, "Player");
+        if (!timedOutPlayer.equals(game.getActivePlayerId())) {
+            return;
+        }
 
-            // Create bot and replace player (same logic as handlePlayerLeave)
-            int nextBot = game.getBotCounter() + 1;
-            String botId = "bot-" + nextBot;
-            game.setBotCounter(nextBot);
+        if (expectedTurnStartTime != null && !expectedTurnStartTime.equals(game.getTurnStartTime())) {
+            return;
+        }
 
-            // Transfer player's hand to the bot
-            Map<String, List<Card>> hands = new HashMap<>(game.getPlayersHands());
-            List<Card> timedOutHand = hands.getOrDefault(timedOutPlayer, new ArrayList<>());
-            hands.remove(timedOutPlayer);
-            hands.put(botId, timedOutHand);
-            game.setPlayersHands(hands);
+        // Get old username before replacement for notification
+        Map<String, String> usernames = game.getPlayersUsernames() != null
+                ? game.getPlayersUsernames()
+                : new HashMap<>();
+        String oldUsername = usernames.getOrDefault(timedOutPlayer, "Player");
 
-            // Transfer skip turns
-            Map<String, Integer> skipTurns = game.getPlayersSkipTurns() != null
-                    ? new HashMap<>(game.getPlayersSkipTurns())
-                    : new HashMap<>();
-            int pendingSkips = skipTurns.getOrDefault(timedOutPlayer, 0);
-            skipTurns.remove(timedOutPlayer);
-            skipTurns.put(botId, pendingSkips);
-            game.setPlayersSkipTurns(skipTurns);
+        // Create bot and replace player (same logic as handlePlayerLeave)
+        int nextBot = game.getBotCounter() + 1;
+        String botId = "bot-" + nextBot;
+        game.setBotCounter(nextBot);
 
-            // Update usernames
-            Map<String, String> updatedUsernames = new HashMap<>(usernames);
-            updatedUsernames.remove(timedOutPlayer);
-            updatedUsernames.put(botId, "Bot " + nextBot);
-            game.setPlayersUsernames(updatedUsernames);
+        // Transfer player's hand to the bot
+        Map<String, List<Card>> hands = new HashMap<>(game.getPlayersHands());
+        List<Card> timedOutHand = hands.getOrDefault(timedOutPlayer, new ArrayList<>());
+        hands.remove(timedOutPlayer);
+        hands.put(botId, timedOutHand);
+        game.setPlayersHands(hands);
 
-            // Update avatars - remove old player's avatar and set bot avatar
-            Map<String, String> avatars = game.getPlayersAvatars() != null
-                    ? new HashMap<>(game.getPlayersAvatars())
-                    : new HashMap<>();
-            avatars.remove(timedOutPlayer);
-            avatars.put(botId, "bot_avatar.png");
-            game.setPlayersAvatars(avatars);
+        // Transfer skip turns
+        Map<String, Integer> skipTurns = game.getPlayersSkipTurns() != null
+                ? new HashMap<>(game.getPlayersSkipTurns())
+                : new HashMap<>();
+        int pendingSkips = skipTurns.getOrDefault(timedOutPlayer, 0);
+        skipTurns.remove(timedOutPlayer);
+        skipTurns.put(botId, pendingSkips);
+        game.setPlayersSkipTurns(skipTurns);
 
-            // Update player order
-            List<String> updatedOrder = game.getPlayersOrderIds() != null
-                    ? new ArrayList<>(game.getPlayersOrderIds())
-                    : new ArrayList<>();
-            int idx = updatedOrder.indexOf(timedOutPlayer);
-            if (idx >= 0) {
-                updatedOrder.set(idx, botId);
-            }
-            game.setPlayersOrderIds(updatedOrder);
+        // Update usernames
+        Map<String, String> updatedUsernames = new HashMap<>(usernames);
+        updatedUsernames.remove(timedOutPlayer);
+        updatedUsernames.put(botId, "Bot " + nextBot);
+        game.setPlayersUsernames(updatedUsernames);
 
-            // Add to losers list
-            List<String> losers = game.getLosers() != null
-                    ? new ArrayList<>(game.getLosers())
-                    : new ArrayList<>();
-            if (!losers.contains(timedOutPlayer)) {
-                losers.add(timedOutPlayer);
-            }
-            game.setLosers(losers);
+        // Update avatars - remove old player's avatar and set bot avatar
+        Map<String, String> avatars = game.getPlayersAvatars() != null
+                ? new HashMap<>(game.getPlayersAvatars())
+                : new HashMap<>();
+        avatars.remove(timedOutPlayer);
+        avatars.put(botId, "bot_avatar.png");
+        game.setPlayersAvatars(avatars);
 
-            // Clear MAKAO status if timed-out player had it
-            if (timedOutPlayer.equals(game.getMakaoPlayerId())) {
-                game.setMakaoPlayerId(null);
-            }
+        // Update player order
+        List<String> updatedOrder = game.getPlayersOrderIds() != null
+                ? new ArrayList<>(game.getPlayersOrderIds())
+                : new ArrayList<>();
+        int idx = updatedOrder.indexOf(timedOutPlayer);
+        if (idx >= 0) {
+            updatedOrder.set(idx, botId);
+        }
+        game.setPlayersOrderIds(updatedOrder);
+
+        // Add to losers list
+        List<String> losers = game.getLosers() != null
+                ? new ArrayList<>(game.getLosers())
+                : new ArrayList<>();
+        if (!losers.contains(timedOutPlayer)) {
+            losers.add(timedOutPlayer);
+        }
+        game.setLosers(losers);
 
-            // Clean up Redis mapping for timed-out player so they can join new games
-            clearPlayerRoomMapping(timedOutPlayer);
+        // Clear MAKAO status if timed-out player had it
+        if (timedOutPlayer.equals(game.getMakaoPlayerId())) {
+            game.setMakaoPlayerId(null);
+        }
 
-            // Notify Menu service to update GameRoom (remove player, reassign host if needed)
-            publishPlayerLeave(roomId, timedOutPlayer, PlayerLeaveMessage.LeaveReason.TIMEOUT);
+        // Clean up Redis mapping for timed-out player so they can join new games
+        clearPlayerRoomMapping(timedOutPlayer);
 
-            // Add notification for player being replaced
-            game.addMoveLog(String.format("%s timed out and was replaced by Bot %d", oldUsername, nextBot));
+        // Notify Menu service to update GameRoom (remove player, reassign host if needed)
+        publishPlayerLeave(roomId, timedOutPlayer, PlayerLeaveMessage.LeaveReason.TIMEOUT);
 
-            // Send timeout notification directly to the kicked player
-            notifyPlayerTimeout(timedOutPlayer, roomId, botId);
+        // Add notification for player being replaced
+        game.addMoveLog(String.format("%s timed out and was replaced by Bot %d", oldUsername, nextBot));
 
-            // Bot takes over the turn
-            game.setActivePlayerId(botId);
-            game.setDrawnCard(null);
-            game.setActivePlayerPlayableCards(new ArrayList<>());
+        // Send timeout notification directly to the kicked player
+        notifyPlayerTimeout(timedOutPlayer, roomId, botId);
 
-            List<Card> playable = gatherPlayableCards(game, botId);
-            game.setActivePlayerPlayableCards(playable);
+        // Bot takes over the turn
+        game.setActivePlayerId(botId);
+        game.setDrawnCard(null);
+        game.setActivePlayerPlayableCards(new ArrayList<>());
 
-            // Check if bot needs to handle special effect
-            if (game.isSpecialEffectActive() && playable.isEmpty()) {
-                saveAndBroadcast(game);
-                applySpecialEffectPenalty(game, botId);
-                return;
-            }
+        List<Card> playable = gatherPlayableCards(game, botId);
+        game.setActivePlayerPlayableCards(playable);
 
-            // Save and broadcast, then schedule bot move
+        // Check if bot needs to handle special effect
+        if (game.isSpecialEffectActive() && playable.isEmpty()) {
             saveAndBroadcast(game);
-            scheduleBotMove(game.getRoomId(), botId, playable);
-        } catch (Exception e) {
-            log.error("Failed to handle turn timeout for room {} player {}", roomId, timedOutPlayer, e);
+            applySpecialEffectPenalty(game, botId);
+            return;
         }
+
+        // Save and broadcast, then schedule bot move
+        saveAndBroadcast(game);
+        scheduleBotMove(game.getRoomId(), botId, playable);
     }
 
     /**
      * Schedules a bot move with a random delay (1-3 seconds) to simulate human thinking.
+     * <p>
+     * The move runs from the in-process timing wheel. A durable timer due a little later backs
+     * it up: it is removed once the move is made, and otherwise makes the move itself, so a
+     * restart during a bot's turn does not leave the game waiting.
      */
     private void scheduleBotMove(String roomId, String botId, List<Card> playableCards) {
         if (roomId == null || botId == null) {
@@ -1466,11 +1465,11 @@ public class MakaoGameService {
         // Cancel any existing scheduled bot move for this room
         cancelBotMove(roomId);
 
-        // Set bot thinking state - must update game in Redis
-        MakaoGame game = gameRepository.findById(roomId).orElse(null);
+        // Set bot thinking state on the cached game
+        MakaoGame game = gameStateCache.findById(roomId).orElse(null);
         if (game != null) {
             game.setBotThinkingPlayerId(botId);
-            gameRepository.save(game);
+            gameStateCache.save(game);
         }
 
         // Calculate random delay between botDelayMinMs and botDelayMaxMs
@@ -1478,77 +1477,92 @@ public class MakaoGameService {
 
         log.debug("Scheduling bot move for {} in room {} with delay {}ms", botId, roomId, delay);
 
-        ScheduledFuture<?> future = turnTimeoutScheduler.schedule(
-                () -> executeBotMove(roomId, botId, playableCards),
+        String timerId = BOT_TIMER_PREFIX + roomId;
+        String backstop = botId + TURN_TIMER_SEPARATOR + System.currentTimeMillis();
+        turnTimers.schedule(timerId, backstop, delay + BOT_BACKSTOP_GRACE_MS, TimeUnit.MILLISECONDS,
+                gameStateCache.ownerKey(roomId));
+
+        roomTimers.schedule(
+                timerId,
                 delay,
-                TimeUnit.MILLISECONDS);
-        botMoveSchedules.put(roomId, future);
+                TimeUnit.MILLISECONDS,
+                roomExecutor.wrap(roomId, () -> {
+                    try {
+                        executeBotMove(roomId, botId, playableCards);
+                        // Keeps the backstop if a later bot move already replaced it
+                        turnTimers.cancel(timerId, backstop);
+                    } catch (Exception e) {
+                        log.error("Failed to execute bot move for room {} bot {}; its durable timer will retry",
+                                roomId, botId, e);
+                    }
+                }));
     }
 
     private void cancelBotMove(String roomId) {
         if (roomId == null) {
             return;
         }
-        ScheduledFuture<?> future = botMoveSchedules.remove(roomId);
-        if (future != null) {
-            future.cancel(false);
-        }
+        roomTimers.cancel(BOT_TIMER_PREFIX + roomId);
     }
 
     /**
-     * Executes the bot move after the delay.
-     * Reloads game state from Redis to ensure consistency.
+     * Makes a bot move whose in-process timer never ran, for example because the replica
+     * that scheduled it restarted. Runs only while the bot is still waiting to move.
      */
-    private void executeBotMove(String roomId, String botId, List<Card> originalPlayableCards) {
-        try {
-            // Prevent concurrent bot moves for the same game
-            AtomicBoolean inProgress = gameInProgress.computeIfAbsent(roomId, k -> new AtomicBoolean(false));
-            if (!inProgress.compareAndSet(false, true)) {
-                log.debug("Bot move already in progress for room {}", roomId);
+    private CompletionStage<Void> onBotTimerDue(String roomId, String payload) {
+        int separator = payload.lastIndexOf(TURN_TIMER_SEPARATOR);
+        if (separator <= 0) {
+            log.warn("Ignoring malformed bot timer for room {}: {}", roomId, payload);
+            return null;
+        }
+        String botId = payload.substring(0, separator);
+        return roomExecutor.execute(roomId, () -> {
+            MakaoGame game = gameStateCache.findById(roomId).orElse(null);
+            if (game == null || !botId.equals(game.getBotThinkingPlayerId())) {
                 return;
             }
+            log.info("Making overdue move for bot {} in room {}", botId, roomId);
+            cancelBotMove(roomId);
+            executeBotMove(roomId, botId, List.of());
+        });
+    }
 
-            try {
-                // Reload game state from Redis for consistency
-                MakaoGame game = gameRepository.findById(roomId).orElse(null);
-                if (game == null) {
-                    log.warn("Game not found for room {} when executing bot move", roomId);
-                    return;
-                }
+    /**
+     * Executes the bot move after the delay.
+     * Runs on the room's actor, so it never interleaves with player actions or timeouts.
+     * Failures are thrown to the caller, so the durable timer can retry the move.
+     */
+    private void executeBotMove(String roomId, String botId, List<Card> originalPlayableCards) {
+        // Reload the authoritative game state for consistency
+        MakaoGame game = gameStateCache.findById(roomId).orElse(null);
+        if (game == null) {
+            log.warn("Game not found for room {} when executing bot move", roomId);
+            return;
+        }
 
-                // Clear bot thinking state - bot is now acting
-                game.setBotThinkingPlayerId(null);
+        // Clear bot thinking state - bot is now acting
+        game.setBotThinkingPlayerId(null);
 
-                if (game.getStatus() != RoomStatus.PLAYING) {
-                    log.debug("Game {} is not in PLAYING status, skipping bot move", roomId);
-                    return;
-                }
+        if (game.getStatus() != RoomStatus.PLAYING) {
+            log.debug("Game {} is not in PLAYING status, skipping bot move", roomId);
+            return;
+        }
 
-                // Verify the bot is still the active player
-                if (!botId.equals(game.getActivePlayerId())) {
-                    log.debug("Bot {} is no longer active player in room {}", botId, roomId);
-                    return;
-                }
+        // Verify the bot is still the active player
+        if (!botId.equals(game.getActivePlayerId())) {
+            log.debug("Bot {} is no longer active player in room {}", botId, roomId);
+            return;
+        }
 
-                // Recalculate playable cards from fresh game state
-                List<Card> playableCards = gatherPlayableCards(game, botId);
-                game.setActivePlayerPlayableCards(playableCards);
+        // Recalculate playable cards from fresh game state
+        List<Card> playableCards = gatherPlayableCards(game, botId);
+        game.setActivePlayerPlayableCards(playableCards);
 
-                // Execute the bot's turn
-                handleBotTurn(game, botId, playableCards);
+        // Execute the bot's turn
+        handleBotTurn(game, botId, playableCards);
 
-                // Move to next turn (this will save and broadcast)
-                nextTurn(game);
-            } finally {
-                inProgress.set(false);
-            }
-        } catch (Exception e) {
-            log.error("Failed to execute bot move for room {} bot {}", roomId, botId, e);
-            gameInProgress.computeIfPresent(roomId, (k, v) -> {
-                v.set(false);
-                return v;
-            });
-        }
+        // Move to next turn (this will save and broadcast)
+        nextTurn(game);
     }
 
     /**
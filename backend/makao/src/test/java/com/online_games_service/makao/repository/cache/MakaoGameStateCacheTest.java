@@ -0,0 +1,314 @@
+package com.online_games_service.makao.repository.cache;
+
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.RoomLeases;
+import com.online_games_service.common.enums.RoomStatus;
+import com.online_games_service.makao.model.MakaoGame;
+import com.online_games_service.makao.repository.redis.MakaoGameRedisRepository;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class MakaoGameStateCacheTest {
+
+    @Mock
+    private MakaoGameRedisRepository repository;
+    @Mock
+    private RoomLeases roomLeases;
+
+    private RoomActorExecutor roomExecutor;
+    private AutoCloseable mocks;
+
+    @BeforeMethod
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        roomExecutor = new RoomActorExecutor("test-room");
+        when(roomLeases.getLeaseMs()).thenReturn(60_000L);
+        when(roomLeases.acquire(any())).thenReturn(RoomLeases.LeaseState.ACQUIRED);
+        when(repository.saveIfVersion(any(), anyLong())).thenAnswer(invocation -> invocation.getArgument(1, Long.class) + 1);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        if (mocks != null) {
+            mocks.close();
+        }
+        roomExecutor.close();
+    }
+
+    @Test
+    public void findById_loadsFromRedisOnlyOnce() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.TURN);
+        MakaoGame game = game("room-1", "p1");
+        when(repository.findById("room-1")).thenReturn(Optional.of(game));
+
+        Optional<MakaoGame> first = cache.findById("room-1");
+        Optional<MakaoGame> second = cache.findById("room-1");
+
+        Assert.assertTrue(first.isPresent());
+        Assert.assertSame(second.get(), first.get());
+        verify(repository, times(1)).findById("room-1");
+    }
+
+    @Test
+    public void findById_missingGameIsNotCached() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.TURN);
+        when(repository.findById("room-1")).thenReturn(Optional.empty());
+
+        Assert.assertTrue(cache.findById("room-1").isEmpty());
+        Assert.assertTrue(cache.findById(null).isEmpty());
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void writeThrough_savesEveryChange() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.WRITE_THROUGH);
+        MakaoGame game = game("room-1", "p1");
+
+        cache.save(game);
+        cache.save(game);
+
+        verify(repository, times(2)).saveIfVersion(eq(game), anyLong());
+    }
+
+    @Test
+    public void turnMode_coalescesSavesWithinTurn() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.TURN);
+        MakaoGame game = game("room-1", "p1");
+
+        cache.save(game);
+        game.setLastMoveLog("p1 drew a card");
+        cache.save(game);
+        cache.save(game);
+        verify(repository, times(1)).saveIfVersion(eq(game), anyLong());
+
+        game.setActivePlayerId("p2");
+        cache.save(game);
+        verify(repository, times(2)).saveIfVersion(eq(game), anyLong());
+    }
+
+    @Test
+    public void turnMode_flushesFinishedGameImmediately() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.TURN);
+        MakaoGame game = game("room-1", "p1");
+        cache.save(game);
+
+        game.setStatus(RoomStatus.FINISHED);
+        cache.save(game);
+
+        verify(repository, times(2)).saveIfVersion(eq(game), anyLong());
+    }
+
+    @Test
+    public void intervalMode_defersWritesUntilFlush() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.INTERVAL);
+        MakaoGame game = game("room-1", "p1");
+
+        cache.save(game);
+        game.setActivePlayerId("p2");
+        cache.save(game);
+        verify(repository, never()).saveIfVersion(any(), anyLong());
+
+        cache.flushAll();
+        cache.flushAll();
+        verify(repository, times(1)).saveIfVersion(eq(game), anyLong());
+    }
+
+    @Test
+    public void deleteById_discardsPendingWrites() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.INTERVAL);
+        MakaoGame game = game("room-1", "p1");
+        cache.save(game);
+
+        cache.deleteById("room-1");
+        cache.flushAll();
+
+        verify(repository).deleteById("room-1");
+        verify(repository, never()).saveIfVersion(any(), anyLong());
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void save_afterDeleteIsIgnored() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.WRITE_THROUGH);
+        MakaoGame game = game("room-1", "p1");
+        cache.save(game);
+        cache.deleteById("room-1");
+
+        game.setActivePlayerId("p2");
+        cache.save(game);
+        cache.flushAll();
+
+        verify(repository, times(1)).saveIfVersion(eq(game), anyLong());
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void save_afterRoomIsLoadedAgainIsAccepted() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.WRITE_THROUGH);
+        cache.save(game("room-1", "p1"));
+        cache.deleteById("room-1");
+        MakaoGame rematch = game("room-1", "p3");
+        when(repository.findById("room-1")).thenReturn(Optional.of(rematch));
+
+        MakaoGame loaded = cache.findById("room-1").orElseThrow();
+        cache.save(loaded);
+
+        verify(repository).saveIfVersion(eq(rematch), anyLong());
+        Assert.assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void findById_readsRedisWhenAnotherReplicaOwnsTheRoom() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.TURN);
+        when(roomLeases.acquire("room-1")).thenReturn(RoomLeases.LeaseState.OWNED_ELSEWHERE);
+        when(repository.findById("room-1")).thenReturn(Optional.of(game("room-1", "p1")));
+
+        cache.findById("room-1");
+        cache.findById("room-1");
+
+        verify(repository, times(2)).findById("room-1");
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void save_isRejectedWhenAnotherReplicaOwnsTheRoom() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.WRITE_THROUGH);
+        when(roomLeases.acquire("room-1")).thenReturn(RoomLeases.LeaseState.OWNED_ELSEWHERE);
+        MakaoGame game = game("room-1", "p1");
+
+        // The owner's next flush would overwrite it, and it would overwrite the owner's pending changes
+        Assert.expectThrows(IllegalStateException.class, () -> cache.save(game));
+        Assert.expectThrows(IllegalStateException.class, () -> cache.requireOwnership("room-1"));
+
+        verify(repository, never()).saveIfVersion(any(), anyLong());
+        verify(repository, never()).save(any());
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void flush_writesAgainstTheVersionTheCopyWasLoadedAt() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.INTERVAL);
+        MakaoGame game = game("room-1", "p1");
+        when(repository.getVersion("room-1")).thenReturn(3L);
+        when(repository.findById("room-1")).thenReturn(Optional.of(game));
+
+        cache.save(cache.findById("room-1").orElseThrow());
+        cache.flushAll();
+        game.setActivePlayerId("p2");
+        cache.save(game);
+        cache.flushAll();
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).getVersion("room-1");
+        inOrder.verify(repository).findById("room-1");
+        inOrder.verify(repository).saveIfVersion(game, 3L);
+        inOrder.verify(repository).saveIfVersion(game, 4L);
+    }
+
+    @Test
+    public void flush_dropsCopyWhenAnotherReplicaWroteTheGame() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.WRITE_THROUGH);
+        MakaoGame stale = game("room-1", "p1");
+        MakaoGame current = game("room-1", "p2");
+        when(repository.findById("room-1")).thenReturn(Optional.of(stale), Optional.of(current));
+        when(repository.saveIfVersion(any(), anyLong())).thenReturn(-1L);
+
+        cache.save(cache.findById("room-1").orElseThrow());
+
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertSame(cache.findById("room-1").orElseThrow(), current);
+    }
+
+    @Test
+    public void findById_flushesPendingChangesBeforeDroppingCopyWhoseLeaseLapsed() {
+        when(roomLeases.getLeaseMs()).thenReturn(0L);
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.INTERVAL);
+        MakaoGame game = game("room-1", "p1");
+        when(repository.getVersion("room-1")).thenReturn(2L);
+        cache.save(game);
+        when(repository.findById("room-1")).thenReturn(Optional.of(game("room-1", "p1")));
+
+        cache.findById("room-1");
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).saveIfVersion(game, 2L);
+        inOrder.verify(repository).findById("room-1");
+    }
+
+    @Test
+    public void findById_reloadsGameWhoseLeaseLapsed() {
+        when(roomLeases.getLeaseMs()).thenReturn(0L);
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.TURN);
+        MakaoGame stale = game("room-1", "p1");
+        MakaoGame current = game("room-1", "p2");
+        when(repository.findById("room-1")).thenReturn(Optional.of(stale), Optional.of(current));
+
+        cache.findById("room-1");
+        // Another replica may have changed the game while this one did not hold the lease
+        MakaoGame loaded = cache.findById("room-1").orElseThrow();
+
+        Assert.assertSame(loaded, current);
+    }
+
+    @Test
+    public void findById_keepsGameWhoseLeaseWasRenewed() {
+        when(roomLeases.getLeaseMs()).thenReturn(0L);
+        when(roomLeases.acquire("room-1")).thenReturn(RoomLeases.LeaseState.ACQUIRED, RoomLeases.LeaseState.RENEWED);
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.TURN);
+        MakaoGame game = game("room-1", "p1");
+        when(repository.findById("room-1")).thenReturn(Optional.of(game));
+
+        cache.findById("room-1");
+        MakaoGame loaded = cache.findById("room-1").orElseThrow();
+
+        Assert.assertSame(loaded, game);
+        verify(repository, times(1)).findById("room-1");
+    }
+
+    @Test
+    public void deleteById_releasesTheLease() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.TURN);
+        cache.save(game("room-1", "p1"));
+
+        cache.deleteById("room-1");
+
+        verify(roomLeases).releaseAll(List.of("room-1"));
+    }
+
+    @Test
+    public void shutdown_flushesPendingWrites() {
+        MakaoGameStateCache cache = cache(MakaoGameStateCache.DurabilityMode.INTERVAL);
+        cache.start();
+        MakaoGame game = game("room-1", "p1");
+        cache.save(game);
+
+        cache.shutdown();
+
+        verify(repository).saveIfVersion(eq(game), anyLong());
+    }
+
+    private MakaoGameStateCache cache(MakaoGameStateCache.DurabilityMode mode) {
+        return new MakaoGameStateCache(repository, roomLeases, roomExecutor, mode, 60_000, 600);
+    }
+
+    private MakaoGame game(String roomId, String activePlayerId) {
+        MakaoGame game = new MakaoGame();
+        game.setRoomId(roomId);
+        game.setStatus(RoomStatus.PLAYING);
+        game.setActivePlayerId(activePlayerId);
+        return game;
+    }
+}
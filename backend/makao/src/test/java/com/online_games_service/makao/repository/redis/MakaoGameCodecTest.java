@@ -0,0 +1,119 @@
+package com.online_games_service.makao.repository.redis;
+
+import com.online_games_service.common.codec.CompactRedisSerializer;
+import com.online_games_service.common.config.BaseRedisConfig;
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import com.online_games_service.common.model.Card;
+import com.online_games_service.makao.model.MakaoGame;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MakaoGameCodecTest {
+
+    private final GenericJackson2JsonRedisSerializer json = BaseRedisConfig.jsonSerializer();
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(json, List.of(new MakaoGameCodec()));
+
+    @Test
+    public void roundTrip_preservesGame() {
+        MakaoGame game = fullGame();
+        game.setDemandedRank(CardRank.SEVEN);
+        game.setDemandedSuit(CardSuit.CLUBS);
+        game.setDrawnCard(new Card(CardSuit.SPADES, CardRank.ACE));
+        game.setTurnStartTime(1_700_000_000_000L);
+        game.setPendingDrawCount(5);
+        game.getRanking().put("p1", 1);
+        game.addMoveLog("p1 played Ace of Spades");
+
+        byte[] bytes = serializer.serialize(game);
+        Assert.assertTrue(CompactRedisSerializer.isCompact(bytes));
+
+        assertSameGame((MakaoGame) serializer.deserialize(bytes), game);
+    }
+
+    @Test
+    public void deserialize_readsExistingJsonValues() {
+        MakaoGame game = fullGame();
+
+        byte[] legacy = json.serialize(game);
+
+        assertSameGame((MakaoGame) serializer.deserialize(legacy), game);
+    }
+
+    @Test
+    public void disabledCompactWrites_stillReadCompactValues() {
+        MakaoGame game = fullGame();
+        CompactRedisSerializer jsonWriter = new CompactRedisSerializer(json, List.of(new MakaoGameCodec()), false);
+
+        Assert.assertFalse(CompactRedisSerializer.isCompact(jsonWriter.serialize(game)));
+        assertSameGame((MakaoGame) jsonWriter.deserialize(serializer.serialize(game)), game);
+    }
+
+    @Test
+    public void otherValues_useJson() {
+        byte[] bytes = serializer.serialize("room-1");
+
+        Assert.assertFalse(CompactRedisSerializer.isCompact(bytes));
+        Assert.assertEquals(serializer.deserialize(bytes), "room-1");
+    }
+
+    @Test(expectedExceptions = SerializationException.class)
+    public void deserialize_rejectsNewerSchemaVersion() {
+        byte[] bytes = serializer.serialize(fullGame());
+        bytes[2] = (byte) (MakaoGameCodec.SCHEMA_VERSION + 1);
+
+        serializer.deserialize(bytes);
+    }
+
+    /**
+     * Size only; RedisSerializationBenchmark measures the speed of both encodings.
+     */
+    @Test
+    public void compactEncoding_isSmallerThanJson() {
+        MakaoGame game = fullGame();
+
+        byte[] compact = serializer.serialize(game);
+        byte[] legacy = json.serialize(game);
+        Assert.assertTrue(compact.length * 10 < legacy.length,
+                "compact=" + compact.length + " bytes, json=" + legacy.length + " bytes");
+    }
+
+    private MakaoGame fullGame() {
+        Map<String, String> players = new LinkedHashMap<>();
+        players.put("p1", "Alice");
+        players.put("p2", "Bob");
+        Map<String, String> avatars = Map.of("p1", "avatar_1.png", "p2", "avatar_2.png");
+        return new MakaoGame("room-1", players, avatars, "p1", 8);
+    }
+
+    private void assertSameGame(MakaoGame actual, MakaoGame expected) {
+        Assert.assertEquals(actual.getRoomId(), expected.getRoomId());
+        Assert.assertEquals(actual.getGameId(), expected.getGameId());
+        Assert.assertEquals(actual.getStatus(), expected.getStatus());
+        Assert.assertEquals(actual.getMaxPlayers(), expected.getMaxPlayers());
+        Assert.assertEquals(actual.getPlayersOrderIds(), expected.getPlayersOrderIds());
+        Assert.assertEquals(actual.getActivePlayerId(), expected.getActivePlayerId());
+        Assert.assertEquals(actual.getPlayersHands(), expected.getPlayersHands());
+        Assert.assertEquals(actual.getDrawDeck().getCards(), expected.getDrawDeck().getCards());
+        Assert.assertEquals(actual.getDiscardDeck().getCards(), expected.getDiscardDeck().getCards());
+        Assert.assertEquals(actual.getCurrentCard(), expected.getCurrentCard());
+        Assert.assertEquals(actual.getDrawnCard(), expected.getDrawnCard());
+        Assert.assertEquals(actual.getPlayersUsernames(), expected.getPlayersUsernames());
+        Assert.assertEquals(actual.getPlayersAvatars(), expected.getPlayersAvatars());
+        Assert.assertEquals(actual.getPlayersSkipTurns(), expected.getPlayersSkipTurns());
+        Assert.assertEquals(actual.getDemandedRank(), expected.getDemandedRank());
+        Assert.assertEquals(actual.getDemandedSuit(), expected.getDemandedSuit());
+        Assert.assertEquals(actual.getPendingDrawCount(), expected.getPendingDrawCount());
+        Assert.assertEquals(actual.getRanking(), expected.getRanking());
+        Assert.assertEquals(actual.getBotCounter(), expected.getBotCounter());
+        Assert.assertEquals(actual.getTurnStartTime(), expected.getTurnStartTime());
+        Assert.assertEquals(actual.getLastMoveLog(), expected.getLastMoveLog());
+        Assert.assertEquals(actual.getMoveHistory(), expected.getMoveHistory());
+    }
+}
@@ -1,20 +1,24 @@
 package com.online_games_service.makao.repository.redis;
 
 import com.online_games_service.makao.model.MakaoGame;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ValueOperations;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -32,11 +36,16 @@ public class MakaoGameRedisRepositoryTest {
 
     private MakaoGameRedisRepository repository;
     private final String KEY_PREFIX = "makao:game:";
+    private final String VERSION_KEY = MakaoGameRedisRepository.VERSION_KEY_PREFIX;
 
     @BeforeMethod
     public void setUp() {
         MockitoAnnotations.openMocks(this);
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        // Run transaction callbacks against the same mocked operations
+        when(redisTemplate.execute(any(SessionCallback.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, SessionCallback.class).execute(redisTemplate));
+        when(redisTemplate.exec()).thenReturn(List.of(true, 1L, true));
         repository = new MakaoGameRedisRepository(redisTemplate, KEY_PREFIX);
     }
 
@@ -53,7 +62,58 @@ public class MakaoGameRedisRepositoryTest {
         MakaoGame savedGame = repository.save(game);
 
         Assert.assertEquals(savedGame, game);
-        verify(valueOperations).set(eq(KEY_PREFIX + "game1"), eq(game), eq(3600L), eq(TimeUnit.SECONDS));
+        InOrder inOrder = inOrder(redisTemplate, valueOperations);
+        inOrder.verify(redisTemplate).multi();
+        inOrder.verify(valueOperations).set(eq(KEY_PREFIX + "game1"), eq(game), eq(3600L), eq(TimeUnit.SECONDS));
+        inOrder.verify(valueOperations).increment(VERSION_KEY + "game1");
+        inOrder.verify(redisTemplate).expire(VERSION_KEY + "game1", 3600L, TimeUnit.SECONDS);
+        inOrder.verify(redisTemplate).exec();
+    }
+
+    @Test
+    public void testSaveIfVersion_WritesWhenVersionIsUnchanged() {
+        MakaoGame game = new MakaoGame();
+        game.setRoomId("game1");
+        when(valueOperations.get(VERSION_KEY + "game1")).thenReturn(4);
+
+        long version = repository.saveIfVersion(game, 4);
+
+        Assert.assertEquals(version, 5);
+        InOrder inOrder = inOrder(redisTemplate, valueOperations);
+        inOrder.verify(redisTemplate).watch(VERSION_KEY + "game1");
+        inOrder.verify(redisTemplate).multi();
+        inOrder.verify(valueOperations).set(eq(KEY_PREFIX + "game1"), eq(game), eq(3600L), eq(TimeUnit.SECONDS));
+        inOrder.verify(valueOperations).increment(VERSION_KEY + "game1");
+    }
+
+    @Test
+    public void testSaveIfVersion_SkipsWriteAfterAnotherWrite() {
+        MakaoGame game = new MakaoGame();
+        game.setRoomId("game1");
+        when(valueOperations.get(VERSION_KEY + "game1")).thenReturn(5L);
+
+        Assert.assertEquals(repository.saveIfVersion(game, 4), -1);
+
+        verify(redisTemplate).unwatch();
+        verify(redisTemplate, never()).multi();
+        verify(valueOperations, never()).set(anyString(), any(), anyLong(), any());
+    }
+
+    @Test
+    public void testSaveIfVersion_ConflictWhenVersionChangesBeforeExec() {
+        MakaoGame game = new MakaoGame();
+        game.setRoomId("game1");
+        when(redisTemplate.exec()).thenReturn(List.of());
+
+        Assert.assertEquals(repository.saveIfVersion(game, 0), -1);
+    }
+
+    @Test
+    public void testGetVersion() {
+        when(valueOperations.get(VERSION_KEY + "game1")).thenReturn(7);
+
+        Assert.assertEquals(repository.getVersion("game1"), 7);
+        Assert.assertEquals(repository.getVersion("game2"), 0);
     }
 
     @Test
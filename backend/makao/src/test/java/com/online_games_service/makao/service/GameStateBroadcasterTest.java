@@ -0,0 +1,225 @@
+package com.online_games_service.makao.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_games_service.common.enums.CardRank;
+import com.online_games_service.common.enums.CardSuit;
+import com.online_games_service.common.enums.RoomStatus;
+import com.online_games_service.common.model.Card;
+import com.online_games_service.makao.dto.GameStateMessage;
+import com.online_games_service.makao.dto.PlayerCardView;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class GameStateBroadcasterTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GameStateBroadcaster broadcaster;
+    private AutoCloseable mocks;
+
+    @BeforeMethod
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        broadcaster = new GameStateBroadcaster(messagingTemplate);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        if (mocks != null) {
+            mocks.close();
+        }
+    }
+
+    @Test
+    public void firstBroadcast_sendsSnapshotToEveryPlayer() {
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+
+        GameStateMessage toP1 = lastSnapshot("p1");
+        GameStateMessage toP2 = lastSnapshot("p2");
+        Assert.assertEquals(toP1.getSeq(), 1L);
+        Assert.assertEquals(toP2.getSeq(), 1L);
+        Assert.assertEquals(toP1.getLastMoveLog(), "first move");
+    }
+
+    @Test
+    public void nextBroadcast_sendsOnlyChangedFields() {
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+        broadcaster.broadcast(state("p2", "second move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX, CardRank.SEVEN)));
+
+        JsonNode toP1 = lastDelta("p1");
+        Assert.assertEquals(toP1.get("seq").asLong(), 2L);
+        Assert.assertEquals(fieldNames(toP1.get("changes")), List.of("activePlayerId", "lastMoveLog"));
+        Assert.assertEquals(toP1.get("changes").get("activePlayerId").asText(), "p2");
+
+        JsonNode toP2 = lastDelta("p2");
+        Assert.assertEquals(toP2.get("seq").asLong(), 2L);
+        Assert.assertEquals(fieldNames(toP2.get("changes")), List.of("activePlayerId", "lastMoveLog", "myCards"));
+    }
+
+    @Test
+    public void deltaWithOnlyHandChange_isValidJson() {
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE, CardRank.NINE), hand(CardRank.SIX)));
+
+        JsonNode toP1 = lastDelta("p1");
+        Assert.assertEquals(fieldNames(toP1.get("changes")), List.of("myCards"));
+        Assert.assertEquals(toP1.get("changes").get("myCards").size(), 2);
+        verify(messagingTemplate, times(1)).send(eq("/topic/makao/p2"), any(Message.class));
+    }
+
+    @Test
+    public void snapshot_carriesHandAndPublicState() {
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE, CardRank.NINE), hand(CardRank.SIX)));
+
+        GameStateMessage toP1 = lastSnapshot("p1");
+        Assert.assertEquals(toP1.getRoomId(), "room-1");
+        Assert.assertEquals(toP1.getMyCards().size(), 2);
+        Assert.assertEquals(toP1.getCurrentCard(), new Card(CardSuit.HEARTS, CardRank.TEN));
+        Assert.assertEquals(toP1.getPlayersCardsAmount(), Map.of("p1", 1, "p2", 1));
+    }
+
+    @Test
+    public void unchangedState_isNotSentAgain() {
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+
+        verify(messagingTemplate, times(1)).send(eq("/topic/makao/p1"), any(Message.class));
+    }
+
+    @Test
+    public void changeInMutatedCollection_isDetected() {
+        GameStateMessage state = state("p1", "first move");
+        List<String> history = new ArrayList<>(List.of("first move"));
+        state.setMoveHistory(history);
+        broadcaster.broadcast(state, cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+
+        history.add("second move");
+        GameStateMessage next = state("p1", "first move");
+        next.setMoveHistory(history);
+        broadcaster.broadcast(next, cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+
+        JsonNode toP1 = lastDelta("p1");
+        Assert.assertEquals(toP1.get("changes").get("moveHistory").toString(), "[\"first move\",\"second move\"]");
+    }
+
+    @Test
+    public void resync_sendsSnapshotContinuingSequence() {
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+        broadcaster.resync(state("p2", "second move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)), "p1");
+
+        GameStateMessage toP1 = lastSnapshot("p1");
+        Assert.assertEquals(toP1.getSeq(), 2L);
+        Assert.assertEquals(toP1.getActivePlayerId(), "p2");
+
+        Assert.assertEquals(lastDelta("p2").get("seq").asLong(), 2L);
+    }
+
+    @Test
+    public void forgetRoom_restartsWithSnapshot() {
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+        broadcaster.forgetRoom("room-1");
+        Assert.assertEquals(broadcaster.trackedRooms(), 0);
+
+        broadcaster.broadcast(state("p2", "second move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+
+        GameStateMessage toP1 = lastSnapshot("p1");
+        Assert.assertEquals(toP1.getSeq(), 1L);
+    }
+
+    @Test
+    public void delta_hasTheEnvelopeClientsParse() {
+        broadcaster.broadcast(state("p1", "first move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+        broadcaster.broadcast(state("p2", "first move"), cards(hand(CardRank.FIVE), hand(CardRank.SIX)));
+
+        Assert.assertEquals(lastFrame("p1"),
+                "{\"type\":\"STATE_DELTA\",\"roomId\":\"room-1\",\"seq\":2,\"changes\":{\"activePlayerId\":\"p2\"}}");
+    }
+
+    private GameStateMessage lastSnapshot(String playerId) {
+        JsonNode json = lastMessage(playerId);
+        Assert.assertFalse(json.has("type"), "Expected a snapshot but got " + json);
+        try {
+            return objectMapper.treeToValue(json, GameStateMessage.class);
+        } catch (IOException e) {
+            throw new AssertionError("Snapshot does not match GameStateMessage: " + json, e);
+        }
+    }
+
+    private JsonNode lastDelta(String playerId) {
+        JsonNode json = lastMessage(playerId);
+        Assert.assertEquals(fieldNames(json), List.of("type", "roomId", "seq", "changes"));
+        Assert.assertEquals(json.get("type").asText(), "STATE_DELTA");
+        Assert.assertEquals(json.get("roomId").asText(), "room-1");
+        return json;
+    }
+
+    private JsonNode lastMessage(String playerId) {
+        String frame = lastFrame(playerId);
+        try {
+            return objectMapper.readTree(frame);
+        } catch (IOException e) {
+            throw new AssertionError("Frame is not valid JSON: " + frame, e);
+        }
+    }
+
+    private static List<String> fieldNames(JsonNode json) {
+        List<String> names = new ArrayList<>();
+        json.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String lastFrame(String playerId) {
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass((Class) Message.class);
+        verify(messagingTemplate, atLeastOnce()).send(eq("/topic/makao/" + playerId), captor.capture());
+        List<Message<?>> values = captor.getAllValues();
+        return new String((byte[]) values.get(values.size() - 1).getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private GameStateMessage state(String activePlayerId, String lastMoveLog) {
+        GameStateMessage state = new GameStateMessage();
+        state.setRoomId("room-1");
+        state.setActivePlayerId(activePlayerId);
+        state.setCurrentCard(new Card(CardSuit.HEARTS, CardRank.TEN));
+        state.setStatus(RoomStatus.PLAYING);
+        state.setLastMoveLog(lastMoveLog);
+        state.setPlayersCardsAmount(Map.of("p1", 1, "p2", 1));
+        return state;
+    }
+
+    private Map<String, List<PlayerCardView>> cards(List<PlayerCardView> p1, List<PlayerCardView> p2) {
+        Map<String, List<PlayerCardView>> cards = new LinkedHashMap<>();
+        cards.put("p1", p1);
+        cards.put("p2", p2);
+        return cards;
+    }
+
+    private List<PlayerCardView> hand(CardRank... ranks) {
+        List<PlayerCardView> hand = new ArrayList<>();
+        for (CardRank rank : ranks) {
+            hand.add(new PlayerCardView(new Card(CardSuit.CLUBS, rank), false));
+        }
+        return hand;
+    }
+}
@@ -1,5 +1,9 @@
 package com.online_games_service.makao.service;
 
+import com.online_games_service.common.concurrent.RedisTimerQueue;
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.common.concurrent.RoomLeases;
+import com.online_games_service.common.concurrent.TimingWheelScheduler;
 import com.online_games_service.common.enums.CardRank;
 import com.online_games_service.common.enums.CardSuit;
 import com.online_games_service.common.enums.RoomStatus;
@@ -9,6 +13,7 @@ import com.online_games_service.makao.dto.PlayCardRequest;
 import com.online_games_service.makao.dto.PlayerTimeoutMessage;
 import com.online_games_service.makao.model.MakaoDeck;
 import com.online_games_service.makao.model.MakaoGame;
+import com.online_games_service.makao.repository.cache.MakaoGameStateCache;
 import com.online_games_service.makao.repository.mongo.MakaoGameResultRepository;
 import com.online_games_service.makao.repository.redis.MakaoGameRedisRepository;
 import org.mockito.ArgumentCaptor;
@@ -29,10 +34,18 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -41,6 +54,7 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertThrows;
 
 public class MakaoGameServiceTest {
 
@@ -58,8 +72,14 @@ public class MakaoGameServiceTest {
 	private TopicExchange topicExchange;
 	@Mock
 	private SimpMessagingTemplate messagingTemplate;
+	@Mock
+	private RedisTimerQueue turnTimers;
+	@Mock
+	private RoomLeases roomLeases;
 
 	private MakaoGameService service;
+	private RoomActorExecutor roomExecutor;
+	private TimingWheelScheduler roomTimers;
 	private AutoCloseable mocks;
 
 	@BeforeMethod
@@ -67,13 +87,22 @@ public class MakaoGameServiceTest {
 		mocks = MockitoAnnotations.openMocks(this);
 		when(topicExchange.getName()).thenReturn("exchange");
 		when(redisTemplate.opsForValue()).thenReturn(valueOps);
+		when(roomLeases.getLeaseMs()).thenReturn(60_000L);
+		when(roomLeases.acquire(any())).thenReturn(RoomLeases.LeaseState.ACQUIRED);
+		when(roomLeases.keyOf(anyString())).thenAnswer(i -> "makao:room-owner:" + i.getArgument(0));
+		roomExecutor = new RoomActorExecutor("test-room");
+		roomTimers = new TimingWheelScheduler("test-timer", 10);
 		service = new MakaoGameService(
-				gameRepository,
+				new MakaoGameStateCache(gameRepository, roomLeases, roomExecutor, MakaoGameStateCache.DurabilityMode.WRITE_THROUGH, 1000, 600),
 				gameResultRepository,
 				redisTemplate,
 				rabbitTemplate,
 				topicExchange,
-				messagingTemplate);
+				messagingTemplate,
+				roomExecutor,
+				roomTimers,
+				turnTimers,
+				new GameStateBroadcaster(messagingTemplate));
 		ReflectionTestUtils.setField(service, "finishRoutingKey", "finish.key");
 		ReflectionTestUtils.setField(service, "leaveRoutingKey", "leave.key");
 		ReflectionTestUtils.setField(service, "turnTimeoutSeconds", 60L);
@@ -84,6 +113,12 @@ public class MakaoGameServiceTest {
 		if (mocks != null) {
 			mocks.close();
 		}
+		if (roomTimers != null) {
+			roomTimers.close();
+		}
+		if (roomExecutor != null) {
+			roomExecutor.close();
+		}
 	}
 
 	@Test
@@ -151,6 +186,43 @@ public class MakaoGameServiceTest {
 		assertTrue(playable.contains(new Card(CardSuit.HEARTS, CardRank.TWO)));
 	}
 
+	@Test
+	public void isPlayable_appliesQueenRules() {
+		MakaoGame onQueen = baseGameWithTopCard(new Card(CardSuit.HEARTS, CardRank.QUEEN));
+		assertTrue(ReflectionTestUtils.invokeMethod(service, "isPlayable", onQueen, new Card(CardSuit.CLUBS, CardRank.NINE)));
+		assertTrue(ReflectionTestUtils.invokeMethod(service, "isPlayable", onQueen, new Card(CardSuit.CLUBS, CardRank.KING)));
+		assertFalse(ReflectionTestUtils.invokeMethod(service, "isPlayable", onQueen, new Card(CardSuit.SPADES, CardRank.KING)));
+		assertFalse(ReflectionTestUtils.invokeMethod(service, "isPlayable", onQueen, new Card(CardSuit.CLUBS, CardRank.ACE)));
+		assertTrue(ReflectionTestUtils.invokeMethod(service, "isPlayable", onQueen, new Card(CardSuit.HEARTS, CardRank.ACE)));
+
+		MakaoGame onNine = baseGameWithTopCard(new Card(CardSuit.DIAMONDS, CardRank.NINE));
+		assertTrue(ReflectionTestUtils.invokeMethod(service, "isPlayable", onNine, new Card(CardSuit.CLUBS, CardRank.QUEEN)));
+
+		MakaoGame onCombatKing = baseGameWithTopCard(new Card(CardSuit.SPADES, CardRank.KING));
+		assertFalse(ReflectionTestUtils.invokeMethod(service, "isPlayable", onCombatKing, new Card(CardSuit.CLUBS, CardRank.QUEEN)));
+		assertTrue(ReflectionTestUtils.invokeMethod(service, "isPlayable", onCombatKing, new Card(CardSuit.SPADES, CardRank.QUEEN)));
+	}
+
+	@Test
+	public void gatherPlayableCards_keepsHandOrderAndDuplicates() {
+		MakaoGame game = baseGameWithTopCard(new Card(CardSuit.HEARTS, CardRank.FIVE));
+		game.setDemandedSuit(CardSuit.CLUBS);
+		Map<String, List<Card>> hands = new HashMap<>();
+		hands.put("p1", new ArrayList<>(List.of(
+				new Card(CardSuit.CLUBS, CardRank.SIX),
+				new Card(CardSuit.HEARTS, CardRank.SIX),
+				new Card(CardSuit.SPADES, CardRank.ACE),
+				new Card(CardSuit.CLUBS, CardRank.SIX))));
+		game.setPlayersHands(hands);
+
+		List<Card> playable = ReflectionTestUtils.invokeMethod(service, "gatherPlayableCards", game, "p1");
+
+		assertEquals(playable, List.of(
+				new Card(CardSuit.CLUBS, CardRank.SIX),
+				new Card(CardSuit.SPADES, CardRank.ACE),
+				new Card(CardSuit.CLUBS, CardRank.SIX)));
+	}
+
 	@Test
 	public void drawWithRecycle_reusesDiscardPile() {
 		MakaoGame game = new MakaoGame();
@@ -216,7 +288,6 @@ public class MakaoGameServiceTest {
 		game.setDrawDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.HEARTS, CardRank.THREE)))));
 
 		when(gameRepository.findById("room-1")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		ReflectionTestUtils.invokeMethod(service, "handleTurnTimeout", "room-1", "p1");
 
@@ -234,18 +305,88 @@ public class MakaoGameServiceTest {
 		game.setActivePlayerId("user-1");
 
 		ReflectionTestUtils.invokeMethod(service, "scheduleTurnTimeout", game);
-		Map<?, ?> timeouts = (Map<?, ?>) ReflectionTestUtils.getField(service, "turnTimeouts");
-		assertTrue(timeouts.isEmpty());
+		verify(turnTimers, never()).schedule(anyString(), anyString(), anyLong(), any(TimeUnit.class), anyString());
 
 		game.setStatus(RoomStatus.PLAYING);
 		game.setActivePlayerId("bot-1");
 		ReflectionTestUtils.invokeMethod(service, "scheduleTurnTimeout", game);
-		assertTrue(timeouts.isEmpty());
+		verify(turnTimers, never()).schedule(anyString(), anyString(), anyLong(), any(TimeUnit.class), anyString());
+		verify(turnTimers, times(2)).cancel("room-2");
 
 		game.setActivePlayerId("user-2");
 		ReflectionTestUtils.invokeMethod(service, "scheduleTurnTimeout", game);
-		assertFalse(timeouts.isEmpty());
-		ReflectionTestUtils.invokeMethod(service, "cancelTurnTimeout", "room-2");
+		verify(turnTimers).schedule("room-2", "user-2|" + game.getTurnStartTime(), 60L, TimeUnit.SECONDS,
+				"makao:room-owner:room-2");
+	}
+
+	@Test
+	public void turnTimer_ignoresTimerFromPreviousTurn() throws Exception {
+		MakaoGame game = new MakaoGame();
+		game.setRoomId("room-1");
+		game.setStatus(RoomStatus.PLAYING);
+		game.setActivePlayerId("p1");
+		game.setTurnStartTime(2_000L);
+		when(gameRepository.findById("room-1")).thenReturn(Optional.of(game));
+
+		CompletionStage<?> fired = ReflectionTestUtils.invokeMethod(service, "onTurnTimerDue", "room-1", "p1|1000");
+		fired.toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+		assertEquals(game.getActivePlayerId(), "p1");
+		verify(gameRepository, never()).saveIfVersion(any(), anyLong());
+	}
+
+	@Test
+	public void turnTimer_failsSoTheTimerIsRetried() {
+		MakaoGame game = botGame("room-1");
+		game.setActivePlayerId("human-1");
+		game.setTurnStartTime(1_000L);
+		when(gameRepository.findById("room-1")).thenReturn(Optional.of(game));
+		when(gameRepository.saveIfVersion(any(), anyLong())).thenThrow(new RuntimeException("Redis unavailable"));
+
+		CompletionStage<?> fired = ReflectionTestUtils.invokeMethod(service, "onRoomTimerDue", "room-1", "human-1|1000");
+
+		assertThrows(ExecutionException.class, () -> fired.toCompletableFuture().get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void scheduleBotMove_isBackedByDurableTimer() {
+		MakaoGame game = botGame("room-bot-timer");
+		when(gameRepository.findById("room-bot-timer")).thenReturn(Optional.of(game));
+		ReflectionTestUtils.setField(service, "botDelayMinMs", 60_000L);
+		ReflectionTestUtils.setField(service, "botDelayMaxMs", 60_000L);
+
+		ReflectionTestUtils.invokeMethod(service, "scheduleBotMove", "room-bot-timer", "bot-1", new ArrayList<Card>());
+
+		assertEquals(game.getBotThinkingPlayerId(), "bot-1");
+		verify(turnTimers).schedule(eq("makao:bot:room-bot-timer"), startsWith("bot-1|"), eq(65_000L),
+				eq(TimeUnit.MILLISECONDS), eq("makao:room-owner:room-bot-timer"));
+	}
+
+	@Test
+	public void botTimer_makesMoveTheWheelNeverMade() throws Exception {
+		MakaoGame game = botGame("room-bot-timer");
+		game.setBotThinkingPlayerId("bot-1");
+		when(gameRepository.findById("room-bot-timer")).thenReturn(Optional.of(game));
+
+		CompletionStage<?> fired = ReflectionTestUtils.invokeMethod(service, "onRoomTimerDue",
+				"makao:bot:room-bot-timer", "bot-1|1000");
+		fired.toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+		assertNull(game.getBotThinkingPlayerId());
+		assertEquals(game.getActivePlayerId(), "human-1");
+	}
+
+	@Test
+	public void botTimer_isIgnoredOnceTheBotMoved() throws Exception {
+		MakaoGame game = botGame("room-bot-timer");
+		when(gameRepository.findById("room-bot-timer")).thenReturn(Optional.of(game));
+
+		CompletionStage<?> fired = ReflectionTestUtils.invokeMethod(service, "onRoomTimerDue",
+				"makao:bot:room-bot-timer", "bot-1|1000");
+		fired.toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+		assertEquals(game.getActivePlayerId(), "bot-1");
+		verify(gameRepository, never()).saveIfVersion(any(), anyLong());
 	}
 
 	@Test
@@ -269,7 +410,6 @@ public class MakaoGameServiceTest {
 		req.setCardSuit(CardSuit.HEARTS);
 
 		when(gameRepository.findById("room-1")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		service.playCard(req, userId);
 
@@ -294,7 +434,6 @@ public class MakaoGameServiceTest {
 		game.setPlayersSkipTurns(new HashMap<String, Integer>(Map.of(userId, 0)));
 
 		when(gameRepository.findById("room-1")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		DrawCardResponse response = service.drawCard(userId);
 
@@ -325,7 +464,6 @@ public class MakaoGameServiceTest {
 		game.setDrawDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.SPADES, CardRank.THREE)))));
 
 		when(gameRepository.findById("room-1")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		DrawCardResponse response = service.drawCard(userId);
 
@@ -457,7 +595,6 @@ public class MakaoGameServiceTest {
 		game.setPendingDrawCount(2);
 
 		when(gameRepository.findById("room-1")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		service.acceptEffect(userId);
 
@@ -513,7 +650,6 @@ public class MakaoGameServiceTest {
 		game.setDrawnCard(new Card(CardSuit.CLUBS, CardRank.JACK));
 
 		when(gameRepository.findById("room-1")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		service.skipDrawnCard(userId);
 
@@ -572,7 +708,6 @@ public class MakaoGameServiceTest {
 		game.setDrawnCard(new Card(CardSuit.HEARTS, CardRank.FIVE));
 
 		when(gameRepository.findById("room-1")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		MakaoGameService spyService = org.mockito.Mockito.spy(service);
 		doReturn(game).when(spyService).playCard(any(PlayCardRequest.class), eq(userId));
@@ -604,14 +739,11 @@ public class MakaoGameServiceTest {
 		game.setDrawDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.CLUBS, CardRank.SEVEN)))));
 
 		when(gameRepository.findById("room-3")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		service.initializeGameAfterStart("room-3");
 
 		assertFalse(game.getActivePlayerPlayableCards().isEmpty());
-		Map<?, ?> timeouts = (Map<?, ?>) ReflectionTestUtils.getField(service, "turnTimeouts");
-		assertFalse(timeouts.isEmpty());
-		ReflectionTestUtils.invokeMethod(service, "cancelTurnTimeout", "room-3");
+		verify(turnTimers).schedule(eq("room-3"), startsWith("human-1|"), anyLong(), eq(TimeUnit.SECONDS), anyString());
 	}
 
 	@Test
@@ -847,7 +979,6 @@ public class MakaoGameServiceTest {
 		game.setDiscardDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.HEARTS, CardRank.FIVE)))));
 
 		when(gameRepository.findById("room-x")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		ReflectionTestUtils.invokeMethod(service, "playCardAsBot", game, "bot-1",
 				new Card(CardSuit.HEARTS, CardRank.FIVE), null, null);
@@ -947,7 +1078,6 @@ public class MakaoGameServiceTest {
 		game.setPlayersSkipTurns(new HashMap<String, Integer>(Map.of("bot-1", 0, "bot-2", 0)));
 		game.setDiscardDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.SPADES, CardRank.NINE)))));
 
-		doReturn(game).when(gameRepository).save(game);
 
 		ReflectionTestUtils.invokeMethod(service, "nextTurn", game);
 
@@ -1062,7 +1192,6 @@ public class MakaoGameServiceTest {
 		game.setTurnRemainingSeconds(0);
 
 		when(gameRepository.findById("room-timer-4")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		ReflectionTestUtils.invokeMethod(service, "handleTurnTimeout", "room-timer-4", "p1");
 
@@ -1138,7 +1267,6 @@ public class MakaoGameServiceTest {
 		game.setDrawDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.HEARTS, CardRank.THREE)))));
 
 		when(gameRepository.findById("room-notify")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		ReflectionTestUtils.invokeMethod(service, "handleTurnTimeout", "room-notify", "player-to-kick");
 
@@ -1198,7 +1326,6 @@ public class MakaoGameServiceTest {
 		game.setDrawDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.HEARTS, CardRank.THREE)))));
 
 		when(gameRepository.findById("room-cleanup")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		ReflectionTestUtils.invokeMethod(service, "handleTurnTimeout", "room-cleanup", "timeout-player");
 
@@ -1210,34 +1337,50 @@ public class MakaoGameServiceTest {
 	}
 
 	@Test
-	@SuppressWarnings("unchecked")
-	public void endGame_clearsGameInProgressMap() {
-		MakaoGame game = new MakaoGame();
-		game.setRoomId("room-end-cleanup");
+	public void concurrentDrawCard_isSerializedPerRoom() throws Exception {
+		MakaoGame game = baseGameWithTopCard(new Card(CardSuit.SPADES, CardRank.NINE));
+		game.setRoomId("room-serial");
 		game.setStatus(RoomStatus.PLAYING);
-		game.setPlayersOrderIds(new ArrayList<>(List.of("p1")));
+		game.setActivePlayerId("p1");
+		game.setPlayersOrderIds(new ArrayList<>(List.of("p1", "p2")));
 		Map<String, List<Card>> hands = new HashMap<>();
 		hands.put("p1", new ArrayList<>());
+		hands.put("p2", new ArrayList<>());
 		game.setPlayersHands(hands);
-		game.setPlayersUsernames(new HashMap<String, String>(Map.of("p1", "Player1")));
-		game.setDiscardDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.SPADES, CardRank.NINE)))));
-
-		doReturn(game).when(gameRepository).save(game);
-
-		// Simulate that gameInProgress has an entry for this room
-		Map<String, java.util.concurrent.atomic.AtomicBoolean> gameInProgress = 
-				(Map<String, java.util.concurrent.atomic.AtomicBoolean>) ReflectionTestUtils.getField(service, "gameInProgress");
-		assertNotNull(gameInProgress);
-
-		// Add an entry
-		gameInProgress.put("room-end-cleanup", new java.util.concurrent.atomic.AtomicBoolean(false));
-		assertTrue(gameInProgress.containsKey("room-end-cleanup"));
+		game.setPlayersSkipTurns(new HashMap<>(Map.of("p1", 0, "p2", 0)));
+		game.setDrawDeck(new MakaoDeck(new ArrayList<>(List.of(
+				new Card(CardSuit.SPADES, CardRank.FIVE),
+				new Card(CardSuit.SPADES, CardRank.SIX)))));
 
-		// End the game
-		ReflectionTestUtils.invokeMethod(service, "endGame", game);
+		when(valueOps.get("game:user-room:id:p1")).thenReturn("room-serial");
+		when(gameRepository.findById("room-serial")).thenReturn(Optional.of(game));
 
-		// Verify the entry was removed
-		assertFalse(gameInProgress.containsKey("room-end-cleanup"));
+		java.util.concurrent.ExecutorService callers = java.util.concurrent.Executors.newFixedThreadPool(2);
+		try {
+			java.util.concurrent.Callable<Boolean> draw = () -> {
+				try {
+					service.drawCard("p1");
+					return true;
+				} catch (IllegalStateException e) {
+					return false;
+				}
+			};
+			List<java.util.concurrent.Future<Boolean>> results = callers.invokeAll(List.of(draw, draw));
+			int succeeded = 0;
+			for (java.util.concurrent.Future<Boolean> result : results) {
+				if (result.get()) {
+					succeeded++;
+				}
+			}
+
+			// The second draw must observe the first one and be rejected
+			assertEquals(succeeded, 1);
+			assertEquals(game.getPlayersHands().get("p1").size(), 1);
+			assertEquals(game.getDrawDeck().size(), 1);
+		} finally {
+			callers.shutdownNow();
+			ReflectionTestUtils.invokeMethod(service, "cancelTurnTimeout", "room-serial");
+		}
 	}
 
 	@Test
@@ -1316,7 +1459,6 @@ public class MakaoGameServiceTest {
 		game.setDiscardDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.SPADES, CardRank.FIVE)))));
 
 		when(gameRepository.findById("force-end-room")).thenReturn(Optional.of(game));
-		doReturn(game).when(gameRepository).save(game);
 
 		com.online_games_service.makao.dto.EndGameRequest request = new com.online_games_service.makao.dto.EndGameRequest();
 		request.setRoomId("force-end-room");
@@ -1386,7 +1528,7 @@ public class MakaoGameServiceTest {
 
 		service.sendCurrentStateToPlayer("p1");
 
-		verify(messagingTemplate).convertAndSend(eq("/topic/makao/p1"), any(com.online_games_service.makao.dto.GameStateMessage.class));
+		verify(messagingTemplate).send(eq("/topic/makao/p1"), any(org.springframework.messaging.Message.class));
 	}
 
 	@Test
@@ -1462,7 +1604,7 @@ public class MakaoGameServiceTest {
 
 		service.handlePlayerLeave("p1");
 
-		verify(gameRepository, org.mockito.Mockito.never()).save(any());
+		verify(gameRepository, org.mockito.Mockito.never()).saveIfVersion(any(), anyLong());
 	}
 
 	@Test
@@ -1477,7 +1619,7 @@ public class MakaoGameServiceTest {
 
 		service.handlePlayerLeave("p1");
 
-		verify(gameRepository, org.mockito.Mockito.never()).save(any());
+		verify(gameRepository, org.mockito.Mockito.never()).saveIfVersion(any(), anyLong());
 	}
 
 	@Test
@@ -1492,7 +1634,7 @@ public class MakaoGameServiceTest {
 
 		service.handlePlayerLeave("p1");
 
-		verify(gameRepository, org.mockito.Mockito.never()).save(any());
+		verify(gameRepository, org.mockito.Mockito.never()).saveIfVersion(any(), anyLong());
 	}
 
 	@Test
@@ -1508,7 +1650,6 @@ public class MakaoGameServiceTest {
 		game.setDiscardDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.SPADES, CardRank.NINE)))));
 
 		when(gameRepository.findById("timeout-leave-room")).thenReturn(Optional.of(game));
-		when(gameRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
 		ReflectionTestUtils.invokeMethod(service, "handleTurnTimeout", "timeout-leave-room", "timeout-player");
 
@@ -1531,4 +1672,21 @@ public class MakaoGameServiceTest {
 		game.setPlayersHands(hands);
 		return game;
 	}
+
+	private MakaoGame botGame(String roomId) {
+		MakaoGame game = new MakaoGame();
+		game.setRoomId(roomId);
+		game.setStatus(RoomStatus.PLAYING);
+		game.setActivePlayerId("bot-1");
+		game.setPlayersOrderIds(new ArrayList<>(List.of("bot-1", "human-1")));
+		Map<String, List<Card>> hands = new HashMap<>();
+		hands.put("bot-1", new ArrayList<>(List.of(new Card(CardSuit.HEARTS, CardRank.FIVE), new Card(CardSuit.SPADES, CardRank.KING))));
+		hands.put("human-1", new ArrayList<>(List.of(new Card(CardSuit.CLUBS, CardRank.SEVEN))));
+		game.setPlayersHands(hands);
+		game.setPlayersSkipTurns(new HashMap<String, Integer>(Map.of("bot-1", 0, "human-1", 0)));
+		game.setPlayersUsernames(new HashMap<String, String>(Map.of("bot-1", "Bot", "human-1", "Human")));
+		game.setDiscardDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.HEARTS, CardRank.NINE)))));
+		game.setDrawDeck(new MakaoDeck(new ArrayList<>(List.of(new Card(CardSuit.CLUBS, CardRank.THREE)))));
+		return game;
+	}
 }
@@ -17,7 +17,8 @@ public class FilterConfig {
 
         registrationBean.setFilter(filter);
 
-        registrationBean.addUrlPatterns("/create", "/join", "/start", "/leave", "/room-info", "/kick-player", "/ready", "/update-avatar");
+        registrationBean.addUrlPatterns("/create", "/join", "/start", "/leave", "/room-info", "/kick-player", "/ready", "/update-avatar",
+                "/rooms", "/matchmaking/*");
 
         registrationBean.setOrder(1);
 
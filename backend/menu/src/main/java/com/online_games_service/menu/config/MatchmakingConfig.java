@@ -0,0 +1,48 @@
+package com.online_games_service.menu.config;
+
+import com.online_games_service.common.enums.GameType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "menu.matchmaking")
+@Data
+public class MatchmakingConfig {
+
+    private static final int DEFAULT_ROOM_SIZE = 4;
+
+    private boolean enabled = true;
+
+    // How often queued tickets are grouped into rooms
+    private long tickMs = 1000;
+
+    // Oldest tickets considered per game type and tick
+    private int batchSize = 500;
+
+    private Map<GameType, Integer> roomSizes = new EnumMap<>(GameType.class);
+
+    // After this long a ticket is started with whoever fits and bots take the remaining seats
+    private long botBackfillAfterSeconds = 30;
+
+    private Rating rating = new Rating();
+
+    @Data
+    public static class Rating {
+        private boolean enabled = false;
+        private String baseUrl = "http://statistical:8080";
+        private long timeoutMs = 500;
+        // Players with fewer games have no rating and can be matched with anyone
+        private int minGames = 5;
+        // Allowed win-ratio difference at enqueue time, widened the longer a ticket waits
+        private double initialSpread = 0.1;
+        private double spreadPerSecond = 0.01;
+    }
+
+    public int getRoomSizeFor(GameType type) {
+        return roomSizes.getOrDefault(type, DEFAULT_ROOM_SIZE);
+    }
+}
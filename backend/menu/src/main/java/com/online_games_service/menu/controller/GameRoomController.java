@@ -1,8 +1,10 @@
 package com.online_games_service.menu.controller;
 
+import com.online_games_service.common.enums.GameType;
 import com.online_games_service.menu.dto.CreateRoomRequest;
 import com.online_games_service.menu.dto.JoinGameRequest;
 import com.online_games_service.menu.dto.KickPlayerRequest;
+import com.online_games_service.menu.dto.LobbyPageResponse;
 import com.online_games_service.menu.dto.RoomInfoResponse;
 import com.online_games_service.menu.dto.UpdateAvatarRequest;
 import com.online_games_service.menu.model.GameRoom;
@@ -36,6 +38,22 @@ public class GameRoomController {
         return ResponseEntity.ok(gameRoomService.getPlayerRoomInfo(userId, username));
     }
 
+    @GetMapping("/rooms")
+    public ResponseEntity<LobbyPageResponse> getLobbyRooms(
+            @RequestParam GameType gameType,
+            @RequestParam(defaultValue = "1") int minFreeSeats,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestAttribute(value = "userId", required = false) String userId,
+            @RequestAttribute(value = "username", required = false) String username) {
+        if (userId == null || username == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(gameRoomService.getLobbyPage(gameType, minFreeSeats, namePrefix, page, size));
+    }
+
     @PostMapping("/create")
     public ResponseEntity<RoomInfoResponse> createRoom(
             @RequestBody @Valid CreateRoomRequest request,
@@ -0,0 +1,66 @@
+package com.online_games_service.menu.controller;
+
+import com.online_games_service.menu.dto.MatchmakingRequest;
+import com.online_games_service.menu.dto.MatchmakingStatusResponse;
+import com.online_games_service.menu.service.matchmaking.MatchmakingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/matchmaking")
+@RequiredArgsConstructor
+@Slf4j
+public class MatchmakingController {
+
+    private final MatchmakingService matchmakingService;
+
+    @PostMapping("/queue")
+    public ResponseEntity<MatchmakingStatusResponse> enqueue(
+            @RequestBody @Valid MatchmakingRequest request,
+            @RequestAttribute(value = "userId", required = false) String userId,
+            @RequestAttribute(value = "username", required = false) String username) {
+        if (userId == null || username == null) {
+            log.warn("Unauthorized attempt to join matchmaking (No session found)");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(MatchmakingStatusResponse.of(
+                matchmakingService.enqueue(request.getGameType(), userId, username)));
+    }
+
+    @GetMapping("/queue")
+    public ResponseEntity<MatchmakingStatusResponse> getStatus(
+            @RequestAttribute(value = "userId", required = false) String userId,
+            @RequestAttribute(value = "username", required = false) String username) {
+        if (userId == null || username == null)
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        return ResponseEntity.ok(MatchmakingStatusResponse.of(matchmakingService.getTicket(userId)));
+    }
+
+    @DeleteMapping("/queue")
+    public ResponseEntity<Map<String, String>> cancel(
+            @RequestAttribute(value = "userId", required = false) String userId,
+            @RequestAttribute(value = "username", required = false) String username) {
+        if (userId == null || username == null)
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        boolean removed = matchmakingService.cancel(userId);
+        return ResponseEntity.ok(Map.of("message", removed ? "Left the matchmaking queue" : "Not in the matchmaking queue"));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalState(IllegalStateException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Matchmaking Error");
+        response.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+}
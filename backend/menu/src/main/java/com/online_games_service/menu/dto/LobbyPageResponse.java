@@ -0,0 +1,15 @@
+package com.online_games_service.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LobbyPageResponse {
+    private List<RoomInfoResponse> rooms;
+    private int page;
+    private int size;
+    private int totalRooms;
+}
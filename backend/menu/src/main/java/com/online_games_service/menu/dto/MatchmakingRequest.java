@@ -0,0 +1,11 @@
+package com.online_games_service.menu.dto;
+
+import com.online_games_service.common.enums.GameType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class MatchmakingRequest {
+    @NotNull(message = "Game type is required")
+    private GameType gameType;
+}
@@ -0,0 +1,21 @@
+package com.online_games_service.menu.dto;
+
+import com.online_games_service.common.enums.GameType;
+import com.online_games_service.menu.model.MatchTicket;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MatchmakingStatusResponse {
+    private boolean queued;
+    private GameType gameType;
+    private long enqueuedAt;
+
+    public static MatchmakingStatusResponse of(MatchTicket ticket) {
+        if (ticket == null) {
+            return new MatchmakingStatusResponse(false, null, 0);
+        }
+        return new MatchmakingStatusResponse(true, ticket.getGameType(), ticket.getEnqueuedAt());
+    }
+}
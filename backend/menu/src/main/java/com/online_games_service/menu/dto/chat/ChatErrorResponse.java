@@ -39,4 +39,11 @@ public class ChatErrorResponse {
                 .message(reason)
                 .build();
     }
+    
+    public static ChatErrorResponse unavailable() {
+        return ChatErrorResponse.builder()
+                .code("UNAVAILABLE")
+                .message("Chat is busy right now. Please try again.")
+                .build();
+    }
 }
@@ -14,4 +14,7 @@ public class ChatHistoryRequest {
     
     private int offset = 0;
     private int limit = 50;
+    
+    // Id of the oldest message the client has; when set, the page ends right before it
+    private String before;
 }
@@ -21,4 +21,7 @@ public class ChatHistoryResponse {
     private int limit;
     private boolean hasMore;
     private long totalMessages;
+    
+    // Cursor of the next older page, or null when there is none (cursor requests only)
+    private String nextCursor;
 }
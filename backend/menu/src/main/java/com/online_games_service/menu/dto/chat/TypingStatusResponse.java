@@ -0,0 +1,24 @@
+package com.online_games_service.menu.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Who is typing in a lobby, as seen by one menu replica.
+ * Clients show the union of the latest frame of every source and drop a source's
+ * users when no frame arrived from it within {@code expiresInMs}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingStatusResponse {
+
+    private String source;
+    private List<TypingIndicator> users;
+    private long expiresInMs;
+}
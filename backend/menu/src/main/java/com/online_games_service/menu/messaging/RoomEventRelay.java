@@ -0,0 +1,237 @@
+package com.online_games_service.menu.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Delivers room and per-user STOMP messages across all menu replicas.
+ * <p>
+ * The simple broker only reaches sockets connected to this JVM. Every message sent through the relay
+ * is delivered locally and also published, already converted, to a Redis channel of its room or user.
+ * A replica subscribes to such a channel only while one of its sockets is subscribed to that room
+ * or user, so most replicas never see traffic of rooms they do not serve.
+ */
+@Component
+@Slf4j
+public class RoomEventRelay implements MessageListener {
+
+    static final String ROOM_CHANNEL_PREFIX = "menu:room-events:";
+    static final String USER_CHANNEL_PREFIX = "menu:user-events:";
+
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+    private static final String USER_QUEUE_PREFIX = "/user/queue/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${menu.fanout.enabled:true}")
+    private boolean fanoutEnabled = true;
+
+    // Redis channel -> local "sessionId/subscriptionId" subscriptions interested in it
+    private final Map<String, Set<String>> localInterest = new HashMap<>();
+    // sessionId -> subscriptionId -> Redis channel, to release interest on unsubscribe or disconnect
+    private final Map<String, Map<String, String>> sessionChannels = new HashMap<>();
+
+    public RoomEventRelay(SimpMessagingTemplate messagingTemplate,
+                          RedisTemplate<String, Object> redisTemplate,
+                          RedisMessageListenerContainer listenerContainer) {
+        this.messagingTemplate = messagingTemplate;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    /**
+     * Sends to a {@code /topic/room/{roomId}/...} destination on every replica.
+     */
+    public void convertAndSend(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+
+        String roomId = roomIdOf(destination);
+        if (roomId == null) {
+            log.warn("Destination {} is not a room topic, delivered on this replica only", destination);
+            return;
+        }
+        publish(ROOM_CHANNEL_PREFIX + roomId, null, destination, payload);
+    }
+
+    /**
+     * Sends to a user destination such as {@code /queue/matchmaking} on every replica.
+     */
+    public void convertAndSendToUser(String userId, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(userId, destination, payload);
+        publish(USER_CHANNEL_PREFIX + userId, userId, destination, payload);
+    }
+
+    private void publish(String channel, String userId, String destination, Object payload) {
+        if (!fanoutEnabled) {
+            return;
+        }
+        Message<?> converted = messagingTemplate.getMessageConverter().toMessage(payload, null);
+        if (converted == null || !(converted.getPayload() instanceof byte[] body)) {
+            log.warn("Could not convert payload for {}, delivered on this replica only", destination);
+            return;
+        }
+
+        Object contentType = converted.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        Envelope envelope = new Envelope(instanceId, userId, destination,
+                contentType != null ? contentType.toString() : null, body);
+        try {
+            redisTemplate.convertAndSend(channel, envelope);
+        } catch (RuntimeException e) {
+            log.error("Failed to fan out {} to other replicas", destination, e);
+        }
+    }
+
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        Object value = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!(value instanceof Envelope envelope) || instanceId.equals(envelope.getOrigin())) {
+            return;
+        }
+
+        MessageBuilder<byte[]> builder = MessageBuilder.withPayload(envelope.getBody());
+        if (envelope.getContentType() != null) {
+            builder.setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.parseMimeType(envelope.getContentType()));
+        }
+
+        String destination = envelope.getUserId() == null
+                ? envelope.getDestination()
+                : messagingTemplate.getUserDestinationPrefix() + envelope.getUserId().replace("/", "%2F")
+                        + envelope.getDestination();
+        messagingTemplate.send(destination, builder.build());
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String channel = channelFor(accessor.getDestination(), event.getUser());
+        if (channel == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        addInterest(accessor.getSessionId(), accessor.getSubscriptionId(), channel);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() != null && accessor.getSubscriptionId() != null) {
+            removeInterest(accessor.getSessionId(), accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        removeSession(event.getSessionId());
+    }
+
+    synchronized void addInterest(String sessionId, String subscriptionId, String channel) {
+        sessionChannels.computeIfAbsent(sessionId, id -> new HashMap<>()).put(subscriptionId, channel);
+        Set<String> subscribers = localInterest.computeIfAbsent(channel, c -> new HashSet<>());
+        if (subscribers.add(sessionId + "/" + subscriptionId) && subscribers.size() == 1 && fanoutEnabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+            log.debug("Subscribed to {}", channel);
+        }
+    }
+
+    synchronized void removeInterest(String sessionId, String subscriptionId) {
+        Map<String, String> channels = sessionChannels.get(sessionId);
+        if (channels == null) {
+            return;
+        }
+        String channel = channels.remove(subscriptionId);
+        if (channels.isEmpty()) {
+            sessionChannels.remove(sessionId);
+        }
+        if (channel != null) {
+            releaseChannel(channel, sessionId + "/" + subscriptionId);
+        }
+    }
+
+    synchronized void removeSession(String sessionId) {
+        Map<String, String> channels = sessionChannels.remove(sessionId);
+        if (channels != null) {
+            channels.forEach((subscriptionId, channel) -> releaseChannel(channel, sessionId + "/" + subscriptionId));
+        }
+    }
+
+    synchronized boolean isSubscribed(String channel) {
+        return localInterest.containsKey(channel);
+    }
+
+    private void releaseChannel(String channel, String subscription) {
+        Set<String> subscribers = localInterest.get(channel);
+        if (subscribers == null || !subscribers.remove(subscription) || !subscribers.isEmpty()) {
+            return;
+        }
+        localInterest.remove(channel);
+        if (fanoutEnabled) {
+            listenerContainer.removeMessageListener(this, new ChannelTopic(channel));
+            log.debug("Unsubscribed from {}", channel);
+        }
+    }
+
+    static String channelFor(String destination, Principal user) {
+        if (destination == null) {
+            return null;
+        }
+        String roomId = roomIdOf(destination);
+        if (roomId != null) {
+            return ROOM_CHANNEL_PREFIX + roomId;
+        }
+        if (destination.startsWith(USER_QUEUE_PREFIX) && user != null) {
+            return USER_CHANNEL_PREFIX + user.getName();
+        }
+        return null;
+    }
+
+    private static String roomIdOf(String destination) {
+        if (!destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            return null;
+        }
+        String rest = destination.substring(ROOM_TOPIC_PREFIX.length());
+        int slash = rest.indexOf('/');
+        String roomId = slash < 0 ? rest : rest.substring(0, slash);
+        return roomId.isEmpty() ? null : roomId;
+    }
+
+    /**
+     * A STOMP message already converted by the publishing replica.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Envelope {
+        private String origin;
+        private String userId;
+        private String destination;
+        private String contentType;
+        private byte[] body;
+    }
+}
@@ -0,0 +1,24 @@
+package com.online_games_service.menu.model;
+
+import com.online_games_service.common.enums.GameType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A player waiting in the matchmaking queue of one game type.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchTicket {
+
+    private String userId;
+    private String username;
+    private GameType gameType;
+
+    // Win ratio from the statistical service, or null when unknown
+    private Double rating;
+
+    private long enqueuedAt;
+}
@@ -5,23 +5,36 @@ import com.online_games_service.common.enums.RoomStatus;
 import com.online_games_service.menu.config.GameLimitsConfig;
 import com.online_games_service.menu.dto.CreateRoomRequest;
 import com.online_games_service.menu.dto.JoinGameRequest;
+import com.online_games_service.menu.dto.LobbyPageResponse;
 import com.online_games_service.menu.dto.RoomInfoResponse;
 import com.online_games_service.menu.messaging.GameStartPublisher;
+import com.online_games_service.menu.messaging.RoomEventRelay;
 import com.online_games_service.menu.model.GameRoom;
 import com.online_games_service.menu.model.PlayerState;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -30,12 +43,13 @@ public class GameRoomService {
 
     private final GameLimitsConfig gameLimitsConfig;
     private final RedisTemplate<String, Object> redisTemplate;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomEventRelay roomEvents;
     private final GameStartPublisher gameStartPublisher;
 
     // --- REDIS KEYS ---
     private static final String KEY_ROOM = "game:room:"; // Store object GameRoom
     private static final String KEY_WAITING = "game:waiting:"; // Set ID public rooms (for Quick Match/Lobby)
+    private static final String KEY_QUICK_MATCH = "game:quick-match:"; // ZSET public room ID -> free seats (for Quick Match)
     private static final String KEY_CODE = "game:code:"; // Map CODE -> ID (for Private Join)
     private static final String KEY_USER_ROOM_BY_ID = "game:user-room:id:"; // Map userId -> room ID
     private static final String KEY_USER_ROOM_BY_USERNAME = "game:user-room:uname:"; // Map username -> room ID
@@ -43,6 +57,38 @@ public class GameRoomService {
 
     private static final Duration ROOM_TTL = Duration.ofHours(1);
     private static final Random RANDOM = new Random();
+    private static final int QUICK_MATCH_ATTEMPTS = 3;
+    private static final int JOIN_ATTEMPTS = 5;
+    private static final int MAX_LOBBY_PAGE_SIZE = 50;
+    private static final Comparator<GameRoom> LOBBY_ORDER = Comparator
+            .comparing(GameRoom::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(GameRoom::getId);
+
+    // Takes a seat in the fullest room that still has one; a room whose last seat is taken leaves the index,
+    // so concurrent quick matches can never be handed more seats than a room has
+    private static final RedisScript<Object> CLAIM_SEAT_SCRIPT = new DefaultRedisScript<>("""
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[1], 1, '+inf', 'LIMIT', 0, 1)
+            if #ids == 0 then
+                return false
+            end
+            if tonumber(redis.call('ZINCRBY', KEYS[1], -1, ids[1])) <= 0 then
+                redis.call('ZREM', KEYS[1], ids[1])
+            end
+            return ids[1]
+            """, Object.class);
+
+    // Wrap each room operation's writes in MULTI/EXEC on top of pipelining them
+    @Value("${menu.redis.atomic-room-writes:true}")
+    private boolean atomicRoomWrites = true;
+
+    // Lobby listings are served from a short-lived snapshot per game type that is dropped whenever a room changes
+    @Value("${menu.lobby.snapshot-ttl-ms:2000}")
+    private long lobbySnapshotTtlMs = 2000;
+
+    private final Map<GameType, LobbySnapshot> lobbySnapshots = new ConcurrentHashMap<>();
+
+    private record LobbySnapshot(List<GameRoom> rooms, long loadedAtNanos) {
+    }
 
     public GameRoom createRoom(CreateRoomRequest request, String hostUserId, String hostUsername) {
         if (getUserCurrentRoomId(hostUserId, hostUsername) != null) {
@@ -82,13 +128,16 @@ public class GameRoomService {
 
         newRoom.setAccessCode(uniqueCode);
 
-        saveRoomToRedis(newRoom);
-        mapUserToRoom(hostUserId, hostUsername, newRoom.getId());
+        writeBatch(ops -> {
+            saveRoomToRedis(ops, newRoom);
+            mapUserToRoom(ops, hostUserId, hostUsername, newRoom.getId());
 
-        if (!request.isPrivate()) {
-            addToWaitingPool(newRoom);
-        }
+            if (!request.isPrivate()) {
+                addToWaitingPool(ops, newRoom);
+            }
+        });
 
+        invalidateLobbySnapshot(newRoom);
         log.info("Created room {} (Redis) with code {} for host {}", newRoom.getId(), uniqueCode, hostUsername);
         return newRoom;
     }
@@ -106,7 +155,8 @@ public class GameRoomService {
                 room.getHostUsername(),
                 room.getStatus());
 
-        messagingTemplate.convertAndSend("/topic/room/" + room.getId(), response);
+        roomEvents.convertAndSend("/topic/room/" + room.getId(), response);
+        invalidateLobbySnapshot(room);
 
         log.info("Broadcasted room update for room {}", room.getId());
     }
@@ -118,7 +168,7 @@ public class GameRoomService {
                 "kickedBy", hostUsername,
                 "message", "You have been kicked from the room by " + hostUsername
         );
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/kicked/" + kickedUserId, notification);
+        roomEvents.convertAndSend("/topic/room/" + roomId + "/kicked/" + kickedUserId, notification);
         log.info("Sent kick notification to user {} for room {}", kickedUserId, roomId);
     }
 
@@ -151,44 +201,29 @@ public class GameRoomService {
             throw new IllegalArgumentException("Game type is required for random join");
         }
 
-        String waitingKey = KEY_WAITING + requestedType;
-        Set<Object> waitingRoomIds = redisTemplate.opsForSet().members(waitingKey);
-
-        // Find all available rooms and pick the one closest to being full
-        GameRoom bestRoom = null;
-        int bestFillRatio = -1; // Track how full the room is (players / maxPlayers ratio scaled)
-
-        if (waitingRoomIds != null) {
-            for (Object idObj : waitingRoomIds) {
-                String roomId = (String) idObj;
-                GameRoom room = getRoomFromRedis(roomId);
-
-                if (room == null) {
-                    redisTemplate.opsForSet().remove(waitingKey, roomId);
-                    continue;
-                }
-
-                // Check if room has space and user is not already in it
-                if (room.getPlayers().size() < room.getMaxPlayers() &&
-                        !room.getPlayers().containsKey(userId)) {
-
-                    // Calculate fill ratio (higher = closer to full)
-                    // Multiply by 100 to get integer percentage for comparison
-                    int fillRatio = (room.getPlayers().size() * 100) / room.getMaxPlayers();
+        // Claim a seat in the room with the fewest free seats, skipping index entries that went stale
+        String matchKey = KEY_QUICK_MATCH + requestedType;
+        for (int attempt = 0; attempt < QUICK_MATCH_ATTEMPTS; attempt++) {
+            String roomId = (String) redisTemplate.execute(CLAIM_SEAT_SCRIPT, List.of(matchKey));
+            if (roomId == null) {
+                break;
+            }
 
-                    // Prefer rooms that are closer to being full
-                    if (fillRatio > bestFillRatio) {
-                        bestFillRatio = fillRatio;
-                        bestRoom = room;
-                    }
-                }
+            JoinResult result = addUserToRoom(roomId, userId, username, true);
+            if (result == null) {
+                // Kept losing the room to concurrent updates; give the claimed seat back
+                redisTemplate.opsForZSet().incrementScore(matchKey, roomId, 1);
+                continue;
+            }
+            if (!result.joined()) {
+                redisTemplate.opsForZSet().remove(matchKey, roomId);
+                continue;
             }
-        }
 
-        if (bestRoom != null) {
-            log.info("Found available room {} ({}/{} players) for user {}",
-                    bestRoom.getId(), bestRoom.getPlayers().size(), bestRoom.getMaxPlayers(), username);
-            return addUserToRoom(bestRoom, userId, username);
+            GameRoom room = result.room();
+            log.info("Joined available room {} ({}/{} players) for user {}",
+                    room.getId(), room.getPlayers().size(), room.getMaxPlayers(), username);
+            return room;
         }
 
         // No room found - create a new one with default maxPlayers for the game type
@@ -212,27 +247,72 @@ public class GameRoomService {
         if (roomId == null)
             throw new IllegalArgumentException("Invalid access code");
 
-        GameRoom room = getRoomFromRedis(roomId);
-        if (room == null)
+        JoinResult result = addUserToRoom(roomId, userId, username, false);
+        if (result == null)
+            throw new IllegalStateException("Room is busy, please try again");
+        if (result.room() == null)
             throw new IllegalArgumentException("Room expired");
-
-        if (room.getPlayers().containsKey(userId))
-            return room;
-        if (room.getPlayers().size() >= room.getMaxPlayers())
+        if (!result.joined())
             throw new IllegalStateException("Room full");
 
-        return addUserToRoom(room, userId, username);
+        return result.room();
     }
 
-    private GameRoom addUserToRoom(GameRoom room, String userId, String username) {
-        room.addPlayer(userId, username);
-        saveRoomToRedis(room);
-        mapUserToRoom(userId, username, room.getId());
+    /**
+     * Outcome of a join: the room as stored after the attempt (null if it no longer exists),
+     * and whether the player is in it.
+     */
+    private record JoinResult(GameRoom room, boolean joined) {
+    }
 
-        if (room.getPlayers().size() >= room.getMaxPlayers()) {
-            removeFromWaitingPool(room);
+    /**
+     * Adds the player to the room stored in Redis. The room is read under WATCH and written back
+     * with the player's mappings in one MULTI/EXEC, so a concurrent join, leave or kick aborts the
+     * write and the join is retried on the new state instead of overwriting the other player.
+     *
+     * @param seatClaimed whether the quick-match index already accounts for this player's seat
+     * @return the outcome, or null if the room kept changing for {@link #JOIN_ATTEMPTS} attempts
+     */
+    private JoinResult addUserToRoom(String roomId, String userId, String username, boolean seatClaimed) {
+        String roomKey = KEY_ROOM + roomId;
+        for (int attempt = 0; attempt < JOIN_ATTEMPTS; attempt++) {
+            JoinResult result = redisTemplate.execute(new SessionCallback<JoinResult>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> JoinResult execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    ops.watch(roomKey);
+                    GameRoom room = (GameRoom) ops.opsForValue().get(roomKey);
+                    if (room == null || room.getPlayers().containsKey(userId)) {
+                        ops.unwatch();
+                        return new JoinResult(room, room != null);
+                    }
+                    if (!room.canJoin()) {
+                        ops.unwatch();
+                        return new JoinResult(room, false);
+                    }
+                    room.addPlayer(userId, username);
+
+                    ops.multi();
+                    saveRoomToRedis(ops, room);
+                    mapUserToRoom(ops, userId, username, room.getId());
+                    if (room.getPlayers().size() >= room.getMaxPlayers()) {
+                        removeFromWaitingPool(ops, room);
+                    } else if (!seatClaimed && !room.isPrivate()) {
+                        addToWaitingPool(ops, room);
+                    }
+                    List<Object> replies = ops.exec();
+                    // EXEC answers nothing when a watched key changed
+                    return replies == null || replies.isEmpty() ? null : new JoinResult(room, true);
+                }
+            });
+            if (result != null) {
+                return result;
+            }
+            log.debug("Room {} changed while {} was joining, retrying", roomId, username);
         }
-        return room;
+        log.warn("Gave up joining room {} for {} after {} conflicting updates", roomId, username, JOIN_ATTEMPTS);
+        return null;
     }
 
     public GameRoom startGame(String userId, String username) {
@@ -252,12 +332,14 @@ public class GameRoomService {
 
         room.setStatus(RoomStatus.PLAYING);
 
-        removeFromWaitingPool(room);
-        if (room.getAccessCode() != null) {
-            redisTemplate.delete(KEY_CODE + room.getAccessCode());
-        }
+        writeBatch(ops -> {
+            removeFromWaitingPool(ops, room);
+            if (room.getAccessCode() != null) {
+                ops.delete(KEY_CODE + room.getAccessCode());
+            }
 
-        saveRoomToRedis(room);
+            saveRoomToRedis(ops, room);
+        });
 
         gameStartPublisher.publish(room);
 
@@ -265,6 +347,69 @@ public class GameRoomService {
         return room;
     }
 
+    /**
+     * Starts a room for players grouped by the matchmaking queue. The room is never listed in the lobby;
+     * seats left empty by {@code players} are taken by bots in the game service.
+     */
+    public GameRoom startMatchedRoom(GameType gameType, Map<String, String> players, int maxPlayers) {
+        if (players.isEmpty()) {
+            throw new IllegalArgumentException("A matched room needs at least one player");
+        }
+
+        Map.Entry<String, String> host = players.entrySet().iterator().next();
+        GameRoom room = new GameRoom(
+                String.format("Match #%04d", RANDOM.nextInt(10000)),
+                gameType,
+                host.getKey(),
+                host.getValue(),
+                maxPlayers,
+                true);
+        room.setId(UUID.randomUUID().toString());
+        players.forEach((userId, username) -> {
+            if (room.canJoin()) {
+                room.addPlayer(userId, username);
+            }
+        });
+        room.setStatus(RoomStatus.PLAYING);
+
+        writeBatch(ops -> {
+            saveRoomToRedis(ops, room);
+            players.forEach((userId, username) -> mapUserToRoom(ops, userId, username, room.getId()));
+        });
+
+        gameStartPublisher.publish(room);
+
+        broadcastRoomUpdate(room);
+        log.info("Started matched room {} for {} players of {}", room.getId(), room.getPlayers().size(), gameType);
+        return room;
+    }
+
+    public boolean isUserInRoom(String userId, String username) {
+        return getUserCurrentRoomId(userId, username) != null;
+    }
+
+    /**
+     * @return the given users that are already in a room, looked up with a single MGET
+     */
+    public Set<String> findUsersInRooms(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        List<Object> roomIds = redisTemplate.opsForValue()
+                .multiGet(userIds.stream().map(id -> KEY_USER_ROOM_BY_ID + id).toList());
+        if (roomIds == null) {
+            return Set.of();
+        }
+
+        Set<String> inRooms = new HashSet<>();
+        for (int i = 0; i < userIds.size() && i < roomIds.size(); i++) {
+            if (roomIds.get(i) != null) {
+                inRooms.add(userIds.get(i));
+            }
+        }
+        return inRooms;
+    }
+
     public void markFinished(String roomId, RoomStatus status) {
         if (roomId == null || roomId.isBlank()) {
             log.warn("Cannot finish room: roomId is blank");
@@ -280,10 +425,13 @@ public class GameRoomService {
         RoomStatus finalStatus = status != null ? status : RoomStatus.FINISHED;
         room.setStatus(finalStatus);
 
-        room.getPlayers().forEach((userId, playerState) -> clearUserRoomMapping(userId, playerState.getUsername()));
+        writeBatch(ops -> {
+            room.getPlayers().forEach((userId, playerState) ->
+                    clearUserRoomMapping(ops, userId, playerState.getUsername()));
+            deleteRoom(ops, room);
+        });
         broadcastRoomUpdate(room);
 
-        deleteRoom(room);
         log.info("Marked room {} as {} via gameType.finish and removed from Redis", roomId, finalStatus);
     }
 
@@ -296,9 +444,9 @@ public class GameRoomService {
         }
 
         GameRoom room = getRoomFromRedis(roomId);
-        clearUserRoomMapping(userId, username);
 
         if (room == null) {
+            clearUserRoomMapping(redisTemplate, userId, username);
             return "Left room (room already expired).";
         }
 
@@ -306,15 +454,21 @@ public class GameRoomService {
 
         String message;
         if (room.getPlayers().isEmpty()) {
-            deleteRoom(room);
+            writeBatch(ops -> {
+                clearUserRoomMapping(ops, userId, username);
+                deleteRoom(ops, room);
+            });
             log.info("Room {} was empty and has been deleted.", roomId);
             message = "Left room " + roomId + ". Room was deleted (no players left).";
         } else {
-            saveRoomToRedis(room);
+            writeBatch(ops -> {
+                clearUserRoomMapping(ops, userId, username);
+                saveRoomToRedis(ops, room);
 
-            if (!room.isPrivate() && room.getStatus() == RoomStatus.WAITING) {
-                addToWaitingPool(room);
-            }
+                if (!room.isPrivate() && room.getStatus() == RoomStatus.WAITING) {
+                    addToWaitingPool(ops, room);
+                }
+            });
 
             log.info("User {} left room {}. Host is now: {}", username, roomId, room.getHostUsername());
             message = "Left room " + roomId + ". New host: " + room.getHostUsername();
@@ -347,21 +501,25 @@ public class GameRoomService {
             return;
         }
 
-        // Clear user mapping (we may not have username, but we have the ID)
-        redisTemplate.delete(KEY_USER_ROOM_BY_ID + playerId);
-        // Also try to clear username mapping if we can find it
+        // Clear user mapping (we may not have username, but we have the ID);
+        // the username mapping is cleared too if we can find it
         PlayerState playerState = room.getPlayers().get(playerId);
-        if (playerState != null && playerState.getUsername() != null) {
-            redisTemplate.delete(KEY_USER_ROOM_BY_USERNAME + playerState.getUsername());
-        }
+        String playerUsername = playerState != null ? playerState.getUsername() : null;
 
         room.removePlayerById(playerId);
 
         if (room.getPlayers().isEmpty()) {
-            deleteRoom(room);
+            writeBatch(ops -> {
+                clearUserRoomMapping(ops, playerId, playerUsername);
+                deleteRoom(ops, room);
+            });
+            invalidateLobbySnapshot(room);
             log.info("Room {} was empty after player removal and has been deleted.", roomId);
         } else {
-            saveRoomToRedis(room);
+            writeBatch(ops -> {
+                clearUserRoomMapping(ops, playerId, playerUsername);
+                saveRoomToRedis(ops, room);
+            });
             broadcastRoomUpdate(room);
             log.info("Player {} removed from room {}. Host is now: {}", playerId, roomId, room.getHostUsername());
         }
@@ -371,6 +529,64 @@ public class GameRoomService {
         if (gameType == null)
             return Collections.emptyList();
 
+        return lobbySnapshot(gameType);
+    }
+
+    /**
+     * One page of the public lobby for a game type, oldest rooms first.
+     *
+     * @param minFreeSeats only rooms with at least this many free seats are listed
+     * @param namePrefix   optional case-insensitive prefix of the room name
+     */
+    public LobbyPageResponse getLobbyPage(GameType gameType, int minFreeSeats, String namePrefix, int page, int size) {
+        if (gameType == null) {
+            throw new IllegalArgumentException("Game type is required");
+        }
+        if (page < 0 || size < 1 || size > MAX_LOBBY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_LOBBY_PAGE_SIZE);
+        }
+
+        String prefix = namePrefix == null || namePrefix.isBlank() ? null : namePrefix.toLowerCase(Locale.ROOT);
+        List<GameRoom> matching = lobbySnapshot(gameType).stream()
+                .filter(room -> room.getMaxPlayers() - room.getPlayers().size() >= Math.max(1, minFreeSeats))
+                .filter(room -> prefix == null
+                        || (room.getName() != null && room.getName().toLowerCase(Locale.ROOT).startsWith(prefix)))
+                .toList();
+
+        int from = (int) Math.min((long) page * size, matching.size());
+        int to = Math.min(from + size, matching.size());
+        List<RoomInfoResponse> rooms = matching.subList(from, to).stream()
+                .map(this::buildRoomInfoResponse)
+                .toList();
+        return new LobbyPageResponse(rooms, page, size, matching.size());
+    }
+
+    private List<GameRoom> lobbySnapshot(GameType gameType) {
+        LobbySnapshot snapshot = lobbySnapshots.get(gameType);
+        if (isFresh(snapshot)) {
+            return snapshot.rooms();
+        }
+        // Only one caller per game type reloads; concurrent pollers wait for it instead of hitting Redis too
+        return lobbySnapshots.compute(gameType, (type, current) -> isFresh(current)
+                ? current
+                : new LobbySnapshot(loadWaitingRooms(type), System.nanoTime())).rooms();
+    }
+
+    private boolean isFresh(LobbySnapshot snapshot) {
+        return snapshot != null
+                && System.nanoTime() - snapshot.loadedAtNanos() < TimeUnit.MILLISECONDS.toNanos(lobbySnapshotTtlMs);
+    }
+
+    private void invalidateLobbySnapshot(GameRoom room) {
+        if (room.getGameType() != null) {
+            lobbySnapshots.remove(room.getGameType());
+        }
+    }
+
+    /**
+     * Loads all rooms of the waiting pool with a single MGET and drops pool entries of expired rooms.
+     */
+    private List<GameRoom> loadWaitingRooms(GameType gameType) {
         String waitingKey = KEY_WAITING + gameType;
         Set<Object> waitingRoomIds = redisTemplate.opsForSet().members(waitingKey);
 
@@ -378,31 +594,63 @@ public class GameRoomService {
             return Collections.emptyList();
         }
 
-        List<GameRoom> rooms = new ArrayList<>();
-        for (Object idObj : waitingRoomIds) {
-            String roomId = (String) idObj;
-            GameRoom room = getRoomFromRedis(roomId);
-            if (room != null) {
+        List<String> roomIds = waitingRoomIds.stream().map(String.class::cast).toList();
+        List<Object> loaded = redisTemplate.opsForValue().multiGet(roomIds.stream().map(id -> KEY_ROOM + id).toList());
+
+        List<GameRoom> rooms = new ArrayList<>(roomIds.size());
+        List<Object> staleIds = new ArrayList<>();
+        for (int i = 0; i < roomIds.size(); i++) {
+            Object value = loaded != null && i < loaded.size() ? loaded.get(i) : null;
+            if (value instanceof GameRoom room) {
                 rooms.add(room);
             } else {
-                redisTemplate.opsForSet().remove(waitingKey, roomId);
+                staleIds.add(roomIds.get(i));
             }
         }
-        return rooms;
+        if (!staleIds.isEmpty()) {
+            redisTemplate.opsForSet().remove(waitingKey, staleIds.toArray());
+        }
+
+        rooms.sort(LOBBY_ORDER);
+        return Collections.unmodifiableList(rooms);
+    }
+
+    /**
+     * Sends all writes of one room operation to Redis in a single pipelined round-trip instead
+     * of one round-trip per command. Unless atomic room writes are disabled the batch is wrapped
+     * in MULTI/EXEC, so no reader sees a room whose user mappings or waiting-pool entry are only
+     * half written. Writes must go through the given operations; their replies are not available.
+     */
+    private void writeBatch(Consumer<RedisOperations<String, Object>> writes) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                if (atomicRoomWrites) {
+                    ops.multi();
+                }
+                writes.accept(ops);
+                if (atomicRoomWrites) {
+                    ops.exec();
+                }
+                return null;
+            }
+        });
     }
 
-    private void deleteRoom(GameRoom room) {
-        redisTemplate.delete(KEY_ROOM + room.getId());
-        removeFromWaitingPool(room);
+    private void deleteRoom(RedisOperations<String, Object> ops, GameRoom room) {
+        ops.delete(KEY_ROOM + room.getId());
+        removeFromWaitingPool(ops, room);
         if (room.getAccessCode() != null) {
-            redisTemplate.delete(KEY_CODE + room.getAccessCode());
+            ops.delete(KEY_CODE + room.getAccessCode());
         }
     }
 
-    private void mapUserToRoom(String userId, String username, String roomId) {
-        redisTemplate.opsForValue().set(KEY_USER_ROOM_BY_ID + userId, roomId, ROOM_TTL);
+    private void mapUserToRoom(RedisOperations<String, Object> ops, String userId, String username, String roomId) {
+        ops.opsForValue().set(KEY_USER_ROOM_BY_ID + userId, roomId, ROOM_TTL);
         if (username != null) {
-            redisTemplate.opsForValue().set(KEY_USER_ROOM_BY_USERNAME + username, roomId, ROOM_TTL);
+            ops.opsForValue().set(KEY_USER_ROOM_BY_USERNAME + username, roomId, ROOM_TTL);
         }
     }
 
@@ -415,27 +663,39 @@ public class GameRoomService {
     }
 
     private void clearUserRoomMapping(String userId, String username) {
-        redisTemplate.delete(KEY_USER_ROOM_BY_ID + userId);
+        clearUserRoomMapping(redisTemplate, userId, username);
+    }
+
+    private void clearUserRoomMapping(RedisOperations<String, Object> ops, String userId, String username) {
+        ops.delete(KEY_USER_ROOM_BY_ID + userId);
         if (username != null) {
-            redisTemplate.delete(KEY_USER_ROOM_BY_USERNAME + username);
+            ops.delete(KEY_USER_ROOM_BY_USERNAME + username);
         }
     }
 
     private void saveRoomToRedis(GameRoom room) {
-        redisTemplate.opsForValue().set(KEY_ROOM + room.getId(), room, ROOM_TTL);
+        saveRoomToRedis(redisTemplate, room);
+    }
+
+    private void saveRoomToRedis(RedisOperations<String, Object> ops, GameRoom room) {
+        ops.opsForValue().set(KEY_ROOM + room.getId(), room, ROOM_TTL);
     }
 
     private GameRoom getRoomFromRedis(String roomId) {
         return (GameRoom) redisTemplate.opsForValue().get(KEY_ROOM + roomId);
     }
 
-    private void addToWaitingPool(GameRoom room) {
-        redisTemplate.opsForSet().add(KEY_WAITING + room.getGameType(), room.getId());
-        redisTemplate.expire(KEY_WAITING + room.getGameType(), ROOM_TTL);
+    private void addToWaitingPool(RedisOperations<String, Object> ops, GameRoom room) {
+        ops.opsForSet().add(KEY_WAITING + room.getGameType(), room.getId());
+        ops.expire(KEY_WAITING + room.getGameType(), ROOM_TTL);
+        ops.opsForZSet().add(KEY_QUICK_MATCH + room.getGameType(), room.getId(),
+                room.getMaxPlayers() - room.getPlayers().size());
+        ops.expire(KEY_QUICK_MATCH + room.getGameType(), ROOM_TTL);
     }
 
-    private void removeFromWaitingPool(GameRoom room) {
-        redisTemplate.opsForSet().remove(KEY_WAITING + room.getGameType(), room.getId());
+    private void removeFromWaitingPool(RedisOperations<String, Object> ops, GameRoom room) {
+        ops.opsForSet().remove(KEY_WAITING + room.getGameType(), room.getId());
+        ops.opsForZSet().remove(KEY_QUICK_MATCH + room.getGameType(), room.getId());
     }
 
     private void validatePlayerLimits(int requestedMaxPlayers, GameLimitsConfig.Limit limit) {
@@ -515,13 +775,15 @@ public class GameRoomService {
         sendKickNotification(room.getId(), playerToKickUserId, hostUsername);
 
         room.removePlayerById(playerToKickUserId);
-        clearUserRoomMapping(playerToKickUserId, kickedUsername);
 
-        saveRoomToRedis(room);
+        writeBatch(ops -> {
+            clearUserRoomMapping(ops, playerToKickUserId, kickedUsername);
+            saveRoomToRedis(ops, room);
 
-        if (!room.isPrivate() && room.getStatus() == RoomStatus.WAITING) {
-            addToWaitingPool(room);
-        }
+            if (!room.isPrivate() && room.getStatus() == RoomStatus.WAITING) {
+                addToWaitingPool(ops, room);
+            }
+        });
 
         log.info("Host {} kicked user {} from room {}", hostUsername, kickedUsername, roomId);
 
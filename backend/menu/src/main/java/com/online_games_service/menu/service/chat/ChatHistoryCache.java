@@ -0,0 +1,273 @@
+package com.online_games_service.menu.service.chat;
+
+import com.online_games_service.menu.dto.chat.ChatHistoryResponse;
+import com.online_games_service.menu.dto.chat.ChatMessageResponse;
+import com.online_games_service.menu.model.ChatMessage;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Recent chat messages of each lobby, kept in memory so that opening the chat needs no Redis call.
+ * <p>
+ * A lobby is loaded once from Redis and then kept current by this replica's writes and by the
+ * appends other replicas publish on {@link #APPEND_CHANNEL}. Each lobby keeps only its newest
+ * messages; older pages are read from Redis.
+ */
+@Component
+@Slf4j
+public class ChatHistoryCache implements MessageListener {
+
+    static final String APPEND_CHANNEL = "menu:chat-appends";
+
+    private static final Comparator<ChatMessageResponse> CHAT_ORDER = Comparator
+            .comparing(ChatMessageResponse::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ChatMessageResponse::getId);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${chat.history.cache-size:50}")
+    private int capacity = 50;
+
+    @Value("${chat.history.cache-lobbies:1000}")
+    private int maxLobbies = 1000;
+
+    // Matches the chat TTL, which only appends refresh; reads do not keep a lobby alive
+    private long expiryNanos = Duration.ofHours(1).toNanos();
+
+    private final Map<String, LobbyBuffer> buffers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LobbyBuffer> eldest) {
+            return size() > maxLobbies;
+        }
+    };
+
+    public ChatHistoryCache(RedisTemplate<String, Object> redisTemplate,
+                            RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(APPEND_CHANNEL));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The page of up to {@code limit} messages older than {@code before} (or the newest ones), if this
+     * replica holds all of them.
+     */
+    public Optional<ChatHistoryResponse> page(String lobbyId, String before, int limit) {
+        synchronized (buffers) {
+            LobbyBuffer buffer = liveBuffer(lobbyId);
+            if (buffer == null || !buffer.loaded) {
+                return Optional.empty();
+            }
+
+            int end = buffer.messages.size();
+            if (before != null) {
+                end = indexOf(buffer.messages, before);
+                if (end < 0) {
+                    return Optional.empty();
+                }
+            }
+            int start = Math.max(0, end - limit);
+            boolean hasMore = start > 0 || buffer.olderInRedis;
+            if (end - start < limit && buffer.olderInRedis) {
+                return Optional.empty();
+            }
+
+            List<ChatMessageResponse> messages = new ArrayList<>(buffer.messages.subList(start, end));
+            return Optional.of(cursorPage(messages, limit, hasMore));
+        }
+    }
+
+    /**
+     * Starts caching a lobby. Messages appended before {@link #completeLoad} are kept and merged.
+     */
+    public void beginLoad(String lobbyId) {
+        synchronized (buffers) {
+            if (liveBuffer(lobbyId) == null) {
+                buffers.put(lobbyId, new LobbyBuffer());
+            }
+        }
+    }
+
+    /**
+     * @param newest       the newest messages in Redis, oldest first
+     * @param olderInRedis whether Redis holds messages older than {@code newest}
+     */
+    public void completeLoad(String lobbyId, List<ChatMessageResponse> newest, boolean olderInRedis) {
+        synchronized (buffers) {
+            LobbyBuffer buffer = buffers.get(lobbyId);
+            if (buffer == null || buffer.loaded) {
+                return;
+            }
+            buffer.olderInRedis = olderInRedis;
+            newest.forEach(buffer::add);
+            buffer.trimTo(capacity);
+            buffer.loaded = true;
+        }
+    }
+
+    /**
+     * Records messages this replica stored and tells the other replicas about them.
+     */
+    public void appended(String lobbyId, List<ChatMessage> messages) {
+        addLocally(lobbyId, messages);
+        publish(new AppendEvent(instanceId, lobbyId, new ArrayList<>(messages)));
+    }
+
+    /**
+     * Drops a lobby on every replica, e.g. after its history was deleted.
+     */
+    public void evict(String lobbyId) {
+        synchronized (buffers) {
+            buffers.remove(lobbyId);
+        }
+        publish(new AppendEvent(instanceId, lobbyId, null));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object value = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!(value instanceof AppendEvent event) || instanceId.equals(event.getOrigin())) {
+            return;
+        }
+        if (event.getMessages() == null) {
+            synchronized (buffers) {
+                buffers.remove(event.getLobbyId());
+            }
+        } else {
+            addLocally(event.getLobbyId(), event.getMessages());
+        }
+    }
+
+    private void addLocally(String lobbyId, List<ChatMessage> messages) {
+        synchronized (buffers) {
+            LobbyBuffer buffer = liveBuffer(lobbyId);
+            if (buffer == null) {
+                return;
+            }
+            messages.forEach(message -> buffer.add(ChatMessageResponse.fromChatMessage(message)));
+            buffer.refreshedAtNanos = System.nanoTime();
+            if (buffer.loaded) {
+                buffer.trimTo(capacity);
+            }
+        }
+    }
+
+    private void publish(AppendEvent event) {
+        try {
+            redisTemplate.convertAndSend(APPEND_CHANNEL, event);
+        } catch (RuntimeException e) {
+            log.warn("Could not publish chat update of lobby {}: {}", event.getLobbyId(), e.getMessage());
+        }
+    }
+
+    private LobbyBuffer liveBuffer(String lobbyId) {
+        LobbyBuffer buffer = buffers.get(lobbyId);
+        if (buffer != null && System.nanoTime() - buffer.refreshedAtNanos > expiryNanos) {
+            buffers.remove(lobbyId);
+            return null;
+        }
+        return buffer;
+    }
+
+    /**
+     * A page of cursor-paginated history; the oldest message of the page is the cursor of the next one.
+     */
+    static ChatHistoryResponse cursorPage(List<ChatMessageResponse> messages, int limit, boolean hasMore) {
+        return ChatHistoryResponse.builder()
+                .messages(messages)
+                .limit(limit)
+                .hasMore(hasMore)
+                .nextCursor(hasMore && !messages.isEmpty() ? messages.get(0).getId() : null)
+                .build();
+    }
+
+    static int indexOf(List<ChatMessageResponse> messages, String id) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (id.equals(messages.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class LobbyBuffer {
+        // Oldest first; the oldest entries are dropped once the buffer is over capacity
+        private final List<ChatMessageResponse> messages = new ArrayList<>();
+        private final Set<String> ids = new HashSet<>();
+        private boolean loaded;
+        private boolean olderInRedis;
+        // Load or latest append, after which the Redis key lives for the chat TTL
+        private long refreshedAtNanos = System.nanoTime();
+
+        void add(ChatMessageResponse message) {
+            if (!ids.add(message.getId())) {
+                return;
+            }
+            int last = messages.size() - 1;
+            if (last >= 0 && CHAT_ORDER.compare(messages.get(last), message) > 0) {
+                // Appends of other replicas can arrive slightly out of order
+                int at = last;
+                while (at > 0 && CHAT_ORDER.compare(messages.get(at - 1), message) > 0) {
+                    at--;
+                }
+                messages.add(at, message);
+            } else {
+                messages.add(message);
+            }
+        }
+
+        void trimTo(int capacity) {
+            int excess = messages.size() - capacity;
+            if (excess <= 0) {
+                return;
+            }
+            List<ChatMessageResponse> dropped = messages.subList(0, excess);
+            dropped.forEach(message -> ids.remove(message.getId()));
+            dropped.clear();
+            olderInRedis = true;
+        }
+    }
+
+    /**
+     * Messages stored by one replica, or a lobby to evict when {@code messages} is null.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AppendEvent {
+        private String origin;
+        private String lobbyId;
+        private List<ChatMessage> messages;
+    }
+}
@@ -0,0 +1,389 @@
+package com.online_games_service.menu.service.chat;
+
+import com.online_games_service.common.concurrent.RoomActorExecutor;
+import com.online_games_service.menu.dto.chat.ChatErrorResponse;
+import com.online_games_service.menu.dto.chat.ChatMessageResponse;
+import com.online_games_service.menu.messaging.RoomEventRelay;
+import com.online_games_service.menu.model.ChatMessage;
+import com.online_games_service.menu.model.GameRoom;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Processes sent chat messages off the STOMP inbound channel: validate, rate-limit, filter,
+ * persist and fan out.
+ * <p>
+ * The stages of a message run in order on its lobby's actor, so messages of a lobby keep their
+ * order while different lobbies proceed in parallel, and a slow Redis call only delays its own
+ * lobby. Messages that queue up for a lobby while its actor is busy are taken together and
+ * persisted with one append. Admission is bounded overall and per lobby; when full the sender is told to retry
+ * instead of the inbound thread waiting. With {@code chat.pipeline.enabled=false} messages are
+ * processed on the calling thread.
+ */
+@Component
+@Slf4j
+public class ChatPipeline {
+
+    public enum Stage { QUEUE, VALIDATE, RATE_LIMIT, FILTER, PERSIST, FAN_OUT }
+
+    static final int MAX_MESSAGE_LENGTH = 500;
+    static final String DEFAULT_AVATAR = "/avatars/avatar_1.png";
+
+    private static final String KEY_ROOM = "game:room:";
+    private static final String KEY_USER_ROOM_BY_ID = "game:user-room:id:";
+
+    private final ChatService chatService;
+    private final ChatRateLimiterService rateLimiter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomEventRelay roomEvents;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${chat.pipeline.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${chat.pipeline.max-pending:1000}")
+    private int maxPending = 1000;
+
+    @Value("${chat.pipeline.max-pending-per-lobby:50}")
+    private int maxPendingPerLobby = 50;
+
+    // 0 disables the periodic stage summary in the log
+    @Value("${chat.pipeline.stats-log-seconds:60}")
+    private long statsLogSeconds = 60;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<String, Integer> pendingByLobby = new ConcurrentHashMap<>();
+    // Submissions waiting for their lobby's actor; only changed inside compute/remove of the map
+    private final Map<String, Deque<Submission>> queued = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final Map<Stage, StageMetrics> metrics = new EnumMap<>(Stage.class);
+    private RoomActorExecutor lobbies;
+    private ScheduledExecutorService statsLogger;
+
+    public ChatPipeline(ChatService chatService,
+                        ChatRateLimiterService rateLimiter,
+                        SimpMessagingTemplate messagingTemplate,
+                        RoomEventRelay roomEvents,
+                        RedisTemplate<String, Object> redisTemplate) {
+        this.chatService = chatService;
+        this.rateLimiter = rateLimiter;
+        this.messagingTemplate = messagingTemplate;
+        this.roomEvents = roomEvents;
+        this.redisTemplate = redisTemplate;
+        Arrays.stream(Stage.values()).forEach(stage -> metrics.put(stage, new StageMetrics()));
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        lobbies = new RoomActorExecutor("chat-pipeline");
+        if (statsLogSeconds > 0) {
+            statsLogger = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "chat-pipeline-stats");
+                thread.setDaemon(true);
+                return thread;
+            });
+            statsLogger.scheduleAtFixedRate(this::logStats, statsLogSeconds, statsLogSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (statsLogger != null) {
+            statsLogger.shutdown();
+        }
+        if (lobbies != null) {
+            lobbies.close();
+        }
+    }
+
+    /**
+     * Queues a message sent by a user to a lobby. Errors are reported on the user's
+     * {@code /queue/chat/error} destination.
+     */
+    public void submit(String lobbyId, String userId, String username, String content) {
+        Submission submission = new Submission(lobbyId, userId, username, content, System.nanoTime());
+        if (lobbies == null) {
+            process(List.of(submission));
+            return;
+        }
+        if (!admit(lobbyId)) {
+            rejected.increment();
+            log.warn("Chat pipeline full, rejecting message from {} in lobby {}", userId, lobbyId);
+            sendError(userId, ChatErrorResponse.unavailable());
+            return;
+        }
+        queued.compute(lobbyId, (id, queue) -> {
+            Deque<Submission> submissions = queue != null ? queue : new ArrayDeque<>();
+            submissions.add(submission);
+            return submissions;
+        });
+        lobbies.execute(lobbyId, () -> drain(lobbyId));
+    }
+
+    /**
+     * Processes everything queued for the lobby. Each submission schedules a drain, so a drain
+     * that finds the queue already taken by an earlier one has nothing to do.
+     */
+    private void drain(String lobbyId) {
+        Deque<Submission> submissions = queued.remove(lobbyId);
+        if (submissions == null) {
+            return;
+        }
+        List<Submission> batch = List.copyOf(submissions);
+        try {
+            process(batch);
+        } finally {
+            batch.forEach(submission -> release(lobbyId));
+        }
+    }
+
+    /**
+     * Runs the stages for submissions to one lobby, in order; the accepted messages are persisted
+     * together before any of them is broadcast.
+     */
+    void process(List<Submission> batch) {
+        String lobbyId = batch.get(0).lobbyId();
+        List<Submission> senders = new ArrayList<>(batch.size());
+        List<ChatMessage> messages = new ArrayList<>(batch.size());
+        for (Submission submission : batch) {
+            metrics.get(Stage.QUEUE).record(System.nanoTime() - submission.submittedAtNanos(), false);
+            try {
+                ChatMessage message = prepare(submission);
+                if (message != null) {
+                    senders.add(submission);
+                    messages.add(message);
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to process chat message from {} in lobby {}", submission.userId(), lobbyId, e);
+                sendError(submission.userId(), ChatErrorResponse.unavailable());
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            persist(lobbyId, messages);
+        } catch (RuntimeException e) {
+            log.error("Failed to store {} chat messages in lobby {}", messages.size(), lobbyId, e);
+            senders.forEach(submission -> sendError(submission.userId(), ChatErrorResponse.unavailable()));
+            return;
+        }
+
+        for (int i = 0; i < messages.size(); i++) {
+            ChatMessage message = messages.get(i);
+            Submission submission = senders.get(i);
+            try {
+                timed(Stage.FAN_OUT, () -> {
+                    roomEvents.convertAndSend("/topic/room/" + lobbyId + "/chat",
+                            ChatMessageResponse.fromChatMessage(message));
+                    return null;
+                });
+                log.debug("Chat message sent in lobby {} by {}", lobbyId, submission.username());
+            } catch (RuntimeException e) {
+                log.error("Failed to broadcast chat message from {} in lobby {}", submission.userId(), lobbyId, e);
+                sendError(submission.userId(), ChatErrorResponse.unavailable());
+            }
+        }
+    }
+
+    /**
+     * Validates, rate-limits and filters a submission.
+     *
+     * @return the message to store, or null if the sender was told why it was rejected
+     */
+    private ChatMessage prepare(Submission submission) {
+        String avatar = timed(Stage.VALIDATE, () -> validate(submission));
+        if (avatar == null) {
+            return null;
+        }
+
+        Optional<Long> rateLimited = timed(Stage.RATE_LIMIT, () -> rateLimiter.checkRateLimit(submission.userId()));
+        if (rateLimited.isPresent()) {
+            sendError(submission.userId(), ChatErrorResponse.rateLimited(rateLimited.get()));
+            return null;
+        }
+
+        return timed(Stage.FILTER, () -> chatService.createUserMessage(submission.lobbyId(),
+                submission.userId(), submission.username(), avatar, submission.content()));
+    }
+
+    /**
+     * Stores the messages with one append; the round-trip counts once for each message.
+     */
+    private void persist(String lobbyId, List<ChatMessage> messages) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chatService.storeMessages(lobbyId, messages);
+            failed = false;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            StageMetrics persist = metrics.get(Stage.PERSIST);
+            for (int i = 0; i < messages.size(); i++) {
+                persist.record(nanos, failed);
+            }
+        }
+    }
+
+    /**
+     * Checks the content and that the sender is in the lobby.
+     *
+     * @return the sender's avatar, or null if the message was rejected
+     */
+    private String validate(Submission submission) {
+        String content = submission.content();
+        if (content == null || content.isBlank()) {
+            sendError(submission.userId(), ChatErrorResponse.invalidMessage("Message cannot be empty"));
+            return null;
+        }
+        if (content.length() > MAX_MESSAGE_LENGTH) {
+            sendError(submission.userId(),
+                    ChatErrorResponse.invalidMessage("Message too long (max " + MAX_MESSAGE_LENGTH + " chars)"));
+            return null;
+        }
+
+        // The sender's lobby and the room for the avatar in one round-trip
+        List<Object> values = redisTemplate.opsForValue().multiGet(
+                List.of(KEY_USER_ROOM_BY_ID + submission.userId(), KEY_ROOM + submission.lobbyId()));
+        Object userLobbyId = values != null && !values.isEmpty() ? values.get(0) : null;
+        if (!submission.lobbyId().equals(userLobbyId)) {
+            sendError(submission.userId(), ChatErrorResponse.notInLobby());
+            return null;
+        }
+
+        Object room = values.size() > 1 ? values.get(1) : null;
+        return room instanceof GameRoom gameRoom
+                ? chatService.getPlayerAvatar(gameRoom.getPlayers(), submission.userId())
+                : DEFAULT_AVATAR;
+    }
+
+    private boolean admit(String lobbyId) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            return false;
+        }
+        boolean[] admitted = {false};
+        pendingByLobby.compute(lobbyId, (id, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxPendingPerLobby) {
+                return count;
+            }
+            admitted[0] = true;
+            return current + 1;
+        });
+        if (!admitted[0]) {
+            pending.decrementAndGet();
+        }
+        return admitted[0];
+    }
+
+    private void release(String lobbyId) {
+        pendingByLobby.computeIfPresent(lobbyId, (id, count) -> count > 1 ? count - 1 : null);
+        pending.decrementAndGet();
+    }
+
+    private <T> T timed(Stage stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = work.get();
+            failed = false;
+            return result;
+        } finally {
+            metrics.get(stage).record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void sendError(String userId, ChatErrorResponse error) {
+        messagingTemplate.convertAndSendToUser(userId, "/queue/chat/error", error);
+    }
+
+    /**
+     * Messages admitted but not yet processed.
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Messages turned away because the pipeline was full.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Per-stage counters since startup; {@link Stage#QUEUE} is the wait before the first stage.
+     */
+    public Map<Stage, StageStats> getStats() {
+        Map<Stage, StageStats> stats = new EnumMap<>(Stage.class);
+        metrics.forEach((stage, stageMetrics) -> stats.put(stage, stageMetrics.snapshot()));
+        return stats;
+    }
+
+    private void logStats() {
+        Map<Stage, StageStats> stats = getStats();
+        if (stats.get(Stage.QUEUE).processed() == 0) {
+            return;
+        }
+        log.info("Chat pipeline: pending={} rejected={} stages={}", getPending(), getRejected(), stats);
+    }
+
+    record Submission(String lobbyId, String userId, String username, String content, long submittedAtNanos) {
+    }
+
+    /**
+     * @param processed messages that went through the stage, including failures
+     */
+    public record StageStats(long processed, long failed, double avgMillis, double maxMillis) {
+    }
+
+    private static final class StageMetrics {
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, boolean failure) {
+            processed.increment();
+            if (failure) {
+                failed.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        StageStats snapshot() {
+            long count = processed.sum();
+            return new StageStats(count, failed.sum(),
+                    count == 0 ? 0 : totalNanos.sum() / (double) count / 1_000_000,
+                    maxNanos.get() / 1_000_000.0);
+        }
+    }
+}
@@ -9,6 +9,8 @@ import com.online_games_service.menu.model.PlayerState;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -27,21 +29,39 @@ public class ChatService {
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
     private final ProfanityFilterService profanityFilter;
+    private final ChatHistoryCache historyCache;
     
     private static final String CHAT_KEY_PREFIX = "lobby:chat:";
     private static final Duration CHAT_TTL = Duration.ofHours(1);  // Match room TTL
     private static final int MAX_MESSAGES_PER_LOBBY = 500;
     
+    // Appends the messages, keeps only the newest ones and refreshes the TTL in one round-trip
+    private static final RedisScript<Long> APPEND_SCRIPT = new DefaultRedisScript<>("""
+            local size = redis.call('RPUSH', KEYS[1], unpack(ARGV, 3))
+            redis.call('LTRIM', KEYS[1], -tonumber(ARGV[1]), -1)
+            redis.call('EXPIRE', KEYS[1], tonumber(ARGV[2]))
+            return size
+            """, Long.class);
+    
     /**
      * Saves a chat message to Redis and returns the processed message.
      * Applies profanity filtering before storage.
      */
     public ChatMessage saveMessage(String lobbyId, String senderId, String senderUsername, 
                                    String senderAvatar, String content) {
-        // Apply profanity filter
+        ChatMessage message = createUserMessage(lobbyId, senderId, senderUsername, senderAvatar, content);
+        storeMessage(message);
+        return message;
+    }
+    
+    /**
+     * Builds a user message with profanity filtered out, without storing it.
+     */
+    public ChatMessage createUserMessage(String lobbyId, String senderId, String senderUsername,
+                                         String senderAvatar, String content) {
         var filterResult = profanityFilter.filter(content);
         
-        ChatMessage message = ChatMessage.builder()
+        return ChatMessage.builder()
                 .id(UUID.randomUUID().toString())
                 .lobbyId(lobbyId)
                 .senderId(senderId)
@@ -52,27 +72,24 @@ public class ChatService {
                 .isBlurred(filterResult.wasFiltered())
                 .type(ChatMessage.MessageType.USER_MESSAGE)
                 .build();
-        
-        String key = CHAT_KEY_PREFIX + lobbyId;
-        
-        try {
-            String messageJson = objectMapper.writeValueAsString(message);
-            // Add to the end of the list (newest messages at the end)
-            redisTemplate.opsForList().rightPush(key, messageJson);
-            
-            // Trim to max size (keep newest messages)
-            redisTemplate.opsForList().trim(key, -MAX_MESSAGES_PER_LOBBY, -1);
-            
-            // Refresh TTL
-            redisTemplate.expire(key, CHAT_TTL);
-            
-            log.debug("Saved chat message {} to lobby {}", message.getId(), lobbyId);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize chat message", e);
-            throw new RuntimeException("Failed to save chat message", e);
+    }
+    
+    /**
+     * Stores a message built by {@link #createUserMessage}.
+     */
+    public void storeMessage(ChatMessage message) {
+        storeMessages(message.getLobbyId(), List.of(message));
+    }
+    
+    /**
+     * Stores messages of one lobby, in order, with a single Redis round-trip.
+     */
+    public void storeMessages(String lobbyId, List<ChatMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
         }
-        
-        return message;
+        appendNow(lobbyId, messages);
+        log.debug("Saved {} chat messages to lobby {}", messages.size(), lobbyId);
     }
     
     /**
@@ -91,14 +108,10 @@ public class ChatService {
                 .type(ChatMessage.MessageType.SYSTEM_MESSAGE)
                 .build();
         
-        String key = CHAT_KEY_PREFIX + lobbyId;
-        
         try {
-            String messageJson = objectMapper.writeValueAsString(message);
-            redisTemplate.opsForList().rightPush(key, messageJson);
-            redisTemplate.expire(key, CHAT_TTL);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize system message", e);
+            appendNow(lobbyId, List.of(message));
+        } catch (RuntimeException e) {
+            log.error("Failed to save system message to lobby {}", lobbyId, e);
         }
         
         return message;
@@ -171,15 +184,95 @@ public class ChatService {
                 .build();
     }
     
+    /**
+     * Fetches the {@code limit} messages sent right before the message {@code before}, or the newest
+     * messages when it is null. Unlike offsets, the cursor does not drift as new messages arrive.
+     * Recent pages are served from {@link ChatHistoryCache} without touching Redis.
+     */
+    public ChatHistoryResponse getChatHistory(String lobbyId, String before, int limit) {
+        Optional<ChatHistoryResponse> cached = historyCache.page(lobbyId, before, limit);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        
+        if (before == null && limit <= historyCache.getCapacity()) {
+            loadRecentMessages(lobbyId);
+            cached = historyCache.page(lobbyId, null, limit);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        
+        // Older than anything cached: the whole list is at most MAX_MESSAGES_PER_LOBBY entries
+        List<ChatMessageResponse> all = readMessages(lobbyId, 0, -1);
+        int end = all.size();
+        if (before != null) {
+            end = ChatHistoryCache.indexOf(all, before);
+            if (end < 0) {
+                // The cursor was trimmed away, nothing older is left
+                return ChatHistoryCache.cursorPage(Collections.emptyList(), limit, false);
+            }
+        }
+        int start = Math.max(0, end - limit);
+        return ChatHistoryCache.cursorPage(new ArrayList<>(all.subList(start, end)), limit, start > 0);
+    }
+    
+    private void loadRecentMessages(String lobbyId) {
+        int capacity = historyCache.getCapacity();
+        historyCache.beginLoad(lobbyId);
+        // One extra message tells whether anything older is left in Redis
+        List<ChatMessageResponse> newest = readMessages(lobbyId, -(capacity + 1), -1);
+        boolean olderInRedis = newest.size() > capacity;
+        if (olderInRedis) {
+            newest = newest.subList(newest.size() - capacity, newest.size());
+        }
+        historyCache.completeLoad(lobbyId, newest, olderInRedis);
+    }
+    
+    private List<ChatMessageResponse> readMessages(String lobbyId, long start, long end) {
+        List<Object> rawMessages = redisTemplate.opsForList().range(CHAT_KEY_PREFIX + lobbyId, start, end);
+        if (rawMessages == null) {
+            return Collections.emptyList();
+        }
+        
+        List<ChatMessageResponse> messages = new ArrayList<>(rawMessages.size());
+        for (Object raw : rawMessages) {
+            try {
+                messages.add(ChatMessageResponse.fromChatMessage(objectMapper.readValue(raw.toString(), ChatMessage.class)));
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to deserialize chat message: {}", raw);
+            }
+        }
+        return messages;
+    }
+    
     /**
      * Deletes all chat messages for a lobby (called when lobby is destroyed).
      */
     public void deleteChatHistory(String lobbyId) {
         String key = CHAT_KEY_PREFIX + lobbyId;
         redisTemplate.delete(key);
+        historyCache.evict(lobbyId);
         log.debug("Deleted chat history for lobby {}", lobbyId);
     }
     
+    private void appendNow(String lobbyId, List<ChatMessage> messages) {
+        Object[] args = new Object[messages.size() + 2];
+        args[0] = MAX_MESSAGES_PER_LOBBY;
+        args[1] = CHAT_TTL.toSeconds();
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                args[i + 2] = objectMapper.writeValueAsString(messages.get(i));
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize chat message", e);
+            throw new RuntimeException("Failed to save chat message", e);
+        }
+        
+        redisTemplate.execute(APPEND_SCRIPT, List.of(CHAT_KEY_PREFIX + lobbyId), args);
+        historyCache.appended(lobbyId, messages);
+    }
+    
     /**
      * Gets the avatar for a user from the lobby players map.
      */
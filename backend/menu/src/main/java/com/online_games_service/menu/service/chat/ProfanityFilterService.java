@@ -1,59 +1,109 @@
 package com.online_games_service.menu.service.chat;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for filtering profanity from chat messages.
- * Uses a dictionary-based approach with regex matching.
+ * Uses a dictionary-based approach with a {@link ProfanityMatcher} built from one word list per language.
+ * <p>
+ * Word lists are the files matching {@code chat.profanity.words-location}, named after their language
+ * (e.g. {@code pl.txt}). With {@code chat.profanity.reload-seconds} set they are re-read when they change.
  */
 @Service
+@Slf4j
 public class ProfanityFilterService {
-    
-    // Common profanity words - can be extended or loaded from a file
-    private static final Set<String> BAD_WORDS = Set.of(
-        "fuck", "shit", "ass", "bitch", "bastard", "damn", "crap", "piss",
-        "dick", "cock", "pussy", "cunt", "whore", "slut", "fag", "faggot",
-        "nigger", "nigga", "retard", "idiot", "moron", "stupid",
-        "kurwa", "chuj", "pizda", "skurwysyn", "dupa", "cholera", "kurwo"  // Polish
-    );
-    
-    // Pre-compiled patterns for efficiency
-    private final Pattern profanityPattern;
-    
+
+    static final String DEFAULT_WORDS_LOCATION = "classpath:profanity/*.txt";
+
+    @Value("${chat.profanity.words-location:" + DEFAULT_WORDS_LOCATION + "}")
+    private String wordsLocation = DEFAULT_WORDS_LOCATION;
+
+    @Value("${chat.profanity.reload-seconds:0}")
+    private long reloadSeconds;
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    private volatile WordLists wordLists = new WordLists(Map.of(), ProfanityMatcher.of(List.of()), null);
+    private ScheduledExecutorService reloader;
+
     public ProfanityFilterService() {
-        // Build regex pattern that matches whole words (case-insensitive)
-        // Also handles common letter substitutions (l33t speak)
-        StringBuilder patternBuilder = new StringBuilder("\\b(");
-        boolean first = true;
-        for (String word : BAD_WORDS) {
-            if (!first) {
-                patternBuilder.append("|");
+        reload();
+    }
+
+    @PostConstruct
+    void startReloading() {
+        reload();
+        if (reloadSeconds <= 0) {
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "profanity-list-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloader.scheduleWithFixedDelay(this::reload, reloadSeconds, reloadSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stopReloading() {
+        if (reloader != null) {
+            reloader.shutdown();
+        }
+    }
+
+    /**
+     * Re-reads the word lists if they changed. A list that cannot be read keeps the current words.
+     */
+    public synchronized void reload() {
+        try {
+            Resource[] resources = resolver.getResources(wordsLocation);
+            String version = versionOf(resources);
+            if (version.equals(wordLists.version())) {
+                return;
             }
-            // Create pattern with common substitutions
-            patternBuilder.append(createFlexiblePattern(word));
-            first = false;
+
+            Map<String, List<String>> byLanguage = new LinkedHashMap<>();
+            for (Resource resource : resources) {
+                byLanguage.put(languageOf(resource), readWords(resource));
+            }
+            if (byLanguage.isEmpty()) {
+                log.warn("No profanity word lists found at {}, keeping the current ones", wordsLocation);
+                return;
+            }
+
+            List<String> allWords = byLanguage.values().stream().flatMap(List::stream).toList();
+            wordLists = new WordLists(byLanguage, ProfanityMatcher.of(allWords), version);
+            log.info("Loaded {} profanity words for languages {}", allWords.size(), byLanguage.keySet());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load profanity word lists from {}", wordsLocation, e);
         }
-        patternBuilder.append(")\\b");
-        this.profanityPattern = Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE);
     }
-    
+
     /**
-     * Creates a flexible regex pattern that handles common letter substitutions.
+     * Languages with a loaded word list.
      */
-    private String createFlexiblePattern(String word) {
-        return word
-            .replace("a", "[a@4]")
-            .replace("e", "[e3]")
-            .replace("i", "[i1!]")
-            .replace("o", "[o0]")
-            .replace("s", "[s$5]")
-            .replace("t", "[t7]")
-            .replace("l", "[l1]");
+    public Set<String> getLanguages() {
+        return wordLists.byLanguage().keySet();
     }
-    
+
     /**
      * Checks if a message contains profanity.
      */
@@ -61,7 +111,17 @@ public class ProfanityFilterService {
         if (message == null || message.isBlank()) {
             return false;
         }
-        return profanityPattern.matcher(message).find();
+        return wordLists.matcher().matches(message);
+    }
+
+    /**
+     * Spans of the profane words in a message.
+     */
+    public List<ProfanityMatcher.Match> findProfanity(String message) {
+        if (message == null || message.isBlank()) {
+            return List.of();
+        }
+        return wordLists.matcher().find(message);
     }
     
     /**
@@ -69,26 +129,61 @@ public class ProfanityFilterService {
      * Returns a result containing the filtered message and whether it was modified.
      */
     public FilterResult filter(String message) {
-        if (message == null || message.isBlank()) {
+        List<ProfanityMatcher.Match> matches = findProfanity(message);
+        if (matches.isEmpty()) {
             return new FilterResult(message, false);
         }
-        
-        var matcher = profanityPattern.matcher(message);
-        StringBuilder result = new StringBuilder();
-        boolean wasFiltered = false;
-        
-        while (matcher.find()) {
-            wasFiltered = true;
-            String replacement = "*".repeat(matcher.group().length());
-            matcher.appendReplacement(result, replacement);
+
+        char[] filtered = message.toCharArray();
+        for (ProfanityMatcher.Match match : matches) {
+            for (int i = match.start(); i < match.end(); i++) {
+                filtered[i] = '*';
+            }
         }
-        matcher.appendTail(result);
-        
-        return new FilterResult(result.toString(), wasFiltered);
+        return new FilterResult(new String(filtered), true);
     }
     
     /**
      * Result of filtering a message.
      */
     public record FilterResult(String filteredMessage, boolean wasFiltered) {}
+
+    private static List<String> readWords(Resource resource) throws IOException {
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.strip();
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static String languageOf(Resource resource) {
+        String name = resource.getFilename() != null ? resource.getFilename() : resource.getDescription();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    // Changes when a list is added, removed or modified
+    private static String versionOf(Resource[] resources) {
+        StringBuilder version = new StringBuilder();
+        for (Resource resource : resources) {
+            long modified;
+            try {
+                modified = resource.lastModified();
+            } catch (IOException e) {
+                modified = 0;
+            }
+            version.append(resource.getDescription()).append('@').append(modified).append(';');
+        }
+        return version.toString();
+    }
+
+    private record WordLists(Map<String, List<String>> byLanguage, ProfanityMatcher matcher, String version) {
+    }
 }
@@ -0,0 +1,274 @@
+package com.online_games_service.menu.service.chat;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Finds whole-word occurrences of many words in one pass over a message (Aho-Corasick).
+ * <p>
+ * Every character is folded before matching: lowercased, stripped of accents and mapped from common
+ * leetspeak substitutes ({@code @}/{@code 4} to a, {@code 3} to e, {@code 0} to o, ...). Folding
+ * keeps one character per character, so match spans are positions in the original message.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class ProfanityMatcher {
+
+    // '1' stands for both i and l, so words are inserted once per reading of their i and l letters
+    private static final char AMBIGUOUS = '1';
+    private static final int MAX_AMBIGUOUS_POSITIONS = 6;
+    private static final char[] FOLD = buildFoldTable();
+
+    // Folded char -> column of the transition table, -1 if no word contains it
+    private final int[] latinSymbols;
+    private final Map<Character, Integer> otherSymbols;
+    // Complete transition table: state x symbol -> state, failure links already applied
+    private final int[][] transitions;
+    // Words ending in each state (including via failure links), longest first
+    private final int[][] outputs;
+    private final String[] words;
+    private final int[] wordLengths;
+
+    private ProfanityMatcher(Map<Character, Integer> symbols, int[][] transitions, int[][] outputs,
+                             String[] words, int[] wordLengths) {
+        this.latinSymbols = new int[FOLD.length];
+        Arrays.fill(latinSymbols, -1);
+        this.otherSymbols = new HashMap<>();
+        symbols.forEach((c, symbol) -> {
+            if (c < FOLD.length) {
+                latinSymbols[c] = symbol;
+            } else {
+                otherSymbols.put(c, symbol);
+            }
+        });
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.words = words;
+        this.wordLengths = wordLengths;
+    }
+
+    public static ProfanityMatcher of(Collection<String> words) {
+        List<String> patterns = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        for (String word : words) {
+            String folded = fold(word.trim());
+            if (folded.isEmpty()) {
+                continue;
+            }
+            for (String variant : ambiguousVariants(folded)) {
+                patterns.add(variant);
+                sources.add(word.trim());
+            }
+        }
+        return build(patterns, sources);
+    }
+
+    /**
+     * Whole-word matches in {@code text}, leftmost first; overlapping matches keep the longest.
+     */
+    public List<Match> find(String text) {
+        if (text == null || text.isEmpty() || words.length == 0) {
+            return List.of();
+        }
+
+        List<Match> candidates = null;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = symbolOf(fold(text.charAt(i)));
+            state = symbol < 0 ? 0 : transitions[state][symbol];
+            for (int word : outputs[state]) {
+                int start = i + 1 - wordLengths[word];
+                if (startsWord(text, start) && endsWord(text, i + 1)) {
+                    if (candidates == null) {
+                        candidates = new ArrayList<>();
+                    }
+                    candidates.add(new Match(start, i + 1, words[word]));
+                    break;
+                }
+            }
+        }
+        return candidates == null ? List.of() : withoutOverlaps(candidates);
+    }
+
+    public boolean matches(String text) {
+        return !find(text).isEmpty();
+    }
+
+    /**
+     * @param start inclusive
+     * @param end   exclusive
+     * @param word  the listed word that matched
+     */
+    public record Match(int start, int end, String word) {
+    }
+
+    private int symbolOf(char folded) {
+        return folded < latinSymbols.length ? latinSymbols[folded] : otherSymbols.getOrDefault(folded, -1);
+    }
+
+    static char fold(char c) {
+        return c < FOLD.length ? FOLD[c] : Character.toLowerCase(c);
+    }
+
+    static String fold(String text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(text.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    private static ProfanityMatcher build(List<String> patterns, List<String> sources) {
+        Map<Character, Integer> symbols = new HashMap<>();
+        for (String pattern : patterns) {
+            for (char c : pattern.toCharArray()) {
+                symbols.putIfAbsent(c, symbols.size());
+            }
+        }
+
+        // Trie
+        List<int[]> gotos = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        gotos.add(newRow(symbols.size()));
+        ends.add(new ArrayList<>());
+        Map<String, Integer> wordIds = new LinkedHashMap<>();
+        List<String> wordSources = new ArrayList<>();
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (wordIds.containsKey(pattern)) {
+                continue;
+            }
+            int state = 0;
+            for (char c : pattern.toCharArray()) {
+                int symbol = symbols.get(c);
+                if (gotos.get(state)[symbol] < 0) {
+                    gotos.get(state)[symbol] = gotos.size();
+                    gotos.add(newRow(symbols.size()));
+                    ends.add(new ArrayList<>());
+                }
+                state = gotos.get(state)[symbol];
+            }
+            wordIds.put(pattern, wordIds.size());
+            wordSources.add(sources.get(p));
+            ends.get(state).add(wordIds.size() - 1);
+        }
+
+        int[] wordLengths = wordIds.keySet().stream().mapToInt(String::length).toArray();
+
+        // Failure links in breadth-first order, folded into a complete transition table
+        int[][] transitions = gotos.toArray(int[][]::new);
+        int[] failure = new int[transitions.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < symbols.size(); symbol++) {
+            int next = transitions[0][symbol];
+            if (next < 0) {
+                transitions[0][symbol] = 0;
+            } else {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            ends.get(state).addAll(ends.get(failure[state]));
+            for (int symbol = 0; symbol < symbols.size(); symbol++) {
+                int next = transitions[state][symbol];
+                if (next < 0) {
+                    transitions[state][symbol] = transitions[failure[state]][symbol];
+                } else {
+                    failure[next] = transitions[failure[state]][symbol];
+                    queue.add(next);
+                }
+            }
+        }
+
+        int[][] outputs = new int[transitions.length][];
+        for (int state = 0; state < outputs.length; state++) {
+            outputs[state] = ends.get(state).stream()
+                    .sorted(Comparator.comparingInt((Integer word) -> wordLengths[word]).reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return new ProfanityMatcher(symbols, transitions, outputs, wordSources.toArray(String[]::new), wordLengths);
+    }
+
+    private static int[] newRow(int size) {
+        int[] row = new int[size];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static List<String> ambiguousVariants(String word) {
+        List<String> variants = new ArrayList<>(List.of(word));
+        int expanded = 0;
+        for (int i = 0; i < word.length() && expanded < MAX_AMBIGUOUS_POSITIONS; i++) {
+            char c = word.charAt(i);
+            if (c != 'i' && c != 'l') {
+                continue;
+            }
+            expanded++;
+            int size = variants.size();
+            for (int v = 0; v < size; v++) {
+                char[] chars = variants.get(v).toCharArray();
+                chars[i] = AMBIGUOUS;
+                variants.add(new String(chars));
+            }
+        }
+        return variants;
+    }
+
+    private static List<Match> withoutOverlaps(List<Match> candidates) {
+        candidates.sort(Comparator.comparingInt(Match::start)
+                .thenComparing(Comparator.comparingInt(Match::end).reversed()));
+        List<Match> matches = new ArrayList<>();
+        int lastEnd = 0;
+        for (Match match : candidates) {
+            if (match.start() >= lastEnd) {
+                matches.add(match);
+                lastEnd = match.end();
+            }
+        }
+        return matches;
+    }
+
+    private static boolean startsWord(String text, int start) {
+        return start == 0 || !isWordChar(text.charAt(start - 1));
+    }
+
+    private static boolean endsWord(String text, int end) {
+        return end == text.length() || !isWordChar(text.charAt(end));
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static char[] buildFoldTable() {
+        char[] table = new char[0x250];
+        for (char c = 0; c < table.length; c++) {
+            char lower = Character.toLowerCase(c);
+            String decomposed = Normalizer.normalize(String.valueOf(lower), Normalizer.Form.NFD);
+            table[c] = decomposed.charAt(0) < 0x80 ? decomposed.charAt(0) : lower;
+        }
+        table['ł'] = 'l';
+        table['Ł'] = 'l';
+        table['ø'] = 'o';
+        table['Ø'] = 'o';
+        table['@'] = 'a';
+        table['4'] = 'a';
+        table['3'] = 'e';
+        table['!'] = 'i';
+        table['0'] = 'o';
+        table['$'] = 's';
+        table['5'] = 's';
+        table['7'] = 't';
+        return table;
+    }
+}
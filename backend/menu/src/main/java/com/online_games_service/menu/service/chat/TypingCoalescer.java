@@ -0,0 +1,176 @@
+package com.online_games_service.menu.service.chat;
+
+import com.online_games_service.menu.dto.chat.TypingIndicator;
+import com.online_games_service.menu.dto.chat.TypingStatusResponse;
+import com.online_games_service.menu.messaging.RoomEventRelay;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Collapses typing start/stop events into one "who is typing" frame per lobby and tick.
+ * <p>
+ * Events only update per-lobby state; a tick broadcasts a lobby's typers when they changed, and
+ * repeats a non-empty frame every half {@code expire-ms} so clients can tell it is still current.
+ * A user who stops sending events stops typing after {@code expire-ms}.
+ */
+@Component
+@Slf4j
+public class TypingCoalescer {
+
+    private final RoomEventRelay roomEvents;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, LobbyTyping> lobbies = new ConcurrentHashMap<>();
+    private LongSupplier clock = System::nanoTime;
+    private ScheduledExecutorService ticker;
+
+    @Value("${chat.typing.tick-ms:500}")
+    private long tickMs = 500;
+
+    @Value("${chat.typing.expire-ms:5000}")
+    private long expireMs = 5000;
+
+    public TypingCoalescer(RoomEventRelay roomEvents) {
+        this.roomEvents = roomEvents;
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-typing-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                log.error("Failed to broadcast typing indicators", e);
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdown();
+        }
+    }
+
+    /**
+     * Whether the user is currently typing in the lobby, i.e. already known to be in it.
+     */
+    public boolean isTyping(String lobbyId, String userId) {
+        LobbyTyping lobby = lobbies.get(lobbyId);
+        return lobby != null && lobby.contains(userId);
+    }
+
+    public void update(String lobbyId, String userId, String username, boolean typing) {
+        long now = clock.getAsLong();
+        if (!typing) {
+            lobbies.computeIfPresent(lobbyId, (id, lobby) -> {
+                lobby.remove(userId);
+                return lobby;
+            });
+            return;
+        }
+        lobbies.compute(lobbyId, (id, lobby) -> {
+            LobbyTyping target = lobby != null ? lobby : new LobbyTyping();
+            target.put(userId, username, now + TimeUnit.MILLISECONDS.toNanos(expireMs));
+            return target;
+        });
+    }
+
+    /**
+     * Broadcasts the lobbies whose typers changed or are due for a refresh.
+     */
+    void tick() {
+        long now = clock.getAsLong();
+        long refreshNanos = TimeUnit.MILLISECONDS.toNanos(expireMs) / 2;
+        for (String lobbyId : lobbies.keySet()) {
+            List<List<TypingIndicator>> frame = new ArrayList<>(1);
+            lobbies.computeIfPresent(lobbyId, (id, lobby) -> {
+                lobby.expire(now);
+                if (lobby.isDue(now, refreshNanos)) {
+                    frame.add(lobby.snapshot(now));
+                }
+                return lobby.isIdle() ? null : lobby;
+            });
+            if (!frame.isEmpty()) {
+                roomEvents.convertAndSend("/topic/room/" + lobbyId + "/typing", TypingStatusResponse.builder()
+                        .source(instanceId)
+                        .users(frame.get(0))
+                        .expiresInMs(expireMs)
+                        .build());
+            }
+        }
+    }
+
+    int trackedLobbies() {
+        return lobbies.size();
+    }
+
+    private static final class LobbyTyping {
+        private final Map<String, Typist> typists = new LinkedHashMap<>();
+        private boolean dirty;
+        private long lastSentNanos;
+
+        synchronized boolean contains(String userId) {
+            return typists.containsKey(userId);
+        }
+
+        synchronized void put(String userId, String username, long expiresAtNanos) {
+            if (typists.put(userId, new Typist(username, expiresAtNanos)) == null) {
+                dirty = true;
+            }
+        }
+
+        synchronized void remove(String userId) {
+            if (typists.remove(userId) != null) {
+                dirty = true;
+            }
+        }
+
+        synchronized void expire(long now) {
+            if (typists.values().removeIf(typist -> typist.expiresAtNanos() - now <= 0)) {
+                dirty = true;
+            }
+        }
+
+        synchronized boolean isDue(long now, long refreshNanos) {
+            return dirty || (!typists.isEmpty() && now - lastSentNanos >= refreshNanos);
+        }
+
+        synchronized boolean isIdle() {
+            return typists.isEmpty() && !dirty;
+        }
+
+        synchronized List<TypingIndicator> snapshot(long now) {
+            dirty = false;
+            lastSentNanos = now;
+            List<TypingIndicator> users = new ArrayList<>(typists.size());
+            typists.forEach((userId, typist) -> users.add(TypingIndicator.builder()
+                    .userId(userId)
+                    .username(typist.username())
+                    .isTyping(true)
+                    .build()));
+            return users;
+        }
+    }
+
+    private record Typist(String username, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.online_games_service.menu.service.matchmaking;
+
+import com.online_games_service.menu.config.MatchmakingConfig;
+import com.online_games_service.menu.model.MatchTicket;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups queued tickets of one game type into rooms.
+ * <p>
+ * The oldest ticket anchors each room and is filled up with the next oldest tickets whose
+ * rating is close enough to everyone already in the room. The allowed rating difference
+ * widens the longer a ticket waits. An anchor that cannot fill its room keeps waiting until
+ * the bot backfill deadline, after which its room starts with the players found so far.
+ */
+public class MatchAssembler {
+
+    private final long botBackfillAfterMs;
+    private final double initialSpread;
+    private final double spreadPerSecond;
+
+    public MatchAssembler(MatchmakingConfig config) {
+        this.botBackfillAfterMs = TimeUnit.SECONDS.toMillis(config.getBotBackfillAfterSeconds());
+        this.initialSpread = config.getRating().getInitialSpread();
+        this.spreadPerSecond = config.getRating().getSpreadPerSecond();
+    }
+
+    /**
+     * @return the rooms to start, each holding at most {@code roomSize} tickets; tickets not
+     * in any room stay queued
+     */
+    public List<List<MatchTicket>> assemble(List<MatchTicket> tickets, int roomSize, long nowMillis) {
+        List<MatchTicket> waiting = new ArrayList<>(tickets);
+        waiting.sort(Comparator.comparingLong(MatchTicket::getEnqueuedAt));
+
+        List<List<MatchTicket>> rooms = new ArrayList<>();
+        int anchorIndex = 0;
+        while (anchorIndex < waiting.size()) {
+            MatchTicket anchor = waiting.get(anchorIndex);
+            List<MatchTicket> room = new ArrayList<>(roomSize);
+            room.add(anchor);
+            for (int i = anchorIndex + 1; i < waiting.size() && room.size() < roomSize; i++) {
+                MatchTicket candidate = waiting.get(i);
+                if (fits(room, candidate, nowMillis)) {
+                    room.add(candidate);
+                }
+            }
+
+            if (room.size() >= roomSize || nowMillis - anchor.getEnqueuedAt() >= botBackfillAfterMs) {
+                rooms.add(room);
+                waiting.removeAll(room);
+            } else {
+                anchorIndex++;
+            }
+        }
+        return rooms;
+    }
+
+    private boolean fits(List<MatchTicket> room, MatchTicket candidate, long nowMillis) {
+        if (candidate.getRating() == null) {
+            return true;
+        }
+        for (MatchTicket member : room) {
+            if (member.getRating() == null) {
+                continue;
+            }
+            double allowed = Math.max(spread(member, nowMillis), spread(candidate, nowMillis));
+            if (Math.abs(member.getRating() - candidate.getRating()) > allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double spread(MatchTicket ticket, long nowMillis) {
+        double waitedSeconds = Math.max(0, nowMillis - ticket.getEnqueuedAt()) / 1000.0;
+        return initialSpread + spreadPerSecond * waitedSeconds;
+    }
+}
@@ -0,0 +1,253 @@
+package com.online_games_service.menu.service.matchmaking;
+
+import com.online_games_service.common.enums.GameType;
+import com.online_games_service.menu.config.MatchmakingConfig;
+import com.online_games_service.menu.dto.RoomInfoResponse;
+import com.online_games_service.menu.messaging.RoomEventRelay;
+import com.online_games_service.menu.model.GameRoom;
+import com.online_games_service.menu.model.MatchTicket;
+import com.online_games_service.menu.service.GameRoomService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Queue of players waiting to be matched into a room.
+ * <p>
+ * Each game type has a Redis ZSET of user ID -> enqueue time, and every ticket is stored next to
+ * it. Every tick one replica takes the lease of a game type, reads the oldest tickets in one batch
+ * and groups them with {@link MatchAssembler}. A group is taken out of the queue atomically,
+ * so a player who cancelled in the meantime is never put into a room.
+ */
+@Service
+@Slf4j
+public class MatchmakingService {
+
+    private static final String KEY_QUEUE = "matchmaking:queue:"; // ZSET user ID -> enqueue time (ms)
+    private static final String KEY_TICKET = "matchmaking:ticket:"; // Map user ID -> MatchTicket
+    private static final String KEY_LOCK = "matchmaking:lock:"; // Lease of the replica assembling a game type
+
+    private static final Duration TICKET_TTL = Duration.ofMinutes(15);
+
+    // Removes the whole group from the queue, or nobody if any member has left it
+    private static final RedisScript<Long> CLAIM_GROUP_SCRIPT = new DefaultRedisScript<>("""
+            for _, member in ipairs(ARGV) do
+                if not redis.call('ZSCORE', KEYS[1], member) then
+                    return 0
+                end
+            end
+            redis.call('ZREM', KEYS[1], unpack(ARGV))
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final MatchmakingConfig config;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final GameRoomService gameRoomService;
+    private final PlayerRatingClient ratingClient;
+    private final RoomEventRelay roomEvents;
+    private final MatchAssembler assembler;
+    private final String instanceId = UUID.randomUUID().toString();
+    private ScheduledExecutorService scheduler;
+
+    public MatchmakingService(MatchmakingConfig config,
+                              RedisTemplate<String, Object> redisTemplate,
+                              GameRoomService gameRoomService,
+                              PlayerRatingClient ratingClient,
+                              RoomEventRelay roomEvents) {
+        this.config = config;
+        this.redisTemplate = redisTemplate;
+        this.gameRoomService = gameRoomService;
+        this.ratingClient = ratingClient;
+        this.roomEvents = roomEvents;
+        this.assembler = new MatchAssembler(config);
+    }
+
+    @PostConstruct
+    void startAssembling() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "matchmaking-assembler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::assembleAll, config.getTickMs(), config.getTickMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopAssembling() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    public MatchTicket enqueue(GameType gameType, String userId, String username) {
+        if (gameRoomService.isUserInRoom(userId, username)) {
+            throw new IllegalStateException("You are already in a room. Leave it first.");
+        }
+
+        cancel(userId);
+
+        MatchTicket ticket = new MatchTicket(userId, username, gameType,
+                ratingClient.fetchRating(userId, gameType), System.currentTimeMillis());
+        writeBatch(ops -> {
+            ops.opsForValue().set(KEY_TICKET + userId, ticket, TICKET_TTL);
+            ops.opsForZSet().add(KEY_QUEUE + gameType, userId, ticket.getEnqueuedAt());
+            ops.expire(KEY_QUEUE + gameType, TICKET_TTL);
+        });
+
+        log.info("User {} queued for {} (rating {})", username, gameType, ticket.getRating());
+        return ticket;
+    }
+
+    /**
+     * @return true if the user was waiting in the queue
+     */
+    public boolean cancel(String userId) {
+        MatchTicket ticket = getTicket(userId);
+        if (ticket == null) {
+            return false;
+        }
+        writeBatch(ops -> {
+            ops.opsForZSet().remove(KEY_QUEUE + ticket.getGameType(), userId);
+            ops.delete(KEY_TICKET + userId);
+        });
+        return true;
+    }
+
+    public MatchTicket getTicket(String userId) {
+        return (MatchTicket) redisTemplate.opsForValue().get(KEY_TICKET + userId);
+    }
+
+    void assembleAll() {
+        for (GameType gameType : GameType.values()) {
+            try {
+                assembleMatches(gameType);
+            } catch (Exception e) {
+                log.error("Matchmaking tick for {} failed", gameType, e);
+            }
+        }
+    }
+
+    /**
+     * @return the number of rooms started
+     */
+    int assembleMatches(GameType gameType) {
+        String lockKey = KEY_LOCK + gameType;
+        Duration lease = Duration.ofMillis(Math.max(1000, config.getTickMs() * 5));
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, instanceId, lease))) {
+            return 0;
+        }
+        try {
+            List<MatchTicket> tickets = loadQueuedTickets(gameType);
+            if (tickets.isEmpty()) {
+                return 0;
+            }
+
+            int roomSize = config.getRoomSizeFor(gameType);
+            int started = 0;
+            for (List<MatchTicket> group : assembler.assemble(tickets, roomSize, System.currentTimeMillis())) {
+                if (claimGroup(gameType, group) && startRoom(gameType, group, roomSize)) {
+                    started++;
+                }
+            }
+            return started;
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), instanceId);
+        }
+    }
+
+    private List<MatchTicket> loadQueuedTickets(GameType gameType) {
+        String queueKey = KEY_QUEUE + gameType;
+        Set<ZSetOperations.TypedTuple<Object>> queued =
+                redisTemplate.opsForZSet().rangeWithScores(queueKey, 0, config.getBatchSize() - 1L);
+        if (queued == null || queued.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> userIds = queued.stream().map(tuple -> (String) tuple.getValue()).toList();
+        List<Object> loaded = redisTemplate.opsForValue().multiGet(userIds.stream().map(id -> KEY_TICKET + id).toList());
+        Set<String> alreadyInRooms = gameRoomService.findUsersInRooms(userIds);
+
+        List<MatchTicket> tickets = new ArrayList<>(userIds.size());
+        List<Object> stale = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            Object value = loaded != null && i < loaded.size() ? loaded.get(i) : null;
+            if (value instanceof MatchTicket ticket && ticket.getGameType() == gameType
+                    && !alreadyInRooms.contains(ticket.getUserId())) {
+                tickets.add(ticket);
+            } else {
+                stale.add(userIds.get(i));
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            redisTemplate.opsForZSet().remove(queueKey, stale.toArray());
+        }
+        return tickets;
+    }
+
+    private boolean claimGroup(GameType gameType, List<MatchTicket> group) {
+        Object[] userIds = group.stream().map(MatchTicket::getUserId).toArray();
+        Long claimed = redisTemplate.execute(CLAIM_GROUP_SCRIPT, List.of(KEY_QUEUE + gameType), userIds);
+        return claimed != null && claimed > 0;
+    }
+
+    private boolean startRoom(GameType gameType, List<MatchTicket> group, int roomSize) {
+        Map<String, String> players = new LinkedHashMap<>();
+        group.forEach(ticket -> players.put(ticket.getUserId(), ticket.getUsername()));
+
+        GameRoom room;
+        try {
+            room = gameRoomService.startMatchedRoom(gameType, players, roomSize);
+        } catch (RuntimeException e) {
+            log.error("Could not start matched {} room for {}, putting them back in the queue", gameType, players.keySet(), e);
+            writeBatch(ops -> group.forEach(ticket ->
+                    ops.opsForZSet().add(KEY_QUEUE + gameType, ticket.getUserId(), ticket.getEnqueuedAt())));
+            return false;
+        }
+
+        writeBatch(ops -> group.forEach(ticket -> ops.delete(KEY_TICKET + ticket.getUserId())));
+        RoomInfoResponse roomInfo = gameRoomService.buildRoomInfoResponse(room);
+        players.keySet().forEach(userId -> roomEvents.convertAndSendToUser(userId, "/queue/matchmaking", roomInfo));
+        return true;
+    }
+
+    private void writeBatch(Consumer<RedisOperations<String, Object>> writes) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                writes.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.online_games_service.menu.service.matchmaking;
+
+import com.online_games_service.common.enums.GameType;
+import com.online_games_service.menu.config.MatchmakingConfig;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Reads a player's win ratio from the statistical service to bucket matchmaking tickets.
+ * Rating is optional: when it is disabled, the player has too few games or the service
+ * cannot be reached, the player is simply matched without a rating.
+ */
+@Component
+@Slf4j
+public class PlayerRatingClient {
+
+    private final MatchmakingConfig.Rating config;
+    private final RestClient restClient;
+
+    public PlayerRatingClient(MatchmakingConfig matchmakingConfig, RestClient.Builder restClientBuilder) {
+        this.config = matchmakingConfig.getRating();
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) config.getTimeoutMs());
+        requestFactory.setReadTimeout((int) config.getTimeoutMs());
+        this.restClient = restClientBuilder
+                .baseUrl(config.getBaseUrl())
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    public Double fetchRating(String userId, GameType gameType) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        try {
+            PlayerStatistics stats = restClient.get()
+                    .uri("/player/{playerId}/{gameType}", userId, gameType)
+                    .retrieve()
+                    .body(PlayerStatistics.class);
+            if (stats == null || stats.getGamesPlayed() < config.getMinGames()) {
+                return null;
+            }
+            return stats.getWinRatio();
+        } catch (RestClientException e) {
+            log.warn("Could not fetch {} rating of player {}: {}", gameType, userId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Data
+    static class PlayerStatistics {
+        private int gamesPlayed;
+        private double winRatio;
+    }
+}
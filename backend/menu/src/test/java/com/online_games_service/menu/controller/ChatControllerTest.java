@@ -2,22 +2,17 @@ package com.online_games_service.menu.controller;
 
 import com.online_games_service.menu.config.WebSocketUserInterceptor.WebSocketPrincipal;
 import com.online_games_service.menu.dto.chat.*;
-import com.online_games_service.menu.model.ChatMessage;
-import com.online_games_service.menu.model.GameRoom;
-import com.online_games_service.menu.model.PlayerState;
-import com.online_games_service.menu.service.chat.ChatRateLimiterService;
+import com.online_games_service.menu.service.chat.ChatPipeline;
 import com.online_games_service.menu.service.chat.ChatService;
-import org.mockito.ArgumentCaptor;
+import com.online_games_service.menu.service.chat.TypingCoalescer;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.security.Principal;
-import java.time.Instant;
 import java.util.*;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -30,10 +25,10 @@ public class ChatControllerTest {
     private ChatService chatService;
 
     @Mock
-    private ChatRateLimiterService rateLimiter;
+    private ChatPipeline chatPipeline;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private TypingCoalescer typingCoalescer;
 
     @Mock
     private RedisTemplate<String, Object> redisTemplate;
@@ -47,7 +42,7 @@ public class ChatControllerTest {
     public void setUp() {
         MockitoAnnotations.openMocks(this);
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        chatController = new ChatController(chatService, rateLimiter, messagingTemplate, redisTemplate);
+        chatController = new ChatController(chatService, chatPipeline, typingCoalescer, redisTemplate);
     }
 
     // ============= sendMessage tests =============
@@ -59,228 +54,78 @@ public class ChatControllerTest {
 
         chatController.sendMessage("lobby-1", request, null);
 
-        verifyNoInteractions(chatService);
-        verifyNoInteractions(messagingTemplate);
-    }
-
-    @Test
-    public void sendMessage_shouldSendError_whenUserNotInLobby() {
-        WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
-        ChatMessageRequest request = new ChatMessageRequest();
-        request.setContent("Hello");
-
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn(null);
-
-        chatController.sendMessage("lobby-1", request, principal);
-
-        verify(messagingTemplate).convertAndSendToUser(
-                eq("user-123"),
-                eq("/queue/chat/error"),
-                any(ChatErrorResponse.class)
-        );
-        verifyNoInteractions(chatService);
-    }
-
-    @Test
-    public void sendMessage_shouldSendError_whenUserInDifferentLobby() {
-        WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
-        ChatMessageRequest request = new ChatMessageRequest();
-        request.setContent("Hello");
-
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("different-lobby");
-
-        chatController.sendMessage("lobby-1", request, principal);
-
-        verify(messagingTemplate).convertAndSendToUser(
-                eq("user-123"),
-                eq("/queue/chat/error"),
-                any(ChatErrorResponse.class)
-        );
-        verifyNoInteractions(chatService);
+        verifyNoInteractions(chatPipeline);
     }
 
     @Test
-    public void sendMessage_shouldSendRateLimitError_whenRateLimited() {
+    public void sendMessage_shouldSubmitToPipeline() {
         WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
         ChatMessageRequest request = new ChatMessageRequest();
-        request.setContent("Hello");
-
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(rateLimiter.checkRateLimit("user-123")).thenReturn(Optional.of(5000L));
-
-        chatController.sendMessage("lobby-1", request, principal);
-
-        ArgumentCaptor<ChatErrorResponse> errorCaptor = ArgumentCaptor.forClass(ChatErrorResponse.class);
-        verify(messagingTemplate).convertAndSendToUser(
-                eq("user-123"),
-                eq("/queue/chat/error"),
-                errorCaptor.capture()
-        );
-
-        ChatErrorResponse error = errorCaptor.getValue();
-        assertEquals(error.getCode(), "RATE_LIMIT");
-        verifyNoInteractions(chatService);
-    }
-
-    @Test
-    public void sendMessage_shouldSendError_whenMessageIsEmpty() {
-        WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
-        ChatMessageRequest request = new ChatMessageRequest();
-        request.setContent("");
-
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(rateLimiter.checkRateLimit("user-123")).thenReturn(Optional.empty());
+        request.setContent("Hello everyone!");
 
         chatController.sendMessage("lobby-1", request, principal);
 
-        verify(messagingTemplate).convertAndSendToUser(
-                eq("user-123"),
-                eq("/queue/chat/error"),
-                any(ChatErrorResponse.class)
-        );
-        verifyNoInteractions(chatService);
+        verify(chatPipeline).submit("lobby-1", "user-123", "TestUser", "Hello everyone!");
+        verifyNoInteractions(chatService, redisTemplate);
     }
 
-    @Test
-    public void sendMessage_shouldSendError_whenMessageIsNull() {
-        WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
-        ChatMessageRequest request = new ChatMessageRequest();
-        request.setContent(null);
-
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(rateLimiter.checkRateLimit("user-123")).thenReturn(Optional.empty());
-
-        chatController.sendMessage("lobby-1", request, principal);
-
-        verify(messagingTemplate).convertAndSendToUser(
-                eq("user-123"),
-                eq("/queue/chat/error"),
-                any(ChatErrorResponse.class)
-        );
-        verifyNoInteractions(chatService);
-    }
+    // ============= handleTyping tests =============
 
     @Test
-    public void sendMessage_shouldSendError_whenMessageTooLong() {
-        WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
-        ChatMessageRequest request = new ChatMessageRequest();
-        request.setContent("a".repeat(501));
-
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(rateLimiter.checkRateLimit("user-123")).thenReturn(Optional.empty());
+    public void handleTyping_shouldDoNothing_whenPrincipalIsNull() {
+        TypingIndicator indicator = TypingIndicator.builder().isTyping(true).build();
 
-        chatController.sendMessage("lobby-1", request, principal);
+        chatController.handleTyping("lobby-1", indicator, null);
 
-        verify(messagingTemplate).convertAndSendToUser(
-                eq("user-123"),
-                eq("/queue/chat/error"),
-                any(ChatErrorResponse.class)
-        );
-        verifyNoInteractions(chatService);
+        verifyNoInteractions(typingCoalescer);
     }
 
     @Test
-    public void sendMessage_shouldSaveAndBroadcast_whenValidMessage() {
+    public void handleTyping_shouldDoNothing_whenUserNotInLobby() {
         WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
-        ChatMessageRequest request = new ChatMessageRequest();
-        request.setContent("Hello everyone!");
+        TypingIndicator indicator = TypingIndicator.builder().isTyping(true).build();
 
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(rateLimiter.checkRateLimit("user-123")).thenReturn(Optional.empty());
-        when(valueOperations.get("game:room:lobby-1")).thenReturn(null);
-
-        ChatMessage savedMessage = ChatMessage.builder()
-                .id(UUID.randomUUID().toString())
-                .lobbyId("lobby-1")
-                .senderId("user-123")
-                .senderUsername("TestUser")
-                .content("Hello everyone!")
-                .timestamp(Instant.now())
-                .type(ChatMessage.MessageType.USER_MESSAGE)
-                .build();
-        when(chatService.saveMessage(eq("lobby-1"), eq("user-123"), eq("TestUser"), anyString(), eq("Hello everyone!")))
-                .thenReturn(savedMessage);
+        when(valueOperations.get("game:user-room:id:user-123")).thenReturn(null);
 
-        chatController.sendMessage("lobby-1", request, principal);
+        chatController.handleTyping("lobby-1", indicator, principal);
 
-        verify(chatService).saveMessage("lobby-1", "user-123", "TestUser", "/avatars/avatar_1.png", "Hello everyone!");
-        verify(messagingTemplate).convertAndSend(eq("/topic/room/lobby-1/chat"), any(ChatMessageResponse.class));
+        verify(typingCoalescer, never()).update(anyString(), anyString(), anyString(), anyBoolean());
     }
 
     @Test
-    public void sendMessage_shouldGetAvatarFromRoom_whenRoomExists() {
+    public void handleTyping_shouldRecordTyping_whenUserInLobby() {
         WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
-        ChatMessageRequest request = new ChatMessageRequest();
-        request.setContent("Hello!");
+        TypingIndicator indicator = TypingIndicator.builder().isTyping(true).build();
 
         when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(rateLimiter.checkRateLimit("user-123")).thenReturn(Optional.empty());
-
-        GameRoom room = new GameRoom();
-        room.setId("lobby-1");
-        Map<String, PlayerState> players = new HashMap<>();
-        PlayerState player = new PlayerState("TestUser", false, "/avatars/custom.png");
-        players.put("user-123", player);
-        room.setPlayers(players);
-        when(valueOperations.get("game:room:lobby-1")).thenReturn(room);
-        when(chatService.getPlayerAvatar(any(), eq("user-123"))).thenReturn("/avatars/custom.png");
-
-        ChatMessage savedMessage = ChatMessage.builder()
-                .id(UUID.randomUUID().toString())
-                .lobbyId("lobby-1")
-                .senderId("user-123")
-                .senderUsername("TestUser")
-                .content("Hello!")
-                .timestamp(Instant.now())
-                .type(ChatMessage.MessageType.USER_MESSAGE)
-                .build();
-        when(chatService.saveMessage(anyString(), anyString(), anyString(), anyString(), anyString()))
-                .thenReturn(savedMessage);
 
-        chatController.sendMessage("lobby-1", request, principal);
-
-        verify(chatService).saveMessage("lobby-1", "user-123", "TestUser", "/avatars/custom.png", "Hello!");
-    }
-
-    // ============= handleTyping tests =============
-
-    @Test
-    public void handleTyping_shouldDoNothing_whenPrincipalIsNull() {
-        TypingIndicator indicator = TypingIndicator.builder().isTyping(true).build();
-
-        chatController.handleTyping("lobby-1", indicator, null);
+        chatController.handleTyping("lobby-1", indicator, principal);
 
-        verifyNoInteractions(messagingTemplate);
+        verify(typingCoalescer).update("lobby-1", "user-123", "TestUser", true);
     }
 
     @Test
-    public void handleTyping_shouldDoNothing_whenUserNotInLobby() {
+    public void handleTyping_shouldSkipLobbyCheck_whenUserAlreadyTyping() {
         WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
-        TypingIndicator indicator = TypingIndicator.builder().isTyping(true).build();
+        TypingIndicator indicator = TypingIndicator.builder().isTyping(false).build();
 
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn(null);
+        when(typingCoalescer.isTyping("lobby-1", "user-123")).thenReturn(true);
 
         chatController.handleTyping("lobby-1", indicator, principal);
 
-        verify(messagingTemplate, never()).convertAndSend(anyString(), any(TypingIndicator.class));
+        verify(typingCoalescer).update("lobby-1", "user-123", "TestUser", false);
+        verifyNoInteractions(redisTemplate);
     }
 
     @Test
-    public void handleTyping_shouldBroadcast_whenUserInLobby() {
+    public void handleTyping_shouldIgnoreStop_whenUserWasNotTyping() {
         WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
-        TypingIndicator indicator = TypingIndicator.builder().isTyping(true).build();
-
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
+        TypingIndicator indicator = TypingIndicator.builder().isTyping(false).build();
 
         chatController.handleTyping("lobby-1", indicator, principal);
 
-        ArgumentCaptor<TypingIndicator> captor = ArgumentCaptor.forClass(TypingIndicator.class);
-        verify(messagingTemplate).convertAndSend(eq("/topic/room/lobby-1/typing"), captor.capture());
-
-        TypingIndicator broadcast = captor.getValue();
-        assertEquals(broadcast.getUserId(), "user-123");
-        assertEquals(broadcast.getUsername(), "TestUser");
-        assertTrue(broadcast.isTyping());
+        verify(typingCoalescer, never()).update(anyString(), anyString(), anyString(), anyBoolean());
+        verifyNoInteractions(redisTemplate);
     }
 
     // ============= getChatHistory tests =============
@@ -326,12 +171,12 @@ public class ChatControllerTest {
                 .hasMore(false)
                 .totalMessages(0)
                 .build();
-        when(chatService.getChatHistory("lobby-1", 0, 50)).thenReturn(expectedResponse);
+        when(chatService.getChatHistory("lobby-1", (String) null, 50)).thenReturn(expectedResponse);
 
         ChatHistoryResponse response = chatController.getChatHistory("lobby-1", request, principal);
 
         assertEquals(response, expectedResponse);
-        verify(chatService).getChatHistory("lobby-1", 0, 50);
+        verify(chatService).getChatHistory("lobby-1", (String) null, 50);
     }
 
     @Test
@@ -342,11 +187,11 @@ public class ChatControllerTest {
         request.setLimit(50);
 
         when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(chatService.getChatHistory("lobby-1", 0, 50)).thenReturn(ChatHistoryResponse.builder().build());
+        when(chatService.getChatHistory("lobby-1", (String) null, 50)).thenReturn(ChatHistoryResponse.builder().build());
 
         chatController.getChatHistory("lobby-1", request, principal);
 
-        verify(chatService).getChatHistory("lobby-1", 0, 50);
+        verify(chatService).getChatHistory("lobby-1", (String) null, 50);
     }
 
     @Test
@@ -357,11 +202,11 @@ public class ChatControllerTest {
         request.setLimit(500);
 
         when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(chatService.getChatHistory("lobby-1", 0, 100)).thenReturn(ChatHistoryResponse.builder().build());
+        when(chatService.getChatHistory("lobby-1", (String) null, 100)).thenReturn(ChatHistoryResponse.builder().build());
 
         chatController.getChatHistory("lobby-1", request, principal);
 
-        verify(chatService).getChatHistory("lobby-1", 0, 100);
+        verify(chatService).getChatHistory("lobby-1", (String) null, 100);
     }
 
     @Test
@@ -372,11 +217,41 @@ public class ChatControllerTest {
         request.setLimit(0);
 
         when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(chatService.getChatHistory("lobby-1", 0, 1)).thenReturn(ChatHistoryResponse.builder().build());
+        when(chatService.getChatHistory("lobby-1", (String) null, 1)).thenReturn(ChatHistoryResponse.builder().build());
+
+        chatController.getChatHistory("lobby-1", request, principal);
+
+        verify(chatService).getChatHistory("lobby-1", (String) null, 1);
+    }
+
+    @Test
+    public void getChatHistory_shouldPageByCursor_whenBeforeIsSet() {
+        WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
+        ChatHistoryRequest request = new ChatHistoryRequest();
+        request.setOffset(40);
+        request.setLimit(20);
+        request.setBefore("msg-7");
+
+        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
 
         chatController.getChatHistory("lobby-1", request, principal);
 
-        verify(chatService).getChatHistory("lobby-1", 0, 1);
+        verify(chatService).getChatHistory("lobby-1", "msg-7", 20);
+        verify(chatService, never()).getChatHistory(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void getChatHistory_shouldKeepOffsetPaging_forOlderClients() {
+        WebSocketPrincipal principal = new WebSocketPrincipal("user-123", "TestUser");
+        ChatHistoryRequest request = new ChatHistoryRequest();
+        request.setOffset(50);
+        request.setLimit(50);
+
+        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
+
+        chatController.getChatHistory("lobby-1", request, principal);
+
+        verify(chatService).getChatHistory("lobby-1", 50, 50);
     }
 
     // ============= getUsername tests =============
@@ -388,24 +263,8 @@ public class ChatControllerTest {
         ChatMessageRequest request = new ChatMessageRequest();
         request.setContent("Hello!");
 
-        when(valueOperations.get("game:user-room:id:user-123")).thenReturn("lobby-1");
-        when(rateLimiter.checkRateLimit("user-123")).thenReturn(Optional.empty());
-        when(valueOperations.get("game:room:lobby-1")).thenReturn(null);
-
-        ChatMessage savedMessage = ChatMessage.builder()
-                .id(UUID.randomUUID().toString())
-                .lobbyId("lobby-1")
-                .senderId("user-123")
-                .senderUsername("Unknown")
-                .content("Hello!")
-                .timestamp(Instant.now())
-                .type(ChatMessage.MessageType.USER_MESSAGE)
-                .build();
-        when(chatService.saveMessage(anyString(), anyString(), anyString(), anyString(), anyString()))
-                .thenReturn(savedMessage);
-
         chatController.sendMessage("lobby-1", request, regularPrincipal);
 
-        verify(chatService).saveMessage("lobby-1", "user-123", "Unknown", "/avatars/avatar_1.png", "Hello!");
+        verify(chatPipeline).submit("lobby-1", "user-123", "Unknown", "Hello!");
     }
 }
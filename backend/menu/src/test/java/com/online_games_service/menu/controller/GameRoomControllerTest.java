@@ -6,6 +6,7 @@ import com.online_games_service.common.enums.RoomStatus;
 import com.online_games_service.menu.dto.CreateRoomRequest;
 import com.online_games_service.menu.dto.JoinGameRequest;
 import com.online_games_service.menu.dto.KickPlayerRequest;
+import com.online_games_service.menu.dto.LobbyPageResponse;
 import com.online_games_service.menu.dto.RoomInfoResponse;
 import com.online_games_service.menu.model.GameRoom;
 import com.online_games_service.menu.model.PlayerState;
@@ -20,6 +21,7 @@ import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
 import org.springframework.test.web.servlet.MockMvc;
 import org.testng.annotations.Test;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -67,6 +69,29 @@ public class GameRoomControllerTest extends AbstractTestNGSpringContextTests {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    public void shouldListLobbyRoomsWhenAuthorized() throws Exception {
+        LobbyPageResponse page = new LobbyPageResponse(List.of(sampleRoomInfo()), 1, 10, 11);
+        when(gameRoomService.getLobbyPage(GameType.MAKAO, 2, "fun", 1, 10)).thenReturn(page);
+
+        mockMvc.perform(get("/rooms")
+                        .param("gameType", "MAKAO")
+                        .param("minFreeSeats", "2")
+                        .param("namePrefix", "fun")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .requestAttr("userId", "alice-id").requestAttr("username", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRooms").value(11))
+                .andExpect(jsonPath("$.rooms[0].id").value(page.getRooms().get(0).getId()));
+    }
+
+    @Test
+    public void shouldRejectLobbyRoomsWhenUnauthorized() throws Exception {
+        mockMvc.perform(get("/rooms").param("gameType", "MAKAO"))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     public void shouldCreateRoomWhenAuthorized() throws Exception {
         CreateRoomRequest request = sampleCreateRequest();
@@ -0,0 +1,96 @@
+package com.online_games_service.menu.controller;
+
+import com.online_games_service.common.enums.GameType;
+import com.online_games_service.menu.model.MatchTicket;
+import com.online_games_service.menu.service.matchmaking.MatchmakingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MatchmakingController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class MatchmakingControllerTest extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MatchmakingService matchmakingService;
+
+    @MockBean
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Test
+    public void shouldQueueUserWhenAuthorized() throws Exception {
+        when(matchmakingService.enqueue(GameType.LUDO, "alice-id", "alice"))
+                .thenReturn(new MatchTicket("alice-id", "alice", GameType.LUDO, null, 42L));
+
+        mockMvc.perform(post("/matchmaking/queue")
+                        .requestAttr("userId", "alice-id").requestAttr("username", "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"gameType\":\"LUDO\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queued").value(true))
+                .andExpect(jsonPath("$.gameType").value("LUDO"))
+                .andExpect(jsonPath("$.enqueuedAt").value(42));
+    }
+
+    @Test
+    public void shouldRejectQueueWithoutGameType() throws Exception {
+        mockMvc.perform(post("/matchmaking/queue")
+                        .requestAttr("userId", "alice-id").requestAttr("username", "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldReturnConflictWhenUserAlreadyInRoom() throws Exception {
+        when(matchmakingService.enqueue(GameType.MAKAO, "alice-id", "alice"))
+                .thenThrow(new IllegalStateException("You are already in a room. Leave it first."));
+
+        mockMvc.perform(post("/matchmaking/queue")
+                        .requestAttr("userId", "alice-id").requestAttr("username", "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"gameType\":\"MAKAO\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("You are already in a room. Leave it first."));
+    }
+
+    @Test
+    public void shouldRejectQueueWhenUnauthorized() throws Exception {
+        mockMvc.perform(post("/matchmaking/queue")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"gameType\":\"MAKAO\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void shouldReportNotQueuedStatus() throws Exception {
+        mockMvc.perform(get("/matchmaking/queue").requestAttr("userId", "alice-id").requestAttr("username", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queued").value(false));
+    }
+
+    @Test
+    public void shouldLeaveQueue() throws Exception {
+        when(matchmakingService.cancel("alice-id")).thenReturn(true);
+
+        mockMvc.perform(delete("/matchmaking/queue").requestAttr("userId", "alice-id").requestAttr("username", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Left the matchmaking queue"));
+    }
+}
@@ -0,0 +1,161 @@
+package com.online_games_service.menu.messaging;
+
+import com.online_games_service.common.config.BaseRedisConfig;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RoomEventRelayTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final GenericJackson2JsonRedisSerializer serializer = BaseRedisConfig.jsonSerializer();
+    private AutoCloseable mocks;
+    private RoomEventRelay relay;
+
+    @BeforeMethod
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        when(messagingTemplate.getMessageConverter()).thenReturn(new MappingJackson2MessageConverter());
+        when(messagingTemplate.getUserDestinationPrefix()).thenReturn("/user/");
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+        relay = new RoomEventRelay(messagingTemplate, redisTemplate, listenerContainer);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    public void shouldDeliverLocallyAndPublishToRoomChannel() {
+        relay.convertAndSend("/topic/room/room-1/chat", Map.of("content", "hi"));
+
+        verify(messagingTemplate).convertAndSend("/topic/room/room-1/chat", Map.of("content", "hi"));
+        RoomEventRelay.Envelope envelope = publishedEnvelope("menu:room-events:room-1");
+        Assert.assertNull(envelope.getUserId());
+        Assert.assertEquals(envelope.getDestination(), "/topic/room/room-1/chat");
+        Assert.assertEquals(new String(envelope.getBody(), StandardCharsets.UTF_8), "{\"content\":\"hi\"}");
+        Assert.assertEquals(envelope.getContentType(), "application/json");
+    }
+
+    @Test
+    public void shouldOnlyDeliverLocallyWhenDestinationIsNotARoom() {
+        relay.convertAndSend("/topic/announcements", "hello");
+
+        verify(messagingTemplate).convertAndSend("/topic/announcements", (Object) "hello");
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    public void shouldNotPublishWhenFanoutIsDisabled() {
+        ReflectionTestUtils.setField(relay, "fanoutEnabled", false);
+
+        relay.convertAndSendToUser("u1", "/queue/matchmaking", "match");
+
+        verify(messagingTemplate).convertAndSendToUser("u1", "/queue/matchmaking", "match");
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    public void shouldDeliverRoomEventFromAnotherReplica() {
+        RoomEventRelay.Envelope envelope = new RoomEventRelay.Envelope("other-replica", null,
+                "/topic/room/room-1", "application/json", "{\"id\":\"room-1\"}".getBytes(StandardCharsets.UTF_8));
+
+        relay.onMessage(new DefaultMessage("menu:room-events:room-1".getBytes(), serializer.serialize(envelope)), null);
+
+        ArgumentCaptor<Message<?>> captor = messageCaptor();
+        verify(messagingTemplate).send(eq("/topic/room/room-1"), captor.capture());
+        Assert.assertEquals(captor.getValue().getPayload(), envelope.getBody());
+        Assert.assertEquals(captor.getValue().getHeaders().get(MessageHeaders.CONTENT_TYPE).toString(), "application/json");
+    }
+
+    @Test
+    public void shouldDeliverUserEventFromAnotherReplicaToUserDestination() {
+        RoomEventRelay.Envelope envelope = new RoomEventRelay.Envelope("other-replica", "u1",
+                "/queue/matchmaking", "application/json", "{}".getBytes(StandardCharsets.UTF_8));
+
+        relay.onMessage(new DefaultMessage("menu:user-events:u1".getBytes(), serializer.serialize(envelope)), null);
+
+        verify(messagingTemplate).send(eq("/user/u1/queue/matchmaking"), any(Message.class));
+    }
+
+    @Test
+    public void shouldIgnoreItsOwnEvents() {
+        relay.convertAndSend("/topic/room/room-1", Map.of("id", "room-1"));
+        RoomEventRelay.Envelope envelope = publishedEnvelope("menu:room-events:room-1");
+
+        relay.onMessage(new DefaultMessage("menu:room-events:room-1".getBytes(), serializer.serialize(envelope)), null);
+
+        verify(messagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+
+    @Test
+    public void shouldSubscribeToRoomChannelOnlyWhileLocalSocketsListen() {
+        ChannelTopic topic = new ChannelTopic("menu:room-events:room-1");
+
+        relay.addInterest("s1", "sub-1", RoomEventRelay.channelFor("/topic/room/room-1", null));
+        relay.addInterest("s2", "sub-1", RoomEventRelay.channelFor("/topic/room/room-1/chat", null));
+        verify(listenerContainer, times(1)).addMessageListener(relay, topic);
+
+        relay.removeInterest("s1", "sub-1");
+        verify(listenerContainer, never()).removeMessageListener(any(), any(ChannelTopic.class));
+
+        relay.removeSession("s2");
+        verify(listenerContainer).removeMessageListener(relay, topic);
+        Assert.assertFalse(relay.isSubscribed("menu:room-events:room-1"));
+    }
+
+    @Test
+    public void shouldMapDestinationsToChannels() {
+        Assert.assertEquals(RoomEventRelay.channelFor("/topic/room/abc/kicked/u2", null), "menu:room-events:abc");
+        Assert.assertEquals(RoomEventRelay.channelFor("/user/queue/matchmaking", () -> "u1"), "menu:user-events:u1");
+        Assert.assertNull(RoomEventRelay.channelFor("/user/queue/matchmaking", null));
+        Assert.assertNull(RoomEventRelay.channelFor("/topic/room/", null));
+        Assert.assertNull(RoomEventRelay.channelFor("/topic/other", null));
+    }
+
+    private RoomEventRelay.Envelope publishedEnvelope(String channel) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(redisTemplate).convertAndSend(eq(channel), captor.capture());
+        return (RoomEventRelay.Envelope) captor.getValue();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<Message<?>> messageCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(Message.class);
+    }
+}
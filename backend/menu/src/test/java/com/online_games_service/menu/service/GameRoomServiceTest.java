@@ -5,34 +5,49 @@ import com.online_games_service.common.enums.RoomStatus;
 import com.online_games_service.menu.config.GameLimitsConfig;
 import com.online_games_service.menu.dto.CreateRoomRequest;
 import com.online_games_service.menu.dto.JoinGameRequest;
+import com.online_games_service.menu.dto.LobbyPageResponse;
 import com.online_games_service.menu.dto.RoomInfoResponse;
 import com.online_games_service.menu.model.GameRoom;
 import com.online_games_service.menu.messaging.GameStartPublisher;
+import com.online_games_service.menu.messaging.RoomEventRelay;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.ValueOperations;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -54,7 +69,10 @@ public class GameRoomServiceTest {
 	private SetOperations<String, Object> setOperations;
 
 	@Mock
-	private SimpMessagingTemplate messagingTemplate;
+	private ZSetOperations<String, Object> zSetOperations;
+
+	@Mock
+	private RoomEventRelay roomEvents;
 
 	private AutoCloseable mocks;
 	private GameRoomService gameRoomService;
@@ -66,19 +84,32 @@ public class GameRoomServiceTest {
 
 		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 		when(redisTemplate.opsForSet()).thenReturn(setOperations);
+		lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
 		lenient().when(setOperations.members(anyString())).thenReturn(Collections.emptySet());
 		lenient().when(setOperations.add(anyString(), any())).thenReturn(1L);
 		lenient().when(setOperations.remove(anyString(), any())).thenReturn(1L);
 		lenient().when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(true);
 		lenient().when(redisTemplate.delete(anyString())).thenReturn(true);
 		lenient().when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(true);
+		// Run pipelined batches straight against the mocked template so individual writes can be verified
+		lenient().when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+			SessionCallback<?> callback = invocation.getArgument(0);
+			callback.execute(redisTemplate);
+			return Collections.emptyList();
+		});
+		// Watched transactions run against the mocked template too, and commit unless a test says otherwise
+		lenient().when(redisTemplate.execute(any(SessionCallback.class))).thenAnswer(invocation -> {
+			SessionCallback<?> callback = invocation.getArgument(0);
+			return callback.execute(redisTemplate);
+		});
+		lenient().when(redisTemplate.exec()).thenReturn(List.of(true));
 
 		defaultLimit = new GameLimitsConfig.Limit();
 		defaultLimit.setMin(2);
 		defaultLimit.setMax(6);
 		lenient().when(gameLimitsConfig.getLimitFor(any())).thenReturn(defaultLimit);
 
-		gameRoomService = new GameRoomService(gameLimitsConfig, redisTemplate, messagingTemplate, gameStartPublisher);
+		gameRoomService = new GameRoomService(gameLimitsConfig, redisTemplate, roomEvents, gameStartPublisher);
 	}
 
 	@AfterMethod
@@ -103,6 +134,90 @@ public class GameRoomServiceTest {
 		verify(valueOperations).set(eq(keyForUsername("host")), eq(room.getId()), any(Duration.class));
 		verify(setOperations).add(eq(waitingKey(request.getGameType())), eq(room.getId()));
 		verify(redisTemplate).expire(eq(waitingKey(request.getGameType())), any(Duration.class));
+		verify(zSetOperations).add(quickMatchKey(request.getGameType()), room.getId(), 3.0);
+	}
+
+	@Test
+	public void shouldWriteJoinInTransactionWatchingTheRoom() {
+		JoinGameRequest request = buildJoinRequest(false);
+		request.setAccessCode("JOIN01");
+		GameRoom room = buildRoom("room-batch", GameType.LUDO, "host-id", "host", 2, false);
+
+		when(valueOperations.get(keyForUserId("player-id"))).thenReturn(null);
+		when(valueOperations.get(codeKey("JOIN01"))).thenReturn(room.getId());
+		when(valueOperations.get(keyForRoom(room.getId()))).thenReturn(room);
+
+		gameRoomService.joinRoom(request, "player-id", "player");
+
+		InOrder order = inOrder(redisTemplate, valueOperations, setOperations);
+		order.verify(redisTemplate).watch(keyForRoom(room.getId()));
+		order.verify(valueOperations).get(keyForRoom(room.getId()));
+		order.verify(redisTemplate).multi();
+		order.verify(valueOperations).set(eq(keyForRoom(room.getId())), eq(room), any(Duration.class));
+		order.verify(valueOperations).set(eq(keyForUserId("player-id")), eq(room.getId()), any(Duration.class));
+		order.verify(valueOperations).set(eq(keyForUsername("player")), eq(room.getId()), any(Duration.class));
+		order.verify(setOperations).remove(eq(waitingKey(GameType.LUDO)), eq(room.getId()));
+		order.verify(redisTemplate).exec();
+	}
+
+	@Test
+	public void shouldRetryJoinOnRoomChangedByConcurrentJoin() {
+		JoinGameRequest request = buildJoinRequest(true);
+		GameRoom seen = buildRoom("room-race", GameType.LUDO, "host-id", "host", 4, false);
+		GameRoom current = buildRoom("room-race", GameType.LUDO, "host-id", "host", 4, false);
+		current.addPlayer("other-id", "other");
+
+		when(valueOperations.get(keyForUserId("player-id"))).thenReturn(null);
+		when(redisTemplate.execute(any(RedisScript.class), anyList())).thenReturn(seen.getId());
+		when(valueOperations.get(keyForRoom(seen.getId()))).thenReturn(seen, current);
+		// The other player's write lands between the first read and EXEC
+		when(redisTemplate.exec()).thenReturn(Collections.emptyList(), List.of(true));
+
+		GameRoom result = gameRoomService.joinRoom(request, "player-id", "player");
+
+		Assert.assertSame(result, current);
+		Assert.assertTrue(result.getPlayers().containsKey("other-id"));
+		Assert.assertTrue(result.getPlayers().containsKey("player-id"));
+		verify(redisTemplate, times(2)).watch(keyForRoom(seen.getId()));
+		verify(valueOperations).set(eq(keyForRoom(seen.getId())), eq(current), any(Duration.class));
+	}
+
+	@Test
+	public void shouldGiveSeatBackWhenRoomKeepsChanging() {
+		JoinGameRequest request = buildJoinRequest(true);
+		GameRoom room = buildRoom("room-busy", GameType.LUDO, "host-id", "host", 4, false);
+
+		when(valueOperations.get(keyForUserId("player-id"))).thenReturn(null);
+		when(redisTemplate.execute(any(RedisScript.class), anyList())).thenReturn(room.getId(), (Object) null);
+		when(valueOperations.get(keyForRoom(room.getId()))).thenAnswer(i -> buildRoom("room-busy", GameType.LUDO, "host-id", "host", 4, false));
+		when(redisTemplate.exec()).thenReturn(Collections.emptyList());
+
+		GameRoom createdRoom = buildRoom("fallback-room", GameType.LUDO, "player-id", "player", 4, false);
+		GameRoomService spyService = spy(gameRoomService);
+		doReturn(createdRoom).when(spyService).createRoom(any(CreateRoomRequest.class), eq("player-id"), eq("player"));
+
+		GameRoom result = spyService.joinRoom(request, "player-id", "player");
+
+		Assert.assertEquals(result.getId(), createdRoom.getId());
+		verify(zSetOperations).incrementScore(quickMatchKey(GameType.LUDO), room.getId(), 1);
+	}
+
+	@Test
+	public void shouldPipelineWithoutTransactionWhenAtomicWritesDisabled() {
+		ReflectionTestUtils.setField(gameRoomService, "atomicRoomWrites", false);
+		GameRoom room = buildRoom("room-kick", GameType.LUDO, "host-id", "host", 4, false);
+		room.addPlayer("p2-id", "p2");
+
+		when(valueOperations.get(keyForUserId("host-id"))).thenReturn(room.getId());
+		when(valueOperations.get(keyForRoom(room.getId()))).thenReturn(room);
+
+		gameRoomService.kickPlayer("host-id", "host", "p2-id");
+
+		verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+		verify(redisTemplate, never()).multi();
+		verify(redisTemplate, never()).exec();
+		verify(redisTemplate).delete(eq(keyForUserId("p2-id")));
+		verify(valueOperations).set(eq(keyForRoom(room.getId())), eq(room), any(Duration.class));
 	}
 
 	@Test
@@ -145,11 +260,10 @@ public class GameRoomServiceTest {
 		request.setMaxPlayers(2);
 
 		GameRoom waitingRoom = buildRoom("room-join", GameType.LUDO, "host-id", "host", 2, false);
-		Set<Object> waitingIds = new HashSet<>();
-		waitingIds.add(waitingRoom.getId());
 
 		when(valueOperations.get(keyForUserId("player-id"))).thenReturn(null);
-		when(setOperations.members(waitingKey(GameType.LUDO))).thenReturn(waitingIds);
+		when(redisTemplate.execute(any(RedisScript.class), eq(List.of(quickMatchKey(GameType.LUDO)))))
+				.thenReturn(waitingRoom.getId());
 		when(valueOperations.get(keyForRoom(waitingRoom.getId()))).thenReturn(waitingRoom);
 
 		GameRoom result = gameRoomService.joinRoom(request, "player-id", "player");
@@ -158,7 +272,60 @@ public class GameRoomServiceTest {
 		verify(valueOperations).set(eq(keyForUserId("player-id")), eq(waitingRoom.getId()), any(Duration.class));
 		verify(valueOperations).set(eq(keyForUsername("player")), eq(waitingRoom.getId()), any(Duration.class));
 		verify(setOperations).remove(eq(waitingKey(GameType.LUDO)), eq(waitingRoom.getId()));
-		verify(messagingTemplate).convertAndSend(eq("/topic/room/" + waitingRoom.getId()), any(RoomInfoResponse.class));
+		verify(zSetOperations).remove(quickMatchKey(GameType.LUDO), waitingRoom.getId());
+		verify(setOperations, never()).members(anyString());
+		verify(roomEvents).convertAndSend(eq("/topic/room/" + waitingRoom.getId()), any(RoomInfoResponse.class));
+	}
+
+	@Test
+	public void shouldNotReindexSeatClaimedByQuickMatch() {
+		JoinGameRequest request = buildJoinRequest(true);
+		GameRoom waitingRoom = buildRoom("room-join", GameType.LUDO, "host-id", "host", 4, false);
+
+		when(valueOperations.get(keyForUserId("player-id"))).thenReturn(null);
+		when(redisTemplate.execute(any(RedisScript.class), anyList())).thenReturn(waitingRoom.getId());
+		when(valueOperations.get(keyForRoom(waitingRoom.getId()))).thenReturn(waitingRoom);
+
+		gameRoomService.joinRoom(request, "player-id", "player");
+
+		Assert.assertEquals(waitingRoom.getPlayers().size(), 2);
+		verify(zSetOperations, never()).add(anyString(), any(), anyDouble());
+		verify(zSetOperations, never()).remove(anyString(), any());
+	}
+
+	@Test
+	public void shouldSkipQuickMatchEntryOfRoomThatCannotBeJoined() {
+		JoinGameRequest request = buildJoinRequest(true);
+		GameRoom startedRoom = buildRoom("room-started", GameType.LUDO, "host-id", "host", 4, false);
+		startedRoom.setStatus(RoomStatus.PLAYING);
+		GameRoom waitingRoom = buildRoom("room-waiting", GameType.LUDO, "other-id", "other", 4, false);
+
+		when(valueOperations.get(keyForUserId("player-id"))).thenReturn(null);
+		when(redisTemplate.execute(any(RedisScript.class), anyList()))
+				.thenReturn(startedRoom.getId(), waitingRoom.getId());
+		when(valueOperations.get(keyForRoom(startedRoom.getId()))).thenReturn(startedRoom);
+		when(valueOperations.get(keyForRoom(waitingRoom.getId()))).thenReturn(waitingRoom);
+
+		GameRoom result = gameRoomService.joinRoom(request, "player-id", "player");
+
+		Assert.assertEquals(result.getId(), waitingRoom.getId());
+		Assert.assertFalse(startedRoom.getPlayers().containsKey("player-id"));
+		verify(zSetOperations).remove(quickMatchKey(GameType.LUDO), startedRoom.getId());
+	}
+
+	@Test
+	public void shouldReindexFreeSeatsWhenJoiningPublicRoomByCode() {
+		JoinGameRequest request = buildJoinRequest(false);
+		request.setAccessCode("PUB001");
+		GameRoom room = buildRoom("room-public", GameType.LUDO, "host-id", "host", 4, false);
+
+		when(valueOperations.get(keyForUserId("player-id"))).thenReturn(null);
+		when(valueOperations.get(codeKey("PUB001"))).thenReturn(room.getId());
+		when(valueOperations.get(keyForRoom(room.getId()))).thenReturn(room);
+
+		gameRoomService.joinRoom(request, "player-id", "player");
+
+		verify(zSetOperations).add(quickMatchKey(GameType.LUDO), room.getId(), 2.0);
 	}
 
 	@Test
@@ -166,7 +333,7 @@ public class GameRoomServiceTest {
 		JoinGameRequest request = buildJoinRequest(true);
 		request.setGameType(GameType.MAKAO);
 		when(valueOperations.get(keyForUserId("player-id"))).thenReturn(null);
-		when(setOperations.members(waitingKey(GameType.MAKAO))).thenReturn(Collections.emptySet());
+		when(redisTemplate.execute(any(RedisScript.class), anyList())).thenReturn(null);
 
 		GameRoom createdRoom = buildRoom("generated-room", GameType.MAKAO, "player-id", "player", 4, false);
 		GameRoomService spyService = spy(gameRoomService);
@@ -176,7 +343,7 @@ public class GameRoomServiceTest {
 
 		Assert.assertEquals(result.getId(), createdRoom.getId());
 		verify(spyService).createRoom(any(CreateRoomRequest.class), eq("player-id"), eq("player"));
-		verify(messagingTemplate).convertAndSend(eq("/topic/room/" + createdRoom.getId()), any(RoomInfoResponse.class));
+		verify(roomEvents).convertAndSend(eq("/topic/room/" + createdRoom.getId()), any(RoomInfoResponse.class));
 	}
 
 	@Test
@@ -184,9 +351,7 @@ public class GameRoomServiceTest {
 		JoinGameRequest request = buildJoinRequest(true);
 		when(valueOperations.get(keyForUserId("player-id"))).thenReturn(null);
 
-		Set<Object> waitingIds = new HashSet<>();
-		waitingIds.add("stale-room");
-		when(setOperations.members(waitingKey(GameType.LUDO))).thenReturn(waitingIds);
+		when(redisTemplate.execute(any(RedisScript.class), anyList())).thenReturn("stale-room", (Object) null);
 		when(valueOperations.get(keyForRoom("stale-room"))).thenReturn(null);
 
 		GameRoom createdRoom = buildRoom("fallback-room", GameType.LUDO, "player-id", "player", 4, false);
@@ -196,7 +361,7 @@ public class GameRoomServiceTest {
 		GameRoom result = spyService.joinRoom(request, "player-id", "player");
 
 		Assert.assertEquals(result.getId(), createdRoom.getId());
-		verify(setOperations).remove(eq(waitingKey(GameType.LUDO)), eq("stale-room"));
+		verify(zSetOperations).remove(quickMatchKey(GameType.LUDO), "stale-room");
 		verify(spyService).createRoom(any(CreateRoomRequest.class), eq("player-id"), eq("player"));
 	}
 
@@ -217,7 +382,7 @@ public class GameRoomServiceTest {
 		verify(valueOperations).set(eq(keyForUserId("guest-id")), eq(room.getId()), any(Duration.class));
 		verify(valueOperations).set(eq(keyForUsername("guest")), eq(room.getId()), any(Duration.class));
 		verify(valueOperations).set(eq(keyForRoom(room.getId())), eq(room), any(Duration.class));
-		verify(messagingTemplate).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
+		verify(roomEvents).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
 	}
 
 	@Test
@@ -308,7 +473,7 @@ public class GameRoomServiceTest {
 		GameRoom result = gameRoomService.joinRoom(buildJoinRequest(true), "player-id", "player");
 
 		Assert.assertEquals(result.getId(), room.getId());
-		verify(messagingTemplate).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
+		verify(roomEvents).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
 	}
 
 	@Test
@@ -344,7 +509,7 @@ public class GameRoomServiceTest {
 		verify(redisTemplate).delete(eq(codeKey("START01")));
 		verify(valueOperations).set(eq(keyForRoom(room.getId())), eq(room), any(Duration.class));
 		verify(gameStartPublisher).publish(room);
-		verify(messagingTemplate).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
+		verify(roomEvents).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
 	}
 
 	@Test
@@ -398,7 +563,7 @@ public class GameRoomServiceTest {
 		verify(redisTemplate).delete(eq(keyForRoom(room.getId())));
 		verify(redisTemplate).delete(eq(codeKey("LEAVE1")));
 		verify(setOperations).remove(eq(waitingKey(room.getGameType())), eq(room.getId()));
-		verify(messagingTemplate).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
+		verify(roomEvents).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
 	}
 
 	@Test
@@ -418,7 +583,7 @@ public class GameRoomServiceTest {
 		verify(setOperations).add(eq(waitingKey(room.getGameType())), eq(room.getId()));
 		verify(redisTemplate).delete(eq(keyForUserId("host-id")));
 		verify(redisTemplate).delete(eq(keyForUsername("host")));
-		verify(messagingTemplate).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
+		verify(roomEvents).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
 	}
 
 	@Test
@@ -431,7 +596,7 @@ public class GameRoomServiceTest {
 		Assert.assertTrue(message.contains("expired"));
 		verify(redisTemplate).delete(eq(keyForUserId("ghost-id")));
 		verify(redisTemplate).delete(eq(keyForUsername("ghost")));
-		verify(messagingTemplate, never()).convertAndSend(anyString(), any(RoomInfoResponse.class));
+		verify(roomEvents, never()).convertAndSend(anyString(), any(RoomInfoResponse.class));
 	}
 
 	@Test
@@ -447,19 +612,78 @@ public class GameRoomServiceTest {
 	@Test
 	public void shouldReturnWaitingRoomsAndCleanupStaleEntries() {
 		GameRoom validRoom = buildRoom("room-valid", GameType.LUDO, "host-id", "host", 4, false);
-		Set<Object> ids = new HashSet<>();
-		ids.add(validRoom.getId());
-		ids.add("stale-id");
-
-		when(setOperations.members(waitingKey(GameType.LUDO))).thenReturn(ids);
-		when(valueOperations.get(keyForRoom(validRoom.getId()))).thenReturn(validRoom);
-		when(valueOperations.get(keyForRoom("stale-id"))).thenReturn(null);
+		stubWaitingRooms(GameType.LUDO, validRoom, null);
 
 		List<GameRoom> rooms = gameRoomService.getWaitingRooms(GameType.LUDO);
 
 		Assert.assertEquals(rooms.size(), 1);
 		Assert.assertEquals(rooms.get(0).getId(), validRoom.getId());
-		verify(setOperations).remove(eq(waitingKey(GameType.LUDO)), eq("stale-id"));
+		verify(setOperations).remove(eq(waitingKey(GameType.LUDO)), eq("stale-1"));
+		verify(valueOperations, never()).get(anyString());
+	}
+
+	@Test
+	public void shouldServeLobbyFromSnapshotUntilRoomChanges() {
+		GameRoom room = buildRoom("room-lobby", GameType.LUDO, "host-id", "host", 4, false);
+		stubWaitingRooms(GameType.LUDO, room);
+
+		gameRoomService.getLobbyPage(GameType.LUDO, 1, null, 0, 20);
+		gameRoomService.getLobbyPage(GameType.LUDO, 1, null, 0, 20);
+		verify(setOperations, times(1)).members(waitingKey(GameType.LUDO));
+
+		when(valueOperations.get(keyForUserId("host-id"))).thenReturn(room.getId());
+		when(valueOperations.get(keyForRoom(room.getId()))).thenReturn(room);
+		gameRoomService.toggleReady("host-id", "host");
+
+		gameRoomService.getLobbyPage(GameType.LUDO, 1, null, 0, 20);
+		verify(setOperations, times(2)).members(waitingKey(GameType.LUDO));
+	}
+
+	@Test
+	public void shouldReloadLobbySnapshotAfterTtl() {
+		ReflectionTestUtils.setField(gameRoomService, "lobbySnapshotTtlMs", 0L);
+		stubWaitingRooms(GameType.LUDO, buildRoom("room-lobby", GameType.LUDO, "host-id", "host", 4, false));
+
+		gameRoomService.getLobbyPage(GameType.LUDO, 1, null, 0, 20);
+		gameRoomService.getLobbyPage(GameType.LUDO, 1, null, 0, 20);
+
+		verify(setOperations, times(2)).members(waitingKey(GameType.LUDO));
+	}
+
+	@Test
+	public void shouldFilterAndPageLobbyRooms() {
+		GameRoom oldest = buildRoom("room-a", GameType.MAKAO, "h1", "h1", 4, false);
+		oldest.setName("Casual fun");
+		oldest.setCreatedAt(LocalDateTime.now().minusMinutes(3));
+		GameRoom middle = buildRoom("room-b", GameType.MAKAO, "h2", "h2", 4, false);
+		middle.setName("casual pros");
+		middle.setCreatedAt(LocalDateTime.now().minusMinutes(2));
+		GameRoom almostFull = buildRoom("room-c", GameType.MAKAO, "h3", "h3", 2, false);
+		almostFull.setName("Casual last seat");
+		almostFull.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+		GameRoom otherName = buildRoom("room-d", GameType.MAKAO, "h4", "h4", 4, false);
+		otherName.setName("Ranked");
+		stubWaitingRooms(GameType.MAKAO, almostFull, otherName, middle, oldest);
+
+		LobbyPageResponse firstPage = gameRoomService.getLobbyPage(GameType.MAKAO, 2, "CASUAL", 0, 1);
+		LobbyPageResponse secondPage = gameRoomService.getLobbyPage(GameType.MAKAO, 2, "casual", 1, 1);
+		LobbyPageResponse pastEnd = gameRoomService.getLobbyPage(GameType.MAKAO, 2, "casual", 5, 1);
+
+		Assert.assertEquals(firstPage.getTotalRooms(), 2);
+		Assert.assertEquals(firstPage.getRooms().get(0).getId(), "room-a");
+		Assert.assertEquals(secondPage.getRooms().get(0).getId(), "room-b");
+		Assert.assertTrue(pastEnd.getRooms().isEmpty());
+		Assert.assertEquals(gameRoomService.getLobbyPage(GameType.MAKAO, 1, null, 0, 20).getTotalRooms(), 4);
+	}
+
+	@Test
+	public void shouldRejectInvalidLobbyPage() {
+		Assert.expectThrows(IllegalArgumentException.class,
+				() -> gameRoomService.getLobbyPage(GameType.LUDO, 1, null, -1, 20));
+		Assert.expectThrows(IllegalArgumentException.class,
+				() -> gameRoomService.getLobbyPage(GameType.LUDO, 1, null, 0, 500));
+		Assert.expectThrows(IllegalArgumentException.class,
+				() -> gameRoomService.getLobbyPage(null, 1, null, 0, 20));
 	}
 
 	@Test
@@ -521,7 +745,7 @@ public class GameRoomServiceTest {
 		verify(redisTemplate).delete(eq(keyForUsername("victim")));
 		verify(valueOperations).set(eq(keyForRoom(room.getId())), eq(room), any(Duration.class));
 		verify(setOperations).add(eq(waitingKey(room.getGameType())), eq(room.getId()));
-		verify(messagingTemplate).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
+		verify(roomEvents).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
 	}
 
 	@Test
@@ -636,6 +860,19 @@ public class GameRoomServiceTest {
 		return room;
 	}
 
+	/**
+	 * Puts the given rooms in the waiting pool; a null entry stands for an expired room.
+	 */
+	private void stubWaitingRooms(GameType type, GameRoom... rooms) {
+		Set<Object> ids = new LinkedHashSet<>();
+		int stale = 0;
+		for (GameRoom room : rooms) {
+			ids.add(room != null ? room.getId() : "stale-" + (++stale));
+		}
+		when(setOperations.members(waitingKey(type))).thenReturn(ids);
+		when(valueOperations.multiGet(anyCollection())).thenReturn(Arrays.asList((Object[]) rooms));
+	}
+
 	private String keyForUserId(String userId) {
 		return "game:user-room:id:" + userId;
 	}
@@ -656,6 +893,10 @@ public class GameRoomServiceTest {
 		return "game:waiting:" + type;
 	}
 
+	private String quickMatchKey(GameType type) {
+		return "game:quick-match:" + type;
+	}
+
 	// ==================== removePlayerFromRoom Tests ====================
 
 	@Test
@@ -681,7 +922,7 @@ public class GameRoomServiceTest {
 		verify(valueOperations).set(eq(keyForRoom("room-1")), any(GameRoom.class), any(Duration.class));
 
 		// Verify broadcast
-		verify(messagingTemplate).convertAndSend(eq("/topic/room/room-1"), any(RoomInfoResponse.class));
+		verify(roomEvents).convertAndSend(eq("/topic/room/room-1"), any(RoomInfoResponse.class));
 	}
 
 	@Test
@@ -731,4 +972,34 @@ public class GameRoomServiceTest {
 		// Should not throw and just return silently
 		gameRoomService.removePlayerFromRoom("nonexistent", "player-1");
 	}
+
+	@Test
+	public void shouldStartMatchedRoomWithAllPlayersAndPublishIt() {
+		Map<String, String> players = new LinkedHashMap<>();
+		players.put("u1", "alice");
+		players.put("u2", "bob");
+
+		GameRoom room = gameRoomService.startMatchedRoom(GameType.MAKAO, players, 4);
+
+		Assert.assertEquals(room.getStatus(), RoomStatus.PLAYING);
+		Assert.assertTrue(room.isPrivate());
+		Assert.assertEquals(room.getHostUserId(), "u1");
+		Assert.assertEquals(room.getPlayers().keySet(), Set.of("u1", "u2"));
+		Assert.assertEquals(room.getMaxPlayers(), 4);
+		verify(valueOperations).set(eq("game:room:" + room.getId()), eq(room), any(Duration.class));
+		verify(valueOperations).set(eq("game:user-room:id:u2"), eq(room.getId()), any(Duration.class));
+		verify(setOperations, never()).add(startsWith("game:waiting:"), any());
+		verify(gameStartPublisher).publish(room);
+		verify(roomEvents).convertAndSend(eq("/topic/room/" + room.getId()), any(RoomInfoResponse.class));
+	}
+
+	@Test
+	public void shouldFindUsersAlreadyInRoomsWithOneMultiGet() {
+		when(valueOperations.multiGet(List.of("game:user-room:id:u1", "game:user-room:id:u2", "game:user-room:id:u3")))
+				.thenReturn(Arrays.asList("room-1", null, "room-2"));
+
+		Set<String> inRooms = gameRoomService.findUsersInRooms(List.of("u1", "u2", "u3"));
+
+		Assert.assertEquals(inRooms, Set.of("u1", "u3"));
+	}
 }
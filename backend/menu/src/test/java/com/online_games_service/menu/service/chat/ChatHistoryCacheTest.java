@@ -0,0 +1,160 @@
+package com.online_games_service.menu.service.chat;
+
+import com.online_games_service.common.config.BaseRedisConfig;
+import com.online_games_service.menu.dto.chat.ChatHistoryResponse;
+import com.online_games_service.menu.dto.chat.ChatMessageResponse;
+import com.online_games_service.menu.model.ChatMessage;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+public class ChatHistoryCacheTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final GenericJackson2JsonRedisSerializer serializer = BaseRedisConfig.jsonSerializer();
+    private AutoCloseable mocks;
+    private ChatHistoryCache cache;
+
+    @BeforeMethod
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+        cache = new ChatHistoryCache(redisTemplate, listenerContainer);
+        cache.subscribe();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    public void shouldListenForAppendsOfOtherReplicas() {
+        verify(listenerContainer).addMessageListener(cache, new ChannelTopic("menu:chat-appends"));
+    }
+
+    @Test
+    public void shouldNotServeLobbyBeforeItIsLoaded() {
+        cache.beginLoad("lobby-1");
+
+        Assert.assertTrue(cache.page("lobby-1", null, 10).isEmpty());
+    }
+
+    @Test
+    public void shouldApplyAppendFromAnotherReplica() {
+        load("lobby-1", List.of(response(0)), false);
+        ChatHistoryCache.AppendEvent event = new ChatHistoryCache.AppendEvent("other-replica", "lobby-1",
+                new ArrayList<>(List.of(message(1))));
+
+        cache.onMessage(new DefaultMessage("menu:chat-appends".getBytes(), serializer.serialize(event)), null);
+
+        ChatHistoryResponse page = cache.page("lobby-1", null, 10).orElseThrow();
+        Assert.assertEquals(page.getMessages().stream().map(ChatMessageResponse::getId).toList(), List.of("msg-0", "msg-1"));
+    }
+
+    @Test
+    public void shouldPublishOwnAppendsAndIgnoreThemWhenTheyComeBack() {
+        load("lobby-1", List.of(), false);
+
+        cache.appended("lobby-1", List.of(message(0)));
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(redisTemplate).convertAndSend(eq("menu:chat-appends"), captor.capture());
+        cache.onMessage(new DefaultMessage("menu:chat-appends".getBytes(), serializer.serialize(captor.getValue())), null);
+        Assert.assertEquals(cache.page("lobby-1", null, 10).orElseThrow().getMessages().size(), 1);
+    }
+
+    @Test
+    public void shouldKeepMessagesInOrderWhenAppendsArriveLate() {
+        load("lobby-1", List.of(response(0), response(2)), false);
+
+        cache.appended("lobby-1", List.of(message(1)));
+
+        Assert.assertEquals(cache.page("lobby-1", null, 10).orElseThrow().getMessages().stream()
+                .map(ChatMessageResponse::getId).toList(), List.of("msg-0", "msg-1", "msg-2"));
+    }
+
+    @Test
+    public void shouldDropOldestMessagesOverCapacity() {
+        load("lobby-1", IntStream.range(0, 50).mapToObj(ChatHistoryCacheTest::response).toList(), false);
+
+        cache.appended("lobby-1", List.of(message(50)));
+
+        ChatHistoryResponse page = cache.page("lobby-1", null, 50).orElseThrow();
+        Assert.assertEquals(page.getMessages().get(0).getId(), "msg-1");
+        Assert.assertTrue(page.isHasMore());
+        Assert.assertTrue(cache.page("lobby-1", "msg-1", 10).isEmpty());
+    }
+
+    @Test
+    public void shouldForgetLobbyEvictedByAnotherReplica() {
+        load("lobby-1", List.of(response(0)), false);
+        ChatHistoryCache.AppendEvent event = new ChatHistoryCache.AppendEvent("other-replica", "lobby-1", null);
+
+        cache.onMessage(new DefaultMessage("menu:chat-appends".getBytes(), serializer.serialize(event)), null);
+
+        Assert.assertTrue(cache.page("lobby-1", null, 10).isEmpty());
+    }
+
+    @Test
+    public void shouldExpireLobbyFromItsLastAppendEvenIfItIsRead() throws InterruptedException {
+        ReflectionTestUtils.setField(cache, "expiryNanos", TimeUnit.MILLISECONDS.toNanos(300));
+        load("lobby-1", List.of(response(0)), false);
+        load("lobby-2", List.of(response(0)), false);
+
+        Thread.sleep(200);
+        Assert.assertTrue(cache.page("lobby-1", null, 10).isPresent());
+        cache.appended("lobby-2", List.of(message(1)));
+        Thread.sleep(200);
+
+        Assert.assertTrue(cache.page("lobby-1", null, 10).isEmpty());
+        Assert.assertEquals(cache.page("lobby-2", null, 10).orElseThrow().getMessages().size(), 2);
+    }
+
+    private void load(String lobbyId, List<ChatMessageResponse> messages, boolean olderInRedis) {
+        cache.beginLoad(lobbyId);
+        cache.completeLoad(lobbyId, messages, olderInRedis);
+    }
+
+    private static ChatMessageResponse response(int i) {
+        return ChatMessageResponse.fromChatMessage(message(i));
+    }
+
+    private static ChatMessage message(int i) {
+        return ChatMessage.builder()
+                .id("msg-" + i)
+                .lobbyId("lobby-1")
+                .senderId("user-" + i)
+                .content("Message " + i)
+                .timestamp(START.plusSeconds(i))
+                .type(ChatMessage.MessageType.USER_MESSAGE)
+                .build();
+    }
+}
@@ -0,0 +1,245 @@
+package com.online_games_service.menu.service.chat;
+
+import com.online_games_service.menu.dto.chat.ChatErrorResponse;
+import com.online_games_service.menu.dto.chat.ChatMessageResponse;
+import com.online_games_service.menu.messaging.RoomEventRelay;
+import com.online_games_service.menu.model.ChatMessage;
+import com.online_games_service.menu.model.GameRoom;
+import com.online_games_service.menu.model.PlayerState;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+public class ChatPipelineTest {
+
+    @Mock
+    private ChatService chatService;
+
+    @Mock
+    private ChatRateLimiterService rateLimiter;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private RoomEventRelay roomEvents;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private AutoCloseable mocks;
+    private ChatPipeline pipeline;
+
+    @BeforeMethod
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(rateLimiter.checkRateLimit(anyString())).thenReturn(Optional.empty());
+        when(chatService.createUserMessage(anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> message(invocation.getArgument(0), invocation.getArgument(4)));
+        pipeline = new ChatPipeline(chatService, rateLimiter, messagingTemplate, roomEvents, redisTemplate);
+        // Process on the calling thread unless a test starts the pipeline
+        ReflectionTestUtils.setField(pipeline, "enabled", false);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        pipeline.stop();
+        mocks.close();
+    }
+
+    @Test
+    public void shouldFilterPersistAndBroadcastValidMessage() {
+        inLobby("lobby-1", null);
+
+        pipeline.submit("lobby-1", "user-123", "TestUser", "Hello everyone!");
+
+        verify(chatService).createUserMessage("lobby-1", "user-123", "TestUser", "/avatars/avatar_1.png", "Hello everyone!");
+        verify(chatService).storeMessages(eq("lobby-1"), argThat(messages -> messages.size() == 1));
+        verify(roomEvents).convertAndSend(eq("/topic/room/lobby-1/chat"), any(ChatMessageResponse.class));
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    public void shouldUseAvatarFromRoom() {
+        GameRoom room = new GameRoom();
+        room.setId("lobby-1");
+        Map<String, PlayerState> players = new HashMap<>();
+        players.put("user-123", new PlayerState("TestUser", false, "/avatars/custom.png"));
+        room.setPlayers(players);
+        inLobby("lobby-1", room);
+        when(chatService.getPlayerAvatar(any(), eq("user-123"))).thenReturn("/avatars/custom.png");
+
+        pipeline.submit("lobby-1", "user-123", "TestUser", "Hello!");
+
+        verify(chatService).createUserMessage("lobby-1", "user-123", "TestUser", "/avatars/custom.png", "Hello!");
+    }
+
+    @Test
+    public void shouldRejectSenderOutsideLobby() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("different-lobby", null));
+
+        pipeline.submit("lobby-1", "user-123", "TestUser", "Hello");
+
+        assertEquals(sentError("user-123").getCode(), "NOT_IN_LOBBY");
+        verifyNoInteractions(rateLimiter, roomEvents);
+    }
+
+    @Test
+    public void shouldRejectEmptyAndTooLongMessagesWithoutRedis() {
+        pipeline.submit("lobby-1", "user-123", "TestUser", " ");
+        pipeline.submit("lobby-1", "user-123", "TestUser", null);
+        pipeline.submit("lobby-1", "user-123", "TestUser", "a".repeat(501));
+
+        verify(messagingTemplate, times(3)).convertAndSendToUser(eq("user-123"), eq("/queue/chat/error"),
+                argThat(error -> "INVALID_MESSAGE".equals(((ChatErrorResponse) error).getCode())));
+        verifyNoInteractions(redisTemplate, rateLimiter, roomEvents);
+    }
+
+    @Test
+    public void shouldSendRateLimitError() {
+        inLobby("lobby-1", null);
+        when(rateLimiter.checkRateLimit("user-123")).thenReturn(Optional.of(5000L));
+
+        pipeline.submit("lobby-1", "user-123", "TestUser", "Hello");
+
+        ChatErrorResponse error = sentError("user-123");
+        assertEquals(error.getCode(), "RATE_LIMIT");
+        assertEquals(error.getRetryAfter(), Long.valueOf(5000L));
+        verify(chatService, never()).storeMessages(anyString(), anyList());
+    }
+
+    @Test
+    public void shouldReportFailedPersistAndNotBroadcast() {
+        inLobby("lobby-1", null);
+        doThrow(new RuntimeException("Redis timeout")).when(chatService).storeMessages(anyString(), anyList());
+
+        pipeline.submit("lobby-1", "user-123", "TestUser", "Hello");
+
+        assertEquals(sentError("user-123").getCode(), "UNAVAILABLE");
+        verifyNoInteractions(roomEvents);
+        ChatPipeline.StageStats persist = pipeline.getStats().get(ChatPipeline.Stage.PERSIST);
+        assertEquals(persist.processed(), 1);
+        assertEquals(persist.failed(), 1);
+    }
+
+    @Test
+    public void shouldProcessOffCallerThreadAndRejectWhenLobbyIsFull() throws Exception {
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "maxPendingPerLobby", 1);
+        ReflectionTestUtils.setField(pipeline, "statsLogSeconds", 0L);
+        pipeline.start();
+        inLobby("lobby-1", null);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch stored = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            stored.countDown();
+            return null;
+        }).when(chatService).storeMessages(anyString(), anyList());
+
+        pipeline.submit("lobby-1", "user-1", "One", "first");
+        pipeline.submit("lobby-1", "user-2", "Two", "second");
+
+        assertEquals(sentError("user-2").getCode(), "UNAVAILABLE");
+        assertEquals(pipeline.getRejected(), 1);
+        release.countDown();
+        assertTrue(stored.await(5, TimeUnit.SECONDS));
+        verify(roomEvents, timeout(5000)).convertAndSend(eq("/topic/room/lobby-1/chat"), any(ChatMessageResponse.class));
+        verify(chatService, never()).createUserMessage(anyString(), eq("user-2"), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    public void shouldStoreMessagesQueuedWhileLobbyIsBusyWithOneAppend() throws Exception {
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "statsLogSeconds", 0L);
+        pipeline.start();
+        inLobby("lobby-1", null);
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<String>> appends = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<ChatMessage> messages = invocation.getArgument(1);
+            appends.add(messages.stream().map(ChatMessage::getContent).toList());
+            storing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(chatService).storeMessages(anyString(), anyList());
+
+        pipeline.submit("lobby-1", "user-1", "One", "first");
+        assertTrue(storing.await(5, TimeUnit.SECONDS));
+        pipeline.submit("lobby-1", "user-1", "One", "second");
+        pipeline.submit("lobby-1", "user-1", "One", "third");
+        pipeline.submit("lobby-1", "user-1", "One", "fourth");
+        release.countDown();
+
+        verify(roomEvents, timeout(5000).times(4)).convertAndSend(eq("/topic/room/lobby-1/chat"), any(ChatMessageResponse.class));
+        assertEquals(appends, List.of(List.of("first"), List.of("second", "third", "fourth")));
+        assertEquals(pipeline.getStats().get(ChatPipeline.Stage.PERSIST).processed(), 4);
+        assertEquals(pipeline.getPending(), 0);
+    }
+
+    @Test
+    public void shouldFailEverySenderOfBatchWhenPersistFails() {
+        inLobby("lobby-1", null);
+        doThrow(new RuntimeException("Redis timeout")).when(chatService).storeMessages(anyString(), anyList());
+
+        pipeline.process(List.of(
+                new ChatPipeline.Submission("lobby-1", "user-123", "TestUser", "first", System.nanoTime()),
+                new ChatPipeline.Submission("lobby-1", "user-1", "One", "second", System.nanoTime())));
+
+        assertEquals(sentError("user-123").getCode(), "UNAVAILABLE");
+        assertEquals(sentError("user-1").getCode(), "UNAVAILABLE");
+        verifyNoInteractions(roomEvents);
+        assertEquals(pipeline.getStats().get(ChatPipeline.Stage.PERSIST).failed(), 2);
+    }
+
+    private void inLobby(String lobbyId, GameRoom room) {
+        when(valueOperations.multiGet(List.of("game:user-room:id:user-123", "game:room:" + lobbyId)))
+                .thenReturn(Arrays.asList(lobbyId, room));
+        when(valueOperations.multiGet(List.of("game:user-room:id:user-1", "game:room:" + lobbyId)))
+                .thenReturn(Arrays.asList(lobbyId, room));
+    }
+
+    private ChatErrorResponse sentError(String userId) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq(userId), eq("/queue/chat/error"), captor.capture());
+        return (ChatErrorResponse) captor.getValue();
+    }
+
+    private static ChatMessage message(String lobbyId, String content) {
+        return ChatMessage.builder()
+                .id("msg-1")
+                .lobbyId(lobbyId)
+                .senderId("user-123")
+                .senderUsername("TestUser")
+                .content(content)
+                .timestamp(Instant.now())
+                .type(ChatMessage.MessageType.USER_MESSAGE)
+                .build();
+    }
+}
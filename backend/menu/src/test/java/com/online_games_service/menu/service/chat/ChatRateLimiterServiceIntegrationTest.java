@@ -0,0 +1,71 @@
+package com.online_games_service.menu.service.chat;
+
+import com.online_games_service.test.BaseIntegrationTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "chat.rate-limit.max-messages=3",
+        "chat.rate-limit.window-seconds=1"
+})
+public class ChatRateLimiterServiceIntegrationTest extends BaseIntegrationTest {
+
+    private static final String USER_ID = "rate-limited-user";
+
+    @Autowired
+    private ChatRateLimiterService rateLimiter;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeMethod
+    public void cleanUp() {
+        redisTemplate.delete("chat:rate-bucket:" + USER_ID);
+    }
+
+    @Test
+    public void shouldAllowBurstThenRejectUntilBucketRefills() throws InterruptedException {
+        // Given - 3 messages per second, one token every 334ms
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(rateLimiter.checkRateLimit(USER_ID).isEmpty(), "message " + (i + 1) + " of the burst");
+        }
+
+        // When
+        Optional<Long> rejected = rateLimiter.checkRateLimit(USER_ID);
+
+        // Then
+        Assert.assertTrue(rejected.isPresent());
+        Assert.assertTrue(rejected.get() > 0 && rejected.get() <= 334, "retry after " + rejected.get() + "ms");
+        Assert.assertEquals(rateLimiter.getStatus(USER_ID).remaining(), 0);
+
+        Thread.sleep(rejected.get() + 50);
+
+        Assert.assertTrue(rateLimiter.checkRateLimit(USER_ID).isEmpty());
+        Assert.assertTrue(rateLimiter.checkRateLimit(USER_ID).isPresent());
+    }
+
+    @Test
+    public void shouldRefillWholeBurstAfterWindow() throws InterruptedException {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.checkRateLimit(USER_ID);
+        }
+
+        // When
+        Thread.sleep(1100);
+
+        // Then
+        Assert.assertEquals(rateLimiter.getStatus(USER_ID).remaining(), 3);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(rateLimiter.checkRateLimit(USER_ID).isEmpty());
+        }
+    }
+}
@@ -2,16 +2,15 @@ package com.online_games_service.menu.service.chat;
 
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
-import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -19,111 +18,83 @@ import static org.mockito.Mockito.*;
 public class ChatRateLimiterServiceTest {
 
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
-
-    @Mock
-    private ZSetOperations<String, Object> zSetOperations;
+    private StringRedisTemplate redisTemplate;
 
     private ChatRateLimiterService rateLimiter;
 
     @BeforeMethod
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
         rateLimiter = new ChatRateLimiterService(redisTemplate);
         // Set the @Value fields via reflection
         ReflectionTestUtils.setField(rateLimiter, "maxMessages", 5);
         ReflectionTestUtils.setField(rateLimiter, "windowSeconds", 10);
+        rateLimiter.init();
     }
 
     @Test
-    public void shouldAllowMessageWhenUnderLimit() {
-        String userId = "user-123";
-        
-        when(zSetOperations.zCard(anyString())).thenReturn(3L);  // 3 messages, limit is 5
-        when(zSetOperations.add(anyString(), any(), anyDouble())).thenReturn(true);
+    public void shouldAllowMessageWhenBucketHasTokens() {
+        mockScript(List.of(1L, 0L, 2L));
 
-        Optional<Long> result = rateLimiter.checkRateLimit(userId);
+        Optional<Long> result = rateLimiter.checkRateLimit("user-123");
 
         Assert.assertTrue(result.isEmpty());
-        verify(zSetOperations).add(anyString(), any(), anyDouble());
     }
 
     @Test
-    public void shouldBlockMessageWhenAtLimit() {
-        String userId = "user-456";
-        
-        when(zSetOperations.zCard(anyString())).thenReturn(5L);  // At limit
-        
-        // Mock oldest entry for retry calculation
-        ZSetOperations.TypedTuple<Object> tuple = mock(ZSetOperations.TypedTuple.class);
-        when(tuple.getScore()).thenReturn((double) System.currentTimeMillis() - 5000);
-        Set<ZSetOperations.TypedTuple<Object>> tuples = new HashSet<>();
-        tuples.add(tuple);
-        when(zSetOperations.rangeWithScores(anyString(), eq(0L), eq(0L))).thenReturn(tuples);
-
-        Optional<Long> result = rateLimiter.checkRateLimit(userId);
-
-        Assert.assertTrue(result.isPresent());
-        Assert.assertTrue(result.get() > 0);
-        // Should not add new entry when rate limited
-        verify(zSetOperations, never()).add(anyString(), any(), anyDouble());
+    public void shouldBlockMessageWhenBucketIsEmpty() {
+        mockScript(List.of(0L, 1500L, 0L));
+
+        Optional<Long> result = rateLimiter.checkRateLimit("user-456");
+
+        Assert.assertEquals(result, Optional.of(1500L));
+    }
+
+    @Test
+    public void shouldTakeOneTokenPerMessageInASingleCall() {
+        mockScript(List.of(1L, 0L, 4L));
+
+        rateLimiter.checkRateLimit("user-789");
+
+        // 5 messages per 10 seconds -> one token every 2000ms
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("chat:rate-bucket:user-789")),
+                eq("2000"), eq("5"), eq("1"));
     }
 
     @Test
-    public void shouldRemoveExpiredEntries() {
-        String userId = "user-789";
-        
-        when(zSetOperations.zCard(anyString())).thenReturn(0L);
-        when(zSetOperations.add(anyString(), any(), anyDouble())).thenReturn(true);
+    public void shouldRejectBlockedUserLocallyUntilRetryTime() {
+        mockScript(List.of(0L, 60_000L, 0L));
 
-        rateLimiter.checkRateLimit(userId);
+        Assert.assertTrue(rateLimiter.checkRateLimit("rapid-user").isPresent());
+        Optional<Long> again = rateLimiter.checkRateLimit("rapid-user");
 
-        // Verify expired entries are removed
-        verify(zSetOperations).removeRangeByScore(anyString(), eq(0.0), anyDouble());
+        Assert.assertTrue(again.isPresent());
+        Assert.assertTrue(again.get() > 0 && again.get() <= 60_000L);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any(), any());
     }
 
     @Test
-    public void simulateRapidMessages_shouldBlockSixthMessage() {
-        String userId = "rapid-user";
-        
-        // Simulate 5 messages already sent
-        when(zSetOperations.zCard(anyString()))
-                .thenReturn(0L)   // First call
-                .thenReturn(1L)   // Second
-                .thenReturn(2L)   // Third
-                .thenReturn(3L)   // Fourth
-                .thenReturn(4L)   // Fifth
-                .thenReturn(5L);  // Sixth - should be blocked
-        
-        when(zSetOperations.add(anyString(), any(), anyDouble())).thenReturn(true);
-        
-        ZSetOperations.TypedTuple<Object> tuple = mock(ZSetOperations.TypedTuple.class);
-        when(tuple.getScore()).thenReturn((double) System.currentTimeMillis());
-        Set<ZSetOperations.TypedTuple<Object>> tuples = new HashSet<>();
-        tuples.add(tuple);
-        when(zSetOperations.rangeWithScores(anyString(), eq(0L), eq(0L))).thenReturn(tuples);
-
-        // Send 5 messages - all should succeed
-        for (int i = 0; i < 5; i++) {
-            Optional<Long> result = rateLimiter.checkRateLimit(userId);
-            Assert.assertTrue(result.isEmpty(), "Message " + (i + 1) + " should be allowed");
-        }
-
-        // 6th message should be blocked
-        Optional<Long> blocked = rateLimiter.checkRateLimit(userId);
-        Assert.assertTrue(blocked.isPresent(), "6th message should be rate limited");
+    public void shouldAllowMessageWhenRedisFails() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenThrow(new RuntimeException("connection refused"));
+
+        Assert.assertTrue(rateLimiter.checkRateLimit("user-123").isEmpty());
     }
 
     @Test
-    public void shouldGetRateLimitStatus() {
-        String userId = "status-user";
-        
-        when(zSetOperations.zCard(anyString())).thenReturn(3L);
+    public void shouldGetRateLimitStatusWithoutTakingToken() {
+        mockScript(List.of(1L, 0L, 2L));
 
-        var status = rateLimiter.getStatus(userId);
+        var status = rateLimiter.getStatus("status-user");
 
-        Assert.assertEquals(status.remaining(), 2);  // 5 - 3 = 2 remaining
+        Assert.assertEquals(status.remaining(), 2);
         Assert.assertEquals(status.limit(), 5);
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), any(), any(), eq("0"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockScript(List<Long> result) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenReturn(result);
     }
 }
@@ -8,6 +8,8 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.redis.core.ListOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -28,9 +30,13 @@ public class ChatServiceTest {
     @Mock
     private ListOperations<String, Object> listOperations;
 
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
     private ChatService chatService;
     private ProfanityFilterService profanityFilter;
     private ObjectMapper objectMapper;
+    private ChatHistoryCache historyCache;
 
     @BeforeMethod
     public void setUp() {
@@ -41,7 +47,8 @@ public class ChatServiceTest {
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         
-        chatService = new ChatService(redisTemplate, objectMapper, profanityFilter);
+        historyCache = new ChatHistoryCache(redisTemplate, listenerContainer);
+        chatService = new ChatService(redisTemplate, objectMapper, profanityFilter, historyCache);
     }
 
     @Test
@@ -52,8 +59,6 @@ public class ChatServiceTest {
         String avatar = "/avatars/avatar_1.png";
         String content = "Hello everyone!";
 
-        when(listOperations.rightPush(anyString(), any())).thenReturn(1L);
-
         ChatMessage result = chatService.saveMessage(lobbyId, userId, username, avatar, content);
 
         Assert.assertNotNull(result.getId());
@@ -64,7 +69,9 @@ public class ChatServiceTest {
         Assert.assertFalse(result.isBlurred());
         Assert.assertEquals(result.getType(), ChatMessage.MessageType.USER_MESSAGE);
 
-        verify(listOperations).rightPush(eq("lobby:chat:" + lobbyId), anyString());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("lobby:chat:" + lobbyId)),
+                eq(500), eq(3600L), argThat(json -> json.toString().contains("Hello everyone!")));
+        verify(listOperations, never()).rightPush(anyString(), any());
     }
 
     @Test
@@ -72,8 +79,6 @@ public class ChatServiceTest {
         String lobbyId = "lobby-789";
         String content = "This is a damn message";
 
-        when(listOperations.rightPush(anyString(), any())).thenReturn(1L);
-
         ChatMessage result = chatService.saveMessage(lobbyId, "user", "User", "/avatar", content);
 
         Assert.assertTrue(result.isBlurred());
@@ -86,14 +91,46 @@ public class ChatServiceTest {
         String lobbyId = "lobby-sys";
         String content = "User joined the lobby";
 
-        when(listOperations.rightPush(anyString(), any())).thenReturn(1L);
-
         ChatMessage result = chatService.createSystemMessage(lobbyId, content);
 
         Assert.assertEquals(result.getSenderId(), "SYSTEM");
         Assert.assertEquals(result.getSenderUsername(), "System");
         Assert.assertEquals(result.getContent(), content);
         Assert.assertEquals(result.getType(), ChatMessage.MessageType.SYSTEM_MESSAGE);
+        // System messages are trimmed like user messages
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("lobby:chat:" + lobbyId)),
+                eq(500), eq(3600L), any());
+    }
+
+    @Test
+    public void shouldNotFailWhenSystemMessageCannotBeStored() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("redis down"));
+
+        ChatMessage result = chatService.createSystemMessage("lobby-sys", "User left the lobby");
+
+        Assert.assertEquals(result.getContent(), "User left the lobby");
+    }
+
+    @Test
+    public void shouldStoreMessagesOfLobbyWithOneAppend() {
+        ChatMessage first = chatService.createUserMessage("lobby-b", "u1", "One", "/a", "first");
+        ChatMessage second = chatService.createUserMessage("lobby-b", "u2", "Two", "/a", "second");
+
+        chatService.storeMessages("lobby-b", List.of(first, second));
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("lobby:chat:lobby-b")),
+                eq(500), eq(3600L), anyString(), anyString());
+    }
+
+    @Test
+    public void shouldPropagateFailureWhenStoringMessages() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("redis down"));
+        ChatMessage message = chatService.createUserMessage("lobby-f", "u1", "One", "/a", "hello");
+
+        Assert.expectThrows(IllegalStateException.class,
+                () -> chatService.storeMessages("lobby-f", List.of(message)));
     }
 
     @Test
@@ -183,4 +220,79 @@ public class ChatServiceTest {
 
         verify(redisTemplate).delete("lobby:chat:" + lobbyId);
     }
+
+    @Test
+    public void shouldServeRecentHistoryFromCacheAfterFirstLoad() throws Exception {
+        List<Object> stored = storedMessages("lobby-c", 60);
+        when(listOperations.range("lobby:chat:lobby-c", -51L, -1L)).thenReturn(stored.subList(9, 60));
+
+        ChatHistoryResponse first = chatService.getChatHistory("lobby-c", (String) null, 20);
+        ChatHistoryResponse second = chatService.getChatHistory("lobby-c", (String) null, 20);
+
+        Assert.assertEquals(first.getMessages().size(), 20);
+        Assert.assertEquals(first.getMessages().get(19).getContent(), "Message 59");
+        Assert.assertTrue(first.isHasMore());
+        Assert.assertEquals(first.getNextCursor(), first.getMessages().get(0).getId());
+        Assert.assertEquals(second, first);
+        verify(listOperations, times(1)).range(anyString(), anyLong(), anyLong());
+        verify(listOperations, never()).size(anyString());
+    }
+
+    @Test
+    public void shouldKeepCachedHistoryCurrentWithNewMessages() throws Exception {
+        when(listOperations.range("lobby:chat:lobby-n", -51L, -1L)).thenReturn(storedMessages("lobby-n", 2));
+        chatService.getChatHistory("lobby-n", (String) null, 50);
+
+        ChatMessage sent = chatService.saveMessage("lobby-n", "u1", "One", "/a", "fresh");
+        ChatHistoryResponse history = chatService.getChatHistory("lobby-n", (String) null, 50);
+
+        Assert.assertEquals(history.getMessages().size(), 3);
+        Assert.assertEquals(history.getMessages().get(2).getId(), sent.getId());
+        Assert.assertFalse(history.isHasMore());
+        Assert.assertNull(history.getNextCursor());
+        verify(listOperations, times(1)).range(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldPageOlderMessagesByCursorFromRedis() throws Exception {
+        List<Object> stored = storedMessages("lobby-o", 60);
+        when(listOperations.range("lobby:chat:lobby-o", -51L, -1L)).thenReturn(stored.subList(9, 60));
+        when(listOperations.range("lobby:chat:lobby-o", 0L, -1L)).thenReturn(stored);
+        ChatHistoryResponse newest = chatService.getChatHistory("lobby-o", (String) null, 50);
+
+        ChatHistoryResponse older = chatService.getChatHistory("lobby-o", newest.getNextCursor(), 50);
+
+        Assert.assertEquals(older.getMessages().size(), 10);
+        Assert.assertEquals(older.getMessages().get(0).getContent(), "Message 0");
+        Assert.assertEquals(older.getMessages().get(9).getContent(), "Message 9");
+        Assert.assertFalse(older.isHasMore());
+    }
+
+    @Test
+    public void shouldReturnEmptyPageWhenCursorWasTrimmed() throws Exception {
+        when(listOperations.range("lobby:chat:lobby-t", 0L, -1L)).thenReturn(storedMessages("lobby-t", 3));
+
+        ChatHistoryResponse page = chatService.getChatHistory("lobby-t", "gone", 20);
+
+        Assert.assertTrue(page.getMessages().isEmpty());
+        Assert.assertFalse(page.isHasMore());
+    }
+
+    private List<Object> storedMessages(String lobbyId, int count) throws Exception {
+        Instant start = Instant.parse("2026-01-01T10:00:00Z");
+        List<Object> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ChatMessage msg = ChatMessage.builder()
+                    .id("msg-" + i)
+                    .lobbyId(lobbyId)
+                    .senderId("user-" + i)
+                    .senderUsername("User" + i)
+                    .content("Message " + i)
+                    .timestamp(start.plusSeconds(i))
+                    .type(ChatMessage.MessageType.USER_MESSAGE)
+                    .build();
+            messages.add(objectMapper.writeValueAsString(msg));
+        }
+        return messages;
+    }
 }
@@ -1,9 +1,16 @@
 package com.online_games_service.menu.service.chat;
 
+import org.springframework.test.util.ReflectionTestUtils;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+
 public class ProfanityFilterServiceTest {
 
     private ProfanityFilterService profanityFilter;
@@ -85,4 +92,45 @@ public class ProfanityFilterServiceTest {
         var result = profanityFilter.filter("Ale cholera!");
         Assert.assertTrue(result.wasFiltered());
     }
+
+    @Test
+    public void shouldLoadBundledLanguages() {
+        Assert.assertEquals(profanityFilter.getLanguages(), Set.of("en", "pl"));
+    }
+
+    @Test
+    public void shouldMaskOnlyTheMatchedSpans() {
+        var result = profanityFilter.filter("sh1t, that's a b@stard move");
+
+        Assert.assertEquals(result.filteredMessage(), "****, that's a ******* move");
+    }
+
+    @Test
+    public void shouldReloadChangedWordLists() throws IOException {
+        Path dir = Files.createTempDirectory("profanity");
+        Path list = Files.writeString(dir.resolve("de.txt"), "# German\nmist\n");
+        ReflectionTestUtils.setField(profanityFilter, "wordsLocation", "file:" + dir + "/*.txt");
+        profanityFilter.reload();
+
+        Assert.assertEquals(profanityFilter.getLanguages(), Set.of("de"));
+        Assert.assertTrue(profanityFilter.containsProfanity("so ein Mist"));
+        Assert.assertFalse(profanityFilter.containsProfanity("fuck"));
+
+        Files.writeString(list, "scheisse\n");
+        Files.setLastModifiedTime(list, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        profanityFilter.reload();
+
+        Assert.assertFalse(profanityFilter.containsProfanity("so ein Mist"));
+        Assert.assertTrue(profanityFilter.containsProfanity("SCHEISSE"));
+    }
+
+    @Test
+    public void shouldKeepWordListsWhenLocationIsEmpty() throws IOException {
+        Path dir = Files.createTempDirectory("profanity");
+        ReflectionTestUtils.setField(profanityFilter, "wordsLocation", "file:" + dir + "/*.txt");
+
+        profanityFilter.reload();
+
+        Assert.assertTrue(profanityFilter.containsProfanity("kurwa"));
+    }
 }
@@ -0,0 +1,58 @@
+package com.online_games_service.menu.service.chat;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class ProfanityMatcherTest {
+
+    private final ProfanityMatcher matcher = ProfanityMatcher.of(List.of("fag", "faggot", "shit", "slut", "dupa", "ass"));
+
+    @Test
+    public void shouldReportSpansInOriginalMessage() {
+        List<ProfanityMatcher.Match> matches = matcher.find("oh SH1T, what a dupa!");
+
+        Assert.assertEquals(matches, List.of(
+                new ProfanityMatcher.Match(3, 7, "shit"),
+                new ProfanityMatcher.Match(16, 20, "dupa")));
+    }
+
+    @Test
+    public void shouldMatchOnlyWholeWords() {
+        Assert.assertTrue(matcher.find("classic bass passes").isEmpty());
+        Assert.assertTrue(matcher.find("shitake").isEmpty());
+        Assert.assertEquals(matcher.find("ass").size(), 1);
+    }
+
+    @Test
+    public void shouldPreferLongestWordAtSamePosition() {
+        Assert.assertEquals(matcher.find("you faggot"), List.of(new ProfanityMatcher.Match(4, 10, "faggot")));
+    }
+
+    @Test
+    public void shouldReadOneAsEitherIOrL() {
+        Assert.assertEquals(matcher.find("sh1t").size(), 1);
+        Assert.assertEquals(matcher.find("s1ut").size(), 1);
+        Assert.assertTrue(matcher.find("shlt").isEmpty());
+    }
+
+    @Test
+    public void shouldFoldLeetspeakAndDiacritics() {
+        Assert.assertEquals(matcher.find("a$$").size(), 1);
+        Assert.assertEquals(matcher.find("$h!7").size(), 1);
+        Assert.assertEquals(matcher.find("dúpą").size(), 1);
+    }
+
+    @Test
+    public void shouldScanLongMessagesWithoutMatches() {
+        String text = "fa".repeat(10_000) + " sh";
+
+        Assert.assertTrue(matcher.find(text).isEmpty());
+    }
+
+    @Test
+    public void shouldMatchNothingWithoutWords() {
+        Assert.assertTrue(ProfanityMatcher.of(List.of()).find("shit").isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package com.online_games_service.menu.service.chat;
+
+import com.online_games_service.menu.dto.chat.TypingIndicator;
+import com.online_games_service.menu.dto.chat.TypingStatusResponse;
+import com.online_games_service.menu.messaging.RoomEventRelay;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TypingCoalescerTest {
+
+    @Mock
+    private RoomEventRelay roomEvents;
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private AutoCloseable mocks;
+    private TypingCoalescer coalescer;
+
+    @BeforeMethod
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        coalescer = new TypingCoalescer(roomEvents);
+        ReflectionTestUtils.setField(coalescer, "clock", (LongSupplier) now::get);
+        ReflectionTestUtils.setField(coalescer, "expireMs", 4000L);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    public void shouldBroadcastOneFramePerLobbyTick() {
+        coalescer.update("lobby-1", "u1", "Alice", true);
+        coalescer.update("lobby-1", "u2", "Bob", true);
+        coalescer.update("lobby-1", "u1", "Alice", true);
+
+        coalescer.tick();
+
+        TypingStatusResponse frame = lastFrame("lobby-1");
+        Assert.assertEquals(frame.getUsers().stream().map(TypingIndicator::getUsername).toList(), List.of("Alice", "Bob"));
+        Assert.assertEquals(frame.getExpiresInMs(), 4000L);
+        Assert.assertNotNull(frame.getSource());
+    }
+
+    @Test
+    public void shouldNotBroadcastUnchangedLobbyUntilRefreshIsDue() {
+        coalescer.update("lobby-1", "u1", "Alice", true);
+        coalescer.tick();
+        clearInvocations(roomEvents);
+
+        advance(1000);
+        coalescer.update("lobby-1", "u1", "Alice", true);
+        coalescer.tick();
+        verify(roomEvents, never()).convertAndSend(anyString(), any());
+
+        advance(1000);
+        coalescer.tick();
+        verify(roomEvents, times(1)).convertAndSend(eq("/topic/room/lobby-1/typing"), any(TypingStatusResponse.class));
+    }
+
+    @Test
+    public void shouldBroadcastEmptyFrameOnceWhenLastUserStops() {
+        coalescer.update("lobby-1", "u1", "Alice", true);
+        coalescer.tick();
+
+        coalescer.update("lobby-1", "u1", "Alice", false);
+        coalescer.tick();
+
+        Assert.assertTrue(lastFrame("lobby-1").getUsers().isEmpty());
+        Assert.assertEquals(coalescer.trackedLobbies(), 0);
+        Assert.assertFalse(coalescer.isTyping("lobby-1", "u1"));
+    }
+
+    @Test
+    public void shouldExpireUsersWhoStopSendingEvents() {
+        coalescer.update("lobby-1", "u1", "Alice", true);
+        coalescer.tick();
+
+        advance(4000);
+        coalescer.tick();
+
+        Assert.assertTrue(lastFrame("lobby-1").getUsers().isEmpty());
+        Assert.assertFalse(coalescer.isTyping("lobby-1", "u1"));
+    }
+
+    @Test
+    public void shouldIgnoreStopOfUnknownUser() {
+        coalescer.update("lobby-1", "u1", "Alice", false);
+
+        coalescer.tick();
+
+        verify(roomEvents, never()).convertAndSend(anyString(), any());
+        Assert.assertEquals(coalescer.trackedLobbies(), 0);
+    }
+
+    private void advance(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private TypingStatusResponse lastFrame(String lobbyId) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(roomEvents, atLeastOnce())
+                .convertAndSend(eq("/topic/room/" + lobbyId + "/typing"), captor.capture());
+        return (TypingStatusResponse) captor.getValue();
+    }
+}
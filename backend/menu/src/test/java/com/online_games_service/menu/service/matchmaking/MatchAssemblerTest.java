@@ -0,0 +1,92 @@
+package com.online_games_service.menu.service.matchmaking;
+
+import com.online_games_service.common.enums.GameType;
+import com.online_games_service.menu.config.MatchmakingConfig;
+import com.online_games_service.menu.model.MatchTicket;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class MatchAssemblerTest {
+
+	private static final long NOW = 1_000_000L;
+
+	private MatchAssembler assembler;
+
+	@BeforeMethod
+	public void setUp() {
+		MatchmakingConfig config = new MatchmakingConfig();
+		config.setBotBackfillAfterSeconds(30);
+		config.getRating().setInitialSpread(0.1);
+		config.getRating().setSpreadPerSecond(0.01);
+		assembler = new MatchAssembler(config);
+	}
+
+	@Test
+	public void shouldGroupOldestTicketsIntoFullRooms() {
+		List<MatchTicket> tickets = List.of(
+				ticket("u3", null, 3), ticket("u1", null, 5), ticket("u2", null, 4),
+				ticket("u4", null, 2), ticket("u5", null, 1));
+
+		List<List<MatchTicket>> rooms = assembler.assemble(tickets, 2, NOW);
+
+		Assert.assertEquals(rooms.size(), 2);
+		Assert.assertEquals(userIds(rooms.get(0)), List.of("u1", "u2"));
+		Assert.assertEquals(userIds(rooms.get(1)), List.of("u3", "u4"));
+	}
+
+	@Test
+	public void shouldNotMatchPlayersWithDistantRatings() {
+		List<MatchTicket> tickets = List.of(
+				ticket("strong", 0.9, 1), ticket("weak", 0.2, 1), ticket("average", 0.85, 1));
+
+		List<List<MatchTicket>> rooms = assembler.assemble(tickets, 2, NOW);
+
+		Assert.assertEquals(rooms.size(), 1);
+		Assert.assertEquals(userIds(rooms.get(0)), List.of("strong", "average"));
+	}
+
+	@Test
+	public void shouldWidenRatingSpreadTheLongerTicketsWait() {
+		List<MatchTicket> tickets = List.of(ticket("strong", 0.9, 20), ticket("weak", 0.65, 20));
+
+		Assert.assertTrue(assembler.assemble(tickets, 2, NOW - 15_000).isEmpty());
+		Assert.assertEquals(assembler.assemble(tickets, 2, NOW).size(), 1);
+	}
+
+	@Test
+	public void shouldMatchUnratedPlayersWithAnyone() {
+		List<MatchTicket> tickets = List.of(ticket("new", null, 1), ticket("strong", 0.9, 1), ticket("weak", 0.1, 1));
+
+		List<List<MatchTicket>> rooms = assembler.assemble(tickets, 2, NOW);
+
+		Assert.assertEquals(userIds(rooms.get(0)), List.of("new", "strong"));
+	}
+
+	@Test
+	public void shouldBackfillRoomOnceAnchorWaitedLongEnough() {
+		List<MatchTicket> tickets = List.of(ticket("patient", null, 31), ticket("fresh", null, 1));
+
+		List<List<MatchTicket>> rooms = assembler.assemble(tickets, 4, NOW);
+
+		Assert.assertEquals(rooms.size(), 1);
+		Assert.assertEquals(userIds(rooms.get(0)), List.of("patient", "fresh"));
+	}
+
+	@Test
+	public void shouldKeepWaitingWhenRoomCannotBeFilled() {
+		List<MatchTicket> tickets = List.of(ticket("u1", null, 5), ticket("u2", null, 1));
+
+		Assert.assertTrue(assembler.assemble(tickets, 4, NOW).isEmpty());
+	}
+
+	private static MatchTicket ticket(String userId, Double rating, int waitedSeconds) {
+		return new MatchTicket(userId, userId + "-name", GameType.MAKAO, rating, NOW - waitedSeconds * 1000L);
+	}
+
+	private static List<String> userIds(List<MatchTicket> room) {
+		return room.stream().map(MatchTicket::getUserId).toList();
+	}
+}
@@ -0,0 +1,201 @@
+package com.online_games_service.menu.service.matchmaking;
+
+import com.online_games_service.common.enums.GameType;
+import com.online_games_service.common.enums.RoomStatus;
+import com.online_games_service.menu.config.MatchmakingConfig;
+import com.online_games_service.menu.dto.RoomInfoResponse;
+import com.online_games_service.menu.messaging.RoomEventRelay;
+import com.online_games_service.menu.model.GameRoom;
+import com.online_games_service.menu.model.MatchTicket;
+import com.online_games_service.menu.service.GameRoomService;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MatchmakingServiceTest {
+
+	@Mock
+	private RedisTemplate<String, Object> redisTemplate;
+
+	@Mock
+	private ValueOperations<String, Object> valueOperations;
+
+	@Mock
+	private ZSetOperations<String, Object> zSetOperations;
+
+	@Mock
+	private GameRoomService gameRoomService;
+
+	@Mock
+	private PlayerRatingClient ratingClient;
+
+	@Mock
+	private RoomEventRelay roomEvents;
+
+	private AutoCloseable mocks;
+	private MatchmakingConfig config;
+	private MatchmakingService matchmakingService;
+
+	@BeforeMethod
+	public void setUp() {
+		mocks = MockitoAnnotations.openMocks(this);
+
+		lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+		lenient().when(valueOperations.setIfAbsent(startsWith("matchmaking:lock:"), anyString(), any(Duration.class))).thenReturn(true);
+		lenient().when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+			SessionCallback<?> callback = invocation.getArgument(0);
+			callback.execute(redisTemplate);
+			return Collections.emptyList();
+		});
+		lenient().when(gameRoomService.findUsersInRooms(anyList())).thenReturn(Set.of());
+
+		config = new MatchmakingConfig();
+		config.getRoomSizes().put(GameType.MAKAO, 2);
+		matchmakingService = new MatchmakingService(config, redisTemplate, gameRoomService, ratingClient, roomEvents);
+	}
+
+	@AfterMethod
+	public void tearDown() throws Exception {
+		mocks.close();
+	}
+
+	@Test
+	public void shouldStoreTicketAndQueueUser() {
+		when(ratingClient.fetchRating("u1", GameType.MAKAO)).thenReturn(0.6);
+
+		MatchTicket ticket = matchmakingService.enqueue(GameType.MAKAO, "u1", "alice");
+
+		Assert.assertEquals(ticket.getRating(), 0.6);
+		verify(valueOperations).set(eq("matchmaking:ticket:u1"), eq(ticket), any(Duration.class));
+		verify(zSetOperations).add("matchmaking:queue:MAKAO", "u1", (double) ticket.getEnqueuedAt());
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void shouldRejectUserAlreadyInRoom() {
+		when(gameRoomService.isUserInRoom("u1", "alice")).thenReturn(true);
+
+		matchmakingService.enqueue(GameType.MAKAO, "u1", "alice");
+	}
+
+	@Test
+	public void shouldMoveTicketWhenUserQueuesForAnotherGame() {
+		when(valueOperations.get("matchmaking:ticket:u1"))
+				.thenReturn(new MatchTicket("u1", "alice", GameType.LUDO, null, 1L));
+
+		matchmakingService.enqueue(GameType.MAKAO, "u1", "alice");
+
+		verify(zSetOperations).remove("matchmaking:queue:LUDO", "u1");
+		verify(zSetOperations).add(eq("matchmaking:queue:MAKAO"), eq("u1"), anyDouble());
+	}
+
+	@Test
+	public void shouldReportWhetherCancelledUserWasQueued() {
+		when(valueOperations.get("matchmaking:ticket:u1"))
+				.thenReturn(new MatchTicket("u1", "alice", GameType.MAKAO, null, 1L));
+
+		Assert.assertTrue(matchmakingService.cancel("u1"));
+		Assert.assertFalse(matchmakingService.cancel("u2"));
+		verify(redisTemplate).delete("matchmaking:ticket:u1");
+	}
+
+	@Test
+	public void shouldStartRoomForMatchedGroupAndNotifyPlayers() {
+		stubQueue(ticket("u1", "alice"), ticket("u2", "bob"));
+		when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(1L);
+		GameRoom room = new GameRoom("Match #0001", GameType.MAKAO, "u1", "alice", 2, true);
+		RoomInfoResponse info = new RoomInfoResponse("room-1", "Match #0001", GameType.MAKAO, Map.of(), 2, true, null, "u1", "alice", RoomStatus.PLAYING);
+		when(gameRoomService.startMatchedRoom(eq(GameType.MAKAO), any(), eq(2))).thenReturn(room);
+		when(gameRoomService.buildRoomInfoResponse(room)).thenReturn(info);
+
+		int started = matchmakingService.assembleMatches(GameType.MAKAO);
+
+		Assert.assertEquals(started, 1);
+		verify(gameRoomService).startMatchedRoom(GameType.MAKAO, Map.of("u1", "alice", "u2", "bob"), 2);
+		verify(redisTemplate).delete("matchmaking:ticket:u1");
+		verify(redisTemplate).delete("matchmaking:ticket:u2");
+		verify(roomEvents).convertAndSendToUser("u1", "/queue/matchmaking", info);
+		verify(roomEvents).convertAndSendToUser("u2", "/queue/matchmaking", info);
+	}
+
+	@Test
+	public void shouldSkipGroupWhenAMemberLeftTheQueue() {
+		stubQueue(ticket("u1", "alice"), ticket("u2", "bob"));
+		when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L);
+
+		Assert.assertEquals(matchmakingService.assembleMatches(GameType.MAKAO), 0);
+		verify(gameRoomService, never()).startMatchedRoom(any(), any(), anyInt());
+	}
+
+	@Test
+	public void shouldDropStaleQueueEntries() {
+		stubQueue(ticket("u1", "alice"), null);
+		when(gameRoomService.findUsersInRooms(List.of("u1", "u2"))).thenReturn(Set.of("u1"));
+
+		Assert.assertEquals(matchmakingService.assembleMatches(GameType.MAKAO), 0);
+		verify(zSetOperations).remove("matchmaking:queue:MAKAO", "u1", "u2");
+	}
+
+	@Test
+	public void shouldRequeueGroupWhenRoomCannotStart() {
+		MatchTicket first = ticket("u1", "alice");
+		stubQueue(first, ticket("u2", "bob"));
+		when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(1L);
+		when(gameRoomService.startMatchedRoom(any(), any(), anyInt())).thenThrow(new IllegalStateException("down"));
+
+		Assert.assertEquals(matchmakingService.assembleMatches(GameType.MAKAO), 0);
+		verify(zSetOperations).add("matchmaking:queue:MAKAO", "u1", (double) first.getEnqueuedAt());
+		verify(redisTemplate, never()).delete("matchmaking:ticket:u1");
+	}
+
+	@Test
+	public void shouldSkipTickWhenAnotherReplicaHoldsTheLease() {
+		when(valueOperations.setIfAbsent(startsWith("matchmaking:lock:"), anyString(), any(Duration.class))).thenReturn(false);
+
+		Assert.assertEquals(matchmakingService.assembleMatches(GameType.MAKAO), 0);
+		verify(zSetOperations, never()).rangeWithScores(anyString(), anyLong(), anyLong());
+	}
+
+	private void stubQueue(MatchTicket first, MatchTicket second) {
+		Set<ZSetOperations.TypedTuple<Object>> queued = new LinkedHashSet<>();
+		queued.add(new DefaultTypedTuple<>("u1", 1.0));
+		queued.add(new DefaultTypedTuple<>("u2", 2.0));
+		when(zSetOperations.rangeWithScores(eq("matchmaking:queue:MAKAO"), eq(0L), anyLong())).thenReturn(queued);
+		when(valueOperations.multiGet(List.of("matchmaking:ticket:u1", "matchmaking:ticket:u2")))
+				.thenReturn(Arrays.asList(first, second));
+	}
+
+	private static MatchTicket ticket(String userId, String username) {
+		return new MatchTicket(userId, username, GameType.MAKAO, null, System.currentTimeMillis());
+	}
+}
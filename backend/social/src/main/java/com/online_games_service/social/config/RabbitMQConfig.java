@@ -10,8 +10,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * RabbitMQ configuration for listening to game start events.
+ * RabbitMQ configuration for listening to game start and finish events.
  * When a game starts (makao or ludo), all pending invites for that lobby are deleted.
+ * Both events also drive the "playing" presence of the players.
  */
 @Configuration
 public class RabbitMQConfig {
@@ -19,6 +20,8 @@ public class RabbitMQConfig {
     public static final String GAME_EVENTS_EXCHANGE = "game.events";
     public static final String GAME_START_QUEUE = "social.game-start.queue";
     public static final String GAME_START_ROUTING_PATTERN = "*.start";
+    public static final String GAME_FINISH_QUEUE = "social.game-finish.queue";
+    public static final String GAME_FINISH_ROUTING_PATTERN = "*.finish";
 
     /**
      * Creates or binds to the existing game.events topic exchange.
@@ -46,6 +49,24 @@ public class RabbitMQConfig {
                 .with(GAME_START_ROUTING_PATTERN);
     }
 
+    /**
+     * Queue for receiving game finish events in the social service.
+     */
+    @Bean
+    public Queue gameFinishQueue() {
+        return QueueBuilder.durable(GAME_FINISH_QUEUE).build();
+    }
+
+    /**
+     * Binding that routes all *.finish messages (makao.finish, ludo.finish) to our queue.
+     */
+    @Bean
+    public Binding gameFinishBinding(Queue gameFinishQueue, TopicExchange gameEventsExchange) {
+        return BindingBuilder.bind(gameFinishQueue)
+                .to(gameEventsExchange)
+                .with(GAME_FINISH_ROUTING_PATTERN);
+    }
+
     /**
      * JSON message converter for RabbitMQ messages.
      */
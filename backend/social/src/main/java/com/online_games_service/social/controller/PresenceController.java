@@ -1,5 +1,6 @@
 package com.online_games_service.social.controller;
 
+import com.online_games_service.social.dto.FriendsPresenceSnapshot;
 import com.online_games_service.social.dto.FriendsStatusRequest;
 import com.online_games_service.social.dto.FriendsStatusResponse;
 import com.online_games_service.social.dto.UserPresenceStatus;
@@ -10,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
@@ -17,7 +19,7 @@ import java.util.List;
 
 /**
  * WebSocket controller for handling presence-related messages.
- * Handles PING heartbeats and friends status requests.
+ * Handles PING heartbeats, the friends presence subscription and friends status requests.
  */
 @Controller
 public class PresenceController {
@@ -32,11 +34,13 @@ public class PresenceController {
             FriendNotificationService friendNotificationService) {
         this.presenceService = presenceService;
         this.friendNotificationService = friendNotificationService;
+        // Buffered heartbeats learn only when flushed that another replica had removed the user
+        presenceService.setOnlineAgainListener(friendNotificationService::notifyFriendsUserOnline);
     }
 
     /**
      * Handles heartbeat PING messages from clients.
-     * Refreshes the user's presence TTL in Redis.
+     * Records the user's last-seen time in Redis.
      * 
      * Client sends: STOMP message to /app/presence.ping
      */
@@ -50,18 +54,35 @@ public class PresenceController {
         String userId = principal.getName();
         logger.debug("Received PING from user: {}", userId);
         
-        boolean wasOnline = presenceService.isUserOnline(userId);
-        presenceService.refreshUserPresence(userId);
-        
-        // If user was not online before, notify friends
-        if (!wasOnline) {
+        // A write that re-added the user means friends were told they went offline, possibly by another replica
+        if (presenceService.refreshUserPresence(userId)) {
             friendNotificationService.notifyFriendsUserOnline(userId);
         }
     }
 
+    /**
+     * Sends the presence of all friends once when the client subscribes.
+     * Later changes are pushed as diffs to /user/queue/presence, so clients
+     * subscribe there first and need not poll for friends' status.
+     * 
+     * Client subscribes to: /app/presence.friends
+     * 
+     * @return FriendsPresenceSnapshot with the presence of each friend
+     */
+    @SubscribeMapping("/presence.friends")
+    public FriendsPresenceSnapshot subscribeFriendsPresence(Principal principal) {
+        if (principal == null) {
+            logger.warn("Received presence subscription without authenticated principal");
+            return new FriendsPresenceSnapshot(List.of());
+        }
+
+        logger.debug("User {} subscribed to friends presence", principal.getName());
+        return friendNotificationService.getFriendsPresence(principal.getName());
+    }
+
     /**
      * Handles requests for friends' online status.
-     * Uses MGET for efficient bulk status lookup.
+     * Uses pipelined ZMSCORE for efficient bulk status lookup.
      * 
      * Client sends: STOMP message to /app/presence.getFriendsStatus
      * Client receives: Response on /user/queue/friends-status
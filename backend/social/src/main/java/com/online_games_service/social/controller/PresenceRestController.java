@@ -30,7 +30,7 @@ public class PresenceRestController {
 
     /**
      * Gets the online status of multiple friends.
-     * Uses MGET for efficient bulk lookup.
+     * Uses pipelined ZMSCORE for efficient bulk lookup.
      * 
      * POST /presence/friends-status
      * 
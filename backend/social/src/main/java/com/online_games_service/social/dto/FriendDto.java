@@ -12,4 +12,5 @@ public class FriendDto {
     private String username;
     private String status; // ONLINE, OFFLINE, PLAYING
     private String avatarUrl;
+    private String gameType; // Set while PLAYING
 }
@@ -0,0 +1,18 @@
+package com.online_games_service.social.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Presence of all of a user's friends, sent once when they subscribe to presence.
+ * Later changes arrive as {@link PresenceUpdateMessage} diffs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FriendsPresenceSnapshot {
+    private List<PresenceUpdateMessage> friends;
+}
@@ -10,9 +10,15 @@ import lombok.NoArgsConstructor;
 public class PresenceUpdateMessage {
     private String userId;
     private PresenceStatus status;
+    private String gameType; // Set while PLAYING
+
+    public PresenceUpdateMessage(String userId, PresenceStatus status) {
+        this(userId, status, null);
+    }
 
     public enum PresenceStatus {
         ONLINE,
-        OFFLINE
+        OFFLINE,
+        PLAYING
     }
 }
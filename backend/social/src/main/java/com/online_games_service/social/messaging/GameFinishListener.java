@@ -0,0 +1,66 @@
+package com.online_games_service.social.messaging;
+
+import com.online_games_service.common.messaging.GameFinishMessage;
+import com.online_games_service.social.service.FriendNotificationService;
+import com.online_games_service.social.service.PresenceActivityService;
+import com.online_games_service.social.service.PresenceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Listener for game finish events from RabbitMQ.
+ * When a game finishes, its players are no longer shown as playing and
+ * friends of those still online see them as online again.
+ */
+@Component
+public class GameFinishListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameFinishListener.class);
+
+    private final PresenceActivityService presenceActivityService;
+    private final PresenceService presenceService;
+    private final FriendNotificationService friendNotificationService;
+
+    public GameFinishListener(
+            PresenceActivityService presenceActivityService,
+            PresenceService presenceService,
+            FriendNotificationService friendNotificationService) {
+        this.presenceActivityService = presenceActivityService;
+        this.presenceService = presenceService;
+        this.friendNotificationService = friendNotificationService;
+    }
+
+    /**
+     * Handles game finish messages from makao.finish and ludo.finish routing keys.
+     */
+    @RabbitListener(queues = "social.game-finish.queue")
+    public void handleGameFinish(GameFinishMessage message) {
+        if (message == null || message.roomId() == null || message.roomId().isBlank()) {
+            logger.warn("Received GameFinishMessage without roomId; skipping");
+            return;
+        }
+
+        Set<String> players;
+        try {
+            players = presenceActivityService.finishGame(message.roomId());
+        } catch (Exception e) {
+            logger.error("Failed to clear players of lobby {}: {}", message.roomId(), e.getMessage(), e);
+            return;
+        }
+        logger.info("Game finished for lobby {}, {} players no longer playing", message.roomId(), players.size());
+
+        for (String userId : players) {
+            try {
+                if (presenceService.isUserOnline(userId)) {
+                    friendNotificationService.notifyFriendsUserOnline(userId);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to notify friends of user {} about game finish: {}", userId, e.getMessage());
+            }
+        }
+    }
+}
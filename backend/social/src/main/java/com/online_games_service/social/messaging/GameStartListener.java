@@ -1,7 +1,9 @@
 package com.online_games_service.social.messaging;
 
 import com.online_games_service.common.messaging.GameStartMessage;
+import com.online_games_service.social.service.FriendNotificationService;
 import com.online_games_service.social.service.GameInviteService;
+import com.online_games_service.social.service.PresenceActivityService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -9,7 +11,8 @@ import org.springframework.stereotype.Component;
 
 /**
  * Listener for game start events from RabbitMQ.
- * When a game starts, all pending invites for that lobby are deleted.
+ * When a game starts, all pending invites for that lobby are deleted and
+ * friends of the players see them as playing.
  */
 @Component
 public class GameStartListener {
@@ -17,9 +20,16 @@ public class GameStartListener {
     private static final Logger logger = LoggerFactory.getLogger(GameStartListener.class);
 
     private final GameInviteService gameInviteService;
+    private final PresenceActivityService presenceActivityService;
+    private final FriendNotificationService friendNotificationService;
 
-    public GameStartListener(GameInviteService gameInviteService) {
+    public GameStartListener(
+            GameInviteService gameInviteService,
+            PresenceActivityService presenceActivityService,
+            FriendNotificationService friendNotificationService) {
         this.gameInviteService = gameInviteService;
+        this.presenceActivityService = presenceActivityService;
+        this.friendNotificationService = friendNotificationService;
     }
 
     /**
@@ -47,5 +57,29 @@ public class GameStartListener {
         } catch (Exception e) {
             logger.error("Failed to delete invites for lobby {}: {}", roomId, e.getMessage(), e);
         }
+
+        markPlayersPlaying(message);
+    }
+
+    private void markPlayersPlaying(GameStartMessage message) {
+        if (message.players() == null || message.players().isEmpty() || message.gameType() == null) {
+            return;
+        }
+
+        String gameType = message.gameType().name();
+        try {
+            presenceActivityService.startGame(message.roomId(), gameType, message.players().keySet());
+        } catch (Exception e) {
+            logger.error("Failed to record players of lobby {} as playing: {}", message.roomId(), e.getMessage(), e);
+            return;
+        }
+
+        for (String userId : message.players().keySet()) {
+            try {
+                friendNotificationService.notifyFriendsUserPlaying(userId, gameType);
+            } catch (Exception e) {
+                logger.warn("Failed to notify friends of user {} about playing: {}", userId, e.getMessage());
+            }
+        }
     }
 }
@@ -5,7 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.online_games_service.social.model.GameInvite;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
@@ -20,6 +23,10 @@ import java.util.stream.Collectors;
  * - game:invites:user:{userId} -> Set of invite IDs for a user (target)
  * - game:invites:lobby:{lobbyId} -> Set of invite IDs for a lobby
  * - game:invites:sender:{senderId}:{targetId}:{lobbyId} -> flag key for duplicate check
+ * - game:invites:by-sender:{senderId} -> Set of invite IDs sent by a user (TTL: 1 hour from the latest invite)
+ *
+ * Index sets can outlive the invites they list; readers drop IDs whose invite has expired.
+ * Multi-key reads use a single MGET and writes of one operation go out in one pipeline.
  */
 @Repository
 public class GameInviteRedisRepository {
@@ -30,6 +37,7 @@ public class GameInviteRedisRepository {
     private static final String USER_INVITES_KEY_PREFIX = "game:invites:user:";
     private static final String LOBBY_INVITES_KEY_PREFIX = "game:invites:lobby:";
     private static final String SENDER_INVITE_KEY_PREFIX = "game:invites:sender:";
+    private static final String SENDER_INDEX_KEY_PREFIX = "game:invites:by-sender:";
     private static final long INVITE_TTL_HOURS = 1;
 
     private final RedisTemplate<String, Object> redisTemplate;
@@ -47,23 +55,33 @@ public class GameInviteRedisRepository {
         try {
             String key = INVITE_KEY_PREFIX + invite.getId();
             String json = objectMapper.writeValueAsString(invite);
-            
-            // Save the invite with TTL
-            redisTemplate.opsForValue().set(key, json, INVITE_TTL_HOURS, TimeUnit.HOURS);
-            
-            // Add to user's invite set
-            String userKey = USER_INVITES_KEY_PREFIX + invite.getTargetId();
-            redisTemplate.opsForSet().add(userKey, invite.getId());
-            
-            // Add to lobby's invite set
-            String lobbyKey = LOBBY_INVITES_KEY_PREFIX + invite.getLobbyId();
-            redisTemplate.opsForSet().add(lobbyKey, invite.getId());
-            
-            // Add sender-target-lobby key for duplicate check
-            String senderKey = SENDER_INVITE_KEY_PREFIX + invite.getSenderId() + ":" + 
-                              invite.getTargetId() + ":" + invite.getLobbyId();
-            redisTemplate.opsForValue().set(senderKey, invite.getId(), INVITE_TTL_HOURS, TimeUnit.HOURS);
-            
+
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+
+                    // Save the invite with TTL
+                    ops.opsForValue().set(key, json, INVITE_TTL_HOURS, TimeUnit.HOURS);
+
+                    // Add to user's invite set
+                    ops.opsForSet().add(USER_INVITES_KEY_PREFIX + invite.getTargetId(), invite.getId());
+
+                    // Add to lobby's invite set
+                    ops.opsForSet().add(LOBBY_INVITES_KEY_PREFIX + invite.getLobbyId(), invite.getId());
+
+                    // Add to sender's invite set, kept alive as long as its newest invite
+                    String senderIndexKey = SENDER_INDEX_KEY_PREFIX + invite.getSenderId();
+                    ops.opsForSet().add(senderIndexKey, invite.getId());
+                    ops.expire(senderIndexKey, INVITE_TTL_HOURS, TimeUnit.HOURS);
+
+                    // Add sender-target-lobby key for duplicate check
+                    ops.opsForValue().set(senderKey(invite), invite.getId(), INVITE_TTL_HOURS, TimeUnit.HOURS);
+                    return null;
+                }
+            });
+
             logger.debug("Saved game invite {} from {} to {} for lobby {}", 
                         invite.getId(), invite.getSenderId(), invite.getTargetId(), invite.getLobbyId());
             
@@ -97,44 +115,14 @@ public class GameInviteRedisRepository {
      * Find all pending invites for a user (target).
      */
     public List<GameInvite> findByTargetId(String targetId) {
-        String userKey = USER_INVITES_KEY_PREFIX + targetId;
-        Set<Object> inviteIds = redisTemplate.opsForSet().members(userKey);
-        
-        if (inviteIds == null || inviteIds.isEmpty()) {
-            return Collections.emptyList();
-        }
-        
-        return inviteIds.stream()
-                .map(id -> findById(id.toString()))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+        return findAllInIndex(USER_INVITES_KEY_PREFIX + targetId);
     }
 
     /**
      * Find all invites sent by a user.
      */
     public List<GameInvite> findBySenderId(String senderId) {
-        // This requires scanning all invites or maintaining another index
-        // For efficiency, we'll scan the user invites and filter
-        Set<String> keys = redisTemplate.keys(INVITE_KEY_PREFIX + "*");
-        if (keys == null || keys.isEmpty()) {
-            return Collections.emptyList();
-        }
-        
-        return keys.stream()
-                .map(key -> {
-                    Object value = redisTemplate.opsForValue().get(key);
-                    if (value == null) return null;
-                    try {
-                        return objectMapper.readValue(value.toString(), GameInvite.class);
-                    } catch (JsonProcessingException e) {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .filter(invite -> senderId.equals(invite.getSenderId()))
-                .collect(Collectors.toList());
+        return findAllInIndex(SENDER_INDEX_KEY_PREFIX + senderId);
     }
 
     /**
@@ -153,25 +141,9 @@ public class GameInviteRedisRepository {
         if (inviteOpt.isEmpty()) {
             return;
         }
-        
-        GameInvite invite = inviteOpt.get();
-        
-        // Delete the main invite key
-        redisTemplate.delete(INVITE_KEY_PREFIX + inviteId);
-        
-        // Remove from user's invite set
-        String userKey = USER_INVITES_KEY_PREFIX + invite.getTargetId();
-        redisTemplate.opsForSet().remove(userKey, inviteId);
-        
-        // Remove from lobby's invite set
-        String lobbyKey = LOBBY_INVITES_KEY_PREFIX + invite.getLobbyId();
-        redisTemplate.opsForSet().remove(lobbyKey, inviteId);
-        
-        // Remove sender-target-lobby key
-        String senderKey = SENDER_INVITE_KEY_PREFIX + invite.getSenderId() + ":" + 
-                          invite.getTargetId() + ":" + invite.getLobbyId();
-        redisTemplate.delete(senderKey);
-        
+
+        deleteAll(List.of(inviteOpt.get()), null);
+
         logger.debug("Deleted game invite {}", inviteId);
     }
 
@@ -185,17 +157,93 @@ public class GameInviteRedisRepository {
         if (inviteIds == null || inviteIds.isEmpty()) {
             return 0;
         }
-        
-        int count = 0;
-        for (Object inviteId : inviteIds) {
-            deleteById(inviteId.toString());
-            count++;
-        }
-        
-        // Delete the lobby set itself
-        redisTemplate.delete(lobbyKey);
-        
+
+        // Invites that already expired only need the lobby set removed
+        List<GameInvite> invites = new ArrayList<>();
+        readInvites(new ArrayList<>(inviteIds), invites, new ArrayList<>());
+        deleteAll(invites, lobbyKey);
+
+        int count = inviteIds.size();
         logger.info("Deleted {} game invites for lobby {}", count, lobbyId);
         return count;
     }
+
+    /**
+     * Reads the invites listed in an index set with one MGET, removing IDs whose invite has expired.
+     */
+    private List<GameInvite> findAllInIndex(String indexKey) {
+        Set<Object> inviteIds = redisTemplate.opsForSet().members(indexKey);
+
+        if (inviteIds == null || inviteIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<GameInvite> invites = new ArrayList<>();
+        List<Object> expiredIds = new ArrayList<>();
+        readInvites(new ArrayList<>(inviteIds), invites, expiredIds);
+
+        if (!expiredIds.isEmpty()) {
+            redisTemplate.opsForSet().remove(indexKey, expiredIds.toArray());
+            logger.debug("Removed {} expired invites from {}", expiredIds.size(), indexKey);
+        }
+        return invites;
+    }
+
+    /**
+     * Fetches the given invites with one MGET. Present invites go to {@code invites}, the IDs of
+     * missing ones to {@code expiredIds}; invites that cannot be read are skipped.
+     */
+    private void readInvites(List<Object> inviteIds, List<GameInvite> invites, List<Object> expiredIds) {
+        List<String> keys = inviteIds.stream()
+                .map(id -> INVITE_KEY_PREFIX + id)
+                .collect(Collectors.toList());
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+
+        for (int i = 0; i < inviteIds.size(); i++) {
+            Object value = values != null && i < values.size() ? values.get(i) : null;
+            if (value == null) {
+                expiredIds.add(inviteIds.get(i));
+                continue;
+            }
+            try {
+                invites.add(objectMapper.readValue(value.toString(), GameInvite.class));
+            } catch (JsonProcessingException e) {
+                logger.error("Failed to deserialize game invite {}", inviteIds.get(i), e);
+            }
+        }
+    }
+
+    /**
+     * Deletes the invites and their index entries in one pipeline, together with {@code extraKey} if given.
+     */
+    private void deleteAll(List<GameInvite> invites, String extraKey) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (GameInvite invite : invites) {
+                    // Delete the main invite key
+                    ops.delete(INVITE_KEY_PREFIX + invite.getId());
+
+                    // Remove from the user's, lobby's and sender's invite sets
+                    ops.opsForSet().remove(USER_INVITES_KEY_PREFIX + invite.getTargetId(), invite.getId());
+                    ops.opsForSet().remove(LOBBY_INVITES_KEY_PREFIX + invite.getLobbyId(), invite.getId());
+                    ops.opsForSet().remove(SENDER_INDEX_KEY_PREFIX + invite.getSenderId(), invite.getId());
+
+                    // Remove sender-target-lobby key
+                    ops.delete(senderKey(invite));
+                }
+                if (extraKey != null) {
+                    ops.delete(extraKey);
+                }
+                return null;
+            }
+        });
+    }
+
+    private static String senderKey(GameInvite invite) {
+        return SENDER_INVITE_KEY_PREFIX + invite.getSenderId() + ":" + 
+               invite.getTargetId() + ":" + invite.getLobbyId();
+    }
 }
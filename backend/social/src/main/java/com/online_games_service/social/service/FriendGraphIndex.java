@@ -0,0 +1,148 @@
+package com.online_games_service.social.service;
+
+import com.online_games_service.social.model.SocialProfile;
+import com.online_games_service.social.repository.SocialProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Redis copy of the friend graph: one set of friend IDs per user.
+ * Presence fan-out reads friends from here instead of loading the whole
+ * {@link SocialProfile} from Mongo on every connect, disconnect and expiry.
+ * A missing set is loaded from Mongo; friendship changes delete the sets of both users.
+ * <p>
+ * Each user also has a version key that invalidation increments. A set loaded from Mongo is
+ * only written if the version is still the one read before the load, so a fill that raced a
+ * friendship change cannot put back the old friends.
+ */
+@Service
+public class FriendGraphIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FriendGraphIndex.class);
+
+    static final String FRIENDS_KEY_PREFIX = "social:friends:";
+    // Stored in the set of a user without friends, so that empty lists are cached too
+    static final String NO_FRIENDS = "";
+    static final String VERSION_KEY_PREFIX = "social:friends-version:";
+    static final Duration FRIENDS_TTL = Duration.ofHours(1);
+
+    // KEYS[1] friend set, KEYS[2] version; ARGV[1] version read before loading, ARGV[2] TTL in seconds,
+    // ARGV[3..] members. Replaces the set only if the version is unchanged, always with a TTL.
+    private static final RedisScript<Long> FILL_SCRIPT = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            for i = 3, #ARGV, 1000 do
+                redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))
+            end
+            redis.call('EXPIRE', KEYS[1], tonumber(ARGV[2]))
+            return 1
+            """, Long.class);
+
+    // KEYS come in pairs of friend set and version; ARGV[1] TTL of the version in seconds
+    private static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, #KEYS, 2 do
+                redis.call('DEL', KEYS[i])
+                redis.call('INCR', KEYS[i + 1])
+                redis.call('EXPIRE', KEYS[i + 1], tonumber(ARGV[1]))
+            end
+            return #KEYS / 2
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SocialProfileRepository socialProfileRepository;
+
+    public FriendGraphIndex(StringRedisTemplate redisTemplate, SocialProfileRepository socialProfileRepository) {
+        this.redisTemplate = redisTemplate;
+        this.socialProfileRepository = socialProfileRepository;
+    }
+
+    /**
+     * Gets the IDs of a user's friends.
+     *
+     * @param userId The user whose friends to get
+     * @return The friend IDs, empty if the user has none or no profile
+     */
+    public Set<String> getFriendIds(String userId) {
+        String key = buildFriendsKey(userId);
+        String versionKey = buildVersionKey(userId);
+        String version;
+        try {
+            Set<String> cached = redisTemplate.opsForSet().members(key);
+            if (cached != null && !cached.isEmpty()) {
+                Set<String> friendIds = new HashSet<>(cached);
+                friendIds.remove(NO_FRIENDS);
+                return friendIds;
+            }
+            // Read before loading from Mongo, so an invalidation during the load is noticed
+            version = redisTemplate.opsForValue().get(versionKey);
+        } catch (Exception e) {
+            logger.warn("Failed to read friends of user {} from Redis: {}", userId, e.getMessage());
+            return loadFriendIds(userId);
+        }
+
+        Set<String> friendIds = loadFriendIds(userId);
+        try {
+            List<String> args = new ArrayList<>(friendIds.size() + 2);
+            args.add(version != null ? version : "");
+            args.add(Long.toString(FRIENDS_TTL.toSeconds()));
+            if (friendIds.isEmpty()) {
+                args.add(NO_FRIENDS);
+            } else {
+                args.addAll(friendIds);
+            }
+            Long filled = redisTemplate.execute(FILL_SCRIPT, List.of(key, versionKey), args.toArray());
+            if (filled == null || filled == 0) {
+                logger.debug("Friends of user {} changed while loading, not caching them", userId);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to cache friends of user {}: {}", userId, e.getMessage());
+        }
+        return friendIds;
+    }
+
+    /**
+     * Drops the cached friends of users whose friend list changed.
+     * Call after the change is saved to Mongo.
+     *
+     * @param userIds The users whose friend lists changed
+     */
+    public void invalidate(String... userIds) {
+        List<String> keys = new ArrayList<>(userIds.length * 2);
+        for (String userId : userIds) {
+            keys.add(buildFriendsKey(userId));
+            keys.add(buildVersionKey(userId));
+        }
+        try {
+            redisTemplate.execute(INVALIDATE_SCRIPT, keys, Long.toString(FRIENDS_TTL.toSeconds()));
+        } catch (Exception e) {
+            logger.warn("Failed to invalidate cached friends of users {}: {}", Arrays.toString(userIds), e.getMessage());
+        }
+    }
+
+    private Set<String> loadFriendIds(String userId) {
+        return socialProfileRepository.findById(userId)
+                .map(profile -> (Set<String>) new HashSet<>(profile.getFriendIds()))
+                .orElseGet(HashSet::new);
+    }
+
+    private String buildFriendsKey(String userId) {
+        return FRIENDS_KEY_PREFIX + userId;
+    }
+
+    private String buildVersionKey(String userId) {
+        return VERSION_KEY_PREFIX + userId;
+    }
+}
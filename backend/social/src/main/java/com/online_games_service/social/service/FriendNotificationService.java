@@ -1,21 +1,27 @@
 package com.online_games_service.social.service;
 
+import com.online_games_service.social.dto.FriendsPresenceSnapshot;
 import com.online_games_service.social.dto.PresenceUpdateMessage;
 import com.online_games_service.social.dto.PresenceUpdateMessage.PresenceStatus;
-import com.online_games_service.social.model.SocialProfile;
-import com.online_games_service.social.repository.SocialProfileRepository;
+import com.online_games_service.social.dto.UserPresenceStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Service responsible for notifying friends about presence updates via WebSocket.
  * When a user goes online or offline, this service finds all their friends
  * and sends them a real-time notification.
+ * Friends come from {@link FriendGraphIndex} and are filtered by presence with one pipelined ZMSCORE lookup.
+ * <p>
+ * Clients get the presence of all their friends once from {@link #getFriendsPresence} and then
+ * only the changes as {@link PresenceUpdateMessage} diffs on {@code /user/queue/presence}.
  */
 @Service
 public class FriendNotificationService {
@@ -23,26 +29,69 @@ public class FriendNotificationService {
     private static final Logger logger = LoggerFactory.getLogger(FriendNotificationService.class);
     private static final String PRESENCE_DESTINATION = "/queue/presence";
 
-    private final SocialProfileRepository socialProfileRepository;
+    private final FriendGraphIndex friendGraphIndex;
     private final SimpMessagingTemplate messagingTemplate;
     private final PresenceService presenceService;
+    private final PresenceActivityService presenceActivityService;
 
     public FriendNotificationService(
-            SocialProfileRepository socialProfileRepository,
+            FriendGraphIndex friendGraphIndex,
             SimpMessagingTemplate messagingTemplate,
-            PresenceService presenceService) {
-        this.socialProfileRepository = socialProfileRepository;
+            PresenceService presenceService,
+            PresenceActivityService presenceActivityService) {
+        this.friendGraphIndex = friendGraphIndex;
         this.messagingTemplate = messagingTemplate;
         this.presenceService = presenceService;
+        this.presenceActivityService = presenceActivityService;
+    }
+
+    /**
+     * Gets the presence of all friends of a user: offline, online, or playing a game.
+     * Uses one presence lookup and one MGET of game activity for online friends.
+     *
+     * @param userId The user whose friends to look up
+     * @return Snapshot with the presence of each friend
+     */
+    public FriendsPresenceSnapshot getFriendsPresence(String userId) {
+        return new FriendsPresenceSnapshot(getPresence(new ArrayList<>(friendGraphIndex.getFriendIds(userId))));
+    }
+
+    /**
+     * Gets the presence of the given users: offline, online, or playing a game.
+     * Uses one presence lookup and one MGET of game activity for online users.
+     *
+     * @param userIds The users to look up
+     * @return The presence of each user, in the order given
+     */
+    public List<PresenceUpdateMessage> getPresence(List<String> userIds) {
+        List<UserPresenceStatus> statuses = presenceService.getUsersOnlineStatus(userIds);
+
+        List<String> onlineUserIds = statuses.stream()
+                .filter(UserPresenceStatus::isOnline)
+                .map(UserPresenceStatus::getUserId)
+                .toList();
+        Map<String, String> gameTypes = presenceActivityService.getGameTypes(onlineUserIds);
+
+        List<PresenceUpdateMessage> presence = new ArrayList<>();
+        for (UserPresenceStatus status : statuses) {
+            if (!status.isOnline()) {
+                presence.add(new PresenceUpdateMessage(status.getUserId(), PresenceStatus.OFFLINE));
+            } else {
+                presence.add(presenceOf(status.getUserId(), gameTypes.get(status.getUserId())));
+            }
+        }
+        return presence;
     }
 
     /**
      * Notifies all online friends that a user has come online.
+     * A user who comes back while still in a game is announced as playing.
      *
      * @param userId The user who came online
      */
     public void notifyFriendsUserOnline(String userId) {
-        notifyFriends(userId, PresenceStatus.ONLINE);
+        String gameType = presenceActivityService.getGameTypes(List.of(userId)).get(userId);
+        notifyFriends(presenceOf(userId, gameType));
     }
 
     /**
@@ -51,49 +100,62 @@ public class FriendNotificationService {
      * @param userId The user who went offline
      */
     public void notifyFriendsUserOffline(String userId) {
-        notifyFriends(userId, PresenceStatus.OFFLINE);
+        notifyFriends(new PresenceUpdateMessage(userId, PresenceStatus.OFFLINE));
     }
 
-    private void notifyFriends(String userId, PresenceStatus status) {
-        Set<String> friendIds = getFriendIds(userId);
+    /**
+     * Notifies all online friends that a user has started playing a game.
+     *
+     * @param userId The user who started playing
+     * @param gameType The type of the game
+     */
+    public void notifyFriendsUserPlaying(String userId, String gameType) {
+        notifyFriends(presenceOf(userId, gameType));
+    }
+
+    private static PresenceUpdateMessage presenceOf(String userId, String gameType) {
+        return gameType != null
+                ? new PresenceUpdateMessage(userId, PresenceStatus.PLAYING, gameType)
+                : new PresenceUpdateMessage(userId, PresenceStatus.ONLINE);
+    }
+
+    private void notifyFriends(PresenceUpdateMessage message) {
+        String userId = message.getUserId();
+        PresenceStatus status = message.getStatus();
+        Set<String> friendIds = friendGraphIndex.getFriendIds(userId);
         
         if (friendIds.isEmpty()) {
-            logger.info("User {} has no friends to notify about {} status", userId, status);
+            logger.debug("User {} has no friends to notify about {} status", userId, status);
             return;
         }
 
-        logger.info("Notifying {} friends about user {} going {}", friendIds.size(), userId, status);
-        PresenceUpdateMessage message = new PresenceUpdateMessage(userId, status);
+        // Only send to friends who are currently online
+        List<String> onlineFriendIds = new ArrayList<>();
+        for (UserPresenceStatus friend : presenceService.getUsersOnlineStatus(new ArrayList<>(friendIds))) {
+            if (friend.isOnline()) {
+                onlineFriendIds.add(friend.getUserId());
+            }
+        }
+        if (onlineFriendIds.isEmpty()) {
+            logger.debug("No online friends of user {} to notify about {} status", userId, status);
+            return;
+        }
 
-        for (String friendId : friendIds) {
-            boolean isOnline = presenceService.isUserOnline(friendId);
-            logger.info("Friend {} online status: {}", friendId, isOnline);
-            
-            // Only send to friends who are currently online
-            if (isOnline) {
-                try {
-                    messagingTemplate.convertAndSendToUser(
-                            friendId,
-                            PRESENCE_DESTINATION,
-                            message
-                    );
-                    logger.info("Sent {} notification for user {} to friend {}", status, userId, friendId);
-                } catch (Exception e) {
-                    logger.warn("Failed to notify friend {} about user {} going {}: {}", 
-                            friendId, userId, status, e.getMessage());
-                }
-            } else {
-                logger.info("Skipping friend {} - not online", friendId);
+        for (String friendId : onlineFriendIds) {
+            try {
+                messagingTemplate.convertAndSendToUser(
+                        friendId,
+                        PRESENCE_DESTINATION,
+                        message
+                );
+            } catch (Exception e) {
+                logger.warn("Failed to notify friend {} about user {} going {}: {}", 
+                        friendId, userId, status, e.getMessage());
             }
         }
         
-        logger.info("Notified friends of user {} about {} status change", userId, status);
-    }
-
-    private Set<String> getFriendIds(String userId) {
-        Optional<SocialProfile> profileOpt = socialProfileRepository.findById(userId);
-        return profileOpt.map(SocialProfile::getFriendIds)
-                .orElse(Set.of());
+        logger.info("Notified {} of {} friends of user {} about {} status change",
+                onlineFriendIds.size(), friendIds.size(), userId, status);
     }
 
     /**
@@ -29,18 +29,21 @@ public class FriendRequestService {
     private final RedisNotificationPublisher notificationPublisher;
     private final FriendNotificationService friendNotificationService;
     private final PresenceService presenceService;
+    private final FriendGraphIndex friendGraphIndex;
 
     public FriendRequestService(
             FriendRequestRepository friendRequestRepository,
             SocialProfileRepository socialProfileRepository,
             RedisNotificationPublisher notificationPublisher,
             FriendNotificationService friendNotificationService,
-            PresenceService presenceService) {
+            PresenceService presenceService,
+            FriendGraphIndex friendGraphIndex) {
         this.friendRequestRepository = friendRequestRepository;
         this.socialProfileRepository = socialProfileRepository;
         this.notificationPublisher = notificationPublisher;
         this.friendNotificationService = friendNotificationService;
         this.presenceService = presenceService;
+        this.friendGraphIndex = friendGraphIndex;
     }
 
     /**
@@ -167,6 +170,7 @@ public class FriendRequestService {
                     .orElseGet(() -> new SocialProfile(requesterId));
             requesterProfile.addFriend(currentUserId, currentUserName);
             socialProfileRepository.save(requesterProfile);
+            friendGraphIndex.invalidate(currentUserId, requesterId);
 
             logger.info("Friend request {} accepted. {} and {} are now friends", 
                     requestId, currentUserId, requesterId);
@@ -245,16 +249,18 @@ public class FriendRequestService {
      * Gets all friends for a user.
      * 
      * @param userId The user ID
-     * @return List of friends with their status
+     * @return List of friends with their status, and game type while playing
      */
     public java.util.List<FriendDto> getFriends(String userId) {
         return socialProfileRepository.findById(userId)
-                .map(profile -> profile.getFriendIds().stream()
-                        .map(friendId -> {
-                            String status = presenceService.isUserOnline(friendId) ? "ONLINE" : "OFFLINE";
-                            String username = profile.getFriendUsername(friendId);
-                            return new FriendDto(friendId, username, status, null);
-                        })
+                .map(profile -> friendNotificationService.getPresence(new java.util.ArrayList<>(profile.getFriendIds()))
+                        .stream()
+                        .map(presence -> new FriendDto(
+                                presence.getUserId(),
+                                profile.getFriendUsername(presence.getUserId()),
+                                presence.getStatus().name(),
+                                null,
+                                presence.getGameType()))
                         .toList())
                 .orElse(java.util.Collections.emptyList());
     }
@@ -335,6 +341,7 @@ public class FriendRequestService {
                 friendProfile.removeFriend(currentUserId);
                 socialProfileRepository.save(friendProfile);
             }
+            friendGraphIndex.invalidate(currentUserId, friendId);
 
             // Also delete any accepted friend request between them
             friendRequestRepository.deleteByRequesterIdAndAddresseeIdAndStatus(currentUserId, friendId, Status.ACCEPTED);
@@ -0,0 +1,118 @@
+package com.online_games_service.social.service;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks which users are in a game, so presence can show them as playing rather than just online.
+ * <p>
+ * Fed by game start and finish events. Each player gets a {@code presence:playing:{userId}} key
+ * holding {@code {gameType}:{roomId}}, and each running game a set of its players so the finish
+ * event, which only names the room, can clear them. A player who already moved on to another game
+ * keeps that one. Both expire after {@link #ACTIVITY_TTL} in case the finish event is lost.
+ */
+@Service
+public class PresenceActivityService {
+
+    static final String PLAYING_KEY_PREFIX = "presence:playing:";
+    static final String ROOM_PLAYERS_KEY_PREFIX = "presence:room-players:";
+    static final Duration ACTIVITY_TTL = Duration.ofHours(4);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public PresenceActivityService(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Marks the players of a room as playing the given game.
+     */
+    public void startGame(String roomId, String gameType, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String roomKey = ROOM_PLAYERS_KEY_PREFIX + roomId;
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String userId : userIds) {
+                    ops.opsForValue().set(PLAYING_KEY_PREFIX + userId, gameType + ":" + roomId, ACTIVITY_TTL);
+                }
+                ops.opsForSet().add(roomKey, userIds.toArray(new String[0]));
+                ops.expire(roomKey, ACTIVITY_TTL);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Clears the playing state of the players of a finished room.
+     *
+     * @return the players that were still playing in the room
+     */
+    public Set<String> finishGame(String roomId) {
+        String roomKey = ROOM_PLAYERS_KEY_PREFIX + roomId;
+        Set<String> members = redisTemplate.opsForSet().members(roomKey);
+        if (members == null || members.isEmpty()) {
+            return Set.of();
+        }
+        List<String> userIds = new ArrayList<>(members);
+        List<String> values = redisTemplate.opsForValue()
+                .multiGet(userIds.stream().map(userId -> PLAYING_KEY_PREFIX + userId).toList());
+
+        Set<String> finished = new HashSet<>();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            String value = values != null && i < values.size() ? values.get(i) : null;
+            if (value != null && roomId.equals(roomOf(value))) {
+                finished.add(userIds.get(i));
+                keys.add(PLAYING_KEY_PREFIX + userIds.get(i));
+            }
+        }
+        keys.add(roomKey);
+        redisTemplate.delete(keys);
+        return finished;
+    }
+
+    /**
+     * The game type each of the given users is playing, with one MGET. Users not in a game are absent.
+     */
+    public Map<String, String> getGameTypes(List<String> userIds) {
+        Map<String, String> gameTypes = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return gameTypes;
+        }
+        List<String> values = redisTemplate.opsForValue()
+                .multiGet(userIds.stream().map(userId -> PLAYING_KEY_PREFIX + userId).toList());
+        for (int i = 0; values != null && i < values.size() && i < userIds.size(); i++) {
+            if (values.get(i) != null) {
+                gameTypes.put(userIds.get(i), gameTypeOf(values.get(i)));
+            }
+        }
+        return gameTypes;
+    }
+
+    private static String gameTypeOf(String value) {
+        int separator = value.indexOf(':');
+        return separator < 0 ? value : value.substring(0, separator);
+    }
+
+    private static String roomOf(String value) {
+        int separator = value.indexOf(':');
+        return separator < 0 ? null : value.substring(separator + 1);
+    }
+}
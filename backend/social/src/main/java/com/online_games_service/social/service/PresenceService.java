@@ -2,40 +2,122 @@ package com.online_games_service.social.service;
 
 import com.online_games_service.social.config.SocialRedisConfig;
 import com.online_games_service.social.dto.UserPresenceStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 /**
  * Service responsible for managing user presence status in Redis.
- * Handles setting online status with TTL, removing status, and bulk queries.
+ * <p>
+ * Every online user is a member of one of {@link SocialRedisConfig#PRESENCE_SHARD_COUNT} sorted sets,
+ * scored with the time of their last heartbeat. A heartbeat is a single ZADD, a user counts as online
+ * while that time is within the presence TTL, and {@link PresenceSweeper} removes users whose
+ * heartbeats stopped and announces them as offline.
+ * <p>
+ * Heartbeats are coalesced per replica: a user whose last-seen time written by this replica stays
+ * fresh until their next heartbeat is due is not written at all, and the remaining heartbeats are
+ * buffered and written every {@code presence.heartbeat.flush-ms} in one pipeline. A user is never
+ * left with a last-seen time that expires before their next heartbeat could refresh it.
+ * <p>
+ * Local state may miss that another replica removed a user, so every write reports whether it
+ * re-added the user; callers announce those users as online again.
  */
 @Service
 public class PresenceService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PresenceService.class);
+
+    private static final long TTL_MS = SocialRedisConfig.PRESENCE_TTL_SECONDS * 1000;
+
     private final StringRedisTemplate redisTemplate;
 
+    @Value("${presence.heartbeat.interval.seconds:30}")
+    private long heartbeatIntervalSeconds = 30;
+
+    @Value("${presence.heartbeat.flush-ms:1000}")
+    private long flushMs = 1000;
+
+    // Epoch millis used as the last-seen score
+    LongSupplier clock = System::currentTimeMillis;
+
+    // userId -> time of the latest heartbeat not yet written
+    private final Map<String, Long> pendingHeartbeats = new ConcurrentHashMap<>();
+    // userId -> last-seen time this replica wrote to Redis
+    private final Map<String, Long> lastWritten = new ConcurrentHashMap<>();
+    // Keeps a flush from re-adding a user removed while it was running
+    private final Object writeLock = new Object();
+    // Told about users a flush re-added to the presence set
+    private volatile Consumer<String> onlineAgainListener = userId -> { };
+
+    private ScheduledExecutorService flusher;
+
     public PresenceService(StringRedisTemplate redisTemplate) {
         this.redisTemplate = redisTemplate;
     }
 
+    @PostConstruct
+    void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "presence-heartbeat-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flushHeartbeats();
+            } catch (RuntimeException e) {
+                logger.error("Presence heartbeat flush failed: {}", e.getMessage(), e);
+            }
+        }, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flushHeartbeats();
+    }
+
     /**
-     * Sets a user as online in Redis with TTL expiration.
-     * Called when user connects or sends a heartbeat PING.
+     * Sets a user as online, writing now as their last-seen time right away.
+     * Called when user connects or a heartbeat PING arrives while they are offline.
      *
      * @param userId The user ID to set as online
+     * @return true if the user was not in the presence set, e.g. after another replica removed them
+     */
+    public boolean setUserOnline(String userId) {
+        long now = clock.getAsLong();
+        pendingHeartbeats.remove(userId);
+        Boolean added = redisTemplate.opsForZSet().add(shardKey(userId), userId, now);
+        lastWritten.merge(userId, now, Math::max);
+        return Boolean.TRUE.equals(added);
+    }
+
+    /**
+     * Sets the callback for users a buffered heartbeat re-added to the presence set.
+     * Heartbeats written directly report this through {@link #refreshUserPresence} instead.
      */
-    public void setUserOnline(String userId) {
-        String key = buildOnlineKey(userId);
-        redisTemplate.opsForValue().set(
-                key,
-                "true",
-                Duration.ofSeconds(SocialRedisConfig.PRESENCE_TTL_SECONDS)
-        );
+    public void setOnlineAgainListener(Consumer<String> listener) {
+        this.onlineAgainListener = listener;
     }
 
     /**
@@ -45,8 +127,11 @@ public class PresenceService {
      * @param userId The user ID to remove from online status
      */
     public void removeUserOnline(String userId) {
-        String key = buildOnlineKey(userId);
-        redisTemplate.delete(key);
+        synchronized (writeLock) {
+            pendingHeartbeats.remove(userId);
+            lastWritten.remove(userId);
+            redisTemplate.opsForZSet().remove(shardKey(userId), userId);
+        }
     }
 
     /**
@@ -56,12 +141,11 @@ public class PresenceService {
      * @return true if the user is online, false otherwise
      */
     public boolean isUserOnline(String userId) {
-        String key = buildOnlineKey(userId);
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+        return isFresh(redisTemplate.opsForZSet().score(shardKey(userId), userId));
     }
 
     /**
-     * Gets the online status of multiple users in a single Redis MGET operation.
+     * Gets the online status of multiple users with one ZMSCORE per shard, sent in a single pipeline.
      * This is optimized for the Friends Drawer to fetch 50+ friends efficiently.
      *
      * @param userIds List of user IDs to check
@@ -72,55 +156,135 @@ public class PresenceService {
             return new ArrayList<>();
         }
 
-        List<String> keys = userIds.stream()
-                .map(this::buildOnlineKey)
-                .collect(Collectors.toList());
+        Map<String, List<String>> usersByShard = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            usersByShard.computeIfAbsent(shardKey(userId), key -> new ArrayList<>()).add(userId);
+        }
+
+        List<Object> scoresByShard = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                usersByShard.forEach((key, members) -> ops.opsForZSet().score(key, members.toArray()));
+                return null;
+            }
+        });
 
-        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        Map<String, Boolean> online = new LinkedHashMap<>();
+        int shard = 0;
+        for (List<String> members : usersByShard.values()) {
+            List<?> scores = shard < scoresByShard.size() && scoresByShard.get(shard) instanceof List<?> list
+                    ? list : List.of();
+            for (int i = 0; i < members.size(); i++) {
+                online.put(members.get(i), i < scores.size() && isFresh((Double) scores.get(i)));
+            }
+            shard++;
+        }
 
         List<UserPresenceStatus> result = new ArrayList<>();
-        for (int i = 0; i < userIds.size(); i++) {
-            String userId = userIds.get(i);
-            boolean isOnline = values != null && i < values.size() && values.get(i) != null;
-            result.add(new UserPresenceStatus(userId, isOnline));
+        for (String userId : userIds) {
+            result.add(new UserPresenceStatus(userId, online.getOrDefault(userId, false)));
         }
 
         return result;
     }
 
     /**
-     * Refreshes the TTL for a user's online status.
-     * Called when receiving a heartbeat PING to extend the session.
+     * Records a heartbeat PING, extending the user's session.
+     * The write is skipped or buffered when the last-seen time this replica wrote is still fresh.
+     * A buffered heartbeat that re-adds the user is reported to the online-again listener.
      *
-     * @param userId The user ID whose TTL to refresh
-     * @return true if the key existed and TTL was refreshed, false otherwise
+     * @param userId The user ID whose presence to refresh
+     * @return true if the heartbeat was written now and re-added the user to the presence set
      */
     public boolean refreshUserPresence(String userId) {
-        String key = buildOnlineKey(userId);
-        Boolean result = redisTemplate.expire(key, Duration.ofSeconds(SocialRedisConfig.PRESENCE_TTL_SECONDS));
-        if (Boolean.FALSE.equals(result)) {
-            // Key didn't exist, set it
-            setUserOnline(userId);
-            return true;
+        long now = clock.getAsLong();
+        Long written = lastWritten.get(userId);
+        long headroom = written == null ? 0 : written + TTL_MS - now;
+        if (headroom <= flushMs) {
+            // Not known to be online, or it would expire before the next flush
+            return setUserOnline(userId);
         }
-        return Boolean.TRUE.equals(result);
+        if (headroom >= heartbeatIntervalSeconds * 1000 + flushMs) {
+            // Still fresh when the next heartbeat is written
+            return false;
+        }
+        pendingHeartbeats.merge(userId, now, Math::max);
+        return false;
     }
 
     /**
-     * Extracts the user ID from a Redis key.
-     * Used by the expiration listener to identify which user went offline.
+     * Writes all buffered heartbeats in a single pipeline, one ZADD per user so each reply tells
+     * whether the user was re-added. Those users are passed to the online-again listener.
      *
-     * @param key The Redis key in format "online:user:{userId}"
-     * @return The extracted user ID, or null if key doesn't match pattern
+     * @return the number of users written
      */
-    public String extractUserIdFromKey(String key) {
-        if (key != null && key.startsWith(SocialRedisConfig.ONLINE_USER_KEY_PREFIX)) {
-            return key.substring(SocialRedisConfig.ONLINE_USER_KEY_PREFIX.length());
+    int flushHeartbeats() {
+        List<String> onlineAgain = new ArrayList<>();
+        int written;
+        synchronized (writeLock) {
+            Map<String, Long> flushed = new LinkedHashMap<>();
+            for (String userId : pendingHeartbeats.keySet()) {
+                Long lastSeen = pendingHeartbeats.remove(userId);
+                if (lastSeen != null) {
+                    flushed.put(userId, lastSeen);
+                }
+            }
+
+            if (!flushed.isEmpty()) {
+                try {
+                    List<Object> added = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                            RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                            flushed.forEach((userId, lastSeen) -> ops.opsForZSet().add(shardKey(userId), userId, lastSeen));
+                            return null;
+                        }
+                    });
+                    int i = 0;
+                    for (Map.Entry<String, Long> entry : flushed.entrySet()) {
+                        lastWritten.merge(entry.getKey(), entry.getValue(), Math::max);
+                        if (i < added.size() && Boolean.TRUE.equals(added.get(i))) {
+                            onlineAgain.add(entry.getKey());
+                        }
+                        i++;
+                    }
+                } catch (RuntimeException e) {
+                    // Their older last-seen times stay recorded, so later heartbeats are written directly before they run out
+                    logger.warn("Could not write {} presence heartbeats: {}", flushed.size(), e.getMessage());
+                    flushed.clear();
+                }
+            }
+
+            long stale = clock.getAsLong() - TTL_MS;
+            lastWritten.values().removeIf(lastSeen -> lastSeen < stale);
+            written = flushed.size();
         }
-        return null;
+
+        for (String userId : onlineAgain) {
+            try {
+                onlineAgainListener.accept(userId);
+            } catch (RuntimeException e) {
+                logger.error("Error announcing user {} online again: {}", userId, e.getMessage(), e);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * The shard sorted set holding a user's last-seen time.
+     */
+    public static String shardKey(String userId) {
+        return shardKey(Math.floorMod(userId.hashCode(), SocialRedisConfig.PRESENCE_SHARD_COUNT));
+    }
+
+    public static String shardKey(int shard) {
+        return SocialRedisConfig.PRESENCE_SHARD_KEY_PREFIX + shard;
     }
 
-    private String buildOnlineKey(String userId) {
-        return SocialRedisConfig.ONLINE_USER_KEY_PREFIX + userId;
+    private boolean isFresh(Double lastSeen) {
+        return lastSeen != null && lastSeen >= clock.getAsLong() - TTL_MS;
     }
 }
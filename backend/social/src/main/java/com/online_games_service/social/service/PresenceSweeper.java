@@ -0,0 +1,142 @@
+package com.online_games_service.social.service;
+
+import com.online_games_service.social.config.SocialRedisConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Detects users whose heartbeats stopped (ghost disconnect / network loss) and notifies their friends.
+ * <p>
+ * Every interval each replica walks the presence shards and claims each one it can with a short
+ * lock key, so a shard is swept by exactly one replica per interval. Sweeping a shard atomically
+ * removes the users last seen more than the presence TTL ago and returns them, so an offline user is
+ * announced once, at most one interval after their presence expired.
+ */
+@Component
+public class PresenceSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceSweeper.class);
+
+    static final String CLAIM_KEY_PREFIX = "presence:sweep-claim:";
+    static final int SWEEP_BATCH = 500;
+
+    // Removes and returns up to ARGV[2] members last seen at or before ARGV[1]
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SWEEP_SCRIPT = new DefaultRedisScript<>("""
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+            if #expired > 0 then
+                redis.call('ZREM', KEYS[1], unpack(expired))
+            end
+            return expired
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final FriendNotificationService friendNotificationService;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${presence.sweep.interval-ms:5000}")
+    private long intervalMs = 5000;
+
+    // Epoch millis, the same clock heartbeats are scored with
+    LongSupplier clock = System::currentTimeMillis;
+
+    private ScheduledExecutorService sweeper;
+
+    public PresenceSweeper(
+            StringRedisTemplate redisTemplate,
+            FriendNotificationService friendNotificationService) {
+        this.redisTemplate = redisTemplate;
+        this.friendNotificationService = friendNotificationService;
+    }
+
+    @PostConstruct
+    void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "presence-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                logger.error("Presence sweep failed: {}", e.getMessage(), e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdown();
+        }
+    }
+
+    /**
+     * Sweeps every shard no other replica claimed for this interval.
+     *
+     * @return the number of users found offline
+     */
+    int sweep() {
+        long cutoff = clock.getAsLong() - SocialRedisConfig.PRESENCE_TTL_SECONDS * 1000;
+        // Start at a random shard so replicas do not all race for the same claims
+        int first = ThreadLocalRandom.current().nextInt(SocialRedisConfig.PRESENCE_SHARD_COUNT);
+        int offline = 0;
+        for (int i = 0; i < SocialRedisConfig.PRESENCE_SHARD_COUNT; i++) {
+            int shard = (first + i) % SocialRedisConfig.PRESENCE_SHARD_COUNT;
+            if (claim(shard)) {
+                offline += sweepShard(shard, cutoff);
+            }
+        }
+        return offline;
+    }
+
+    private boolean claim(int shard) {
+        // Released halfway through the interval so the shard is free again at the next sweep
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(
+                CLAIM_KEY_PREFIX + shard, instanceId, Duration.ofMillis(Math.max(1, intervalMs / 2)));
+        return Boolean.TRUE.equals(claimed);
+    }
+
+    private int sweepShard(int shard, long cutoff) {
+        int offline = 0;
+        List<?> expired;
+        do {
+            expired = redisTemplate.execute(SWEEP_SCRIPT, List.of(PresenceService.shardKey(shard)),
+                    Long.toString(cutoff), Integer.toString(SWEEP_BATCH));
+            if (expired == null) {
+                break;
+            }
+            for (Object userId : expired) {
+                logger.info("User {} presence expired (ghost disconnect detected)", userId);
+                handleUserOffline(userId.toString());
+            }
+            offline += expired.size();
+        } while (expired.size() >= SWEEP_BATCH);
+        return offline;
+    }
+
+    private void handleUserOffline(String userId) {
+        try {
+            friendNotificationService.notifyFriendsUserOffline(userId);
+        } catch (Exception e) {
+            logger.error("Error notifying friends about user {} going offline: {}", userId, e.getMessage(), e);
+        }
+    }
+}
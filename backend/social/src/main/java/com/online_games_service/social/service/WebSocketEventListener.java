@@ -58,7 +58,7 @@ public class WebSocketEventListener {
     /**
      * Handles WebSocket disconnection events.
      * For graceful disconnects, immediately removes user from online status.
-     * For ungraceful disconnects (network loss), Redis TTL expiration will handle it.
+     * For ungraceful disconnects (network loss), {@link PresenceSweeper} will handle it.
      */
     @EventListener
     public void handleWebSocketDisconnect(SessionDisconnectEvent event) {
@@ -1,10 +1,13 @@
 package com.online_games_service.social.controller;
 
+import com.online_games_service.social.dto.FriendsPresenceSnapshot;
 import com.online_games_service.social.dto.FriendsStatusRequest;
+import com.online_games_service.social.dto.PresenceUpdateMessage;
 import com.online_games_service.social.dto.FriendsStatusResponse;
 import com.online_games_service.social.dto.UserPresenceStatus;
 import com.online_games_service.social.service.FriendNotificationService;
 import com.online_games_service.social.service.PresenceService;
+import org.mockito.ArgumentCaptor;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -12,6 +15,7 @@ import org.testng.annotations.Test;
 import java.security.Principal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 
@@ -33,33 +37,46 @@ public class PresenceControllerTest {
         // Given
         String userId = "pinging_user";
         Principal principal = () -> userId;
-        when(presenceService.isUserOnline(userId)).thenReturn(true);
+        when(presenceService.refreshUserPresence(userId)).thenReturn(false);
 
         // When
         presenceController.handlePing(principal);
 
         // Then
-        verify(presenceService).isUserOnline(userId);
         verify(presenceService).refreshUserPresence(userId);
-        // User was already online, so no notification should be sent
+        verify(presenceService, never()).isUserOnline(userId);
+        // User was still in the presence set, so no notification should be sent
         verify(friendNotificationService, never()).notifyFriendsUserOnline(userId);
     }
 
     @Test
-    public void shouldNotifyFriendsOnFirstPing() {
-        // Given
-        String userId = "new_pinging_user";
+    public void shouldNotifyFriendsWhenPingReAddsUser() {
+        // Given - first ping, or another replica already announced the user offline
+        String userId = "returning_user";
         Principal principal = () -> userId;
-        when(presenceService.isUserOnline(userId)).thenReturn(false);
+        when(presenceService.refreshUserPresence(userId)).thenReturn(true);
 
         // When
         presenceController.handlePing(principal);
 
         // Then
-        verify(presenceService).refreshUserPresence(userId);
         verify(friendNotificationService).notifyFriendsUserOnline(userId);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotifyFriendsWhenBufferedHeartbeatReAddsUser() {
+        // Given
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(presenceService).setOnlineAgainListener(listener.capture());
+
+        // When
+        listener.getValue().accept("flushed_user");
+
+        // Then
+        verify(friendNotificationService).notifyFriendsUserOnline("flushed_user");
+    }
+
     @Test
     public void shouldIgnorePingWithoutPrincipal() {
         // When
@@ -132,4 +149,28 @@ public class PresenceControllerTest {
         verify(presenceService, never()).removeUserOnline(anyString());
         verify(friendNotificationService, never()).notifyFriendsUserOffline(anyString());
     }
+
+    @Test
+    public void shouldReturnFriendsPresenceSnapshotOnSubscribe() {
+        // Given
+        FriendsPresenceSnapshot snapshot = new FriendsPresenceSnapshot(List.of(
+                new PresenceUpdateMessage("friend1", PresenceUpdateMessage.PresenceStatus.ONLINE)));
+        when(friendNotificationService.getFriendsPresence("user1")).thenReturn(snapshot);
+
+        // When
+        FriendsPresenceSnapshot result = presenceController.subscribeFriendsPresence(() -> "user1");
+
+        // Then
+        Assert.assertSame(result, snapshot);
+    }
+
+    @Test
+    public void shouldReturnEmptySnapshotWithoutPrincipal() {
+        // When
+        FriendsPresenceSnapshot result = presenceController.subscribeFriendsPresence(null);
+
+        // Then
+        Assert.assertTrue(result.getFriends().isEmpty());
+        verifyNoInteractions(friendNotificationService);
+    }
 }
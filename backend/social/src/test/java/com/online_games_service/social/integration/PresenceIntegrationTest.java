@@ -17,7 +17,6 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Integration tests for the presence system.
@@ -38,9 +37,8 @@ public class PresenceIntegrationTest extends BaseIntegrationTest {
     @BeforeMethod
     public void setUp() {
         // Clean up Redis keys
-        var keys = redisTemplate.keys(SocialRedisConfig.ONLINE_USER_KEY_PREFIX + "*");
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+        for (int shard = 0; shard < SocialRedisConfig.PRESENCE_SHARD_COUNT; shard++) {
+            redisTemplate.delete(PresenceService.shardKey(shard));
         }
         
         // Clean up MongoDB
@@ -58,12 +56,10 @@ public class PresenceIntegrationTest extends BaseIntegrationTest {
         // Then
         Assert.assertTrue(presenceService.isUserOnline(userId));
         
-        String key = SocialRedisConfig.ONLINE_USER_KEY_PREFIX + userId;
-        Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-        Assert.assertNotNull(ttl);
-        Assert.assertTrue(ttl > 0, "TTL should be positive");
-        Assert.assertTrue(ttl <= SocialRedisConfig.PRESENCE_TTL_SECONDS, 
-                "TTL should not exceed configured value");
+        Double lastSeen = redisTemplate.opsForZSet().score(PresenceService.shardKey(userId), userId);
+        Assert.assertNotNull(lastSeen);
+        Assert.assertTrue(lastSeen > System.currentTimeMillis() - SocialRedisConfig.PRESENCE_TTL_SECONDS * 1000,
+                "Last-seen time should be within the TTL");
     }
 
     @Test
@@ -117,24 +113,24 @@ public class PresenceIntegrationTest extends BaseIntegrationTest {
     }
 
     @Test
-    public void shouldRefreshPresenceTTL() throws InterruptedException {
+    public void shouldNotRewriteFreshPresence() throws InterruptedException {
         // Given
         String userId = "refresh_ttl_user";
         presenceService.setUserOnline(userId);
         
-        String key = SocialRedisConfig.ONLINE_USER_KEY_PREFIX + userId;
+        String key = PresenceService.shardKey(userId);
         
         // Wait a bit
         Thread.sleep(2000);
-        Long ttlBefore = redisTemplate.getExpire(key, TimeUnit.SECONDS);
+        Double lastSeenBefore = redisTemplate.opsForZSet().score(key, userId);
 
         // When
         presenceService.refreshUserPresence(userId);
 
         // Then
-        Long ttlAfter = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-        Assert.assertNotNull(ttlAfter);
-        Assert.assertTrue(ttlAfter >= ttlBefore, "TTL should be refreshed");
+        Double lastSeenAfter = redisTemplate.opsForZSet().score(key, userId);
+        Assert.assertEquals(lastSeenAfter, lastSeenBefore, "Fresh last-seen time should not be rewritten");
+        Assert.assertTrue(presenceService.isUserOnline(userId));
     }
 
     @Test
@@ -164,18 +160,16 @@ public class PresenceIntegrationTest extends BaseIntegrationTest {
         int onlineCount = (int) statuses.stream().filter(UserPresenceStatus::isOnline).count();
         Assert.assertEquals(onlineCount, 50);
         
-        // Should be fast (single MGET operation)
+        // Should be fast (single pipelined ZMSCORE round trip)
         Assert.assertTrue(duration < 1000, "Bulk query should be fast: " + duration + "ms");
     }
 
     @Test
     public void shouldExpirePresenceAfterTTL() throws InterruptedException {
-        // Given - Set a very short TTL key directly
+        // Given - Last seen one second before the TTL runs out
         String userId = "expiring_user";
-        String key = SocialRedisConfig.ONLINE_USER_KEY_PREFIX + userId;
-        
-        // Set with 1 second TTL for testing
-        redisTemplate.opsForValue().set(key, "true", Duration.ofSeconds(1));
+        long lastSeen = System.currentTimeMillis() - Duration.ofSeconds(SocialRedisConfig.PRESENCE_TTL_SECONDS - 1).toMillis();
+        redisTemplate.opsForZSet().add(PresenceService.shardKey(userId), userId, lastSeen);
         
         Assert.assertTrue(presenceService.isUserOnline(userId));
 
@@ -186,19 +180,6 @@ public class PresenceIntegrationTest extends BaseIntegrationTest {
         Assert.assertFalse(presenceService.isUserOnline(userId));
     }
 
-    @Test
-    public void shouldCorrectlyExtractUserIdFromKey() {
-        // Given
-        String userId = "test_user_123";
-        String key = SocialRedisConfig.ONLINE_USER_KEY_PREFIX + userId;
-
-        // When
-        String extractedUserId = presenceService.extractUserIdFromKey(key);
-
-        // Then
-        Assert.assertEquals(extractedUserId, userId);
-    }
-
     @Test
     public void shouldWorkWithFriendsFromMongoDB() {
         // Given - Create two users who are friends
@@ -0,0 +1,67 @@
+package com.online_games_service.social.messaging;
+
+import com.online_games_service.common.enums.RoomStatus;
+import com.online_games_service.common.messaging.GameFinishMessage;
+import com.online_games_service.social.service.FriendNotificationService;
+import com.online_games_service.social.service.PresenceActivityService;
+import com.online_games_service.social.service.PresenceService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GameFinishListener.
+ */
+public class GameFinishListenerTest {
+
+    private GameFinishListener listener;
+    private PresenceActivityService presenceActivityService;
+    private PresenceService presenceService;
+    private FriendNotificationService friendNotificationService;
+
+    @BeforeMethod
+    public void setUp() {
+        presenceActivityService = mock(PresenceActivityService.class);
+        presenceService = mock(PresenceService.class);
+        friendNotificationService = mock(FriendNotificationService.class);
+        listener = new GameFinishListener(presenceActivityService, presenceService, friendNotificationService);
+    }
+
+    @Test
+    public void handleGameFinish_AnnouncesOnlinePlayersAsOnlineAgain() {
+        // Given
+        when(presenceActivityService.finishGame("room123")).thenReturn(Set.of("user1", "user2"));
+        when(presenceService.isUserOnline("user1")).thenReturn(true);
+
+        // When
+        listener.handleGameFinish(new GameFinishMessage("room123", RoomStatus.FINISHED));
+
+        // Then
+        verify(friendNotificationService).notifyFriendsUserOnline("user1");
+        verify(friendNotificationService, never()).notifyFriendsUserOnline("user2");
+    }
+
+    @Test
+    public void handleGameFinish_NullMessage_DoesNothing() {
+        // When
+        listener.handleGameFinish(null);
+
+        // Then
+        verifyNoInteractions(presenceActivityService, friendNotificationService);
+    }
+
+    @Test
+    public void handleGameFinish_ActivityStoreFails_DoesNotPropagate() {
+        // Given
+        when(presenceActivityService.finishGame("room123")).thenThrow(new RuntimeException("Redis error"));
+
+        // When - should not throw
+        listener.handleGameFinish(new GameFinishMessage("room123", RoomStatus.FINISHED));
+
+        // Then
+        verifyNoInteractions(friendNotificationService);
+    }
+}
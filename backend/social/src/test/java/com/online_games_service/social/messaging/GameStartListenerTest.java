@@ -2,12 +2,15 @@ package com.online_games_service.social.messaging;
 
 import com.online_games_service.common.enums.GameType;
 import com.online_games_service.common.messaging.GameStartMessage;
+import com.online_games_service.social.service.FriendNotificationService;
 import com.online_games_service.social.service.GameInviteService;
+import com.online_games_service.social.service.PresenceActivityService;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.Mockito.*;
 
@@ -18,11 +21,15 @@ public class GameStartListenerTest {
 
     private GameStartListener listener;
     private GameInviteService gameInviteService;
+    private PresenceActivityService presenceActivityService;
+    private FriendNotificationService friendNotificationService;
 
     @BeforeMethod
     public void setUp() {
         gameInviteService = mock(GameInviteService.class);
-        listener = new GameStartListener(gameInviteService);
+        presenceActivityService = mock(PresenceActivityService.class);
+        friendNotificationService = mock(FriendNotificationService.class);
+        listener = new GameStartListener(gameInviteService, presenceActivityService, friendNotificationService);
     }
 
     @Test
@@ -168,4 +175,51 @@ public class GameStartListenerTest {
         verify(gameInviteService).deleteInvitesForLobby("makao-room");
         verify(gameInviteService).deleteInvitesForLobby("ludo-room");
     }
+
+    @Test
+    public void handleGameStart_ValidMessage_MarksPlayersPlaying() {
+        // Given
+        GameStartMessage message = new GameStartMessage(
+                "room123",
+                "Fun Game",
+                GameType.LUDO,
+                Map.of("user1", "Alice", "user2", "Bob"),
+                Map.of(),
+                4,
+                "user1",
+                "Alice"
+        );
+
+        // When
+        listener.handleGameStart(message);
+
+        // Then
+        verify(presenceActivityService).startGame("room123", "LUDO", Set.of("user1", "user2"));
+        verify(friendNotificationService).notifyFriendsUserPlaying("user1", "LUDO");
+        verify(friendNotificationService).notifyFriendsUserPlaying("user2", "LUDO");
+    }
+
+    @Test
+    public void handleGameStart_ActivityStoreFails_SkipsPlayingNotifications() {
+        // Given
+        GameStartMessage message = new GameStartMessage(
+                "room123",
+                "Fun Game",
+                GameType.MAKAO,
+                Map.of("user1", "Alice"),
+                Map.of(),
+                4,
+                "user1",
+                "Alice"
+        );
+        doThrow(new RuntimeException("Redis error")).when(presenceActivityService)
+                .startGame(anyString(), anyString(), anyCollection());
+
+        // When - should not throw
+        listener.handleGameStart(message);
+
+        // Then
+        verify(gameInviteService).deleteInvitesForLobby("room123");
+        verifyNoInteractions(friendNotificationService);
+    }
 }
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.online_games_service.social.model.GameInvite;
 import org.mockito.ArgumentCaptor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.ValueOperations;
 import org.testng.Assert;
@@ -14,6 +15,7 @@ import org.testng.annotations.Test;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -37,6 +39,11 @@ public class GameInviteRedisRepositoryTest {
 
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        // Run pipelined callbacks against the same mocked operations
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(redisTemplate);
+            return List.of();
+        });
 
         repository = new GameInviteRedisRepository(redisTemplate, objectMapper);
     }
@@ -71,6 +78,10 @@ public class GameInviteRedisRepositoryTest {
         // Verify lobby set was updated
         verify(setOperations).add("game:invites:lobby:lobby1", invite.getId());
 
+        // Verify sender index was updated and kept alive with the invite
+        verify(setOperations).add("game:invites:by-sender:sender1", invite.getId());
+        verify(redisTemplate).expire("game:invites:by-sender:sender1", 1L, TimeUnit.HOURS);
+
         // Verify sender key was set
         verify(valueOperations).set(
                 eq("game:invites:sender:sender1:target1:lobby1"),
@@ -78,6 +89,9 @@ public class GameInviteRedisRepositoryTest {
                 eq(1L),
                 eq(TimeUnit.HOURS)
         );
+
+        // All writes go out in one round trip
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
     }
 
     // ============================================================
@@ -142,16 +156,35 @@ public class GameInviteRedisRepositoryTest {
         GameInvite invite2 = GameInvite.builder()
                 .id("inv2").senderId("s2").targetId(targetId).lobbyId("l2").build();
 
-        Set<Object> inviteIds = new HashSet<>(Arrays.asList("inv1", "inv2"));
+        Set<Object> inviteIds = new LinkedHashSet<>(Arrays.asList("inv1", "inv2"));
         when(setOperations.members("game:invites:user:" + targetId)).thenReturn(inviteIds);
-        when(valueOperations.get("game:invite:inv1")).thenReturn(objectMapper.writeValueAsString(invite1));
-        when(valueOperations.get("game:invite:inv2")).thenReturn(objectMapper.writeValueAsString(invite2));
+        when(valueOperations.multiGet(List.of("game:invite:inv1", "game:invite:inv2")))
+                .thenReturn(Arrays.asList(objectMapper.writeValueAsString(invite1), objectMapper.writeValueAsString(invite2)));
 
         // When
         List<GameInvite> result = repository.findByTargetId(targetId);
 
         // Then
         Assert.assertEquals(result.size(), 2);
+        verify(valueOperations, never()).get(any());
+    }
+
+    @Test
+    public void findByTargetId_WhenInviteExpired_ShouldRemoveItFromUserSet() throws JsonProcessingException {
+        // Given
+        GameInvite invite = GameInvite.builder()
+                .id("inv1").senderId("s1").targetId("user123").lobbyId("l1").build();
+        when(setOperations.members("game:invites:user:user123"))
+                .thenReturn(new LinkedHashSet<>(Arrays.asList("inv1", "expired")));
+        when(valueOperations.multiGet(List.of("game:invite:inv1", "game:invite:expired")))
+                .thenReturn(Arrays.asList(objectMapper.writeValueAsString(invite), null));
+
+        // When
+        List<GameInvite> result = repository.findByTargetId("user123");
+
+        // Then
+        Assert.assertEquals(result.size(), 1);
+        verify(setOperations).remove("game:invites:user:user123", "expired");
     }
 
     @Test
@@ -183,36 +216,57 @@ public class GameInviteRedisRepositoryTest {
     // ============================================================
 
     @Test
-    public void findBySenderId_WhenHasInvites_ShouldReturnFiltered() throws JsonProcessingException {
+    public void findBySenderId_WhenHasInvites_ShouldReadSenderIndex() throws JsonProcessingException {
         // Given
         GameInvite invite1 = GameInvite.builder()
                 .id("inv1").senderId("sender1").targetId("t1").lobbyId("l1").build();
         GameInvite invite2 = GameInvite.builder()
-                .id("inv2").senderId("sender2").targetId("t2").lobbyId("l2").build();
+                .id("inv2").senderId("sender1").targetId("t2").lobbyId("l2").build();
+
+        when(setOperations.members("game:invites:by-sender:sender1"))
+                .thenReturn(new LinkedHashSet<>(Arrays.asList("inv1", "inv2")));
+        when(valueOperations.multiGet(List.of("game:invite:inv1", "game:invite:inv2")))
+                .thenReturn(Arrays.asList(objectMapper.writeValueAsString(invite1), objectMapper.writeValueAsString(invite2)));
+
+        // When
+        List<GameInvite> result = repository.findBySenderId("sender1");
+
+        // Then
+        Assert.assertEquals(result.size(), 2);
+        Assert.assertTrue(result.stream().allMatch(invite -> "sender1".equals(invite.getSenderId())));
+        verify(redisTemplate, never()).keys(any());
+    }
 
-        Set<String> keys = new HashSet<>(Arrays.asList("game:invite:inv1", "game:invite:inv2"));
-        when(redisTemplate.keys("game:invite:*")).thenReturn(keys);
-        when(valueOperations.get("game:invite:inv1")).thenReturn(objectMapper.writeValueAsString(invite1));
-        when(valueOperations.get("game:invite:inv2")).thenReturn(objectMapper.writeValueAsString(invite2));
+    @Test
+    public void findBySenderId_WhenInviteExpired_ShouldRemoveItFromSenderIndex() throws JsonProcessingException {
+        // Given
+        GameInvite invite = GameInvite.builder()
+                .id("inv1").senderId("sender1").targetId("t1").lobbyId("l1").build();
+        when(setOperations.members("game:invites:by-sender:sender1"))
+                .thenReturn(new LinkedHashSet<>(Arrays.asList("expired1", "inv1", "expired2")));
+        when(valueOperations.multiGet(List.of("game:invite:expired1", "game:invite:inv1", "game:invite:expired2")))
+                .thenReturn(Arrays.asList(null, objectMapper.writeValueAsString(invite), null));
 
         // When
         List<GameInvite> result = repository.findBySenderId("sender1");
 
         // Then
         Assert.assertEquals(result.size(), 1);
-        Assert.assertEquals(result.get(0).getSenderId(), "sender1");
+        Assert.assertEquals(result.get(0).getId(), "inv1");
+        verify(setOperations).remove("game:invites:by-sender:sender1", "expired1", "expired2");
     }
 
     @Test
-    public void findBySenderId_WhenNoKeys_ShouldReturnEmptyList() {
+    public void findBySenderId_WhenNoInvites_ShouldReturnEmptyList() {
         // Given
-        when(redisTemplate.keys("game:invite:*")).thenReturn(null);
+        when(setOperations.members("game:invites:by-sender:sender1")).thenReturn(null);
 
         // When
         List<GameInvite> result = repository.findBySenderId("sender1");
 
         // Then
         Assert.assertTrue(result.isEmpty());
+        verifyNoInteractions(valueOperations);
     }
 
     // ============================================================
@@ -265,6 +319,7 @@ public class GameInviteRedisRepositoryTest {
         verify(redisTemplate).delete("game:invite:inv1");
         verify(setOperations).remove("game:invites:user:target1", "inv1");
         verify(setOperations).remove("game:invites:lobby:lobby1", "inv1");
+        verify(setOperations).remove("game:invites:by-sender:sender1", "inv1");
         verify(redisTemplate).delete("game:invites:sender:sender1:target1:lobby1");
     }
 
@@ -293,19 +348,43 @@ public class GameInviteRedisRepositoryTest {
         GameInvite invite2 = GameInvite.builder()
                 .id("inv2").senderId("s2").targetId("t2").lobbyId(lobbyId).build();
 
-        Set<Object> inviteIds = new HashSet<>(Arrays.asList("inv1", "inv2"));
+        Set<Object> inviteIds = new LinkedHashSet<>(Arrays.asList("inv1", "inv2"));
         when(setOperations.members("game:invites:lobby:" + lobbyId)).thenReturn(inviteIds);
-        when(valueOperations.get("game:invite:inv1")).thenReturn(objectMapper.writeValueAsString(invite1));
-        when(valueOperations.get("game:invite:inv2")).thenReturn(objectMapper.writeValueAsString(invite2));
+        when(valueOperations.multiGet(List.of("game:invite:inv1", "game:invite:inv2")))
+                .thenReturn(Arrays.asList(objectMapper.writeValueAsString(invite1), objectMapper.writeValueAsString(invite2)));
 
         // When
         int count = repository.deleteAllByLobbyId(lobbyId);
 
         // Then
         Assert.assertEquals(count, 2);
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(redisTemplate).delete("game:invite:inv1");
+        verify(redisTemplate).delete("game:invite:inv2");
+        verify(setOperations).remove("game:invites:by-sender:s1", "inv1");
+        verify(setOperations).remove("game:invites:by-sender:s2", "inv2");
         verify(redisTemplate).delete("game:invites:lobby:" + lobbyId);
     }
 
+    @Test
+    public void deleteAllByLobbyId_WhenInviteExpired_ShouldStillDeleteLobbySet() throws JsonProcessingException {
+        // Given
+        GameInvite invite = GameInvite.builder()
+                .id("inv1").senderId("s1").targetId("t1").lobbyId("lobby123").build();
+        when(setOperations.members("game:invites:lobby:lobby123"))
+                .thenReturn(new LinkedHashSet<>(Arrays.asList("inv1", "expired")));
+        when(valueOperations.multiGet(List.of("game:invite:inv1", "game:invite:expired")))
+                .thenReturn(Arrays.asList(objectMapper.writeValueAsString(invite), null));
+
+        // When
+        repository.deleteAllByLobbyId("lobby123");
+
+        // Then
+        verify(redisTemplate).delete("game:invite:inv1");
+        verify(redisTemplate, never()).delete("game:invite:expired");
+        verify(redisTemplate).delete("game:invites:lobby:lobby123");
+    }
+
     @Test
     public void deleteAllByLobbyId_WhenNoInvites_ShouldReturnZero() {
         // Given
@@ -0,0 +1,150 @@
+package com.online_games_service.social.service;
+
+import com.online_games_service.social.model.SocialProfile;
+import com.online_games_service.social.repository.SocialProfileRepository;
+import org.mockito.InOrder;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class FriendGraphIndexTest {
+
+    private static final String TTL_SECONDS = Long.toString(FriendGraphIndex.FRIENDS_TTL.toSeconds());
+
+    private StringRedisTemplate redisTemplate;
+    private SetOperations<String, String> setOperations;
+    private ValueOperations<String, String> valueOperations;
+    private SocialProfileRepository socialProfileRepository;
+    private FriendGraphIndex friendGraphIndex;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        setOperations = mock(SetOperations.class);
+        valueOperations = mock(ValueOperations.class);
+        socialProfileRepository = mock(SocialProfileRepository.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+        friendGraphIndex = new FriendGraphIndex(redisTemplate, socialProfileRepository);
+    }
+
+    @Test
+    public void shouldReturnCachedFriendsWithoutMongo() {
+        // Given
+        when(setOperations.members("social:friends:user1")).thenReturn(Set.of("user2", "user3"));
+
+        // When
+        Set<String> friendIds = friendGraphIndex.getFriendIds("user1");
+
+        // Then
+        Assert.assertEquals(friendIds, Set.of("user2", "user3"));
+        verifyNoInteractions(socialProfileRepository);
+    }
+
+    @Test
+    public void shouldLoadAndCacheFriendsOnMiss() {
+        // Given
+        SocialProfile profile = new SocialProfile("user1");
+        profile.setFriendIds(Set.of("user2"));
+        when(setOperations.members("social:friends:user1")).thenReturn(Set.of());
+        when(valueOperations.get("social:friends-version:user1")).thenReturn("4");
+        when(socialProfileRepository.findById("user1")).thenReturn(Optional.of(profile));
+
+        // When
+        Set<String> friendIds = friendGraphIndex.getFriendIds("user1");
+
+        // Then - replaced in one script, with its TTL, if still at the version read before loading
+        Assert.assertEquals(friendIds, Set.of("user2"));
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("social:friends:user1", "social:friends-version:user1")),
+                eq("4"), eq(TTL_SECONDS), eq("user2"));
+        verify(setOperations, never()).add(anyString(), any(String[].class));
+    }
+
+    @Test
+    public void shouldReadVersionBeforeLoadingFromMongo() {
+        // Given
+        when(setOperations.members("social:friends:user1")).thenReturn(Set.of());
+        when(socialProfileRepository.findById("user1")).thenReturn(Optional.empty());
+
+        // When
+        friendGraphIndex.getFriendIds("user1");
+
+        // Then
+        InOrder inOrder = inOrder(valueOperations, socialProfileRepository, redisTemplate);
+        inOrder.verify(valueOperations).get("social:friends-version:user1");
+        inOrder.verify(socialProfileRepository).findById("user1");
+        inOrder.verify(redisTemplate).execute(any(RedisScript.class), anyList(), eq(""), eq(TTL_SECONDS),
+                eq(FriendGraphIndex.NO_FRIENDS));
+    }
+
+    @Test
+    public void shouldReturnLoadedFriendsWhenFillIsSkippedAfterInvalidation() {
+        // Given
+        SocialProfile profile = new SocialProfile("user1");
+        profile.setFriendIds(Set.of("user2"));
+        when(setOperations.members("social:friends:user1")).thenReturn(Set.of());
+        when(socialProfileRepository.findById("user1")).thenReturn(Optional.of(profile));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+        // When / Then
+        Assert.assertEquals(friendGraphIndex.getFriendIds("user1"), Set.of("user2"));
+    }
+
+    @Test
+    public void shouldCacheUserWithoutFriendsAsMarker() {
+        // Given
+        when(setOperations.members("social:friends:lonely")).thenReturn(Set.of());
+        when(socialProfileRepository.findById("lonely")).thenReturn(Optional.empty());
+
+        // When
+        Set<String> friendIds = friendGraphIndex.getFriendIds("lonely");
+
+        // Then
+        Assert.assertTrue(friendIds.isEmpty());
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), eq(""), eq(TTL_SECONDS),
+                eq(FriendGraphIndex.NO_FRIENDS));
+
+        // The marker itself is never returned as a friend
+        when(setOperations.members("social:friends:lonely")).thenReturn(Set.of(FriendGraphIndex.NO_FRIENDS));
+        Assert.assertTrue(friendGraphIndex.getFriendIds("lonely").isEmpty());
+        verify(socialProfileRepository, times(1)).findById("lonely");
+    }
+
+    @Test
+    public void shouldFallBackToMongoWhenRedisFails() {
+        // Given
+        SocialProfile profile = new SocialProfile("user1");
+        profile.setFriendIds(Set.of("user2"));
+        when(setOperations.members(anyString())).thenThrow(new RuntimeException("Redis down"));
+        when(socialProfileRepository.findById("user1")).thenReturn(Optional.of(profile));
+
+        // When / Then
+        Assert.assertEquals(friendGraphIndex.getFriendIds("user1"), Set.of("user2"));
+    }
+
+    @Test
+    public void shouldDeleteFriendSetsAndBumpVersionsOfBothUsersOnInvalidate() {
+        // When
+        friendGraphIndex.invalidate("user1", "user2");
+
+        // Then
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("social:friends:user1", "social:friends-version:user1",
+                        "social:friends:user2", "social:friends-version:user2")),
+                eq(TTL_SECONDS));
+    }
+}
@@ -1,14 +1,21 @@
 package com.online_games_service.social.service;
 
+import com.online_games_service.social.dto.FriendsPresenceSnapshot;
 import com.online_games_service.social.dto.PresenceUpdateMessage;
+import com.online_games_service.social.dto.PresenceUpdateMessage.PresenceStatus;
+import com.online_games_service.social.dto.UserPresenceStatus;
 import com.online_games_service.social.model.SocialProfile;
 import com.online_games_service.social.repository.SocialProfileRepository;
 import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -20,20 +27,104 @@ public class FriendNotificationServiceTest {
     private SocialProfileRepository socialProfileRepository;
     private SimpMessagingTemplate messagingTemplate;
     private PresenceService presenceService;
+    private PresenceActivityService presenceActivityService;
+    private SetOperations<String, String> friendSets;
 
     @BeforeMethod
+    @SuppressWarnings("unchecked")
     public void setUp() {
         socialProfileRepository = mock(SocialProfileRepository.class);
         messagingTemplate = mock(SimpMessagingTemplate.class);
         presenceService = mock(PresenceService.class);
+        presenceActivityService = mock(PresenceActivityService.class);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        friendSets = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(friendSets);
+
+        // Bulk presence lookups answer from the per-user stubs of each test
+        when(presenceService.getUsersOnlineStatus(anyList())).thenAnswer(invocation ->
+                ((List<String>) invocation.getArgument(0)).stream()
+                        .map(id -> new UserPresenceStatus(id, presenceService.isUserOnline(id)))
+                        .toList());
         
         friendNotificationService = new FriendNotificationService(
-                socialProfileRepository,
+                new FriendGraphIndex(redisTemplate, socialProfileRepository),
                 messagingTemplate,
-                presenceService
+                presenceService,
+                presenceActivityService
         );
     }
 
+    @Test
+    public void shouldBuildFriendsPresenceSnapshot() {
+        // Given
+        when(friendSets.members("social:friends:user123")).thenReturn(Set.of("friend1", "friend2", "friend3"));
+        when(presenceService.isUserOnline("friend1")).thenReturn(true);
+        when(presenceService.isUserOnline("friend2")).thenReturn(true);
+        when(presenceActivityService.getGameTypes(anyList())).thenReturn(Map.of("friend2", "LUDO"));
+
+        // When
+        FriendsPresenceSnapshot snapshot = friendNotificationService.getFriendsPresence("user123");
+
+        // Then
+        Map<String, PresenceUpdateMessage> byUser = new java.util.HashMap<>();
+        snapshot.getFriends().forEach(friend -> byUser.put(friend.getUserId(), friend));
+        Assert.assertEquals(byUser.get("friend1").getStatus(), PresenceStatus.ONLINE);
+        Assert.assertEquals(byUser.get("friend2").getStatus(), PresenceStatus.PLAYING);
+        Assert.assertEquals(byUser.get("friend2").getGameType(), "LUDO");
+        Assert.assertEquals(byUser.get("friend3").getStatus(), PresenceStatus.OFFLINE);
+        verify(presenceService, times(1)).getUsersOnlineStatus(anyList());
+        verify(presenceActivityService, times(1)).getGameTypes(anyList());
+    }
+
+    @Test
+    public void shouldAnnounceReturningUserInGameAsPlaying() {
+        // Given
+        when(friendSets.members("social:friends:user123")).thenReturn(Set.of("friend1"));
+        when(presenceService.isUserOnline("friend1")).thenReturn(true);
+        when(presenceActivityService.getGameTypes(List.of("user123"))).thenReturn(Map.of("user123", "MAKAO"));
+
+        // When
+        friendNotificationService.notifyFriendsUserOnline("user123");
+
+        // Then
+        ArgumentCaptor<PresenceUpdateMessage> captor = ArgumentCaptor.forClass(PresenceUpdateMessage.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("friend1"), eq("/queue/presence"), captor.capture());
+        Assert.assertEquals(captor.getValue().getStatus(), PresenceStatus.PLAYING);
+        Assert.assertEquals(captor.getValue().getGameType(), "MAKAO");
+    }
+
+    @Test
+    public void shouldNotifyOnlineFriendsWhenUserStartsPlaying() {
+        // Given
+        when(friendSets.members("social:friends:user123")).thenReturn(Set.of("friend1", "friend2"));
+        when(presenceService.isUserOnline("friend2")).thenReturn(true);
+
+        // When
+        friendNotificationService.notifyFriendsUserPlaying("user123", "LUDO");
+
+        // Then
+        verify(messagingTemplate).convertAndSendToUser("friend2", "/queue/presence",
+                new PresenceUpdateMessage("user123", PresenceStatus.PLAYING, "LUDO"));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("friend1"), anyString(), any());
+    }
+
+    @Test
+    public void shouldNotifyFriendsFromIndexWithoutLoadingProfile() {
+        // Given
+        when(friendSets.members("social:friends:user123")).thenReturn(Set.of("friend1", "friend2"));
+        when(presenceService.isUserOnline("friend1")).thenReturn(true);
+
+        // When
+        friendNotificationService.notifyFriendsUserOnline("user123");
+
+        // Then
+        verify(messagingTemplate).convertAndSendToUser(eq("friend1"), eq("/queue/presence"), any(PresenceUpdateMessage.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("friend2"), anyString(), any());
+        verify(presenceService, times(1)).getUsersOnlineStatus(anyList());
+        verifyNoInteractions(socialProfileRepository);
+    }
+
     @Test
     public void shouldNotifyOnlineFriendsWhenUserGoesOnline() {
         // Given
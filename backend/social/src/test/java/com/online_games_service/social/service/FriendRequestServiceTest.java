@@ -1,6 +1,9 @@
 package com.online_games_service.social.service;
 
+import com.online_games_service.social.dto.FriendDto;
 import com.online_games_service.social.dto.FriendRequestResponseDto;
+import com.online_games_service.social.dto.PresenceUpdateMessage;
+import com.online_games_service.social.dto.PresenceUpdateMessage.PresenceStatus;
 import com.online_games_service.social.exception.FriendRequestException;
 import com.online_games_service.social.exception.FriendRequestException.ErrorCode;
 import com.online_games_service.social.model.FriendRequest;
@@ -33,6 +36,7 @@ public class FriendRequestServiceTest {
     private RedisNotificationPublisher notificationPublisher;
     private FriendNotificationService friendNotificationService;
     private PresenceService presenceService;
+    private FriendGraphIndex friendGraphIndex;
 
     @BeforeMethod
     public void setUp() {
@@ -41,13 +45,15 @@ public class FriendRequestServiceTest {
         notificationPublisher = mock(RedisNotificationPublisher.class);
         friendNotificationService = mock(FriendNotificationService.class);
         presenceService = mock(PresenceService.class);
+        friendGraphIndex = mock(FriendGraphIndex.class);
 
         friendRequestService = new FriendRequestService(
                 friendRequestRepository,
                 socialProfileRepository,
                 notificationPublisher,
                 friendNotificationService,
-                presenceService
+                presenceService,
+                friendGraphIndex
         );
     }
 
@@ -397,6 +403,26 @@ public class FriendRequestServiceTest {
                 .filter(p -> p.getId().equals(requesterId))
                 .findFirst().orElseThrow();
         Assert.assertTrue(savedRequesterProfile.getFriendIds().contains(currentUserId));
+        verify(friendGraphIndex).invalidate(currentUserId, requesterId);
+    }
+
+    @Test
+    public void removeFriend_RemovesFromBothProfilesAndInvalidatesFriendIndex() {
+        // Given
+        SocialProfile currentProfile = new SocialProfile("user1");
+        currentProfile.addFriend("user2");
+        SocialProfile friendProfile = new SocialProfile("user2");
+        friendProfile.addFriend("user1");
+        when(socialProfileRepository.findById("user1")).thenReturn(Optional.of(currentProfile));
+        when(socialProfileRepository.findById("user2")).thenReturn(Optional.of(friendProfile));
+
+        // When
+        friendRequestService.removeFriend("user1", "user2");
+
+        // Then
+        Assert.assertFalse(currentProfile.getFriendIds().contains("user2"));
+        Assert.assertFalse(friendProfile.getFriendIds().contains("user1"));
+        verify(friendGraphIndex).invalidate("user1", "user2");
     }
 
     // ============================================================
@@ -559,6 +585,31 @@ public class FriendRequestServiceTest {
         verify(socialProfileRepository, times(2)).save(any(SocialProfile.class));
     }
 
+    // ============================================================
+    // GET FRIENDS TESTS
+    // ============================================================
+
+    @Test
+    public void getFriends_ReportsPlayingFriendsWithTheirGame() {
+        // Given
+        SocialProfile profile = new SocialProfile("user1");
+        profile.addFriend("user2", "Bob");
+        profile.addFriend("user3", "Carol");
+        when(socialProfileRepository.findById("user1")).thenReturn(Optional.of(profile));
+        when(friendNotificationService.getPresence(anyList())).thenReturn(List.of(
+                new PresenceUpdateMessage("user2", PresenceStatus.PLAYING, "LUDO"),
+                new PresenceUpdateMessage("user3", PresenceStatus.OFFLINE)));
+
+        // When
+        List<FriendDto> friends = friendRequestService.getFriends("user1");
+
+        // Then
+        Assert.assertEquals(friends, List.of(
+                new FriendDto("user2", "Bob", "PLAYING", null, "LUDO"),
+                new FriendDto("user3", "Carol", "OFFLINE", null, null)));
+        verify(presenceService, never()).isUserOnline(anyString());
+    }
+
     // ============================================================
     // NOTIFICATION PAYLOAD TESTS
     // ============================================================
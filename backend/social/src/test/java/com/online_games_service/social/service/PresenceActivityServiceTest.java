@@ -0,0 +1,104 @@
+package com.online_games_service.social.service;
+
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class PresenceActivityServiceTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private SetOperations<String, String> setOperations;
+    private PresenceActivityService presenceActivityService;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        // Run pipelined callbacks against the same mocked operations
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(redisTemplate);
+            return List.of();
+        });
+        presenceActivityService = new PresenceActivityService(redisTemplate);
+    }
+
+    @Test
+    public void shouldMarkPlayersPlayingInOnePipeline() {
+        // When
+        presenceActivityService.startGame("room1", "LUDO", List.of("user1", "user2"));
+
+        // Then
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(valueOperations).set("presence:playing:user1", "LUDO:room1", PresenceActivityService.ACTIVITY_TTL);
+        verify(valueOperations).set("presence:playing:user2", "LUDO:room1", PresenceActivityService.ACTIVITY_TTL);
+        verify(setOperations).add("presence:room-players:room1", "user1", "user2");
+        verify(redisTemplate).expire("presence:room-players:room1", PresenceActivityService.ACTIVITY_TTL);
+    }
+
+    @Test
+    public void shouldClearOnlyPlayersStillInFinishedRoom() {
+        // Given - user2 already started another game
+        when(setOperations.members("presence:room-players:room1"))
+                .thenReturn(new LinkedHashSet<>(List.of("user1", "user2", "user3")));
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("LUDO:room1", "MAKAO:room2", null));
+
+        // When
+        Set<String> finished = presenceActivityService.finishGame("room1");
+
+        // Then
+        Assert.assertEquals(finished, Set.of("user1"));
+        verify(redisTemplate).delete(List.of("presence:playing:user1", "presence:room-players:room1"));
+    }
+
+    @Test
+    public void shouldReturnNoPlayersForUnknownRoom() {
+        // Given
+        when(setOperations.members("presence:room-players:room1")).thenReturn(Set.of());
+
+        // When
+        Set<String> finished = presenceActivityService.finishGame("room1");
+
+        // Then
+        Assert.assertTrue(finished.isEmpty());
+        verify(redisTemplate, never()).delete(anyList());
+    }
+
+    @Test
+    public void shouldLookUpGameTypesWithOneMget() {
+        // Given
+        when(valueOperations.multiGet(List.of("presence:playing:user1", "presence:playing:user2")))
+                .thenReturn(Arrays.asList("MAKAO:room1", null));
+
+        // When
+        Map<String, String> gameTypes = presenceActivityService.getGameTypes(List.of("user1", "user2"));
+
+        // Then
+        Assert.assertEquals(gameTypes, Map.of("user1", "MAKAO"));
+    }
+
+    @Test
+    public void shouldHandleEmptyUserList() {
+        // When & Then
+        Assert.assertTrue(presenceActivityService.getGameTypes(List.of()).isEmpty());
+        verifyNoInteractions(valueOperations);
+    }
+}
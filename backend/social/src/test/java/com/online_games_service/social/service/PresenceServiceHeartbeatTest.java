@@ -0,0 +1,194 @@
+package com.online_games_service.social.service;
+
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PresenceServiceHeartbeatTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private PresenceService presenceService;
+    private long now;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        now = 1_000_000L;
+        redisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        // Run pipelined callbacks against the same mocked operations
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(redisTemplate);
+            return List.of();
+        });
+        presenceService = new PresenceService(redisTemplate);
+        presenceService.clock = () -> now;
+    }
+
+    @Test
+    public void shouldWriteFirstHeartbeatDirectly() {
+        // Given
+        when(zSetOperations.add(PresenceService.shardKey("user1"), "user1", 1_000_000d)).thenReturn(true);
+
+        // When
+        boolean reAdded = presenceService.refreshUserPresence("user1");
+
+        // Then
+        Assert.assertTrue(reAdded);
+        verify(zSetOperations).add(PresenceService.shardKey("user1"), "user1", 1_000_000d);
+    }
+
+    @Test
+    public void shouldReportWhetherDirectWriteReAddedUser() {
+        // Given - the user is still in the presence set
+        when(zSetOperations.add(anyString(), eq("user1"), anyDouble())).thenReturn(false);
+
+        // When / Then
+        Assert.assertFalse(presenceService.setUserOnline("user1"));
+        now += 34_500;
+        Assert.assertFalse(presenceService.refreshUserPresence("user1"));
+    }
+
+    @Test
+    public void shouldSkipHeartbeatWhileLastSeenHasHeadroom() {
+        // Given
+        presenceService.setUserOnline("user1");
+        now += 2_000;
+
+        // When
+        boolean reAdded = presenceService.refreshUserPresence("user1");
+
+        // Then
+        Assert.assertFalse(reAdded);
+        Assert.assertEquals(presenceService.flushHeartbeats(), 0);
+        verify(zSetOperations, times(1)).add(anyString(), anyString(), anyDouble());
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    public void shouldWriteBufferedHeartbeatsInOnePipeline() {
+        // Given - two users on the same shard and one on another
+        List<String> sameShard = sameShardUsers(2);
+        String otherShard = otherShardUser(sameShard.get(0));
+        for (String userId : List.of(sameShard.get(0), sameShard.get(1), otherShard)) {
+            presenceService.setUserOnline(userId);
+        }
+        now += 20_000;
+        sameShard.forEach(presenceService::refreshUserPresence);
+        presenceService.refreshUserPresence(otherShard);
+
+        // When
+        int flushed = presenceService.flushHeartbeats();
+
+        // Then
+        Assert.assertEquals(flushed, 3);
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        for (String userId : List.of(sameShard.get(0), sameShard.get(1), otherShard)) {
+            verify(zSetOperations).add(PresenceService.shardKey(userId), userId, 1_020_000d);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldAnnounceUsersAFlushReAdded() {
+        // Given - another replica removed the user after this one last wrote them
+        List<String> announced = new ArrayList<>();
+        presenceService.setOnlineAgainListener(announced::add);
+        presenceService.setUserOnline("user1");
+        now += 20_000;
+        Assert.assertFalse(presenceService.refreshUserPresence("user1"));
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(true), List.of(false));
+
+        // When
+        presenceService.flushHeartbeats();
+        now += 20_000;
+        presenceService.refreshUserPresence("user1");
+        presenceService.flushHeartbeats();
+
+        // Then - only the flush that re-added the user announces them
+        Assert.assertEquals(announced, List.of("user1"));
+    }
+
+    @Test
+    public void shouldWriteDirectlyWhenLastSeenIsAboutToExpire() {
+        // Given
+        presenceService.setUserOnline("user1");
+        now += 34_500;
+
+        // When
+        presenceService.refreshUserPresence("user1");
+
+        // Then
+        verify(zSetOperations).add(PresenceService.shardKey("user1"), "user1", 1_034_500d);
+        Assert.assertEquals(presenceService.flushHeartbeats(), 0);
+    }
+
+    @Test
+    public void shouldDropBufferedHeartbeatOfRemovedUser() {
+        // Given
+        presenceService.setUserOnline("user1");
+        now += 20_000;
+        presenceService.refreshUserPresence("user1");
+
+        // When
+        presenceService.removeUserOnline("user1");
+
+        // Then
+        Assert.assertEquals(presenceService.flushHeartbeats(), 0);
+        verify(zSetOperations).remove(PresenceService.shardKey("user1"), "user1");
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldWriteDirectlyAfterFailedFlushOnceHeadroomRunsOut() {
+        // Given
+        presenceService.setUserOnline("user1");
+        now += 20_000;
+        presenceService.refreshUserPresence("user1");
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        // When
+        int flushed = presenceService.flushHeartbeats();
+        now += 14_500;
+        presenceService.refreshUserPresence("user1");
+
+        // Then
+        Assert.assertEquals(flushed, 0);
+        verify(zSetOperations).add(PresenceService.shardKey("user1"), "user1", 1_034_500d);
+    }
+
+    private static List<String> sameShardUsers(int count) {
+        String first = "user0";
+        return IntStream.range(0, 1000)
+                .mapToObj(i -> "user" + i)
+                .filter(userId -> PresenceService.shardKey(userId).equals(PresenceService.shardKey(first)))
+                .limit(count)
+                .toList();
+    }
+
+    private static String otherShardUser(String userId) {
+        return IntStream.range(0, 1000)
+                .mapToObj(i -> "other" + i)
+                .filter(other -> !PresenceService.shardKey(other).equals(PresenceService.shardKey(userId)))
+                .findFirst()
+                .orElseThrow();
+    }
+}
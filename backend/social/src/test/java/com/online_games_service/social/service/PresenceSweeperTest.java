@@ -0,0 +1,127 @@
+package com.online_games_service.social.service;
+
+import com.online_games_service.social.config.SocialRedisConfig;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PresenceSweeperTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private FriendNotificationService friendNotificationService;
+    private PresenceSweeper sweeper;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        friendNotificationService = mock(FriendNotificationService.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(List.of());
+        sweeper = new PresenceSweeper(redisTemplate, friendNotificationService);
+        sweeper.clock = () -> NOW;
+    }
+
+    @Test
+    public void shouldNotifyFriendsOfExpiredUsers() {
+        // Given
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(PresenceService.shardKey(3))), any(), any()))
+                .thenReturn(List.of("user1", "user2"));
+
+        // When
+        int offline = sweeper.sweep();
+
+        // Then
+        Assert.assertEquals(offline, 2);
+        verify(friendNotificationService).notifyFriendsUserOffline("user1");
+        verify(friendNotificationService).notifyFriendsUserOffline("user2");
+    }
+
+    @Test
+    public void shouldRemoveUsersLastSeenBeforeTheTtl() {
+        // When
+        sweeper.sweep();
+
+        // Then
+        String cutoff = Long.toString(NOW - SocialRedisConfig.PRESENCE_TTL_SECONDS * 1000);
+        verify(redisTemplate, times(SocialRedisConfig.PRESENCE_SHARD_COUNT))
+                .execute(any(RedisScript.class), anyList(), eq(cutoff), any());
+    }
+
+    @Test
+    public void shouldSkipShardsClaimedByAnotherReplica() {
+        // Given
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.setIfAbsent(eq(PresenceSweeper.CLAIM_KEY_PREFIX + 5), anyString(), any(Duration.class)))
+                .thenReturn(true);
+
+        // When
+        sweeper.sweep();
+
+        // Then
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(PresenceService.shardKey(5))), any(), any());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any());
+    }
+
+    @Test
+    public void shouldKeepSweepingShardWhileBatchesAreFull() {
+        // Given
+        List<String> fullBatch = new ArrayList<>(IntStream.range(0, PresenceSweeper.SWEEP_BATCH)
+                .mapToObj(i -> "user" + i).toList());
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(PresenceService.shardKey(0))), any(), any()))
+                .thenReturn(fullBatch, List.of("last"));
+
+        // When
+        int offline = sweeper.sweep();
+
+        // Then
+        Assert.assertEquals(offline, PresenceSweeper.SWEEP_BATCH + 1);
+        verify(friendNotificationService).notifyFriendsUserOffline("last");
+    }
+
+    @Test
+    public void shouldContinueWhenNotificationFails() {
+        // Given
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(PresenceService.shardKey(0))), any(), any()))
+                .thenReturn(List.of("error_user", "user2"));
+        doThrow(new RuntimeException("Notification error")).when(friendNotificationService)
+                .notifyFriendsUserOffline("error_user");
+
+        // When - should not throw
+        sweeper.sweep();
+
+        // Then
+        verify(friendNotificationService).notifyFriendsUserOffline("user2");
+    }
+
+    @Test
+    public void shouldSpreadUsersOverShards() {
+        // When
+        long shards = IntStream.range(0, 1000)
+                .mapToObj(i -> PresenceService.shardKey("user" + i))
+                .distinct()
+                .count();
+
+        // Then
+        Assert.assertEquals(shards, SocialRedisConfig.PRESENCE_SHARD_COUNT);
+        Assert.assertEquals(PresenceService.shardKey("user1"), PresenceService.shardKey("user1"));
+    }
+}
@@ -1,6 +1,6 @@
 import { useState, useEffect, useCallback, useRef } from "react";
 import { useAuth } from "../../../../context/AuthContext";
-import type { GameStateMessage } from "../types";
+import type { GameStateDelta, GameStateMessage } from "../types";
 import makaoGameService from "../../../../services/makaoGameService";
 import SockJS from "sockjs-client";
 import * as StompJs from "stompjs";
@@ -43,6 +43,8 @@ export const useMakaoSocket = (): UseMakaoSocketReturn => {
   const timeoutSubscriptionRef = useRef<StompJs.Subscription | null>(null);
   const isMountedRef = useRef(true);
   const connectionIdRef = useRef(0); // Track connection attempts to avoid stale closures
+  const lastSeqRef = useRef<number | null>(null); // Sequence number of the last applied state message
+  const resyncPendingRef = useRef(false); // A snapshot was requested after a missed delta
 
   // Cleanup function to properly disconnect and clear subscriptions
   const cleanup = useCallback(() => {
@@ -148,14 +150,37 @@ export const useMakaoSocket = (): UseMakaoSocketReturn => {
               return;
             }
             try {
-              const data: GameStateMessage = JSON.parse(message.body);
+              const data: GameStateMessage | GameStateDelta = JSON.parse(message.body);
+              if ("type" in data && data.type === "STATE_DELTA") {
+                // A delta only applies on top of the message right before it; otherwise resync
+                if (lastSeqRef.current === null || data.seq !== lastSeqRef.current + 1) {
+                  lastSeqRef.current = null;
+                  if (!resyncPendingRef.current) {
+                    console.warn(`[Makao WS] Missed state update before seq ${data.seq}, requesting snapshot`);
+                    resyncPendingRef.current = true;
+                    makaoGameService.requestState().catch((err) => {
+                      console.warn("[Makao WS] Resync request failed:", err);
+                      resyncPendingRef.current = false;
+                    });
+                  }
+                  return;
+                }
+                lastSeqRef.current = data.seq;
+                setGameState((prev) => (prev ? { ...prev, ...data.changes } : prev));
+                setConnectionError(null);
+                return;
+              }
+
+              const snapshot = data as GameStateMessage;
               console.log("[Makao WS] Received game state update:", {
-                roomId: data.roomId,
-                status: data.status,
-                activePlayerId: data.activePlayerId,
-                playerCount: Object.keys(data.playersCardsAmount || {}).length,
+                roomId: snapshot.roomId,
+                status: snapshot.status,
+                activePlayerId: snapshot.activePlayerId,
+                playerCount: Object.keys(snapshot.playersCardsAmount || {}).length,
               });
-              setGameState(data);
+              lastSeqRef.current = snapshot.seq ?? null;
+              resyncPendingRef.current = false;
+              setGameState(snapshot);
               setConnectionError(null);
             } catch (err) {
               console.error("[Makao WS] Failed to parse game state message:", err);
@@ -244,6 +269,8 @@ export const useMakaoSocket = (): UseMakaoSocketReturn => {
   // Reset state (e.g., when leaving game or playing again)
   const resetState = useCallback(() => {
     console.log("[Makao WS] Resetting state");
+    lastSeqRef.current = null;
+    resyncPendingRef.current = false;
     setGameState(null);
     setConnectionError(null);
     setWasKickedByTimeout(false);
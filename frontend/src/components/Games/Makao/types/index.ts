@@ -66,6 +66,16 @@ export interface GameStateMessage {
   botThinkingPlayerId?: string | null;
   // Player turn order - list of player IDs in their turn order (human always first)
   playerOrder?: string[];
+  // Per-player sequence number; deltas continue from the last snapshot
+  seq?: number;
+}
+
+// Changes since the previous message, sent instead of a full GameStateMessage
+export interface GameStateDelta {
+  roomId: string;
+  seq: number;
+  changes: Partial<GameStateMessage>;
+  type: "STATE_DELTA";
 }
 
 // Request to play a card
@@ -38,7 +38,7 @@ export function ChatWidget({ isHost = false }: ChatWidgetProps) {
   const [typingUsers, setTypingUsers] = useState<Map<string, string>>(new Map());
   const [isLoadingHistory, setIsLoadingHistory] = useState(false);
   const [hasMoreHistory, setHasMoreHistory] = useState(false);
-  const [historyOffset, setHistoryOffset] = useState(0);
+  const [historyCursor, setHistoryCursor] = useState<string | null>(null);
   const [rateLimitedUntil, setRateLimitedUntil] = useState<number | null>(null);
   const [cooldownRemaining, setCooldownRemaining] = useState(0);
   const [contextMenu, setContextMenu] = useState<{
@@ -66,7 +66,7 @@ export function ChatWidget({ isHost = false }: ChatWidgetProps) {
 
     chatService.connectToLobby(currentLobby.id).then(() => {
       // Request initial history
-      chatService.requestHistory(0, 50);
+      chatService.requestHistory(null, 50);
     });
 
     return () => {
@@ -109,7 +109,7 @@ export function ChatWidget({ isHost = false }: ChatWidgetProps) {
         return [...newMessages, ...prev];
       });
       setHasMoreHistory(history.hasMore);
-      setHistoryOffset((prev) => prev + incomingMessages.length);
+      setHistoryCursor(history.nextCursor ?? null);
       setIsLoadingHistory(false);
     });
 
@@ -123,18 +123,14 @@ export function ChatWidget({ isHost = false }: ChatWidgetProps) {
       }
     });
 
-    const unsubTyping = chatService.onTyping((indicator: TypingIndicator) => {
-      if (indicator.userId === user?.id) return;
-
-      setTypingUsers((prev) => {
-        const next = new Map(prev);
-        if (indicator.isTyping) {
-          next.set(indicator.userId, indicator.username);
-        } else {
-          next.delete(indicator.userId);
-        }
-        return next;
-      });
+    const unsubTyping = chatService.onTyping((typing: TypingIndicator[]) => {
+      setTypingUsers(
+        new Map(
+          typing
+            .filter((indicator) => indicator.userId !== user?.id)
+            .map((indicator) => [indicator.userId, indicator.username])
+        )
+      );
     });
 
     return () => {
@@ -181,9 +177,9 @@ export function ChatWidget({ isHost = false }: ChatWidgetProps) {
     // Load more when scrolled to top
     if (container.scrollTop < 50) {
       setIsLoadingHistory(true);
-      chatService.requestHistory(historyOffset, 50);
+      chatService.requestHistory(historyCursor, 50);
     }
-  }, [isLoadingHistory, hasMoreHistory, historyOffset]);
+  }, [isLoadingHistory, hasMoreHistory, historyCursor]);
 
   const handleSend = () => {
     if (!inputValue.trim() || rateLimitedUntil) return;
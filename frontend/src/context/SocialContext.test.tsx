@@ -32,6 +32,7 @@ const TestConsumer = () => {
   return (
     <div>
       <div data-testid="friends-count">{friends.length}</div>
+      <div data-testid="friend-status">{friends[0]?.status}</div>
       <button onClick={() => sendFriendRequest("u2")}>Add</button>
       <button onClick={() => acceptFriendRequest("req1")}>AcceptReq</button>
       <button onClick={() => rejectFriendRequest("req1")}>RejectReq</button>
@@ -227,4 +228,27 @@ describe("SocialContext - Full Coverage", () => {
 
     expect(socialService.getFriends).toHaveBeenCalled();
   });
+
+  it("should apply the friends presence snapshot", async () => {
+    let snapshotCb: any;
+    (socialSocketService.subscribe as jest.Mock).mockImplementation(
+      (topic, cb) => {
+        if (topic === "/app/presence.friends") snapshotCb = cb;
+      }
+    );
+
+    await act(async () => {
+      render(
+        <SocialProvider>
+          <TestConsumer />
+        </SocialProvider>
+      );
+    });
+
+    await act(async () => {
+      snapshotCb({ friends: [{ userId: "f1", status: "PLAYING", gameType: "LUDO" }] });
+    });
+
+    expect(screen.getByTestId("friend-status").textContent).toBe("PLAYING");
+  });
 });
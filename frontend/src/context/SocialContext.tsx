@@ -1,6 +1,6 @@
 import React, { createContext, useContext, useEffect, useState, type ReactNode, useCallback } from 'react';
 import { useAuth } from './AuthContext';
-import { socialService, type Friend, type FriendRequest, type GameInvite } from '../services/socialService';
+import { socialService, type Friend, type FriendRequest, type GameInvite, type PresenceUpdate } from '../services/socialService';
 import { socialSocketService } from '../services/socialSocketService';
 import { useToast } from './ToastContext';
 
@@ -121,8 +121,8 @@ export const SocialProvider: React.FC<{ children: ReactNode }> = ({ children })
            }
         });
 
-        // Listen for presence updates (friends going online/offline)
-        socialSocketService.subscribe('/user/queue/presence', (presenceUpdate: { userId: string; status: 'ONLINE' | 'OFFLINE' }) => {
+        // Listen for presence updates (friends going online/offline/playing)
+        socialSocketService.subscribe('/user/queue/presence', (presenceUpdate: PresenceUpdate) => {
            if (!mounted) return;
            
            console.log('[SocialContext] Presence update:', presenceUpdate);
@@ -130,11 +130,22 @@ export const SocialProvider: React.FC<{ children: ReactNode }> = ({ children })
            // Update the friend's status in local state
            setFriends(prev => prev.map(friend => 
              friend.id === presenceUpdate.userId 
-               ? { ...friend, status: presenceUpdate.status }
+               ? { ...friend, status: presenceUpdate.status, gameType: presenceUpdate.gameType }
                : friend
            ));
         });
 
+        // Presence of all friends, sent once; later changes arrive as updates above
+        socialSocketService.subscribe('/app/presence.friends', (snapshot: { friends: PresenceUpdate[] }) => {
+           if (!mounted) return;
+
+           const presence = new Map(snapshot.friends.map(update => [update.userId, update]));
+           setFriends(prev => prev.map(friend => {
+             const update = presence.get(friend.id);
+             return update ? { ...friend, status: update.status, gameType: update.gameType } : friend;
+           }));
+        });
+
       } catch (err) {
         console.error('Social socket connection failed', err);
       }
@@ -4,6 +4,7 @@ import {
   ChatError,
   ChatHistoryResponse,
   TypingIndicator,
+  TypingStatus,
 } from "./chatService";
 import { socketService } from "./socketService";
 
@@ -144,23 +145,25 @@ describe("ChatService", () => {
       expect(handler).toHaveBeenCalledWith(mockHistory);
     });
 
-    it("should trigger typing handlers when a user starts typing", () => {
+    it("should trigger typing handlers with everyone typing on any replica", () => {
       const handler = jest.fn();
       chatService.onTyping(handler);
 
-      const mockIndicator: TypingIndicator = {
-        userId: "1",
-        username: "User",
-        isTyping: true,
-      };
+      const alice: TypingIndicator = { userId: "1", username: "Alice", isTyping: true };
+      const bob: TypingIndicator = { userId: "2", username: "Bob", isTyping: true };
       const typingCallback = (
         socketService.subscribe as jest.Mock
       ).mock.calls.find(
         (call) => call[0] === `/topic/room/${lobbyId}/typing`
       )[1];
 
-      typingCallback(mockIndicator);
-      expect(handler).toHaveBeenCalledWith(mockIndicator);
+      typingCallback({ source: "a", users: [alice], expiresInMs: 5000 } as TypingStatus);
+      typingCallback({ source: "b", users: [bob], expiresInMs: 5000 } as TypingStatus);
+      expect(handler).toHaveBeenLastCalledWith([alice, bob]);
+
+      typingCallback({ source: "a", users: [], expiresInMs: 5000 } as TypingStatus);
+      expect(handler).toHaveBeenLastCalledWith([bob]);
+      chatService.disconnect();
     });
   });
 
@@ -205,6 +208,17 @@ describe("ChatService", () => {
         { offset: 0, limit: 50 }
       );
     });
+
+    it("should request older chat history by cursor", async () => {
+      (socketService.connect as jest.Mock).mockResolvedValue(undefined);
+      await chatService.connectToLobby(lobbyId);
+
+      chatService.requestHistory("msg-42", 30);
+      expect(socketService.send).toHaveBeenCalledWith(
+        `/app/chat/${lobbyId}/history`,
+        { before: "msg-42", limit: 30 }
+      );
+    });
   });
 
   describe("Cleanup and Unsubscription", () => {
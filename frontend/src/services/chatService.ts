@@ -17,10 +17,11 @@ export interface ChatHistoryResponse {
   limit: number;
   hasMore: boolean;
   totalMessages: number;
+  nextCursor?: string | null;
 }
 
 export interface ChatError {
-  code: "RATE_LIMIT" | "NOT_IN_LOBBY" | "INVALID_MESSAGE";
+  code: "RATE_LIMIT" | "NOT_IN_LOBBY" | "INVALID_MESSAGE" | "UNAVAILABLE";
   message: string;
   retryAfter?: number;
 }
@@ -31,10 +32,17 @@ export interface TypingIndicator {
   isTyping: boolean;
 }
 
+/** Who is typing in the lobby according to one server replica. */
+export interface TypingStatus {
+  source: string;
+  users: TypingIndicator[];
+  expiresInMs: number;
+}
+
 type ChatMessageHandler = (message: ChatMessage) => void;
 type ChatErrorHandler = (error: ChatError) => void;
 type ChatHistoryHandler = (history: ChatHistoryResponse) => void;
-type TypingHandler = (indicator: TypingIndicator) => void;
+type TypingHandler = (typingUsers: TypingIndicator[]) => void;
 
 class ChatService {
   private lobbyId: string | null = null;
@@ -42,6 +50,8 @@ class ChatService {
   private errorHandlers: ChatErrorHandler[] = [];
   private historyHandlers: ChatHistoryHandler[] = [];
   private typingHandlers: TypingHandler[] = [];
+  private typingBySource = new Map<string, { users: TypingIndicator[]; expiresAt: number }>();
+  private typingExpiryTimer: ReturnType<typeof setTimeout> | null = null;
   private subscribed = false;
 
   /**
@@ -68,8 +78,12 @@ class ChatService {
       });
 
       // Subscribe to typing indicators
-      socketService.subscribe(`/topic/room/${lobbyId}/typing`, (indicator: TypingIndicator) => {
-        this.typingHandlers.forEach((handler) => handler(indicator));
+      socketService.subscribe(`/topic/room/${lobbyId}/typing`, (status: TypingStatus) => {
+        this.typingBySource.set(status.source, {
+          users: status.users,
+          expiresAt: Date.now() + status.expiresInMs,
+        });
+        this.emitTyping();
       });
 
       // Subscribe to user-specific error queue
@@ -112,12 +126,13 @@ class ChatService {
   }
 
   /**
-   * Request chat history
+   * Request chat history: the newest messages, or the ones sent before the `before` message id
    */
-  requestHistory(offset: number = 0, limit: number = 50): void {
+  requestHistory(before?: string | null, limit: number = 50): void {
     if (!this.lobbyId || !socketService) return;
 
-    socketService.send(`/app/chat/${this.lobbyId}/history`, { offset, limit });
+    const request = before ? { before, limit } : { offset: 0, limit };
+    socketService.send(`/app/chat/${this.lobbyId}/history`, request);
   }
 
   /**
@@ -160,6 +175,36 @@ class ChatService {
     };
   }
 
+  /**
+   * Notify typing handlers of everyone typing on any replica, dropping replicas that went quiet
+   */
+  private emitTyping(): void {
+    const now = Date.now();
+    const users = new Map<string, TypingIndicator>();
+    let nextExpiry = Infinity;
+    this.typingBySource.forEach((entry, source) => {
+      if (entry.expiresAt <= now) {
+        this.typingBySource.delete(source);
+        return;
+      }
+      entry.users.forEach((user) => users.set(user.userId, user));
+      if (entry.users.length > 0) {
+        nextExpiry = Math.min(nextExpiry, entry.expiresAt);
+      }
+    });
+
+    if (this.typingExpiryTimer) {
+      clearTimeout(this.typingExpiryTimer);
+      this.typingExpiryTimer = null;
+    }
+    if (nextExpiry !== Infinity) {
+      this.typingExpiryTimer = setTimeout(() => this.emitTyping(), nextExpiry - now);
+    }
+
+    const typingUsers = Array.from(users.values());
+    this.typingHandlers.forEach((handler) => handler(typingUsers));
+  }
+
   /**
    * Disconnect from chat
    */
@@ -176,6 +221,11 @@ class ChatService {
     this.errorHandlers = [];
     this.historyHandlers = [];
     this.typingHandlers = [];
+    this.typingBySource.clear();
+    if (this.typingExpiryTimer) {
+      clearTimeout(this.typingExpiryTimer);
+      this.typingExpiryTimer = null;
+    }
   }
 
   isConnected(): boolean {
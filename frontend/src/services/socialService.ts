@@ -8,6 +8,13 @@ export interface Friend {
   username: string;
   status: "ONLINE" | "OFFLINE" | "PLAYING";
   avatarUrl?: string;
+  gameType?: string;
+}
+
+export interface PresenceUpdate {
+  userId: string;
+  status: Friend["status"];
+  gameType?: string;
 }
 
 export interface FriendRequest {